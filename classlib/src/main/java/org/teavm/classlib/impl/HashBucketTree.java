@@ -0,0 +1,274 @@
+/*
+ *  Copyright 2026 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.classlib.impl;
+
+/**
+ * Balanced search tree that indexes the entries of a single hash table bucket. Hash maps build it
+ * when many keys of one {@link Comparable} class collide in a bucket, so that lookups in that bucket
+ * take a logarithmic number of {@code compareTo} calls instead of walking the whole chain.
+ * Entries are ordered by hash code first and by natural order next.
+ *
+ * <p>The tree does not replace the bucket chain, it only finds an entry by key. A key which compares
+ * equal to a found key is not necessarily equal to it, so the map still has to check the result
+ * with {@code equals}. When two keys of the bucket can't be told apart by hash code and natural order,
+ * {@link #add(int, Object, Object)} refuses the entry and the map falls back to the chain.</p>
+ *
+ * @param <E> type of the indexed entries.
+ */
+public final class HashBucketTree<E> {
+    private static final HashBucketTree<?> EMPTY = new HashBucketTree<>(null);
+    private final Class<?> keyClass;
+    private Node<E> root;
+    private int size;
+    private boolean conflict;
+
+    private HashBucketTree(Class<?> keyClass) {
+        this.keyClass = keyClass;
+    }
+
+    /**
+     * Creates a tree for keys of the same class as the given key.
+     *
+     * @return new empty tree, or {@code null} if keys of this class can't be compared to each other.
+     */
+    @SuppressWarnings("unchecked")
+    public static <E> HashBucketTree<E> create(Object key) {
+        if (!(key instanceof Comparable)) {
+            return null;
+        }
+        try {
+            if (((Comparable<Object>) key).compareTo(key) != 0) {
+                return null;
+            }
+        } catch (ClassCastException e) {
+            return null;
+        }
+        return new HashBucketTree<>(key.getClass());
+    }
+
+    /**
+     * Returns a tree that accepts no keys. Maps can store it for a bucket that failed to build a tree,
+     * to tell it from a bucket which was not tried yet.
+     */
+    @SuppressWarnings("unchecked")
+    public static <E> HashBucketTree<E> empty() {
+        return (HashBucketTree<E>) EMPTY;
+    }
+
+    public boolean accepts(Object key) {
+        return key != null && key.getClass() == keyClass;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Adds an entry to the tree.
+     *
+     * @return {@code false} if the key is not accepted by this tree or the tree already contains a key
+     * with the same hash code that compares equal to the given one. The tree must be discarded in this case.
+     */
+    public boolean add(int hash, Object key, E entry) {
+        if (!accepts(key)) {
+            return false;
+        }
+        conflict = false;
+        root = insert(root, new Node<>(hash, key, entry));
+        return !conflict;
+    }
+
+    /**
+     * Finds the entry whose key has the given hash code and compares equal to the given key.
+     * The key must be {@link #accepts(Object) accepted} by this tree.
+     */
+    public E find(int hash, Object key) {
+        var node = root;
+        while (node != null) {
+            int cmp = compare(hash, key, node);
+            if (cmp == 0) {
+                return node.entry;
+            }
+            node = cmp < 0 ? node.left : node.right;
+        }
+        return null;
+    }
+
+    /**
+     * Finds the entry that immediately precedes the given key in the order of this tree.
+     * The key must be {@link #accepts(Object) accepted} by this tree.
+     */
+    public E lower(int hash, Object key) {
+        Node<E> result = null;
+        var node = root;
+        while (node != null) {
+            if (compare(hash, key, node) > 0) {
+                result = node;
+                node = node.right;
+            } else {
+                node = node.left;
+            }
+        }
+        return result != null ? result.entry : null;
+    }
+
+    /**
+     * Writes all entries to the given array in the order of this tree.
+     */
+    public E[] entries(E[] array) {
+        collect(root, array, 0);
+        return array;
+    }
+
+    public void remove(int hash, Object key) {
+        if (accepts(key)) {
+            root = delete(root, hash, key);
+        }
+    }
+
+    private static <E> int collect(Node<E> node, E[] array, int index) {
+        while (node != null) {
+            index = collect(node.left, array, index);
+            array[index++] = node.entry;
+            node = node.right;
+        }
+        return index;
+    }
+
+    private Node<E> insert(Node<E> node, Node<E> newNode) {
+        if (node == null) {
+            size++;
+            return newNode;
+        }
+        int cmp = compare(newNode.hash, newNode.key, node);
+        if (cmp == 0) {
+            conflict = true;
+            return node;
+        }
+        if (cmp < 0) {
+            node.left = insert(node.left, newNode);
+        } else {
+            node.right = insert(node.right, newNode);
+        }
+        return balance(node);
+    }
+
+    private Node<E> delete(Node<E> node, int hash, Object key) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = compare(hash, key, node);
+        if (cmp < 0) {
+            node.left = delete(node.left, hash, key);
+        } else if (cmp > 0) {
+            node.right = delete(node.right, hash, key);
+        } else {
+            size--;
+            if (node.left == null) {
+                return node.right;
+            }
+            if (node.right == null) {
+                return node.left;
+            }
+            var successor = node.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            successor.right = deleteMin(node.right);
+            successor.left = node.left;
+            node = successor;
+        }
+        return balance(node);
+    }
+
+    private static <E> Node<E> deleteMin(Node<E> node) {
+        if (node.left == null) {
+            return node.right;
+        }
+        node.left = deleteMin(node.left);
+        return balance(node);
+    }
+
+    private static <E> Node<E> balance(Node<E> node) {
+        int leftHeight = height(node.left);
+        int rightHeight = height(node.right);
+        if (leftHeight > rightHeight + 1) {
+            var left = node.left;
+            if (height(left.right) > height(left.left)) {
+                node.left = rotateLeft(left);
+            }
+            return rotateRight(node);
+        }
+        if (rightHeight > leftHeight + 1) {
+            var right = node.right;
+            if (height(right.left) > height(right.right)) {
+                node.right = rotateRight(right);
+            }
+            return rotateLeft(node);
+        }
+        node.height = Math.max(leftHeight, rightHeight) + 1;
+        return node;
+    }
+
+    private static <E> Node<E> rotateLeft(Node<E> node) {
+        var right = node.right;
+        node.right = right.left;
+        right.left = node;
+        updateHeight(node);
+        updateHeight(right);
+        return right;
+    }
+
+    private static <E> Node<E> rotateRight(Node<E> node) {
+        var left = node.left;
+        node.left = left.right;
+        left.right = node;
+        updateHeight(node);
+        updateHeight(left);
+        return left;
+    }
+
+    private static void updateHeight(Node<?> node) {
+        node.height = Math.max(height(node.left), height(node.right)) + 1;
+    }
+
+    private static int height(Node<?> node) {
+        return node != null ? node.height : 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static int compare(int hash, Object key, Node<?> node) {
+        if (hash != node.hash) {
+            return hash < node.hash ? -1 : 1;
+        }
+        return ((Comparable<Object>) key).compareTo(node.key);
+    }
+
+    private static final class Node<E> {
+        final int hash;
+        final Object key;
+        final E entry;
+        Node<E> left;
+        Node<E> right;
+        int height = 1;
+
+        Node(int hash, Object key, E entry) {
+            this.hash = hash;
+            this.key = key;
+            this.entry = entry;
+        }
+    }
+}
@@ -26,7 +26,12 @@ import org.teavm.classlib.impl.currency.CurrencyHelper;
 import org.teavm.classlib.impl.lambda.LambdaMetafactorySubstitutor;
 import org.teavm.classlib.impl.record.ObjectMethodsSubstitutor;
 import org.teavm.classlib.impl.reflection.ReflectionTransformer;
+import org.teavm.classlib.impl.stream.StreamFusionTransformer;
+import org.teavm.classlib.impl.string.ConstantFormatTransformer;
+import org.teavm.classlib.impl.string.ConstantRegexTransformer;
 import org.teavm.classlib.impl.string.DefaultStringTransformer;
+import org.teavm.classlib.impl.string.JSStringBuilderInjector;
+import org.teavm.classlib.impl.string.JSStringBuilderTransformer;
 import org.teavm.classlib.impl.string.JSStringConstructorGenerator;
 import org.teavm.classlib.impl.string.JSStringInjector;
 import org.teavm.classlib.impl.string.JSStringTransformer;
@@ -47,6 +52,8 @@ import org.teavm.classlib.impl.unicode.LanguageMetadataGenerator;
 import org.teavm.classlib.impl.unicode.LikelySubtagsMetadataGenerator;
 import org.teavm.classlib.impl.unicode.NumberFormatMetadataGenerator;
 import org.teavm.classlib.impl.unicode.TimeZoneLocalizationGenerator;
+import org.teavm.classlib.impl.zip.NativeZlibGenerator;
+import org.teavm.classlib.impl.zip.NativeZlibIntrinsic;
 import org.teavm.classlib.java.lang.CharacterMetadataGenerator;
 import org.teavm.interop.PlatformMarker;
 import org.teavm.model.MethodReference;
@@ -158,6 +165,9 @@ public class JCLPlugin implements TeaVMPlugin {
 
         host.add(new NumericClassTransformer());
         host.add(new SystemClassTransformer());
+        host.add(new ConstantRegexTransformer());
+        host.add(new ConstantFormatTransformer());
+        host.add(new StreamFusionTransformer());
 
         host.add(new PlatformMarkerSupport(host.getPlatformTags()));
 
@@ -165,6 +175,8 @@ public class JCLPlugin implements TeaVMPlugin {
             TeaVMCHost cHost = host.getExtension(TeaVMCHost.class);
             if (cHost != null) {
                 cHost.addIntrinsic(context -> new DateTimeZoneProviderIntrinsic(context.getProperties()));
+                cHost.addIntrinsic(context -> new NativeZlibIntrinsic(context.getProperties()));
+                cHost.addGenerator(new NativeZlibGenerator());
             }
         }
 
@@ -183,7 +195,9 @@ public class JCLPlugin implements TeaVMPlugin {
         var js = host.getExtension(TeaVMJavaScriptHost.class);
         if (js != null) {
             host.add(new JSStringTransformer());
+            host.add(new JSStringBuilderTransformer());
             js.addInjectorProvider(new JSStringInjector());
+            js.addInjectorProvider(new JSStringBuilderInjector());
             js.add(new MethodReference(String.class, "<init>", Object.class, void.class),
                     new JSStringConstructorGenerator());
         } else {
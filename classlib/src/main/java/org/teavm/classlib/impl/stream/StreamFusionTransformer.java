@@ -0,0 +1,609 @@
+/*
+ *  Copyright 2026 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.classlib.impl.stream;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Collector;
+import java.util.stream.Stream;
+import org.teavm.model.BasicBlock;
+import org.teavm.model.ClassHierarchy;
+import org.teavm.model.ClassHolder;
+import org.teavm.model.ClassHolderTransformer;
+import org.teavm.model.ClassHolderTransformerContext;
+import org.teavm.model.Incoming;
+import org.teavm.model.Instruction;
+import org.teavm.model.MethodDescriptor;
+import org.teavm.model.MethodHolder;
+import org.teavm.model.MethodReference;
+import org.teavm.model.Phi;
+import org.teavm.model.Program;
+import org.teavm.model.TextLocation;
+import org.teavm.model.ValueType;
+import org.teavm.model.Variable;
+import org.teavm.model.instructions.ArrayElementType;
+import org.teavm.model.instructions.ArrayLengthInstruction;
+import org.teavm.model.instructions.AssignInstruction;
+import org.teavm.model.instructions.BinaryInstruction;
+import org.teavm.model.instructions.BinaryOperation;
+import org.teavm.model.instructions.BranchingCondition;
+import org.teavm.model.instructions.BranchingInstruction;
+import org.teavm.model.instructions.ConstructInstruction;
+import org.teavm.model.instructions.GetElementInstruction;
+import org.teavm.model.instructions.IntegerConstantInstruction;
+import org.teavm.model.instructions.InvocationType;
+import org.teavm.model.instructions.InvokeInstruction;
+import org.teavm.model.instructions.JumpInstruction;
+import org.teavm.model.instructions.LongConstantInstruction;
+import org.teavm.model.instructions.NumericOperandType;
+import org.teavm.model.instructions.UnwrapArrayInstruction;
+import org.teavm.model.util.BasicBlockSplitter;
+import org.teavm.model.util.UsageExtractor;
+
+/**
+ * Replaces local linear stream pipelines, like {@code list.stream().filter(p).map(f).collect(c)}, with plain
+ * loops. A pipeline starts with {@code Arrays.stream(T[])}, {@code Stream.of(T...)} or {@code stream()}
+ * of a class library collection, proceeds through any number of {@code map}, {@code filter} and {@code limit}
+ * with constant argument, and ends with {@code forEach}, {@code reduce(identity, op)} or
+ * {@code collect(collector)}.
+ * Every intermediate stream must only be consumed by the next step, and the whole pipeline must reside
+ * in a single basic block not covered by exception handlers.
+ *
+ * <p>Since functional objects are then called directly from the loop, devirtualization and inlining
+ * can resolve these calls, and scalar replacement eliminates lambda instances that no longer escape.
+ * Collections are traversed by their iterators, which is what {@code stream()} does for every
+ * collection of the class library. Since user collections may override {@code stream()}, collection is only
+ * considered a source when it's known to be created by the class library, i.e. by a constructor or a static
+ * factory method of a {@code java.util} class in the same method.</p>
+ */
+public class StreamFusionTransformer implements ClassHolderTransformer {
+    private static final String STREAM = Stream.class.getName();
+    private static final String COLLECTION = Collection.class.getName();
+    private static final MethodReference ARRAYS_STREAM = new MethodReference(Arrays.class, "stream",
+            Object[].class, Stream.class);
+    private static final MethodReference STREAM_OF = new MethodReference(Stream.class, "of",
+            Object[].class, Stream.class);
+    private static final MethodDescriptor COLLECTION_STREAM = new MethodDescriptor("stream", Stream.class);
+    private static final MethodDescriptor MAP = new MethodDescriptor("map", Function.class, Stream.class);
+    private static final MethodDescriptor FILTER = new MethodDescriptor("filter", Predicate.class, Stream.class);
+    private static final MethodDescriptor LIMIT = new MethodDescriptor("limit", long.class, Stream.class);
+    private static final MethodDescriptor FOR_EACH = new MethodDescriptor("forEach", Consumer.class, void.class);
+    private static final MethodDescriptor REDUCE = new MethodDescriptor("reduce", Object.class,
+            BinaryOperator.class, Object.class);
+    private static final MethodDescriptor COLLECT = new MethodDescriptor("collect", Collector.class,
+            Object.class);
+
+    private static final MethodReference ITERATOR = new MethodReference(Collection.class, "iterator",
+            Iterator.class);
+    private static final MethodReference HAS_NEXT = new MethodReference(Iterator.class, "hasNext", boolean.class);
+    private static final MethodReference NEXT = new MethodReference(Iterator.class, "next", Object.class);
+    private static final MethodReference APPLY = new MethodReference(Function.class, "apply",
+            Object.class, Object.class);
+    private static final MethodReference TEST = new MethodReference(Predicate.class, "test",
+            Object.class, boolean.class);
+    private static final MethodReference ACCEPT = new MethodReference(Consumer.class, "accept",
+            Object.class, void.class);
+    private static final MethodReference BINARY_APPLY = new MethodReference(BinaryOperator.class, "apply",
+            Object.class, Object.class, Object.class);
+    private static final MethodReference SUPPLIER = new MethodReference(Collector.class, "supplier",
+            Supplier.class);
+    private static final MethodReference GET = new MethodReference(Supplier.class, "get", Object.class);
+    private static final MethodReference ACCUMULATOR = new MethodReference(Collector.class, "accumulator",
+            BiConsumer.class);
+    private static final MethodReference BI_ACCEPT = new MethodReference(BiConsumer.class, "accept",
+            Object.class, Object.class, void.class);
+    private static final MethodReference FINISHER = new MethodReference(Collector.class, "finisher",
+            Function.class);
+
+    @Override
+    public void transformClass(ClassHolder cls, ClassHolderTransformerContext context) {
+        for (MethodHolder method : cls.getMethods()) {
+            if (method.getProgram() != null) {
+                transformProgram(method.getProgram(), context.getHierarchy());
+            }
+        }
+    }
+
+    private void transformProgram(Program program, ClassHierarchy hierarchy) {
+        Instruction[] definitions = null;
+        int[] usageCounts = null;
+        BasicBlockSplitter splitter = null;
+
+        int count = program.basicBlockCount();
+        for (int i = 0; i < count; ++i) {
+            BasicBlock next = program.basicBlockAt(i);
+            while (next != null) {
+                BasicBlock block = next;
+                next = null;
+                if (!block.getTryCatchBlocks().isEmpty()) {
+                    break;
+                }
+                for (Instruction insn : block) {
+                    if (!isTerminal(insn)) {
+                        continue;
+                    }
+                    if (definitions == null) {
+                        definitions = new Instruction[program.variableCount()];
+                        usageCounts = new int[program.variableCount()];
+                        collectDefinitionsAndUsages(program, definitions, usageCounts);
+                    }
+                    Pipeline pipeline = recognize((InvokeInstruction) insn, definitions, usageCounts, hierarchy);
+                    if (pipeline != null) {
+                        if (splitter == null) {
+                            splitter = new BasicBlockSplitter(program);
+                        }
+                        next = fuse(program, splitter, pipeline);
+                        break;
+                    }
+                }
+            }
+        }
+
+        if (splitter != null) {
+            splitter.fixProgram();
+        }
+    }
+
+    private static boolean isTerminal(Instruction insn) {
+        if (!(insn instanceof InvokeInstruction)) {
+            return false;
+        }
+        var invoke = (InvokeInstruction) insn;
+        if (invoke.getInstance() == null || !invoke.getMethod().getClassName().equals(STREAM)) {
+            return false;
+        }
+        var desc = invoke.getMethod().getDescriptor();
+        return desc.equals(FOR_EACH) || desc.equals(REDUCE) || desc.equals(COLLECT);
+    }
+
+    private static void collectDefinitionsAndUsages(Program program, Instruction[] definitions,
+            int[] usageCounts) {
+        var usageExtractor = new UsageExtractor();
+        for (BasicBlock block : program.getBasicBlocks()) {
+            for (Phi phi : block.getPhis()) {
+                for (Incoming incoming : phi.getIncomings()) {
+                    usageCounts[incoming.getValue().getIndex()]++;
+                }
+            }
+            for (Instruction insn : block) {
+                if (insn instanceof InvokeInstruction) {
+                    var receiver = ((InvokeInstruction) insn).getReceiver();
+                    if (receiver != null) {
+                        definitions[receiver.getIndex()] = insn;
+                    }
+                } else if (insn instanceof AssignInstruction) {
+                    definitions[((AssignInstruction) insn).getReceiver().getIndex()] = insn;
+                } else if (insn instanceof LongConstantInstruction) {
+                    definitions[((LongConstantInstruction) insn).getReceiver().getIndex()] = insn;
+                } else if (insn instanceof ConstructInstruction) {
+                    definitions[((ConstructInstruction) insn).getReceiver().getIndex()] = insn;
+                }
+                insn.acceptVisitor(usageExtractor);
+                for (Variable usedVar : usageExtractor.getUsedVariables()) {
+                    usageCounts[usedVar.getIndex()]++;
+                }
+            }
+            for (var tryCatch : block.getTryCatchBlocks()) {
+                if (tryCatch.getHandler() != null) {
+                    for (Phi phi : tryCatch.getHandler().getPhis()) {
+                        for (Incoming incoming : phi.getIncomings()) {
+                            if (incoming.getSource() == block) {
+                                usageCounts[incoming.getValue().getIndex()]++;
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private static Pipeline recognize(InvokeInstruction terminal, Instruction[] definitions, int[] usageCounts,
+            ClassHierarchy hierarchy) {
+        var block = terminal.getBasicBlock();
+        var pipeline = new Pipeline();
+        var stages = new ArrayList<InvokeInstruction>();
+        var stream = terminal.getInstance();
+        while (true) {
+            if (stream.getIndex() >= definitions.length || usageCounts[stream.getIndex()] != 1) {
+                return null;
+            }
+            var definition = definitions[stream.getIndex()];
+            if (definition == null || definition.getBasicBlock() != block) {
+                return null;
+            }
+            if (definition instanceof AssignInstruction) {
+                var copy = (AssignInstruction) definition;
+                pipeline.copies.add(copy);
+                stream = copy.getAssignee();
+                continue;
+            }
+            if (!(definition instanceof InvokeInstruction)) {
+                return null;
+            }
+            var invoke = (InvokeInstruction) definition;
+            if (isSource(invoke, definitions, hierarchy)) {
+                break;
+            }
+            if (invoke.getInstance() == null || !invoke.getMethod().getClassName().equals(STREAM)) {
+                return null;
+            }
+            var desc = invoke.getMethod().getDescriptor();
+            if (desc.equals(LIMIT)) {
+                var limit = invoke.getArguments().get(0);
+                if (limit.getIndex() >= definitions.length
+                        || !(definitions[limit.getIndex()] instanceof LongConstantInstruction)
+                        || ((LongConstantInstruction) definitions[limit.getIndex()]).getConstant() < 0) {
+                    return null;
+                }
+            } else if (!desc.equals(MAP) && !desc.equals(FILTER)) {
+                return null;
+            }
+            stages.add(invoke);
+            stream = invoke.getInstance();
+        }
+
+        pipeline.source = (InvokeInstruction) definitions[stream.getIndex()];
+        for (int i = stages.size() - 1; i >= 0; --i) {
+            pipeline.stages.add(stages.get(i));
+        }
+        pipeline.terminal = terminal;
+        return pipeline;
+    }
+
+    private static boolean isSource(InvokeInstruction invoke, Instruction[] definitions, ClassHierarchy hierarchy) {
+        var method = invoke.getMethod();
+        if (invoke.getInstance() == null) {
+            return method.equals(ARRAYS_STREAM) || method.equals(STREAM_OF);
+        }
+        return method.getDescriptor().equals(COLLECTION_STREAM)
+                && isClassLibraryCollection(invoke.getInstance(), definitions, hierarchy);
+    }
+
+    private static boolean isClassLibraryCollection(Variable collection, Instruction[] definitions,
+            ClassHierarchy hierarchy) {
+        while (true) {
+            if (collection.getIndex() >= definitions.length) {
+                return false;
+            }
+            var definition = definitions[collection.getIndex()];
+            if (definition instanceof AssignInstruction) {
+                collection = ((AssignInstruction) definition).getAssignee();
+            } else if (definition instanceof ConstructInstruction) {
+                return isClassLibraryCollection(((ConstructInstruction) definition).getType(), hierarchy);
+            } else if (definition instanceof InvokeInstruction) {
+                var invoke = (InvokeInstruction) definition;
+                if (invoke.getInstance() != null || !invoke.getMethod().getClassName().startsWith("java.util.")) {
+                    return false;
+                }
+                var returnType = invoke.getMethod().getReturnType();
+                return returnType instanceof ValueType.Object
+                        && isClassLibraryCollection(((ValueType.Object) returnType).getClassName(), hierarchy);
+            } else {
+                return false;
+            }
+        }
+    }
+
+    private static boolean isClassLibraryCollection(String className, ClassHierarchy hierarchy) {
+        return className.startsWith("java.util.") && hierarchy.isSuperType(COLLECTION, className, false);
+    }
+
+    private BasicBlock fuse(Program program, BasicBlockSplitter splitter, Pipeline pipeline) {
+        var terminal = pipeline.terminal;
+        var location = terminal.getLocation();
+        var source = pipeline.source;
+
+        Variable array = null;
+        Variable length = null;
+        if (source.getInstance() == null) {
+            array = program.createVariable();
+            var unwrap = new UnwrapArrayInstruction(ArrayElementType.OBJECT);
+            unwrap.setArray(source.getArguments().get(0));
+            unwrap.setReceiver(array);
+            unwrap.setLocation(source.getLocation());
+            source.insertPrevious(unwrap);
+
+            length = program.createVariable();
+            var arrayLength = new ArrayLengthInstruction();
+            arrayLength.setArray(source.getArguments().get(0));
+            arrayLength.setReceiver(length);
+            arrayLength.setLocation(source.getLocation());
+            source.insertPrevious(arrayLength);
+        }
+        source.delete();
+        for (var stage : pipeline.stages) {
+            stage.delete();
+        }
+        for (var copy : pipeline.copies) {
+            copy.delete();
+        }
+
+        var block = terminal.getBasicBlock();
+        var exit = splitter.split(block, terminal);
+        terminal.delete();
+
+        // Splitter redirects all incomings from the original block to its last part,
+        // so loop phis should refer to a separate block
+        var entry = program.createBasicBlock();
+        var jumpToEntry = new JumpInstruction();
+        jumpToEntry.setTarget(entry);
+        jumpToEntry.setLocation(location);
+        block.add(jumpToEntry);
+
+        var loop = new LoopBuilder(program, location, exit);
+        loop.block = entry;
+
+        var desc = terminal.getMethod().getDescriptor();
+        Variable iterator = null;
+        if (array != null) {
+            loop.indexSlot = loop.addState(loop.intConstant(0));
+        } else {
+            iterator = loop.invoke(ITERATOR, source.getInstance());
+        }
+        int[] limitSlots = new int[pipeline.stages.size()];
+        boolean hasFilters = false;
+        for (int i = 0; i < pipeline.stages.size(); ++i) {
+            var stageDesc = pipeline.stages.get(i).getMethod().getDescriptor();
+            if (stageDesc.equals(LIMIT)) {
+                limitSlots[i] = loop.addState(loop.longConstant(0));
+            } else if (stageDesc.equals(FILTER)) {
+                hasFilters = true;
+            }
+        }
+        Variable container = null;
+        Variable accumulator = null;
+        if (desc.equals(REDUCE)) {
+            loop.accumulatorSlot = loop.addState(terminal.getArguments().get(0));
+        } else if (desc.equals(COLLECT)) {
+            var supplier = loop.invoke(SUPPLIER, terminal.getArguments().get(0));
+            container = loop.invoke(GET, supplier);
+            accumulator = loop.invoke(ACCUMULATOR, terminal.getArguments().get(0));
+        }
+
+        var header = program.createBasicBlock();
+        loop.jump(header);
+        var headerValues = loop.createPhis(header);
+        loop.block = header;
+        loop.values = headerValues.clone();
+
+        for (int i = 0; i < pipeline.stages.size(); ++i) {
+            var stage = pipeline.stages.get(i);
+            if (stage.getMethod().getDescriptor().equals(LIMIT)) {
+                var compare = loop.binary(BinaryOperation.COMPARE_LESS, NumericOperandType.LONG,
+                        loop.values[limitSlots[i]], stage.getArguments().get(0));
+                loop.branch(BranchingCondition.LESS, compare, exit);
+            }
+        }
+
+        Variable element;
+        if (array != null) {
+            var index = loop.values[loop.indexSlot];
+            var compare = loop.binary(BinaryOperation.COMPARE_GREATER, NumericOperandType.INT, index, length);
+            loop.branch(BranchingCondition.LESS, compare, exit);
+            element = program.createVariable();
+            var getElement = new GetElementInstruction(ArrayElementType.OBJECT);
+            getElement.setArray(array);
+            getElement.setIndex(index);
+            getElement.setReceiver(element);
+            loop.add(getElement);
+            loop.values[loop.indexSlot] = loop.binary(BinaryOperation.ADD, NumericOperandType.INT, index,
+                    loop.intConstant(1));
+        } else {
+            var hasNext = loop.invoke(HAS_NEXT, iterator);
+            loop.branch(BranchingCondition.NOT_EQUAL, hasNext, exit);
+            element = loop.invoke(NEXT, iterator);
+        }
+
+        var continueBlock = hasFilters ? program.createBasicBlock() : null;
+        for (int i = 0; i < pipeline.stages.size(); ++i) {
+            var stage = pipeline.stages.get(i);
+            var stageDesc = stage.getMethod().getDescriptor();
+            if (stageDesc.equals(MAP)) {
+                element = loop.invoke(APPLY, stage.getArguments().get(0), element);
+            } else if (stageDesc.equals(FILTER)) {
+                var accepted = loop.invoke(TEST, stage.getArguments().get(0), element);
+                loop.branch(BranchingCondition.NOT_EQUAL, accepted, continueBlock);
+            } else {
+                loop.values[limitSlots[i]] = loop.binary(BinaryOperation.ADD, NumericOperandType.LONG,
+                        loop.values[limitSlots[i]], loop.longConstant(1));
+            }
+        }
+
+        if (desc.equals(FOR_EACH)) {
+            loop.invokeVoid(ACCEPT, terminal.getArguments().get(0), element);
+        } else if (desc.equals(REDUCE)) {
+            loop.values[loop.accumulatorSlot] = loop.invoke(BINARY_APPLY, terminal.getArguments().get(1),
+                    loop.values[loop.accumulatorSlot], element);
+        } else {
+            loop.invokeVoid(BI_ACCEPT, accumulator, container, element);
+        }
+
+        if (continueBlock != null) {
+            loop.jump(continueBlock);
+            loop.values = loop.createPhis(continueBlock);
+            loop.block = continueBlock;
+        }
+        loop.jump(header);
+        for (int i = 0; i < headerValues.length; ++i) {
+            var incoming = new Incoming();
+            incoming.setSource(loop.block);
+            incoming.setValue(loop.values[i]);
+            header.getPhis().get(i).getIncomings().add(incoming);
+        }
+
+        var exitInstructions = new ArrayList<Instruction>();
+        if (desc.equals(REDUCE) && terminal.getReceiver() != null) {
+            var assign = new AssignInstruction();
+            assign.setAssignee(headerValues[loop.accumulatorSlot]);
+            assign.setReceiver(terminal.getReceiver());
+            exitInstructions.add(assign);
+        } else if (desc.equals(COLLECT)) {
+            var finisher = program.createVariable();
+            exitInstructions.add(createInvoke(FINISHER, finisher, terminal.getArguments().get(0)));
+            var result = terminal.getReceiver() != null ? terminal.getReceiver() : program.createVariable();
+            exitInstructions.add(createInvoke(APPLY, result, finisher, container));
+        }
+        for (var insn : exitInstructions) {
+            insn.setLocation(location);
+        }
+        exit.addFirstAll(exitInstructions);
+
+        return exit;
+    }
+
+    private static InvokeInstruction createInvoke(MethodReference method, Variable receiver, Variable instance,
+            Variable... arguments) {
+        var invoke = new InvokeInstruction();
+        invoke.setType(InvocationType.VIRTUAL);
+        invoke.setMethod(method);
+        invoke.setInstance(instance);
+        invoke.setArguments(arguments);
+        invoke.setReceiver(receiver);
+        return invoke;
+    }
+
+    static class Pipeline {
+        InvokeInstruction source;
+        List<InvokeInstruction> stages = new ArrayList<>();
+        List<AssignInstruction> copies = new ArrayList<>();
+        InvokeInstruction terminal;
+    }
+
+    /**
+     * Emits loop code into the current block. Values of variables carried between iterations
+     * are tracked in {@link #values} and merged with phis at the loop header and continue block.
+     */
+    static class LoopBuilder {
+        final Program program;
+        final TextLocation location;
+        final BasicBlock exit;
+        BasicBlock block;
+        Variable[] values = new Variable[0];
+        List<BasicBlock> predecessors = new ArrayList<>();
+        List<Variable[]> predecessorValues = new ArrayList<>();
+        int indexSlot = -1;
+        int accumulatorSlot = -1;
+
+        LoopBuilder(Program program, TextLocation location, BasicBlock exit) {
+            this.program = program;
+            this.location = location;
+            this.exit = exit;
+        }
+
+        int addState(Variable initialValue) {
+            values = Arrays.copyOf(values, values.length + 1);
+            values[values.length - 1] = initialValue;
+            return values.length - 1;
+        }
+
+        void add(Instruction insn) {
+            insn.setLocation(location);
+            block.add(insn);
+        }
+
+        Variable intConstant(int value) {
+            var insn = new IntegerConstantInstruction();
+            insn.setConstant(value);
+            insn.setReceiver(program.createVariable());
+            add(insn);
+            return insn.getReceiver();
+        }
+
+        Variable longConstant(long value) {
+            var insn = new LongConstantInstruction();
+            insn.setConstant(value);
+            insn.setReceiver(program.createVariable());
+            add(insn);
+            return insn.getReceiver();
+        }
+
+        Variable binary(BinaryOperation operation, NumericOperandType type, Variable first, Variable second) {
+            var insn = new BinaryInstruction(operation, type);
+            insn.setFirstOperand(first);
+            insn.setSecondOperand(second);
+            insn.setReceiver(program.createVariable());
+            add(insn);
+            return insn.getReceiver();
+        }
+
+        Variable invoke(MethodReference method, Variable instance, Variable... arguments) {
+            var receiver = program.createVariable();
+            add(createInvoke(method, receiver, instance, arguments));
+            return receiver;
+        }
+
+        void invokeVoid(MethodReference method, Variable instance, Variable... arguments) {
+            add(createInvoke(method, null, instance, arguments));
+        }
+
+        /**
+         * Continues in a new block if condition holds for the operand, otherwise jumps to the target.
+         * Values of loop variables are recorded for edges that do not leave the loop.
+         */
+        void branch(BranchingCondition condition, Variable operand, BasicBlock target) {
+            var next = program.createBasicBlock();
+            var insn = new BranchingInstruction(condition);
+            insn.setOperand(operand);
+            insn.setConsequent(next);
+            insn.setAlternative(target);
+            add(insn);
+            if (target != exit) {
+                predecessors.add(block);
+                predecessorValues.add(values.clone());
+            }
+            block = next;
+        }
+
+        void jump(BasicBlock target) {
+            var insn = new JumpInstruction();
+            insn.setTarget(target);
+            add(insn);
+            predecessors.add(block);
+            predecessorValues.add(values.clone());
+        }
+
+        /**
+         * Creates phis in the target for edges recorded so far, and forgets these edges.
+         */
+        Variable[] createPhis(BasicBlock target) {
+            var result = new Variable[values.length];
+            for (int i = 0; i < values.length; ++i) {
+                var phi = new Phi();
+                phi.setReceiver(program.createVariable());
+                for (int j = 0; j < predecessors.size(); ++j) {
+                    var incoming = new Incoming();
+                    incoming.setSource(predecessors.get(j));
+                    incoming.setValue(predecessorValues.get(j)[i]);
+                    phi.getIncomings().add(incoming);
+                }
+                target.getPhis().add(phi);
+                result[i] = phi.getReceiver();
+            }
+            predecessors.clear();
+            predecessorValues.clear();
+            return result;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ *  Copyright 2026 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.classlib.impl.string;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Formattable;
+import java.util.Formatter;
+import java.util.IllegalFormatConversionException;
+import java.util.List;
+import java.util.MissingFormatArgumentException;
+
+public final class ConstantFormat {
+    private ConstantFormat() {
+    }
+
+    /**
+     * Splits format string into literal text pieces (represented by {@link String}) and conversions
+     * (represented by {@link Character}, either {@code 's'} or {@code 'd'}).
+     *
+     * @return list of pieces or {@code null} if the format string contains anything but
+     * {@code %s}, {@code %d} and {@code %%} without flags, width, precision or explicit argument index.
+     */
+    public static List<Object> parse(String format) {
+        List<Object> pieces = new ArrayList<>();
+        StringBuilder text = new StringBuilder();
+        int index = 0;
+        while (true) {
+            int next = format.indexOf('%', index);
+            if (next < 0) {
+                text.append(format, index, format.length());
+                break;
+            }
+            text.append(format, index, next);
+            if (next + 1 >= format.length()) {
+                return null;
+            }
+            char conversion = format.charAt(next + 1);
+            switch (conversion) {
+                case '%':
+                    text.append('%');
+                    break;
+                case 's':
+                case 'd':
+                    if (text.length() > 0) {
+                        pieces.add(text.toString());
+                        text.setLength(0);
+                    }
+                    pieces.add(conversion);
+                    break;
+                default:
+                    return null;
+            }
+            index = next + 2;
+        }
+        if (text.length() > 0) {
+            pieces.add(text.toString());
+        }
+        return pieces;
+    }
+
+    public static void appendString(StringBuilder sb, Object[] args, int index) {
+        Object arg = argument(args, index, "%s");
+        if (arg instanceof Formattable) {
+            ((Formattable) arg).formatTo(new Formatter(sb), 0, -1, -1);
+        } else {
+            sb.append(arg);
+        }
+    }
+
+    public static void appendDecimal(StringBuilder sb, Object[] args, int index) {
+        Object arg = argument(args, index, "%d");
+        if (arg instanceof Long) {
+            sb.append((long) (Long) arg);
+        } else if (arg instanceof Integer || arg instanceof Byte || arg instanceof Short) {
+            sb.append(((Number) arg).intValue());
+        } else if (arg == null || arg instanceof BigInteger) {
+            sb.append(arg);
+        } else {
+            throw new IllegalFormatConversionException('d', arg.getClass());
+        }
+    }
+
+    private static Object argument(Object[] args, int index, String specifier) {
+        if (args == null) {
+            return null;
+        }
+        if (index >= args.length) {
+            throw new MissingFormatArgumentException(specifier);
+        }
+        return args[index];
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ *  Copyright 2026 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.classlib.impl.string;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.teavm.model.BasicBlock;
+import org.teavm.model.ClassHolder;
+import org.teavm.model.ClassHolderTransformer;
+import org.teavm.model.ClassHolderTransformerContext;
+import org.teavm.model.Instruction;
+import org.teavm.model.MethodDescriptor;
+import org.teavm.model.MethodHolder;
+import org.teavm.model.MethodReference;
+import org.teavm.model.Program;
+import org.teavm.model.Variable;
+import org.teavm.model.instructions.ConstructInstruction;
+import org.teavm.model.instructions.IntegerConstantInstruction;
+import org.teavm.model.instructions.InvocationType;
+import org.teavm.model.instructions.InvokeInstruction;
+import org.teavm.model.instructions.StringConstantInstruction;
+
+/**
+ * Replaces calls like {@code String.format("id=%d, name=%s", args)} or {@code "%s: %d".formatted(args)},
+ * where format string is a constant consisting only of {@code %s}, {@code %d} and {@code %%} conversions,
+ * with a sequence of appends to {@link StringBuilder}, so that the format string is neither parsed at run time
+ * nor interpreted by {@link java.util.Formatter}.
+ */
+public class ConstantFormatTransformer implements ClassHolderTransformer {
+    private static final String STRING = "java.lang.String";
+    private static final MethodDescriptor FORMAT = new MethodDescriptor("format", String.class, Object[].class,
+            String.class);
+    private static final MethodDescriptor FORMATTED = new MethodDescriptor("formatted", Object[].class,
+            String.class);
+    private static final MethodReference BUILDER_INIT = new MethodReference(StringBuilder.class, "<init>",
+            void.class);
+    private static final MethodReference APPEND = new MethodReference(StringBuilder.class, "append",
+            String.class, StringBuilder.class);
+    private static final MethodReference TO_STRING = new MethodReference(StringBuilder.class, "toString",
+            String.class);
+    private static final MethodReference APPEND_STRING = new MethodReference(ConstantFormat.class, "appendString",
+            StringBuilder.class, Object[].class, int.class, void.class);
+    private static final MethodReference APPEND_DECIMAL = new MethodReference(ConstantFormat.class,
+            "appendDecimal", StringBuilder.class, Object[].class, int.class, void.class);
+
+    @Override
+    public void transformClass(ClassHolder cls, ClassHolderTransformerContext context) {
+        for (MethodHolder method : cls.getMethods()) {
+            if (method.getProgram() != null) {
+                transformProgram(method.getProgram());
+            }
+        }
+    }
+
+    private void transformProgram(Program program) {
+        Map<Variable, String> constants = null;
+        for (BasicBlock block : program.getBasicBlocks()) {
+            for (Instruction insn : block) {
+                if (insn instanceof StringConstantInstruction) {
+                    if (constants == null) {
+                        constants = new HashMap<>();
+                    }
+                    var constant = (StringConstantInstruction) insn;
+                    constants.put(constant.getReceiver(), constant.getConstant());
+                }
+            }
+        }
+        if (constants == null) {
+            return;
+        }
+
+        for (BasicBlock block : program.getBasicBlocks()) {
+            for (Instruction insn : block) {
+                if (!(insn instanceof InvokeInstruction)) {
+                    continue;
+                }
+                var invoke = (InvokeInstruction) insn;
+                var method = invoke.getMethod();
+                if (!method.getClassName().equals(STRING)) {
+                    continue;
+                }
+                if (invoke.getInstance() == null && method.getDescriptor().equals(FORMAT)) {
+                    var format = constants.get(invoke.getArguments().get(0));
+                    if (format != null) {
+                        transformFormat(program, invoke, format, invoke.getArguments().get(1));
+                    }
+                } else if (invoke.getInstance() != null && method.getDescriptor().equals(FORMATTED)) {
+                    var format = constants.get(invoke.getInstance());
+                    if (format != null) {
+                        transformFormat(program, invoke, format, invoke.getArguments().get(0));
+                    }
+                }
+            }
+        }
+    }
+
+    private void transformFormat(Program program, InvokeInstruction invoke, String format, Variable args) {
+        var pieces = ConstantFormat.parse(format);
+        if (pieces == null) {
+            return;
+        }
+
+        var construct = new ConstructInstruction();
+        construct.setType(StringBuilder.class.getName());
+        construct.setReceiver(program.createVariable());
+        construct.setLocation(invoke.getLocation());
+        invoke.insertPrevious(construct);
+        var builder = construct.getReceiver();
+
+        var init = new InvokeInstruction();
+        init.setType(InvocationType.SPECIAL);
+        init.setMethod(BUILDER_INIT);
+        init.setInstance(builder);
+        init.setLocation(invoke.getLocation());
+        invoke.insertPrevious(init);
+
+        int argumentIndex = 0;
+        for (var piece : pieces) {
+            var append = new InvokeInstruction();
+            append.setLocation(invoke.getLocation());
+            if (piece instanceof String) {
+                var text = new StringConstantInstruction();
+                text.setConstant((String) piece);
+                text.setReceiver(program.createVariable());
+                text.setLocation(invoke.getLocation());
+                invoke.insertPrevious(text);
+
+                append.setType(InvocationType.VIRTUAL);
+                append.setMethod(APPEND);
+                append.setInstance(builder);
+                append.setArguments(text.getReceiver());
+            } else {
+                var index = new IntegerConstantInstruction();
+                index.setConstant(argumentIndex++);
+                index.setReceiver(program.createVariable());
+                index.setLocation(invoke.getLocation());
+                invoke.insertPrevious(index);
+
+                append.setType(InvocationType.SPECIAL);
+                append.setMethod((Character) piece == 'd' ? APPEND_DECIMAL : APPEND_STRING);
+                append.setArguments(builder, args, index.getReceiver());
+            }
+            invoke.insertPrevious(append);
+        }
+
+        var toString = new InvokeInstruction();
+        toString.setType(InvocationType.VIRTUAL);
+        toString.setMethod(TO_STRING);
+        toString.setInstance(builder);
+        toString.setReceiver(invoke.getReceiver());
+        toString.setLocation(invoke.getLocation());
+        invoke.replace(toString);
+    }
+}
@@ -0,0 +1,348 @@
+/*
+ *  Copyright 2026 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.classlib.impl.string;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.teavm.model.AccessLevel;
+import org.teavm.model.BasicBlock;
+import org.teavm.model.ClassHolder;
+import org.teavm.model.ClassHolderTransformer;
+import org.teavm.model.ClassHolderTransformerContext;
+import org.teavm.model.ClassReaderSource;
+import org.teavm.model.ElementModifier;
+import org.teavm.model.Instruction;
+import org.teavm.model.MethodDescriptor;
+import org.teavm.model.MethodHolder;
+import org.teavm.model.MethodReference;
+import org.teavm.model.Program;
+import org.teavm.model.ValueType;
+import org.teavm.model.Variable;
+import org.teavm.model.instructions.IntegerConstantInstruction;
+import org.teavm.model.instructions.InvocationType;
+import org.teavm.model.instructions.InvokeInstruction;
+import org.teavm.model.instructions.StringConstantInstruction;
+
+/**
+ * Replaces calls to regex-based methods of {@link String} that take constant literal patterns,
+ * like {@code s.split(",")} or {@code s.replaceAll("::", ".")}, with their non-regex counterparts.
+ * Other constant patterns passed to {@link Pattern#compile(String)}, {@link Pattern#matches(String, CharSequence)}
+ * or regex-based methods of {@link String} are compiled at build time, and calls are replaced with a synthetic
+ * method that builds compiled pattern directly, see {@link PrecompiledPattern}.
+ * When all calls in the application are rewritten, the regex compiler is not included into output.
+ */
+public class ConstantRegexTransformer implements ClassHolderTransformer {
+    private static final String STRING = "java.lang.String";
+    private static final String PATTERN = Pattern.class.getName();
+    private static final MethodReference MATCHER = new MethodReference(Pattern.class, "matcher",
+            CharSequence.class, Matcher.class);
+    private static final MethodReference PATTERN_SPLIT = new MethodReference(Pattern.class, "split",
+            CharSequence.class, int.class, String[].class);
+    private static final MethodReference SPLIT = new MethodReference(LiteralRegex.class, "split",
+            String.class, char.class, int.class, String[].class);
+    private static final MethodReference REPLACE = new MethodReference(String.class, "replace",
+            CharSequence.class, CharSequence.class, String.class);
+
+    @Override
+    public void transformClass(ClassHolder cls, ClassHolderTransformerContext context) {
+        var factories = new Factories(cls, context.getHierarchy().getClassSource());
+        for (MethodHolder method : cls.getMethods()) {
+            if (method.getProgram() != null) {
+                transformProgram(method.getProgram(), factories);
+            }
+        }
+        for (var factory : factories.created) {
+            cls.addMethod(factory);
+        }
+    }
+
+    private void transformProgram(Program program, Factories factories) {
+        Map<Variable, String> constants = null;
+        Map<Variable, Integer> intConstants = new HashMap<>();
+        for (BasicBlock block : program.getBasicBlocks()) {
+            for (Instruction insn : block) {
+                if (insn instanceof StringConstantInstruction) {
+                    if (constants == null) {
+                        constants = new HashMap<>();
+                    }
+                    var constant = (StringConstantInstruction) insn;
+                    constants.put(constant.getReceiver(), constant.getConstant());
+                } else if (insn instanceof IntegerConstantInstruction) {
+                    var constant = (IntegerConstantInstruction) insn;
+                    intConstants.put(constant.getReceiver(), constant.getConstant());
+                }
+            }
+        }
+        if (constants == null) {
+            return;
+        }
+
+        for (BasicBlock block : program.getBasicBlocks()) {
+            for (Instruction insn : block) {
+                if (!(insn instanceof InvokeInstruction)) {
+                    continue;
+                }
+                var invoke = (InvokeInstruction) insn;
+                var className = invoke.getMethod().getClassName();
+                if (className.equals(PATTERN) && invoke.getInstance() == null) {
+                    transformPatternMethod(program, invoke, constants, intConstants, factories);
+                    continue;
+                }
+                if (invoke.getInstance() == null || !className.equals(STRING)) {
+                    continue;
+                }
+                switch (invoke.getMethod().getName()) {
+                    case "split":
+                        if (!transformSplit(program, invoke, constants)) {
+                            transformPatternSplit(program, invoke, constants, factories);
+                        }
+                        break;
+                    case "replaceAll":
+                        if (!transformReplaceAll(invoke, constants)) {
+                            transformReplace(program, invoke, constants, factories);
+                        }
+                        break;
+                    case "replaceFirst":
+                        transformReplace(program, invoke, constants, factories);
+                        break;
+                    case "matches":
+                        if (invoke.getArguments().size() == 1) {
+                            transformMatches(program, invoke, invoke.getInstance(), constants, factories);
+                        }
+                        break;
+                }
+            }
+        }
+    }
+
+    private boolean transformSplit(Program program, InvokeInstruction invoke, Map<Variable, String> constants) {
+        if (!isSplit(invoke.getMethod().getDescriptor())) {
+            return false;
+        }
+        var regex = constants.get(invoke.getArguments().get(0));
+        if (regex == null) {
+            return false;
+        }
+        int separator = LiteralRegex.singleChar(regex);
+        if (separator < 0) {
+            return false;
+        }
+
+        var separatorConstant = new IntegerConstantInstruction();
+        separatorConstant.setConstant(separator);
+        separatorConstant.setReceiver(program.createVariable());
+        separatorConstant.setLocation(invoke.getLocation());
+        invoke.insertPrevious(separatorConstant);
+
+        var replacement = new InvokeInstruction();
+        replacement.setType(InvocationType.SPECIAL);
+        replacement.setMethod(SPLIT);
+        replacement.setArguments(invoke.getInstance(), separatorConstant.getReceiver(), splitLimit(program, invoke));
+        replacement.setReceiver(invoke.getReceiver());
+        replacement.setLocation(invoke.getLocation());
+        invoke.replace(replacement);
+        return true;
+    }
+
+    private static boolean isSplit(MethodDescriptor desc) {
+        return desc.parameterCount() >= 1 && desc.parameterCount() <= 2 && desc.parameterType(0).isObject(String.class)
+                && (desc.parameterCount() == 1 || desc.parameterType(1) == ValueType.INTEGER);
+    }
+
+    private static Variable splitLimit(Program program, InvokeInstruction invoke) {
+        if (invoke.getArguments().size() == 2) {
+            return invoke.getArguments().get(1);
+        }
+        var limitConstant = new IntegerConstantInstruction();
+        limitConstant.setReceiver(program.createVariable());
+        limitConstant.setLocation(invoke.getLocation());
+        invoke.insertPrevious(limitConstant);
+        return limitConstant.getReceiver();
+    }
+
+    private boolean transformReplaceAll(InvokeInstruction invoke, Map<Variable, String> constants) {
+        if (invoke.getArguments().size() != 2) {
+            return false;
+        }
+        var regex = constants.get(invoke.getArguments().get(0));
+        var replacement = constants.get(invoke.getArguments().get(1));
+        if (regex == null || replacement == null || regex.isEmpty() || !LiteralRegex.isLiteral(regex)
+                || !LiteralRegex.isLiteralReplacement(replacement)) {
+            return false;
+        }
+        invoke.setMethod(REPLACE);
+        return true;
+    }
+
+    private void transformPatternMethod(Program program, InvokeInstruction invoke, Map<Variable, String> constants,
+            Map<Variable, Integer> intConstants, Factories factories) {
+        var desc = invoke.getMethod().getDescriptor();
+        var arguments = invoke.getArguments();
+        if (arguments.isEmpty() || !desc.parameterType(0).isObject(String.class)) {
+            return;
+        }
+        switch (invoke.getMethod().getName()) {
+            case "compile": {
+                int flags = 0;
+                if (arguments.size() == 2 && desc.parameterType(1) == ValueType.INTEGER) {
+                    var flagsConstant = intConstants.get(arguments.get(1));
+                    if (flagsConstant == null) {
+                        return;
+                    }
+                    flags = flagsConstant;
+                } else if (arguments.size() != 1) {
+                    return;
+                }
+                var factory = factories.get(constants.get(arguments.get(0)), flags);
+                if (factory != null) {
+                    invoke.setMethod(factory);
+                    invoke.setArguments();
+                }
+                break;
+            }
+            case "matches":
+                if (arguments.size() == 2) {
+                    transformMatches(program, invoke, arguments.get(1), constants, factories);
+                }
+                break;
+        }
+    }
+
+    private void transformMatches(Program program, InvokeInstruction invoke, Variable input,
+            Map<Variable, String> constants, Factories factories) {
+        var factory = factories.get(constants.get(invoke.getArguments().get(0)), 0);
+        if (factory == null) {
+            return;
+        }
+        var matcher = invokeMatcher(program, invoke, factory, input);
+        var matches = new InvokeInstruction();
+        matches.setType(InvocationType.VIRTUAL);
+        matches.setMethod(new MethodReference(Matcher.class, "matches", boolean.class));
+        matches.setInstance(matcher);
+        matches.setReceiver(invoke.getReceiver());
+        matches.setLocation(invoke.getLocation());
+        invoke.replace(matches);
+    }
+
+    private void transformReplace(Program program, InvokeInstruction invoke, Map<Variable, String> constants,
+            Factories factories) {
+        if (invoke.getArguments().size() != 2) {
+            return;
+        }
+        var factory = factories.get(constants.get(invoke.getArguments().get(0)), 0);
+        if (factory == null) {
+            return;
+        }
+        var name = invoke.getMethod().getName();
+        var matcher = invokeMatcher(program, invoke, factory, invoke.getInstance());
+        var replace = new InvokeInstruction();
+        replace.setType(InvocationType.VIRTUAL);
+        replace.setMethod(new MethodReference(Matcher.class, name, String.class, String.class));
+        replace.setInstance(matcher);
+        replace.setArguments(invoke.getArguments().get(1));
+        replace.setReceiver(invoke.getReceiver());
+        replace.setLocation(invoke.getLocation());
+        invoke.replace(replace);
+    }
+
+    private void transformPatternSplit(Program program, InvokeInstruction invoke, Map<Variable, String> constants,
+            Factories factories) {
+        if (!isSplit(invoke.getMethod().getDescriptor())) {
+            return;
+        }
+        var factory = factories.get(constants.get(invoke.getArguments().get(0)), 0);
+        if (factory == null) {
+            return;
+        }
+        var pattern = invokeFactory(program, invoke, factory);
+        var split = new InvokeInstruction();
+        split.setType(InvocationType.VIRTUAL);
+        split.setMethod(PATTERN_SPLIT);
+        split.setInstance(pattern);
+        split.setArguments(invoke.getInstance(), splitLimit(program, invoke));
+        split.setReceiver(invoke.getReceiver());
+        split.setLocation(invoke.getLocation());
+        invoke.replace(split);
+    }
+
+    private static Variable invokeMatcher(Program program, InvokeInstruction invoke, MethodReference factory,
+            Variable input) {
+        var matcher = new InvokeInstruction();
+        matcher.setType(InvocationType.VIRTUAL);
+        matcher.setMethod(MATCHER);
+        matcher.setInstance(invokeFactory(program, invoke, factory));
+        matcher.setArguments(input);
+        matcher.setReceiver(program.createVariable());
+        matcher.setLocation(invoke.getLocation());
+        invoke.insertPrevious(matcher);
+        return matcher.getReceiver();
+    }
+
+    private static Variable invokeFactory(Program program, InvokeInstruction invoke, MethodReference factory) {
+        var call = new InvokeInstruction();
+        call.setType(InvocationType.SPECIAL);
+        call.setMethod(factory);
+        call.setReceiver(program.createVariable());
+        call.setLocation(invoke.getLocation());
+        invoke.insertPrevious(call);
+        return call.getReceiver();
+    }
+
+    // Every call creates new instance of pattern, as Pattern.compile does, so that identity of patterns is preserved
+    private static class Factories {
+        private final ClassHolder cls;
+        private final ClassReaderSource classSource;
+        private final Map<String, MethodReference> byPattern = new HashMap<>();
+        private final List<MethodHolder> created = new ArrayList<>();
+
+        Factories(ClassHolder cls, ClassReaderSource classSource) {
+            this.cls = cls;
+            this.classSource = classSource;
+        }
+
+        MethodReference get(String regex, int flags) {
+            if (regex == null) {
+                return null;
+            }
+            var key = flags + ":" + regex;
+            if (byPattern.containsKey(key)) {
+                return byPattern.get(key);
+            }
+            var program = PrecompiledPattern.create(classSource, regex, flags);
+            MethodReference result = null;
+            if (program != null) {
+                var index = byPattern.size();
+                MethodDescriptor descriptor;
+                do {
+                    descriptor = new MethodDescriptor("regex$" + index++, ValueType.object(PATTERN));
+                } while (cls.getMethod(descriptor) != null);
+                var method = new MethodHolder(descriptor);
+                method.setLevel(AccessLevel.PRIVATE);
+                method.getModifiers().add(ElementModifier.STATIC);
+                method.getModifiers().add(ElementModifier.SYNTHETIC);
+                method.setProgram(program);
+                created.add(method);
+                result = new MethodReference(cls.getName(), descriptor);
+            }
+            byPattern.put(key, result);
+            return result;
+        }
+    }
+}
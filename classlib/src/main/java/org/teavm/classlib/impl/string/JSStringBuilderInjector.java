@@ -0,0 +1,158 @@
+/*
+ *  Copyright 2026 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.classlib.impl.string;
+
+import java.util.function.Function;
+import org.teavm.backend.javascript.ProviderContext;
+import org.teavm.backend.javascript.spi.Injector;
+import org.teavm.backend.javascript.spi.InjectorContext;
+import org.teavm.model.FieldReference;
+import org.teavm.model.MethodReference;
+
+public class JSStringBuilderInjector implements Injector, Function<ProviderContext, Injector> {
+    static final String BUILDER_CLASS = "java.lang.AbstractStringBuilder";
+    static final FieldReference PREFIX_FIELD = new FieldReference(BUILDER_CLASS, "nativePrefix");
+
+    @Override
+    public Injector apply(ProviderContext providerContext) {
+        var method = providerContext.getMethod();
+        if (!method.getClassName().equals(BUILDER_CLASS)) {
+            return null;
+        }
+        switch (method.getName()) {
+            case "nativePrefix":
+            case "setNativePrefix":
+            case "nativeString":
+            case "nativeLength":
+            case "nativeCharAt":
+            case "nativeConcat":
+            case "nativeSubstring":
+            case "nativeChars":
+            case "nativeGetChars":
+                return this;
+        }
+        return null;
+    }
+
+    @Override
+    public void generate(InjectorContext context, MethodReference methodRef) {
+        switch (methodRef.getName()) {
+            case "nativePrefix":
+                nativePrefix(context);
+                break;
+            case "setNativePrefix":
+                setNativePrefix(context);
+                break;
+            case "nativeString":
+                nativeString(context);
+                break;
+            case "nativeLength":
+                nativeLength(context);
+                break;
+            case "nativeCharAt":
+                nativeCharAt(context);
+                break;
+            case "nativeConcat":
+                nativeConcat(context);
+                break;
+            case "nativeSubstring":
+                nativeSubstring(context);
+                break;
+            case "nativeChars":
+                nativeChars(context);
+                break;
+            case "nativeGetChars":
+                nativeGetChars(context);
+                break;
+        }
+    }
+
+    private void nativePrefix(InjectorContext context) {
+        var writer = context.getWriter();
+        context.writeExpr(context.getArgument(0));
+        writer.append(".").appendField(PREFIX_FIELD);
+    }
+
+    private void setNativePrefix(InjectorContext context) {
+        var writer = context.getWriter();
+        context.writeExpr(context.getArgument(0));
+        writer.append(".").appendField(PREFIX_FIELD).ws().append("=").ws();
+        context.writeExpr(context.getArgument(1));
+    }
+
+    private void nativeString(InjectorContext context) {
+        var writer = context.getWriter();
+        context.writeExpr(context.getArgument(0));
+        writer.append(".").appendField(JSStringInjector.NATIVE_FIELD);
+    }
+
+    private void nativeLength(InjectorContext context) {
+        var writer = context.getWriter();
+        context.writeExpr(context.getArgument(0));
+        writer.append(".length");
+    }
+
+    private void nativeCharAt(InjectorContext context) {
+        var writer = context.getWriter();
+        context.writeExpr(context.getArgument(0));
+        writer.append(".charCodeAt(");
+        context.writeExpr(context.getArgument(1));
+        writer.append(")");
+    }
+
+    private void nativeConcat(InjectorContext context) {
+        var writer = context.getWriter();
+        writer.append("(");
+        context.writeExpr(context.getArgument(0));
+        writer.ws().append("+").ws();
+        context.writeExpr(context.getArgument(1));
+        writer.append(")");
+    }
+
+    private void nativeSubstring(InjectorContext context) {
+        var writer = context.getWriter();
+        context.writeExpr(context.getArgument(0));
+        writer.append(".substring(");
+        context.writeExpr(context.getArgument(1));
+        writer.append(",").ws();
+        context.writeExpr(context.getArgument(2));
+        writer.append(")");
+    }
+
+    private void nativeChars(InjectorContext context) {
+        var writer = context.getWriter();
+        writer.appendFunction("$rt_charArrayToString").append("(");
+        context.writeExpr(context.getArgument(0));
+        writer.append(".data,").ws().append("0,").ws();
+        context.writeExpr(context.getArgument(1));
+        writer.append(")");
+    }
+
+    private void nativeGetChars(InjectorContext context) {
+        var writer = context.getWriter();
+        writer.appendFunction("$rt_stringToCharArray").append("(");
+        context.writeExpr(context.getArgument(0));
+        writer.append(",").ws();
+        context.writeExpr(context.getArgument(1));
+        writer.append(",").ws();
+        context.writeExpr(context.getArgument(2));
+        writer.append(".data,").ws();
+        context.writeExpr(context.getArgument(3));
+        writer.append(",").ws();
+        context.writeExpr(context.getArgument(4));
+        writer.append(")");
+    }
+}
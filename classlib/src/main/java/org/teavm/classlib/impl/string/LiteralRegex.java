@@ -0,0 +1,86 @@
+/*
+ *  Copyright 2026 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.classlib.impl.string;
+
+import java.util.ArrayList;
+
+public final class LiteralRegex {
+    private static final String META_CHARS = ".$|()[{^?*+\\";
+
+    private LiteralRegex() {
+    }
+
+    public static int singleChar(String regex) {
+        char c;
+        if (regex.length() == 1) {
+            c = regex.charAt(0);
+            if (META_CHARS.indexOf(c) >= 0) {
+                return -1;
+            }
+        } else if (regex.length() == 2 && regex.charAt(0) == '\\') {
+            c = regex.charAt(1);
+            if (isAsciiLetterOrDigit(c)) {
+                return -1;
+            }
+        } else {
+            return -1;
+        }
+        return Character.isSurrogate(c) ? -1 : c;
+    }
+
+    public static boolean isLiteral(String regex) {
+        for (int i = 0; i < regex.length(); ++i) {
+            char c = regex.charAt(i);
+            if (META_CHARS.indexOf(c) >= 0 || c == ']' || c == '}' || Character.isSurrogate(c)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static boolean isLiteralReplacement(String replacement) {
+        return replacement.indexOf('\\') < 0 && replacement.indexOf('$') < 0;
+    }
+
+    private static boolean isAsciiLetterOrDigit(char c) {
+        return c >= '0' && c <= '9' || c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z';
+    }
+
+    public static String[] split(String input, char separator, int limit) {
+        if (input.isEmpty()) {
+            return new String[] { "" };
+        }
+        var result = new ArrayList<String>();
+        int start = 0;
+        while (limit <= 0 || result.size() + 1 < limit) {
+            int next = input.indexOf(separator, start);
+            if (next < 0) {
+                break;
+            }
+            result.add(input.substring(start, next));
+            start = next + 1;
+        }
+        result.add(input.substring(start));
+
+        int size = result.size();
+        if (limit == 0) {
+            while (size > 0 && result.get(size - 1).isEmpty()) {
+                --size;
+            }
+        }
+        return result.subList(0, size).toArray(new String[size]);
+    }
+}
@@ -0,0 +1,451 @@
+/*
+ *  Copyright 2026 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.classlib.impl.string;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import org.teavm.classlib.java.util.regex.TPattern;
+import org.teavm.model.BasicBlock;
+import org.teavm.model.ClassReaderSource;
+import org.teavm.model.FieldReference;
+import org.teavm.model.MethodReference;
+import org.teavm.model.Program;
+import org.teavm.model.ValueType;
+import org.teavm.model.Variable;
+import org.teavm.model.instructions.ArrayElementType;
+import org.teavm.model.instructions.ConstructArrayInstruction;
+import org.teavm.model.instructions.ConstructInstruction;
+import org.teavm.model.instructions.DoubleConstantInstruction;
+import org.teavm.model.instructions.ExitInstruction;
+import org.teavm.model.instructions.FloatConstantInstruction;
+import org.teavm.model.instructions.IntegerConstantInstruction;
+import org.teavm.model.instructions.InvocationType;
+import org.teavm.model.instructions.InvokeInstruction;
+import org.teavm.model.instructions.LongConstantInstruction;
+import org.teavm.model.instructions.NullConstantInstruction;
+import org.teavm.model.instructions.PutElementInstruction;
+import org.teavm.model.instructions.PutFieldInstruction;
+import org.teavm.model.instructions.StringConstantInstruction;
+import org.teavm.model.instructions.UnwrapArrayInstruction;
+
+/**
+ * Compiles a regular expression at build time with the class library implementation of {@link TPattern}
+ * and produces a program that rebuilds the resulting node graph field by field, so that neither
+ * the lexer nor the parser of regular expressions are needed at run time.
+ */
+final class PrecompiledPattern {
+    private static final String REGEX_PACKAGE = TPattern.class.getPackageName() + ".T";
+    private static final String TARGET_PACKAGE = "java.util.regex.";
+    private static final int UNSUPPORTED_FLAGS = TPattern.UNICODE_CASE | TPattern.CANON_EQ;
+    private static final int MAX_OBJECTS = 512;
+    private static final int MAX_ELEMENTS = 4096;
+    private static final Class<?> EMPTY_MAP = Collections.emptyMap().getClass();
+    private static final Class<?> UNMODIFIABLE_MAP = Collections.unmodifiableMap(new HashMap<>()).getClass();
+
+    private final ClassReaderSource classSource;
+    private final Program program = new Program();
+    private final BasicBlock block;
+    private final Map<Object, Variable> objects = new IdentityHashMap<>();
+    private final Queue<Object> objectsToFill = new ArrayDeque<>();
+    private int elementCount;
+
+    private PrecompiledPattern(ClassReaderSource classSource) {
+        this.classSource = classSource;
+        program.createVariable();
+        block = program.createBasicBlock();
+    }
+
+    /**
+     * Produces body of a static method that takes no arguments and returns pattern equivalent
+     * to {@code Pattern.compile(regex, flags)}.
+     *
+     * @return the program, or {@code null} if pattern is malformed, uses features that depend on Unicode
+     * tables of the build JVM, or its node graph is too big or contains unknown objects.
+     */
+    static Program create(ClassReaderSource classSource, String regex, int flags) {
+        if ((flags & UNSUPPORTED_FLAGS) != 0 || hasInlineUnicodeCase(regex)) {
+            return null;
+        }
+        TPattern pattern;
+        try {
+            pattern = TPattern.compile(regex, flags);
+        } catch (RuntimeException e) {
+            return null;
+        }
+        try {
+            return new PrecompiledPattern(classSource).emit(pattern);
+        } catch (UnsupportedObjectException e) {
+            return null;
+        }
+    }
+
+    private static boolean hasInlineUnicodeCase(String regex) {
+        int index = 0;
+        while (true) {
+            index = regex.indexOf("(?", index);
+            if (index < 0) {
+                return false;
+            }
+            index += 2;
+            while (index < regex.length()) {
+                char c = regex.charAt(index);
+                if (c == 'u') {
+                    return true;
+                }
+                if (c != '-' && !Character.isLetter(c)) {
+                    break;
+                }
+                ++index;
+            }
+        }
+    }
+
+    private Program emit(TPattern pattern) {
+        var result = emitValue(pattern);
+        while (!objectsToFill.isEmpty()) {
+            fill(objectsToFill.remove());
+        }
+        var exit = new ExitInstruction();
+        exit.setValueToReturn(result);
+        block.add(exit);
+        return program;
+    }
+
+    private Variable emitValue(Object value) {
+        if (value == null) {
+            var insn = new NullConstantInstruction();
+            insn.setReceiver(program.createVariable());
+            block.add(insn);
+            return insn.getReceiver();
+        } else if (value instanceof String) {
+            return emitString((String) value);
+        } else if (value instanceof Integer) {
+            return emitInvoke(InvocationType.SPECIAL, new MethodReference(Integer.class, "valueOf",
+                    int.class, Integer.class), null, emitConstant(value, ValueType.INTEGER));
+        }
+
+        var variable = objects.get(value);
+        if (variable == null) {
+            if (objects.size() >= MAX_OBJECTS) {
+                throw new UnsupportedObjectException();
+            }
+            variable = create(value);
+            objects.put(value, variable);
+            objectsToFill.add(value);
+        }
+        return variable;
+    }
+
+    private Variable create(Object value) {
+        var cls = value.getClass();
+        if (cls.isArray()) {
+            var length = Array.getLength(value);
+            elementCount += length;
+            checkElementCount();
+            var insn = new ConstructArrayInstruction();
+            insn.setItemType(mapType(cls.getComponentType()));
+            insn.setSize(emitConstant(length, ValueType.INTEGER));
+            insn.setReceiver(program.createVariable());
+            block.add(insn);
+            return insn.getReceiver();
+        } else if (cls == BitSet.class) {
+            return emitConstruct(new MethodReference(BitSet.class, "<init>", void.class));
+        } else if (cls == ArrayList.class) {
+            return emitConstruct(new MethodReference(ArrayList.class, "<init>", void.class));
+        } else if (cls == StringBuilder.class) {
+            return emitConstruct(new MethodReference(StringBuilder.class, "<init>", String.class, void.class),
+                    emitString(value.toString()));
+        } else if (cls == EMPTY_MAP) {
+            return emitInvoke(InvocationType.SPECIAL, new MethodReference(Collections.class, "emptyMap",
+                    Map.class), null);
+        } else if (cls == HashMap.class || cls == LinkedHashMap.class || cls == UNMODIFIABLE_MAP) {
+            return createMap((Map<?, ?>) value);
+        } else if (cls.getName().startsWith(REGEX_PACKAGE) && !cls.isSynthetic()) {
+            var insn = new ConstructInstruction();
+            insn.setType(mapClassName(cls));
+            insn.setReceiver(program.createVariable());
+            block.add(insn);
+            return insn.getReceiver();
+        } else {
+            throw new UnsupportedObjectException();
+        }
+    }
+
+    private void fill(Object value) {
+        var cls = value.getClass();
+        var variable = objects.get(value);
+        if (cls.isArray()) {
+            fillArray(variable, value);
+        } else if (cls == BitSet.class) {
+            var bits = (BitSet) value;
+            var method = new MethodReference(BitSet.class, "set", int.class, int.class, void.class);
+            for (int start = bits.nextSetBit(0); start >= 0; start = bits.nextSetBit(start)) {
+                int end = bits.nextClearBit(start);
+                ++elementCount;
+                checkElementCount();
+                emitInvoke(InvocationType.VIRTUAL, method, variable, emitConstant(start, ValueType.INTEGER),
+                        emitConstant(end, ValueType.INTEGER));
+                start = end;
+            }
+        } else if (cls == ArrayList.class) {
+            var method = new MethodReference(ArrayList.class, "add", Object.class, boolean.class);
+            for (var item : (ArrayList<?>) value) {
+                emitInvoke(InvocationType.VIRTUAL, method, variable, emitValue(item));
+            }
+        } else if (cls.getName().startsWith(REGEX_PACKAGE)) {
+            fillFields(variable, value);
+        }
+    }
+
+    private void fillArray(Variable array, Object value) {
+        var itemType = value.getClass().getComponentType();
+        var elementType = arrayElementType(itemType);
+        UnwrapArrayInstruction unwrap = null;
+        var length = Array.getLength(value);
+        for (int i = 0; i < length; ++i) {
+            var item = Array.get(value, i);
+            Variable itemVar;
+            if (itemType.isPrimitive()) {
+                if (isDefault(item)) {
+                    continue;
+                }
+                itemVar = emitConstant(item, mapType(itemType));
+            } else {
+                if (item == null) {
+                    continue;
+                }
+                itemVar = emitValue(item);
+            }
+            if (unwrap == null) {
+                unwrap = new UnwrapArrayInstruction(elementType);
+                unwrap.setArray(array);
+                unwrap.setReceiver(program.createVariable());
+                block.add(unwrap);
+            }
+            var insn = new PutElementInstruction(elementType);
+            insn.setArray(unwrap.getReceiver());
+            insn.setIndex(emitConstant(i, ValueType.INTEGER));
+            insn.setValue(itemVar);
+            block.add(insn);
+        }
+    }
+
+    // Maps only hold names of groups, so they are built at once, without waiting for referenced objects
+    private Variable createMap(Map<?, ?> value) {
+        var map = emitConstruct(new MethodReference(LinkedHashMap.class, "<init>", void.class));
+        var method = new MethodReference(LinkedHashMap.class, "put", Object.class, Object.class, Object.class);
+        for (var entry : value.entrySet()) {
+            if (!isPlainValue(entry.getKey()) || !isPlainValue(entry.getValue())) {
+                throw new UnsupportedObjectException();
+            }
+            emitInvoke(InvocationType.VIRTUAL, method, map, emitValue(entry.getKey()), emitValue(entry.getValue()));
+        }
+        if (value.getClass() == UNMODIFIABLE_MAP) {
+            map = emitInvoke(InvocationType.SPECIAL, new MethodReference(Collections.class, "unmodifiableMap",
+                    Map.class, Map.class), null, map);
+        }
+        return map;
+    }
+
+    private static boolean isPlainValue(Object value) {
+        return value instanceof String || value instanceof Integer;
+    }
+
+    private void fillFields(Variable instance, Object value) {
+        for (var cls = value.getClass(); cls != Object.class; cls = cls.getSuperclass()) {
+            if (!cls.getName().startsWith(REGEX_PACKAGE)) {
+                throw new UnsupportedObjectException();
+            }
+            var className = mapClassName(cls);
+            var classReader = classSource.get(className);
+            if (classReader == null) {
+                throw new UnsupportedObjectException();
+            }
+            for (var field : cls.getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers())) {
+                    continue;
+                }
+                var fieldReader = classReader.getField(field.getName());
+                if (fieldReader == null) {
+                    throw new UnsupportedObjectException();
+                }
+                var fieldValue = readField(field, value);
+                Variable fieldVar;
+                if (field.getType().isPrimitive()) {
+                    if (isDefault(fieldValue)) {
+                        continue;
+                    }
+                    fieldVar = emitConstant(fieldValue, fieldReader.getType());
+                } else {
+                    if (fieldValue == null) {
+                        continue;
+                    }
+                    fieldVar = emitValue(fieldValue);
+                }
+                var insn = new PutFieldInstruction();
+                insn.setInstance(instance);
+                insn.setField(new FieldReference(className, field.getName()));
+                insn.setFieldType(fieldReader.getType());
+                insn.setValue(fieldVar);
+                block.add(insn);
+            }
+        }
+    }
+
+    private static Object readField(Field field, Object instance) {
+        try {
+            field.setAccessible(true);
+            return field.get(instance);
+        } catch (IllegalAccessException | RuntimeException e) {
+            throw new UnsupportedObjectException();
+        }
+    }
+
+    private static boolean isDefault(Object value) {
+        if (value instanceof Boolean) {
+            return !(Boolean) value;
+        } else if (value instanceof Character) {
+            return (Character) value == 0;
+        } else if (value instanceof Float) {
+            return Float.floatToRawIntBits((Float) value) == 0;
+        } else if (value instanceof Double) {
+            return Double.doubleToRawLongBits((Double) value) == 0;
+        } else {
+            return ((Number) value).longValue() == 0;
+        }
+    }
+
+    private Variable emitConstant(Object value, ValueType type) {
+        var receiver = program.createVariable();
+        if (value instanceof Long) {
+            var insn = new LongConstantInstruction();
+            insn.setConstant((Long) value);
+            insn.setReceiver(receiver);
+            block.add(insn);
+        } else if (value instanceof Float) {
+            var insn = new FloatConstantInstruction();
+            insn.setConstant((Float) value);
+            insn.setReceiver(receiver);
+            block.add(insn);
+        } else if (value instanceof Double) {
+            var insn = new DoubleConstantInstruction();
+            insn.setConstant((Double) value);
+            insn.setReceiver(receiver);
+            block.add(insn);
+        } else {
+            int intValue;
+            if (value instanceof Boolean) {
+                intValue = (Boolean) value ? 1 : 0;
+            } else if (value instanceof Character) {
+                intValue = (Character) value;
+            } else {
+                intValue = ((Number) value).intValue();
+            }
+            var insn = new IntegerConstantInstruction();
+            insn.setConstant(intValue);
+            insn.setReceiver(receiver);
+            block.add(insn);
+        }
+        return receiver;
+    }
+
+    private Variable emitString(String value) {
+        var insn = new StringConstantInstruction();
+        insn.setConstant(value);
+        insn.setReceiver(program.createVariable());
+        block.add(insn);
+        return insn.getReceiver();
+    }
+
+    private Variable emitConstruct(MethodReference constructor, Variable... arguments) {
+        var insn = new ConstructInstruction();
+        insn.setType(constructor.getClassName());
+        insn.setReceiver(program.createVariable());
+        block.add(insn);
+        emitInvoke(InvocationType.SPECIAL, constructor, insn.getReceiver(), arguments);
+        return insn.getReceiver();
+    }
+
+    private Variable emitInvoke(InvocationType type, MethodReference method, Variable instance,
+            Variable... arguments) {
+        var insn = new InvokeInstruction();
+        insn.setType(type);
+        insn.setMethod(method);
+        insn.setInstance(instance);
+        insn.setArguments(arguments);
+        if (method.getReturnType() != ValueType.VOID) {
+            insn.setReceiver(program.createVariable());
+        }
+        block.add(insn);
+        return insn.getReceiver();
+    }
+
+    private void checkElementCount() {
+        if (elementCount > MAX_ELEMENTS) {
+            throw new UnsupportedObjectException();
+        }
+    }
+
+    private ValueType mapType(Class<?> cls) {
+        if (cls.isArray()) {
+            return ValueType.arrayOf(mapType(cls.getComponentType()));
+        } else if (cls.getName().startsWith(REGEX_PACKAGE)) {
+            return ValueType.object(mapClassName(cls));
+        } else {
+            return ValueType.parse(cls);
+        }
+    }
+
+    private static String mapClassName(Class<?> cls) {
+        return TARGET_PACKAGE + cls.getName().substring(REGEX_PACKAGE.length());
+    }
+
+    private static ArrayElementType arrayElementType(Class<?> itemType) {
+        if (itemType == char.class) {
+            return ArrayElementType.CHAR;
+        } else if (itemType == byte.class || itemType == boolean.class) {
+            return ArrayElementType.BYTE;
+        } else if (itemType == short.class) {
+            return ArrayElementType.SHORT;
+        } else if (itemType == int.class) {
+            return ArrayElementType.INT;
+        } else if (itemType == long.class) {
+            return ArrayElementType.LONG;
+        } else if (itemType == float.class) {
+            return ArrayElementType.FLOAT;
+        } else if (itemType == double.class) {
+            return ArrayElementType.DOUBLE;
+        } else {
+            return ArrayElementType.OBJECT;
+        }
+    }
+
+    private static class UnsupportedObjectException extends RuntimeException {
+        UnsupportedObjectException() {
+            super(null, null, false, false);
+        }
+    }
+}
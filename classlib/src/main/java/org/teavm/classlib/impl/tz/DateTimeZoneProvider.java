@@ -38,10 +38,12 @@ public final class DateTimeZoneProvider {
     }
 
     public static DateTimeZone getTimeZone(String id) {
-        if (!cache.containsKey(id)) {
-            cache.put(id, createTimeZone(id));
+        var result = cache.get(id);
+        if (result == null && !cache.containsKey(id)) {
+            result = createTimeZone(id);
+            cache.put(id, result);
         }
-        return cache.get(id);
+        return result;
     }
 
     private static DateTimeZone createTimeZone(String id) {
@@ -88,6 +90,9 @@ public final class DateTimeZoneProvider {
             }
             zones.add(new Score(tz));
         }
+        if (zones.isEmpty()) {
+            return null;
+        }
 
         List<Score> scoreTable = new ArrayList<>(zones);
         Map<Long, List<Score>> zoneMap = new HashMap<>();
@@ -124,6 +129,9 @@ public final class DateTimeZoneProvider {
                 }
             }
 
+            if (scoreTable.isEmpty()) {
+                return null;
+            }
             if (scoreTable.size() == 1 || scoreTable.get(0).tz.previousTransition(time) == time) {
                 return scoreTable.get(0).tz;
             } else if (scoreTable.size() > 1 && scoreTable.get(0).value + 48 * 60 < scoreTable.get(1).value) {
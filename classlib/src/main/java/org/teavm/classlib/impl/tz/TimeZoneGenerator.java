@@ -21,7 +21,13 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
 import org.teavm.interop.PlatformMarker;
@@ -34,6 +40,7 @@ import org.teavm.platform.metadata.builders.StringResourceBuilder;
 public class TimeZoneGenerator implements MetadataGenerator {
     public static final String TIMEZONE_DB_VERSION = "2026a";
     public static final String TIMEZONE_DB_PATH = "org/teavm/classlib/impl/tz/tzdata" + TIMEZONE_DB_VERSION + ".zip";
+    public static final String ZONES_PROPERTY = "java.util.TimeZone.zones";
 
     public static void compile(ZoneInfoCompiler compiler, ClassLoader classLoader) {
         try (InputStream input = classLoader.getResourceAsStream(TIMEZONE_DB_PATH)) {
@@ -89,6 +96,10 @@ public class TimeZoneGenerator implements MetadataGenerator {
         } catch (IOException e) {
             throw new RuntimeException("Error generating time zones", e);
         }
+        String zoneFilter = context.getProperties().getProperty(ZONES_PROPERTY, "").trim();
+        if (!zoneFilter.isEmpty()) {
+            zones = filterZones(zones, zoneFilter);
+        }
         for (StorableDateTimeZone tz : zones) {
             String id = tz.getID();
             int sepIndex = id.indexOf('/');
@@ -117,6 +128,48 @@ public class TimeZoneGenerator implements MetadataGenerator {
         return result;
     }
 
+    /**
+     * Leaves only zones that match comma-separated filter. Each entry is either exact zone id
+     * (like {@code Europe/Berlin}) or an area, written as {@code Europe/*}, that includes all zones of the area.
+     * Targets of included aliases are always preserved, so that aliases can be resolved at run time.
+     */
+    static Collection<StorableDateTimeZone> filterZones(Collection<StorableDateTimeZone> zones, String filter) {
+        Set<String> ids = new HashSet<>();
+        Set<String> areas = new HashSet<>();
+        for (String entry : filter.split(",")) {
+            entry = entry.trim();
+            if (entry.endsWith("/*")) {
+                areas.add(entry.substring(0, entry.length() - 2));
+            } else if (!entry.isEmpty()) {
+                ids.add(entry);
+            }
+        }
+
+        Map<String, StorableDateTimeZone> zoneById = new HashMap<>();
+        for (StorableDateTimeZone tz : zones) {
+            zoneById.put(tz.getID(), tz);
+        }
+
+        List<StorableDateTimeZone> result = new ArrayList<>();
+        Set<String> included = new HashSet<>();
+        for (StorableDateTimeZone tz : zones) {
+            String id = tz.getID();
+            int sepIndex = id.indexOf('/');
+            String areaName = sepIndex >= 0 ? id.substring(0, sepIndex) : "";
+            if (!ids.contains(id) && !areas.contains(areaName)) {
+                continue;
+            }
+            while (tz != null && included.add(tz.getID())) {
+                result.add(tz);
+                if (!(tz instanceof AliasDateTimeZone)) {
+                    break;
+                }
+                tz = zoneById.get(((AliasDateTimeZone) tz).innerZone.getID());
+            }
+        }
+        return result;
+    }
+
     @PlatformMarker
     private static boolean isBootstrap() {
         return false;
@@ -0,0 +1,122 @@
+/*
+ *  Copyright 2026 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.classlib.impl.zip;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.HashSet;
+import java.util.Set;
+import org.teavm.classlib.PlatformDetector;
+
+/**
+ * Bridge to system zlib in the C backend. Enabled by {@code java.util.zip.nativeZlib} property,
+ * in which case generated code must be linked against zlib. The property is checked at compile time:
+ * when it's off, {@link #isAvailable()} is folded to constant and no reference to zlib is generated,
+ * so classes from {@code java.util.zip} keep using bundled jzlib.
+ *
+ * <p>Streams are referred by handles, which are tracked by {@link #track(Object, long, boolean)}.
+ * A stream is released either explicitly, by {@link StreamReference#release()}, or after its owner
+ * becomes unreachable, next time a stream is tracked.</p>
+ */
+public final class NativeZlib {
+    public static final int Z_OK = 0;
+    public static final int Z_STREAM_END = 1;
+    public static final int Z_NEED_DICT = 2;
+    public static final int Z_BUF_ERROR = -5;
+    private static final ReferenceQueue<Object> queue = new ReferenceQueue<>();
+    private static final Set<StreamReference> streams = new HashSet<>();
+
+    private NativeZlib() {
+    }
+
+    public static boolean isAvailable() {
+        return PlatformDetector.isC() && isEnabled();
+    }
+
+    private static native boolean isEnabled();
+
+    public static StreamReference track(Object owner, long stream, boolean inflater) {
+        while (true) {
+            var reference = (StreamReference) queue.poll();
+            if (reference == null) {
+                break;
+            }
+            reference.release();
+        }
+        var reference = new StreamReference(owner, stream, inflater);
+        streams.add(reference);
+        return reference;
+    }
+
+    public static native int crc32(int crc, byte[] buf, int off, int len);
+
+    public static native int adler32(int adler, byte[] buf, int off, int len);
+
+    public static native long inflateInit(boolean nowrap);
+
+    public static native int inflate(long stream, byte[] in, int inOff, int inLen, byte[] out, int outOff,
+            int outLen);
+
+    public static native int inflateSetDictionary(long stream, byte[] buf, int off, int len);
+
+    public static native int inflateReset(long stream);
+
+    public static native void inflateEnd(long stream);
+
+    public static native long deflateInit(int level, int strategy, boolean nowrap);
+
+    public static native int deflate(long stream, byte[] in, int inOff, int inLen, byte[] out, int outOff,
+            int outLen, int flush);
+
+    public static native int deflateParams(long stream, int level, int strategy);
+
+    public static native int deflateSetDictionary(long stream, byte[] buf, int off, int len);
+
+    public static native int deflateReset(long stream);
+
+    public static native void deflateEnd(long stream);
+
+    public static native long totalIn(long stream);
+
+    public static native long totalOut(long stream);
+
+    public static native int adler(long stream);
+
+    public static final class StreamReference extends WeakReference<Object> {
+        private long stream;
+        private final boolean inflater;
+
+        StreamReference(Object owner, long stream, boolean inflater) {
+            super(owner, queue);
+            this.stream = stream;
+            this.inflater = inflater;
+        }
+
+        public void release() {
+            if (stream == 0) {
+                return;
+            }
+            streams.remove(this);
+            if (inflater) {
+                inflateEnd(stream);
+            } else {
+                deflateEnd(stream);
+            }
+            stream = 0;
+            clear();
+        }
+    }
+}
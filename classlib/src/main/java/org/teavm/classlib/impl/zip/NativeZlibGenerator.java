@@ -0,0 +1,180 @@
+/*
+ *  Copyright 2026 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.classlib.impl.zip;
+
+import java.util.Properties;
+import org.teavm.backend.c.generate.CodeWriter;
+import org.teavm.backend.c.generators.Generator;
+import org.teavm.backend.c.generators.GeneratorContext;
+import org.teavm.backend.c.generators.GeneratorFactory;
+import org.teavm.backend.c.generators.GeneratorFactoryContext;
+import org.teavm.model.MethodReference;
+import org.teavm.model.ValueType;
+
+public class NativeZlibGenerator implements GeneratorFactory {
+    public static final String PROPERTY = "java.util.zip.nativeZlib";
+
+    static boolean isEnabled(Properties properties) {
+        return properties.getProperty(PROPERTY, "false").equals("true");
+    }
+
+    @Override
+    public Generator createGenerator(GeneratorFactoryContext context) {
+        return new ZlibGenerator(context.getProperties());
+    }
+
+    static class ZlibGenerator implements Generator {
+        private Properties properties;
+
+        ZlibGenerator(Properties properties) {
+            this.properties = properties;
+        }
+
+        @Override
+        public boolean canHandle(MethodReference method) {
+            return method.getClassName().equals(NativeZlib.class.getName());
+        }
+
+        @Override
+        public void generate(GeneratorContext context, MethodReference method) {
+            CodeWriter writer = context.writer();
+            boolean enabled = isEnabled(properties);
+            if (method.getName().equals("isEnabled")) {
+                writer.println("return " + (enabled ? "1" : "0") + ";");
+                return;
+            }
+            if (!enabled) {
+                // Never called, since isAvailable() is folded to false; don't require zlib to link
+                context.includes().addInclude("<stdlib.h>");
+                writer.println("abort();");
+                if (method.getReturnType() != ValueType.VOID) {
+                    writer.println("return 0;");
+                }
+                return;
+            }
+
+            context.includes().addInclude("<stdint.h>");
+            context.includes().addInclude("<stdlib.h>");
+            context.includes().addInclude("<zlib.h>");
+            switch (method.getName()) {
+                case "crc32":
+                case "adler32":
+                    writer.print("return (int32_t) " + method.getName() + "((uLong) (uint32_t) ")
+                            .print(context.parameterName(1)).print(", ");
+                    writeData(context, 2, 3);
+                    writer.print(", (uInt) ").print(context.parameterName(4)).println(");");
+                    break;
+
+                case "inflateInit":
+                    writer.println("z_stream* stream = (z_stream*) calloc(1, sizeof(z_stream));");
+                    writer.print("if (stream != NULL && inflateInit2(stream, ").print(context.parameterName(1))
+                            .println(" ? -MAX_WBITS : MAX_WBITS) != Z_OK) {").indent();
+                    writeFreeStream(writer);
+                    writer.outdent().println("}");
+                    writer.println("return (int64_t) (intptr_t) stream;");
+                    break;
+                case "deflateInit":
+                    writer.println("z_stream* stream = (z_stream*) calloc(1, sizeof(z_stream));");
+                    writer.print("if (stream != NULL && deflateInit2(stream, ").print(context.parameterName(1))
+                            .print(", Z_DEFLATED, ").print(context.parameterName(3))
+                            .print(" ? -MAX_WBITS : MAX_WBITS, 8, ").print(context.parameterName(2))
+                            .println(") != Z_OK) {").indent();
+                    writeFreeStream(writer);
+                    writer.outdent().println("}");
+                    writer.println("return (int64_t) (intptr_t) stream;");
+                    break;
+
+                case "inflate":
+                case "deflate":
+                    writeStream(context);
+                    writer.print("stream->next_in = ").print(context.parameterName(2)).print(" != NULL ? ");
+                    writeData(context, 2, 3);
+                    writer.println(" : Z_NULL;");
+                    writer.print("stream->avail_in = (uInt) ").print(context.parameterName(4)).println(";");
+                    writer.print("stream->next_out = ");
+                    writeData(context, 5, 6);
+                    writer.println(";");
+                    writer.print("stream->avail_out = (uInt) ").print(context.parameterName(7)).println(";");
+                    writer.print("int32_t result = " + method.getName() + "(stream, ");
+                    if (method.getName().equals("inflate")) {
+                        writer.print("Z_NO_FLUSH");
+                    } else {
+                        writer.print(context.parameterName(8));
+                    }
+                    writer.println(");");
+                    writer.println("stream->next_in = Z_NULL;");
+                    writer.println("stream->next_out = Z_NULL;");
+                    writer.println("return result;");
+                    break;
+
+                case "inflateSetDictionary":
+                case "deflateSetDictionary":
+                    writeStream(context);
+                    writer.print("return " + method.getName() + "(stream, ");
+                    writeData(context, 2, 3);
+                    writer.print(", (uInt) ").print(context.parameterName(4)).println(");");
+                    break;
+
+                case "deflateParams":
+                    writeStream(context);
+                    writer.print("return deflateParams(stream, ").print(context.parameterName(2)).print(", ")
+                            .print(context.parameterName(3)).println(");");
+                    break;
+
+                case "inflateReset":
+                case "deflateReset":
+                    writeStream(context);
+                    writer.println("return " + method.getName() + "(stream);");
+                    break;
+
+                case "inflateEnd":
+                case "deflateEnd":
+                    writeStream(context);
+                    writer.println(method.getName() + "(stream);");
+                    writer.println("free(stream);");
+                    break;
+
+                case "totalIn":
+                    writeStream(context);
+                    writer.println("return (int64_t) stream->total_in;");
+                    break;
+                case "totalOut":
+                    writeStream(context);
+                    writer.println("return (int64_t) stream->total_out;");
+                    break;
+                case "adler":
+                    writeStream(context);
+                    writer.println("return (int32_t) stream->adler;");
+                    break;
+            }
+        }
+
+        private void writeStream(GeneratorContext context) {
+            context.writer().print("z_stream* stream = (z_stream*) (intptr_t) ").print(context.parameterName(1))
+                    .println(";");
+        }
+
+        private void writeFreeStream(CodeWriter writer) {
+            writer.println("free(stream);");
+            writer.println("stream = NULL;");
+        }
+
+        private void writeData(GeneratorContext context, int array, int offset) {
+            context.writer().print("(Bytef*) TEAVM_ARRAY_DATA(").print(context.parameterName(array))
+                    .print(", int8_t) + ").print(context.parameterName(offset));
+        }
+    }
+}
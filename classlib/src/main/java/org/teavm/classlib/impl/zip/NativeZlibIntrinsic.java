@@ -0,0 +1,40 @@
+/*
+ *  Copyright 2026 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.classlib.impl.zip;
+
+import java.util.Properties;
+import org.teavm.ast.InvocationExpr;
+import org.teavm.backend.c.intrinsic.Intrinsic;
+import org.teavm.backend.c.intrinsic.IntrinsicContext;
+import org.teavm.model.MethodReference;
+
+public class NativeZlibIntrinsic implements Intrinsic {
+    private Properties properties;
+
+    public NativeZlibIntrinsic(Properties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    public boolean canHandle(MethodReference method) {
+        return method.getClassName().equals(NativeZlib.class.getName()) && method.getName().equals("isEnabled");
+    }
+
+    @Override
+    public void apply(IntrinsicContext context, InvocationExpr invocation) {
+        context.writer().print(NativeZlibGenerator.isEnabled(properties) ? "1" : "0");
+    }
+}
@@ -16,6 +16,7 @@
 package org.teavm.classlib.java.lang;
 
 import java.util.Arrays;
+import org.teavm.classlib.PlatformDetector;
 import org.teavm.classlib.impl.text.DoubleAnalyzer;
 import org.teavm.classlib.impl.text.FloatAnalyzer;
 import org.teavm.classlib.java.io.TSerializable;
@@ -29,6 +30,12 @@ class TAbstractStringBuilder implements TSerializable, TCharSequence {
         static final FloatAnalyzer.Result floatAnalysisResult = new FloatAnalyzer.Result();
     }
 
+    /*
+     * On JavaScript, leading part of the content may be kept as a native string in a field added by
+     * JSStringBuilderTransformer, so that appending strings does not copy them char by char.
+     * In this case buffer only holds characters that follow this prefix, and length is the number of these
+     * characters. Operations that modify the prefix first move it to the buffer.
+     */
     char[] buffer;
     private int length;
 
@@ -45,6 +52,13 @@ class TAbstractStringBuilder implements TSerializable, TCharSequence {
     }
 
     public TAbstractStringBuilder(CharSequence value) {
+        if (PlatformDetector.isJavaScript() && value instanceof String) {
+            buffer = new char[16];
+            if (value.length() > 0) {
+                setNativePrefix(nativeString((String) value));
+            }
+            return;
+        }
         buffer = new char[value.length()];
         for (int i = 0; i < buffer.length; ++i) {
             buffer[i] = value.charAt(i);
@@ -57,11 +71,11 @@ class TAbstractStringBuilder implements TSerializable, TCharSequence {
     }
 
     protected TAbstractStringBuilder append(String string) {
-        return insert(length, string);
+        return insert(length(), string);
     }
 
     protected TAbstractStringBuilder insert(int index, String string) {
-        if (index < 0 || index > length) {
+        if (index < 0 || index > length()) {
             throw new TStringIndexOutOfBoundsException();
         }
         if (string == null) {
@@ -69,6 +83,14 @@ class TAbstractStringBuilder implements TSerializable, TCharSequence {
         } else if (string.isEmpty()) {
             return this;
         }
+        if (PlatformDetector.isJavaScript() && index == length()) {
+            flushBuffer();
+            var prefix = nativePrefix();
+            var nativeString = nativeString(string);
+            setNativePrefix(prefix != null ? nativeConcat(prefix, nativeString) : nativeString);
+            return this;
+        }
+        index = bufferIndex(index);
         ensureCapacity(length + string.length());
         for (int i = length - 1; i >= index; --i) {
             buffer[i + string.length()] = buffer[i];
@@ -90,10 +112,11 @@ class TAbstractStringBuilder implements TSerializable, TCharSequence {
     }
 
     TAbstractStringBuilder append(int value, int radix) {
-        return insert(length, value, radix);
+        return insert(length(), value, radix);
     }
 
     TAbstractStringBuilder insert(int target, int value, int radix) {
+        target = bufferIndex(target);
         boolean positive = true;
         if (value < 0) {
             positive = false;
@@ -135,7 +158,7 @@ class TAbstractStringBuilder implements TSerializable, TCharSequence {
     }
 
     protected TAbstractStringBuilder append(long value) {
-        return insert(length, value);
+        return insert(length(), value);
     }
 
     protected TAbstractStringBuilder insert(int target, long value) {
@@ -143,6 +166,7 @@ class TAbstractStringBuilder implements TSerializable, TCharSequence {
     }
 
     protected TAbstractStringBuilder insert(int target, long value, int radix) {
+        target = bufferIndex(target);
         boolean positive = true;
         if (value < 0) {
             positive = false;
@@ -185,10 +209,11 @@ class TAbstractStringBuilder implements TSerializable, TCharSequence {
 
 
     protected TAbstractStringBuilder append(float value) {
-        return insert(length, value);
+        return insert(length(), value);
     }
 
     protected TAbstractStringBuilder insert(int target, float value) {
+        target = bufferIndex(target);
         if (value == 0) {
             if (1 / value == Float.POSITIVE_INFINITY) {
                 insertSpace(target, target + 3);
@@ -323,10 +348,11 @@ class TAbstractStringBuilder implements TSerializable, TCharSequence {
     }
 
     protected TAbstractStringBuilder append(double value) {
-        return insert(length, value);
+        return insert(length(), value);
     }
 
     protected TAbstractStringBuilder insert(int target, double value) {
+        target = bufferIndex(target);
         if (value == 0) {
             if (1 / value == Double.POSITIVE_INFINITY) {
                 insertSpace(target, target + 3);
@@ -508,10 +534,11 @@ class TAbstractStringBuilder implements TSerializable, TCharSequence {
     }
 
     protected TAbstractStringBuilder append(char c) {
-        return insert(length, c);
+        return insert(length(), c);
     }
 
     protected TAbstractStringBuilder insert(int index, char c) {
+        index = bufferIndex(index);
         insertSpace(index, index + 1);
         buffer[index++] = c;
         return this;
@@ -528,7 +555,7 @@ class TAbstractStringBuilder implements TSerializable, TCharSequence {
     }
 
     protected TAbstractStringBuilder append(TObject obj) {
-        return insert(length, obj);
+        return insert(length(), obj);
     }
 
     protected TAbstractStringBuilder insert(int index, TObject obj) {
@@ -536,7 +563,7 @@ class TAbstractStringBuilder implements TSerializable, TCharSequence {
     }
 
     protected TAbstractStringBuilder append(boolean b) {
-        return insert(length, b);
+        return insert(length(), b);
     }
 
     protected TAbstractStringBuilder insert(int index, boolean b) {
@@ -560,40 +587,59 @@ class TAbstractStringBuilder implements TSerializable, TCharSequence {
     }
 
     public int capacity() {
-        return buffer.length;
+        return prefixLength() + buffer.length;
     }
 
     @Override
     public String toString() {
+        if (PlatformDetector.isJavaScript()) {
+            flushBuffer();
+            var prefix = nativePrefix();
+            return prefix != null ? (String) (Object) new TString(prefix) : "";
+        }
         return new String(buffer, 0, length);
     }
 
     @Override
     public int length() {
-        return length;
+        return prefixLength() + length;
     }
 
     @Override
     public char charAt(int index) {
-        if (index < 0 || index >= length) {
+        if (index < 0 || index >= length()) {
             throw new TIndexOutOfBoundsException();
         }
+        if (PlatformDetector.isJavaScript()) {
+            var prefix = nativePrefix();
+            if (prefix != null) {
+                int prefixLength = nativeLength(prefix);
+                if (index < prefixLength) {
+                    return nativeCharAt(prefix, index);
+                }
+                index -= prefixLength;
+            }
+        }
         return buffer[index];
     }
 
     @Override
     public boolean isEmpty() {
-        return length == 0;
+        return length() == 0;
     }
 
     protected TAbstractStringBuilder append(TCharSequence s, int start, int end) {
-        return insert(length, s, start, end);
+        return insert(length(), s, start, end);
     }
 
     protected TAbstractStringBuilder insert(int index, TCharSequence s, int start, int end) {
         if (start > end || end > s.length() || start < 0) {
             throw new TIndexOutOfBoundsException();
         }
+        if (PlatformDetector.isJavaScript() && s instanceof TString) {
+            return insert(index, (String) (Object) ((TString) s).substring(start, end));
+        }
+        index = bufferIndex(index);
         insertSpace(index, index + end - start);
         for (int i = start; i < end; ++i) {
             buffer[index++] = s.charAt(i);
@@ -614,7 +660,7 @@ class TAbstractStringBuilder implements TSerializable, TCharSequence {
     }
 
     protected TAbstractStringBuilder append(char[] chars, int offset, int len) {
-        return insert(length, chars, offset, len);
+        return insert(length(), chars, offset, len);
     }
 
     protected TAbstractStringBuilder insert(int index, char[] chars) {
@@ -622,6 +668,7 @@ class TAbstractStringBuilder implements TSerializable, TCharSequence {
     }
 
     protected TAbstractStringBuilder insert(int index, char[] chars, int offset, int len) {
+        index = bufferIndex(index);
         insertSpace(index, index + len);
         len += offset;
         while (offset < len) {
@@ -643,19 +690,46 @@ class TAbstractStringBuilder implements TSerializable, TCharSequence {
         if (srcBegin > srcEnd) {
             throw new IndexOutOfBoundsException("Index out of bounds");
         }
+        if (PlatformDetector.isJavaScript()) {
+            var prefix = nativePrefix();
+            if (prefix != null) {
+                int prefixLength = nativeLength(prefix);
+                int count = Math.min(srcEnd, prefixLength) - srcBegin;
+                if (count > 0) {
+                    nativeGetChars(prefix, srcBegin, dst, dstBegin, count);
+                    srcBegin += count;
+                    dstBegin += count;
+                }
+                srcBegin -= prefixLength;
+                srcEnd -= prefixLength;
+            }
+        }
         while (srcBegin < srcEnd) {
             dst[dstBegin++] = buffer[srcBegin++];
         }
     }
 
     public void setLength(int newLength) {
+        if (PlatformDetector.isJavaScript()) {
+            var prefix = nativePrefix();
+            if (prefix != null) {
+                int prefixLength = nativeLength(prefix);
+                if (newLength <= prefixLength) {
+                    setNativePrefix(newLength > 0 ? nativeSubstring(prefix, 0, newLength) : null);
+                    length = 0;
+                    return;
+                }
+                newLength -= prefixLength;
+            }
+        }
         length = newLength;
     }
 
     public TAbstractStringBuilder deleteCharAt(int index) {
-        if (index < 0 || index >= length) {
+        if (index < 0 || index >= length()) {
             throw new TStringIndexOutOfBoundsException();
         }
+        index = bufferIndex(index);
         length--;
         for (int i = index; i < length; ++i) {
             buffer[i] = buffer[i + 1];
@@ -664,35 +738,35 @@ class TAbstractStringBuilder implements TSerializable, TCharSequence {
     }
 
     public TAbstractStringBuilder delete(int start, int end) {
-        if (start < 0 || start > end || start > length) {
+        if (start < 0 || start > end || start > length()) {
             throw new TStringIndexOutOfBoundsException();
         }
         if (start == end) {
             return this;
         }
-        if (end > length) {
-            end = length;
-        }
-        int sz = length - end;
-        length -= end - start;
-        for (int i = 0; i < sz; ++i) {
-            buffer[start++] = buffer[end++];
+        if (end > length()) {
+            end = length();
         }
+        int bufferStart = bufferIndex(start);
+        removeSpace(bufferStart, end - start + bufferStart);
         return this;
     }
 
     public TAbstractStringBuilder replace(int start, int end, TString str) {
-        if (start < 0 || start > end || start > length) {
+        if (start < 0 || start > end || start > length()) {
             throw new TStringIndexOutOfBoundsException();
         }
-        if (end > length) {
-            end = length;
+        if (end > length()) {
+            end = length();
         }
+        int bufferStart = bufferIndex(start);
+        end -= start - bufferStart;
+        start = bufferStart;
         int oldSize = end - start;
         if (str.length() > oldSize) {
             insertSpace(end, start + str.length());
         } else if (str.length() < oldSize) {
-            delete(start + str.length(), end);
+            removeSpace(start + str.length(), end);
         }
         for (int i = 0; i < str.length(); ++i) {
             buffer[start++] = str.charAt(i);
@@ -709,11 +783,20 @@ class TAbstractStringBuilder implements TSerializable, TCharSequence {
         length += end - start;
     }
 
+    private void removeSpace(int start, int end) {
+        int sz = length - end;
+        length -= end - start;
+        for (int i = 0; i < sz; ++i) {
+            buffer[start++] = buffer[end++];
+        }
+    }
+
     public int indexOf(TString str) {
         return indexOf(str, 0);
     }
 
     public int indexOf(TString str, int fromIndex) {
+        moveNativePrefixToBuffer();
         int sz = length - str.length();
         outer: for (int i = fromIndex; i <= sz; ++i) {
             for (int j = 0; j < str.length(); ++j) {
@@ -727,10 +810,11 @@ class TAbstractStringBuilder implements TSerializable, TCharSequence {
     }
 
     public int lastIndexOf(TString str) {
-        return lastIndexOf(str, length);
+        return lastIndexOf(str, length());
     }
 
     public int lastIndexOf(TString str, int fromIndex) {
+        moveNativePrefixToBuffer();
         fromIndex = Math.min(fromIndex, length - str.length());
         outer: for (int i = fromIndex; i >= 0; --i) {
             for (int j = 0; j < str.length(); ++j) {
@@ -744,6 +828,7 @@ class TAbstractStringBuilder implements TSerializable, TCharSequence {
     }
 
     public TAbstractStringBuilder reverse() {
+        moveNativePrefixToBuffer();
         int half = length / 2;
         for (int i = 0; i < half; ++i) {
             char tmp = buffer[i];
@@ -754,20 +839,26 @@ class TAbstractStringBuilder implements TSerializable, TCharSequence {
     }
 
     public TString substring(int from, int to) {
-        if (from > to || from < 0 || to > length) {
+        if (from > to || from < 0 || to > length()) {
             throw new TIndexOutOfBoundsException();
         }
+        if (PlatformDetector.isJavaScript()) {
+            flushBuffer();
+            var prefix = nativePrefix();
+            return prefix != null ? new TString(nativeSubstring(prefix, from, to)) : new TString();
+        }
         return new TString(buffer, from, to - from);
     }
 
     public TString substring(int from) {
-        return substring(from, length);
+        return substring(from, length());
     }
 
     public void setCharAt(int index, char ch) {
-        if (index > length) {
+        if (index > length()) {
             throw new TIndexOutOfBoundsException();
         }
+        index = bufferIndex(index);
         buffer[index] = ch;
     }
 
@@ -786,4 +877,74 @@ class TAbstractStringBuilder implements TSerializable, TCharSequence {
     public int codePointBefore(int index) {
         return TCharacter.codePointBefore(this, index);
     }
+
+    private int prefixLength() {
+        if (PlatformDetector.isJavaScript()) {
+            var prefix = nativePrefix();
+            if (prefix != null) {
+                return nativeLength(prefix);
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Converts index in the content to index in the buffer. If index points to the native prefix,
+     * moves the prefix to the buffer first.
+     */
+    private int bufferIndex(int index) {
+        if (PlatformDetector.isJavaScript()) {
+            var prefix = nativePrefix();
+            if (prefix != null) {
+                int prefixLength = nativeLength(prefix);
+                if (index >= prefixLength) {
+                    return index - prefixLength;
+                }
+                moveNativePrefixToBuffer();
+            }
+        }
+        return index;
+    }
+
+    private void moveNativePrefixToBuffer() {
+        if (PlatformDetector.isJavaScript()) {
+            var prefix = nativePrefix();
+            if (prefix != null) {
+                int prefixLength = nativeLength(prefix);
+                var newBuffer = new char[Math.max(buffer.length, prefixLength + length)];
+                nativeGetChars(prefix, 0, newBuffer, 0, prefixLength);
+                System.arraycopy(buffer, 0, newBuffer, prefixLength, length);
+                buffer = newBuffer;
+                length += prefixLength;
+                setNativePrefix(null);
+            }
+        }
+    }
+
+    private void flushBuffer() {
+        if (length > 0) {
+            var prefix = nativePrefix();
+            var chars = nativeChars(buffer, length);
+            setNativePrefix(prefix != null ? nativeConcat(prefix, chars) : chars);
+            length = 0;
+        }
+    }
+
+    private native Object nativePrefix();
+
+    private native void setNativePrefix(Object prefix);
+
+    private static native Object nativeString(String string);
+
+    private static native int nativeLength(Object nativeString);
+
+    private static native char nativeCharAt(Object nativeString, int index);
+
+    private static native Object nativeConcat(Object first, Object second);
+
+    private static native Object nativeSubstring(Object nativeString, int start, int end);
+
+    private static native Object nativeChars(char[] chars, int count);
+
+    private static native void nativeGetChars(Object nativeString, int start, char[] dst, int dstStart, int count);
 }
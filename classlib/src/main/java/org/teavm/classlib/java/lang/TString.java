@@ -20,6 +20,7 @@ import java.nio.charset.UnsupportedCharsetException;
 import java.util.Locale;
 import java.util.Objects;
 import org.teavm.classlib.PlatformDetector;
+import org.teavm.classlib.impl.string.LiteralRegex;
 import org.teavm.classlib.java.io.TSerializable;
 import org.teavm.classlib.java.io.TUnsupportedEncodingException;
 import org.teavm.classlib.java.nio.TByteBuffer;
@@ -139,11 +140,11 @@ public final class TString extends TObject implements TSerializable, TComparable
     }
 
     public TString(TStringBuffer sb) {
-        initWithCharArray(sb.buffer, 0, sb.length());
+        borrowChars((TString) (Object) sb.toString());
     }
 
     public TString(TStringBuilder sb) {
-        initWithCharArray(sb.buffer, 0, sb.length());
+        borrowChars((TString) (Object) sb.toString());
     }
 
     private TString(int length) {
@@ -881,10 +882,14 @@ public final class TString extends TObject implements TSerializable, TComparable
     }
 
     public String[] split(String regex) {
-        return TPattern.compile(regex).split(this.toString());
+        return split(regex, 0);
     }
 
     public String[] split(String regex, int limit) {
+        int separator = LiteralRegex.singleChar(regex);
+        if (separator >= 0) {
+            return LiteralRegex.split(this.toString(), (char) separator, limit);
+        }
         return TPattern.compile(regex).split(this.toString(), limit);
     }
 
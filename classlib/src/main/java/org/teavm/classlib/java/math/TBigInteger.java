@@ -17,6 +17,7 @@ package org.teavm.classlib.java.math;
 
 import java.io.Serializable;
 import java.util.Random;
+import org.teavm.classlib.PlatformDetector;
 
 /**
  * This class represents immutable integer numbers of arbitrary length. Large
@@ -1044,6 +1045,9 @@ public class TBigInteger extends Number implements Comparable<TBigInteger>, Seri
      */
     @Override
     public String toString() {
+        if (PlatformDetector.isJavaScript() && numberLength >= TNativeBigInteger.THRESHOLD) {
+            return TNativeBigInteger.toString(this, 10);
+        }
         return TConversion.toDecimalScaledString(this, 0);
     }
 
@@ -1060,6 +1064,10 @@ public class TBigInteger extends Number implements Comparable<TBigInteger>, Seri
      * @return a string representation of this with radix 10.
      */
     public String toString(int radix) {
+        if (PlatformDetector.isJavaScript() && numberLength >= TNativeBigInteger.THRESHOLD
+                && radix >= Character.MIN_RADIX && radix <= Character.MAX_RADIX) {
+            return TNativeBigInteger.toString(this, radix);
+        }
         return TConversion.bigInteger2String(this, radix);
     }
 
@@ -1112,6 +1120,10 @@ public class TBigInteger extends Number implements Comparable<TBigInteger>, Seri
         if (sign == 0) {
             return ZERO;
         }
+        if (PlatformDetector.isJavaScript()
+                && Math.min(numberLength, val.numberLength) >= TNativeBigInteger.THRESHOLD) {
+            return TNativeBigInteger.multiply(this, val);
+        }
         return TMultiplication.multiply(this, val);
     }
 
@@ -1133,6 +1145,9 @@ public class TBigInteger extends Number implements Comparable<TBigInteger>, Seri
         } else if (exp == 1 || equals(ONE) || equals(ZERO)) {
             return this;
         }
+        if (PlatformDetector.isJavaScript() && (long) numberLength * exp >= TNativeBigInteger.THRESHOLD) {
+            return TNativeBigInteger.pow(this, exp);
+        }
 
         // if even take out 2^x factor which we can
         // calculate by shifting.
@@ -1248,6 +1263,9 @@ public class TBigInteger extends Number implements Comparable<TBigInteger>, Seri
         if (cmp < 0) {
             return new TBigInteger[] { ZERO, this };
         }
+        if (PlatformDetector.isJavaScript() && divisorLen >= TNativeBigInteger.THRESHOLD) {
+            return TNativeBigInteger.divideAndRemainder(this, divisor);
+        }
         int thisSign = sign;
         int quotientLength = thisLen - divisorLen + 1;
         int remainderLength = divisorLen;
@@ -1299,6 +1317,9 @@ public class TBigInteger extends Number implements Comparable<TBigInteger>, Seri
         if (cmp == LESS) {
             return ZERO;
         }
+        if (PlatformDetector.isJavaScript() && divisorLen >= TNativeBigInteger.THRESHOLD) {
+            return TNativeBigInteger.divide(this, divisor);
+        }
         int resLength = thisLen - divisorLen + 1;
         int[] resDigits = new int[resLength];
         int resSign = thisSign == divisorSign ? 1 : -1;
@@ -1335,6 +1356,9 @@ public class TBigInteger extends Number implements Comparable<TBigInteger>, Seri
                 divisor.digits, thisLen)) == LESS) {
             return this;
         }
+        if (PlatformDetector.isJavaScript() && divisorLen >= TNativeBigInteger.THRESHOLD) {
+            return TNativeBigInteger.remainder(this, divisor);
+        }
         int resLength = divisorLen;
         int[] resDigits = new int[resLength];
         if (resLength == 1) {
@@ -1422,6 +1446,9 @@ public class TBigInteger extends Number implements Comparable<TBigInteger>, Seri
             exponent = exponent.negate();
         }
         // From now on: (m > 0) and (exponent >= 0)
+        if (PlatformDetector.isJavaScript()) {
+            return TNativeBigInteger.modPow(base, exponent, m);
+        }
         TBigInteger res = (m.testBit(0)) ? TDivision.oddModPow(base.abs(), exponent, m) : TDivision.evenModPow(
                 base.abs(), exponent, m);
         if ((base.sign < 0) && exponent.testBit(0)) {
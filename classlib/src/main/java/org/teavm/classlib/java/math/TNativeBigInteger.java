@@ -0,0 +1,150 @@
+/*
+ *  Copyright 2026 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.classlib.java.math;
+
+import org.teavm.jso.JSBody;
+import org.teavm.jso.JSObject;
+
+/**
+ * Static library that performs {@link TBigInteger} arithmetic on the JavaScript backend using native
+ * {@code BigInt} values. Operands are converted through hexadecimal strings, which takes linear time,
+ * so this only pays off for operations whose emulated cost grows faster than the operand length.
+ */
+final class TNativeBigInteger {
+    /**
+     * Number of {@code int} digits starting from which an operand is large enough
+     * to be worth converting to {@code BigInt}.
+     */
+    static final int THRESHOLD = 8;
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private TNativeBigInteger() {
+    }
+
+    static TBigInteger multiply(TBigInteger a, TBigInteger b) {
+        return fromNative(nativeMultiply(toNative(a), toNative(b)));
+    }
+
+    static TBigInteger divide(TBigInteger a, TBigInteger b) {
+        return fromNative(nativeDivide(toNative(a), toNative(b)));
+    }
+
+    static TBigInteger remainder(TBigInteger a, TBigInteger b) {
+        return fromNative(nativeRemainder(toNative(a), toNative(b)));
+    }
+
+    static TBigInteger[] divideAndRemainder(TBigInteger a, TBigInteger b) {
+        JSObject nativeA = toNative(a);
+        JSObject nativeB = toNative(b);
+        return new TBigInteger[] {
+            fromNative(nativeDivide(nativeA, nativeB)),
+            fromNative(nativeRemainder(nativeA, nativeB))
+        };
+    }
+
+    static TBigInteger pow(TBigInteger a, int exp) {
+        return fromNative(nativePow(toNative(a), exp));
+    }
+
+    static TBigInteger modPow(TBigInteger base, TBigInteger exponent, TBigInteger m) {
+        return fromNative(nativeModPow(toNative(base), toNative(exponent), toNative(m)));
+    }
+
+    static String toString(TBigInteger a, int radix) {
+        return nativeToString(toNative(a), radix);
+    }
+
+    private static JSObject toNative(TBigInteger value) {
+        int numberLength = value.numberLength;
+        int[] digits = value.digits;
+        char[] hex = new char[numberLength * 8];
+        int index = 0;
+        for (int i = numberLength - 1; i >= 0; --i) {
+            int digit = digits[i];
+            for (int shift = 28; shift >= 0; shift -= 4) {
+                hex[index++] = HEX_DIGITS[(digit >>> shift) & 15];
+            }
+        }
+        return nativeFromHex(new String(hex), value.sign < 0);
+    }
+
+    private static TBigInteger fromNative(JSObject value) {
+        int sign = nativeSign(value);
+        if (sign == 0) {
+            return TBigInteger.ZERO;
+        }
+        String hex = nativeAbsToHex(value);
+        int length = hex.length();
+        int numberLength = (length + 7) / 8;
+        int[] digits = new int[numberLength];
+        for (int i = 0; i < numberLength; ++i) {
+            int end = length - i * 8;
+            int start = Math.max(0, end - 8);
+            int digit = 0;
+            for (int j = start; j < end; ++j) {
+                digit = (digit << 4) | Character.digit(hex.charAt(j), 16);
+            }
+            digits[i] = digit;
+        }
+        return new TBigInteger(sign, numberLength, digits);
+    }
+
+    @JSBody(params = { "hex", "negative" }, script = "var v = BigInt('0x' + hex); return negative ? -v : v;")
+    private static native JSObject nativeFromHex(String hex, boolean negative);
+
+    @JSBody(params = "v", script = "return (v < 0 ? -v : v).toString(16);")
+    private static native String nativeAbsToHex(JSObject v);
+
+    @JSBody(params = "v", script = "return v < 0 ? -1 : v > 0 ? 1 : 0;")
+    private static native int nativeSign(JSObject v);
+
+    @JSBody(params = { "v", "radix" }, script = "return v.toString(radix);")
+    private static native String nativeToString(JSObject v, int radix);
+
+    @JSBody(params = { "a", "b" }, script = "return a * b;")
+    private static native JSObject nativeMultiply(JSObject a, JSObject b);
+
+    @JSBody(params = { "a", "b" }, script = "return a / b;")
+    private static native JSObject nativeDivide(JSObject a, JSObject b);
+
+    @JSBody(params = { "a", "b" }, script = "return a % b;")
+    private static native JSObject nativeRemainder(JSObject a, JSObject b);
+
+    @JSBody(params = { "a", "exp" }, script = ""
+            + "var result = BigInt(1);"
+            + "while (exp > 0) {"
+            + "    if (exp & 1) { result *= a; }"
+            + "    exp >>>= 1;"
+            + "    if (exp > 0) { a *= a; }"
+            + "}"
+            + "return result;")
+    private static native JSObject nativePow(JSObject a, int exp);
+
+    @JSBody(params = { "base", "exp", "m" }, script = ""
+            + "var zero = BigInt(0);"
+            + "var one = BigInt(1);"
+            + "var result = one % m;"
+            + "base %= m;"
+            + "if (base < zero) { base += m; }"
+            + "while (exp > zero) {"
+            + "    if ((exp & one) !== zero) { result = result * base % m; }"
+            + "    exp >>= one;"
+            + "    if (exp > zero) { base = base * base % m; }"
+            + "}"
+            + "return result;")
+    private static native JSObject nativeModPow(JSObject base, JSObject exp, JSObject m);
+}
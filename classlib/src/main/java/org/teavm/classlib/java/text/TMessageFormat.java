@@ -21,10 +21,12 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
+import org.teavm.classlib.impl.text.PatternCache;
 import org.teavm.classlib.java.util.TIterator;
 import org.teavm.classlib.java.util.TLocale;
 
 public class TMessageFormat extends TFormat {
+    private static final PatternCache<TMessageFormat> parsedTemplates = new PatternCache<>(32);
     private TLocale locale = TLocale.getDefault();
     transient private String[] strings;
     private int[] argumentNumbers;
@@ -275,7 +277,12 @@ public class TMessageFormat extends TFormat {
                 }
             }
         }
-        return new TMessageFormat(template).format(objects, new StringBuffer(), new TFieldPosition(0)).toString();
+        TMessageFormat messageFormat = parsedTemplates.get(template);
+        if (messageFormat == null || !messageFormat.locale.equals(TLocale.getDefault())) {
+            messageFormat = new TMessageFormat(template);
+            parsedTemplates.put(template, messageFormat);
+        }
+        return messageFormat.format(objects, new StringBuffer(), new TFieldPosition(0)).toString();
     }
 
     public TFormat[] getFormats() {
@@ -208,16 +208,7 @@ public final class TCollections extends TObject {
     }
 
     public static <T> void sort(TList<T> list, TComparator<? super T> c) {
-        if (c == null) {
-            c = TComparator.NaturalOrder.instance();
-        }
-        @SuppressWarnings("unchecked")
-        T[] array = (T[]) new Object[list.size()];
-        list.toArray(array);
-        TArrays.sort(array, c);
-        for (int i = 0; i < array.length; ++i) {
-            list.set(i, array[i]);
-        }
+        list.sort(c);
     }
 
     public static <T extends TComparable<? super T>> void sort(TList<T> list) {
@@ -0,0 +1,1124 @@
+/*
+ *  Copyright 2026 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.classlib.java.util;
+
+/**
+ * In-place sorting of primitive arrays. Ranges are sorted by dual-pivot quicksort that switches to insertion
+ * sort for small ranges and to heap sort when recursion gets too deep, so that worst case stays O(n log n).
+ * Large byte, short and char ranges are sorted by counting values instead.
+ */
+final class TDualPivotQuicksort {
+    private static final int INSERTION_SORT_THRESHOLD = 47;
+    private static final int COUNTING_SORT_THRESHOLD_FOR_BYTE = 64;
+    private static final int COUNTING_SORT_THRESHOLD_FOR_SHORT_OR_CHAR = 1750;
+
+    private TDualPivotQuicksort() {
+    }
+
+    private static int depthLimit(int length) {
+        return 2 * (32 - Integer.numberOfLeadingZeros(length));
+    }
+
+    static void sort(int[] a, int fromIndex, int toIndex) {
+        quicksort(a, fromIndex, toIndex - 1, depthLimit(toIndex - fromIndex));
+    }
+
+    private static void quicksort(int[] a, int left, int right, int depth) {
+        while (right - left >= INSERTION_SORT_THRESHOLD) {
+            if (depth-- == 0) {
+                heapSort(a, left, right);
+                return;
+            }
+
+            // Take five evenly spaced elements, sort them and use second and fourth as pivots
+            int length = right - left + 1;
+            int seventh = (length >> 3) + (length >> 6) + 1;
+            int e3 = (left + right) >>> 1;
+            int e2 = e3 - seventh;
+            int e1 = e2 - seventh;
+            int e4 = e3 + seventh;
+            int e5 = e4 + seventh;
+            sortPair(a, e1, e2);
+            sortPair(a, e4, e5);
+            sortPair(a, e3, e5);
+            sortPair(a, e3, e4);
+            sortPair(a, e1, e4);
+            sortPair(a, e1, e3);
+            sortPair(a, e2, e5);
+            sortPair(a, e2, e4);
+            sortPair(a, e2, e3);
+            swap(a, e2, left);
+            swap(a, e4, right);
+            int pivot1 = a[left];
+            int pivot2 = a[right];
+
+            // Partition into three parts: [< pivot1], [pivot1 <= x <= pivot2], [> pivot2]
+            int less = left + 1;
+            int great = right - 1;
+            for (int k = less; k <= great; ++k) {
+                int ak = a[k];
+                if (ak < pivot1) {
+                    a[k] = a[less];
+                    a[less++] = ak;
+                } else if (ak > pivot2) {
+                    while (a[great] > pivot2 && k < great) {
+                        --great;
+                    }
+                    a[k] = a[great];
+                    a[great--] = ak;
+                    ak = a[k];
+                    if (ak < pivot1) {
+                        a[k] = a[less];
+                        a[less++] = ak;
+                    }
+                }
+            }
+            a[left] = a[less - 1];
+            a[less - 1] = pivot1;
+            a[right] = a[great + 1];
+            a[great + 1] = pivot2;
+
+            quicksort(a, left, less - 2, depth);
+            quicksort(a, great + 2, right, depth);
+            if (pivot1 == pivot2) {
+                return;
+            }
+
+            // Move elements equal to pivots out of the middle part, otherwise arrays with few distinct
+            // values degrade to quadratic time
+            int i = less;
+            while (i <= great) {
+                int ai = a[i];
+                if (ai == pivot1) {
+                    a[i++] = a[less];
+                    a[less++] = ai;
+                } else if (ai == pivot2) {
+                    a[i] = a[great];
+                    a[great--] = ai;
+                } else {
+                    ++i;
+                }
+            }
+            left = less;
+            right = great;
+        }
+        insertionSort(a, left, right);
+    }
+
+    private static void insertionSort(int[] a, int left, int right) {
+        for (int i = left + 1; i <= right; ++i) {
+            int ai = a[i];
+            int j = i - 1;
+            while (j >= left && a[j] > ai) {
+                a[j + 1] = a[j];
+                --j;
+            }
+            a[j + 1] = ai;
+        }
+    }
+
+    private static void heapSort(int[] a, int left, int right) {
+        int size = right - left + 1;
+        for (int i = size / 2 - 1; i >= 0; --i) {
+            siftDown(a, left, i, size);
+        }
+        for (int end = size - 1; end > 0; --end) {
+            swap(a, left, left + end);
+            siftDown(a, left, 0, end);
+        }
+    }
+
+    private static void siftDown(int[] a, int offset, int index, int size) {
+        int value = a[offset + index];
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && a[offset + child + 1] > a[offset + child]) {
+                ++child;
+            }
+            if (value >= a[offset + child]) {
+                break;
+            }
+            a[offset + index] = a[offset + child];
+            index = child;
+        }
+        a[offset + index] = value;
+    }
+
+    private static void sortPair(int[] a, int i, int j) {
+        if (a[i] > a[j]) {
+            swap(a, i, j);
+        }
+    }
+
+    private static void swap(int[] a, int i, int j) {
+        int tmp = a[i];
+        a[i] = a[j];
+        a[j] = tmp;
+    }
+
+    static void sort(long[] a, int fromIndex, int toIndex) {
+        quicksort(a, fromIndex, toIndex - 1, depthLimit(toIndex - fromIndex));
+    }
+
+    private static void quicksort(long[] a, int left, int right, int depth) {
+        while (right - left >= INSERTION_SORT_THRESHOLD) {
+            if (depth-- == 0) {
+                heapSort(a, left, right);
+                return;
+            }
+
+            // Take five evenly spaced elements, sort them and use second and fourth as pivots
+            int length = right - left + 1;
+            int seventh = (length >> 3) + (length >> 6) + 1;
+            int e3 = (left + right) >>> 1;
+            int e2 = e3 - seventh;
+            int e1 = e2 - seventh;
+            int e4 = e3 + seventh;
+            int e5 = e4 + seventh;
+            sortPair(a, e1, e2);
+            sortPair(a, e4, e5);
+            sortPair(a, e3, e5);
+            sortPair(a, e3, e4);
+            sortPair(a, e1, e4);
+            sortPair(a, e1, e3);
+            sortPair(a, e2, e5);
+            sortPair(a, e2, e4);
+            sortPair(a, e2, e3);
+            swap(a, e2, left);
+            swap(a, e4, right);
+            long pivot1 = a[left];
+            long pivot2 = a[right];
+
+            // Partition into three parts: [< pivot1], [pivot1 <= x <= pivot2], [> pivot2]
+            int less = left + 1;
+            int great = right - 1;
+            for (int k = less; k <= great; ++k) {
+                long ak = a[k];
+                if (ak < pivot1) {
+                    a[k] = a[less];
+                    a[less++] = ak;
+                } else if (ak > pivot2) {
+                    while (a[great] > pivot2 && k < great) {
+                        --great;
+                    }
+                    a[k] = a[great];
+                    a[great--] = ak;
+                    ak = a[k];
+                    if (ak < pivot1) {
+                        a[k] = a[less];
+                        a[less++] = ak;
+                    }
+                }
+            }
+            a[left] = a[less - 1];
+            a[less - 1] = pivot1;
+            a[right] = a[great + 1];
+            a[great + 1] = pivot2;
+
+            quicksort(a, left, less - 2, depth);
+            quicksort(a, great + 2, right, depth);
+            if (pivot1 == pivot2) {
+                return;
+            }
+
+            // Move elements equal to pivots out of the middle part, otherwise arrays with few distinct
+            // values degrade to quadratic time
+            int i = less;
+            while (i <= great) {
+                long ai = a[i];
+                if (ai == pivot1) {
+                    a[i++] = a[less];
+                    a[less++] = ai;
+                } else if (ai == pivot2) {
+                    a[i] = a[great];
+                    a[great--] = ai;
+                } else {
+                    ++i;
+                }
+            }
+            left = less;
+            right = great;
+        }
+        insertionSort(a, left, right);
+    }
+
+    private static void insertionSort(long[] a, int left, int right) {
+        for (int i = left + 1; i <= right; ++i) {
+            long ai = a[i];
+            int j = i - 1;
+            while (j >= left && a[j] > ai) {
+                a[j + 1] = a[j];
+                --j;
+            }
+            a[j + 1] = ai;
+        }
+    }
+
+    private static void heapSort(long[] a, int left, int right) {
+        int size = right - left + 1;
+        for (int i = size / 2 - 1; i >= 0; --i) {
+            siftDown(a, left, i, size);
+        }
+        for (int end = size - 1; end > 0; --end) {
+            swap(a, left, left + end);
+            siftDown(a, left, 0, end);
+        }
+    }
+
+    private static void siftDown(long[] a, int offset, int index, int size) {
+        long value = a[offset + index];
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && a[offset + child + 1] > a[offset + child]) {
+                ++child;
+            }
+            if (value >= a[offset + child]) {
+                break;
+            }
+            a[offset + index] = a[offset + child];
+            index = child;
+        }
+        a[offset + index] = value;
+    }
+
+    private static void sortPair(long[] a, int i, int j) {
+        if (a[i] > a[j]) {
+            swap(a, i, j);
+        }
+    }
+
+    private static void swap(long[] a, int i, int j) {
+        long tmp = a[i];
+        a[i] = a[j];
+        a[j] = tmp;
+    }
+
+    static void sort(short[] a, int fromIndex, int toIndex) {
+        if (toIndex - fromIndex > COUNTING_SORT_THRESHOLD_FOR_SHORT_OR_CHAR) {
+            int[] counts = new int[65536];
+            for (int i = fromIndex; i < toIndex; ++i) {
+                counts[a[i] - Short.MIN_VALUE]++;
+            }
+            int index = fromIndex;
+            for (int i = 0; i < counts.length; ++i) {
+                short value = (short) (i + Short.MIN_VALUE);
+                for (int count = counts[i]; count > 0; --count) {
+                    a[index++] = value;
+                }
+            }
+        } else {
+            quicksort(a, fromIndex, toIndex - 1, depthLimit(toIndex - fromIndex));
+        }
+    }
+
+    private static void quicksort(short[] a, int left, int right, int depth) {
+        while (right - left >= INSERTION_SORT_THRESHOLD) {
+            if (depth-- == 0) {
+                heapSort(a, left, right);
+                return;
+            }
+
+            // Take five evenly spaced elements, sort them and use second and fourth as pivots
+            int length = right - left + 1;
+            int seventh = (length >> 3) + (length >> 6) + 1;
+            int e3 = (left + right) >>> 1;
+            int e2 = e3 - seventh;
+            int e1 = e2 - seventh;
+            int e4 = e3 + seventh;
+            int e5 = e4 + seventh;
+            sortPair(a, e1, e2);
+            sortPair(a, e4, e5);
+            sortPair(a, e3, e5);
+            sortPair(a, e3, e4);
+            sortPair(a, e1, e4);
+            sortPair(a, e1, e3);
+            sortPair(a, e2, e5);
+            sortPair(a, e2, e4);
+            sortPair(a, e2, e3);
+            swap(a, e2, left);
+            swap(a, e4, right);
+            short pivot1 = a[left];
+            short pivot2 = a[right];
+
+            // Partition into three parts: [< pivot1], [pivot1 <= x <= pivot2], [> pivot2]
+            int less = left + 1;
+            int great = right - 1;
+            for (int k = less; k <= great; ++k) {
+                short ak = a[k];
+                if (ak < pivot1) {
+                    a[k] = a[less];
+                    a[less++] = ak;
+                } else if (ak > pivot2) {
+                    while (a[great] > pivot2 && k < great) {
+                        --great;
+                    }
+                    a[k] = a[great];
+                    a[great--] = ak;
+                    ak = a[k];
+                    if (ak < pivot1) {
+                        a[k] = a[less];
+                        a[less++] = ak;
+                    }
+                }
+            }
+            a[left] = a[less - 1];
+            a[less - 1] = pivot1;
+            a[right] = a[great + 1];
+            a[great + 1] = pivot2;
+
+            quicksort(a, left, less - 2, depth);
+            quicksort(a, great + 2, right, depth);
+            if (pivot1 == pivot2) {
+                return;
+            }
+
+            // Move elements equal to pivots out of the middle part, otherwise arrays with few distinct
+            // values degrade to quadratic time
+            int i = less;
+            while (i <= great) {
+                short ai = a[i];
+                if (ai == pivot1) {
+                    a[i++] = a[less];
+                    a[less++] = ai;
+                } else if (ai == pivot2) {
+                    a[i] = a[great];
+                    a[great--] = ai;
+                } else {
+                    ++i;
+                }
+            }
+            left = less;
+            right = great;
+        }
+        insertionSort(a, left, right);
+    }
+
+    private static void insertionSort(short[] a, int left, int right) {
+        for (int i = left + 1; i <= right; ++i) {
+            short ai = a[i];
+            int j = i - 1;
+            while (j >= left && a[j] > ai) {
+                a[j + 1] = a[j];
+                --j;
+            }
+            a[j + 1] = ai;
+        }
+    }
+
+    private static void heapSort(short[] a, int left, int right) {
+        int size = right - left + 1;
+        for (int i = size / 2 - 1; i >= 0; --i) {
+            siftDown(a, left, i, size);
+        }
+        for (int end = size - 1; end > 0; --end) {
+            swap(a, left, left + end);
+            siftDown(a, left, 0, end);
+        }
+    }
+
+    private static void siftDown(short[] a, int offset, int index, int size) {
+        short value = a[offset + index];
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && a[offset + child + 1] > a[offset + child]) {
+                ++child;
+            }
+            if (value >= a[offset + child]) {
+                break;
+            }
+            a[offset + index] = a[offset + child];
+            index = child;
+        }
+        a[offset + index] = value;
+    }
+
+    private static void sortPair(short[] a, int i, int j) {
+        if (a[i] > a[j]) {
+            swap(a, i, j);
+        }
+    }
+
+    private static void swap(short[] a, int i, int j) {
+        short tmp = a[i];
+        a[i] = a[j];
+        a[j] = tmp;
+    }
+
+    static void sort(char[] a, int fromIndex, int toIndex) {
+        if (toIndex - fromIndex > COUNTING_SORT_THRESHOLD_FOR_SHORT_OR_CHAR) {
+            int[] counts = new int[65536];
+            for (int i = fromIndex; i < toIndex; ++i) {
+                counts[a[i]]++;
+            }
+            int index = fromIndex;
+            for (int i = 0; i < counts.length; ++i) {
+                char value = (char) i;
+                for (int count = counts[i]; count > 0; --count) {
+                    a[index++] = value;
+                }
+            }
+        } else {
+            quicksort(a, fromIndex, toIndex - 1, depthLimit(toIndex - fromIndex));
+        }
+    }
+
+    private static void quicksort(char[] a, int left, int right, int depth) {
+        while (right - left >= INSERTION_SORT_THRESHOLD) {
+            if (depth-- == 0) {
+                heapSort(a, left, right);
+                return;
+            }
+
+            // Take five evenly spaced elements, sort them and use second and fourth as pivots
+            int length = right - left + 1;
+            int seventh = (length >> 3) + (length >> 6) + 1;
+            int e3 = (left + right) >>> 1;
+            int e2 = e3 - seventh;
+            int e1 = e2 - seventh;
+            int e4 = e3 + seventh;
+            int e5 = e4 + seventh;
+            sortPair(a, e1, e2);
+            sortPair(a, e4, e5);
+            sortPair(a, e3, e5);
+            sortPair(a, e3, e4);
+            sortPair(a, e1, e4);
+            sortPair(a, e1, e3);
+            sortPair(a, e2, e5);
+            sortPair(a, e2, e4);
+            sortPair(a, e2, e3);
+            swap(a, e2, left);
+            swap(a, e4, right);
+            char pivot1 = a[left];
+            char pivot2 = a[right];
+
+            // Partition into three parts: [< pivot1], [pivot1 <= x <= pivot2], [> pivot2]
+            int less = left + 1;
+            int great = right - 1;
+            for (int k = less; k <= great; ++k) {
+                char ak = a[k];
+                if (ak < pivot1) {
+                    a[k] = a[less];
+                    a[less++] = ak;
+                } else if (ak > pivot2) {
+                    while (a[great] > pivot2 && k < great) {
+                        --great;
+                    }
+                    a[k] = a[great];
+                    a[great--] = ak;
+                    ak = a[k];
+                    if (ak < pivot1) {
+                        a[k] = a[less];
+                        a[less++] = ak;
+                    }
+                }
+            }
+            a[left] = a[less - 1];
+            a[less - 1] = pivot1;
+            a[right] = a[great + 1];
+            a[great + 1] = pivot2;
+
+            quicksort(a, left, less - 2, depth);
+            quicksort(a, great + 2, right, depth);
+            if (pivot1 == pivot2) {
+                return;
+            }
+
+            // Move elements equal to pivots out of the middle part, otherwise arrays with few distinct
+            // values degrade to quadratic time
+            int i = less;
+            while (i <= great) {
+                char ai = a[i];
+                if (ai == pivot1) {
+                    a[i++] = a[less];
+                    a[less++] = ai;
+                } else if (ai == pivot2) {
+                    a[i] = a[great];
+                    a[great--] = ai;
+                } else {
+                    ++i;
+                }
+            }
+            left = less;
+            right = great;
+        }
+        insertionSort(a, left, right);
+    }
+
+    private static void insertionSort(char[] a, int left, int right) {
+        for (int i = left + 1; i <= right; ++i) {
+            char ai = a[i];
+            int j = i - 1;
+            while (j >= left && a[j] > ai) {
+                a[j + 1] = a[j];
+                --j;
+            }
+            a[j + 1] = ai;
+        }
+    }
+
+    private static void heapSort(char[] a, int left, int right) {
+        int size = right - left + 1;
+        for (int i = size / 2 - 1; i >= 0; --i) {
+            siftDown(a, left, i, size);
+        }
+        for (int end = size - 1; end > 0; --end) {
+            swap(a, left, left + end);
+            siftDown(a, left, 0, end);
+        }
+    }
+
+    private static void siftDown(char[] a, int offset, int index, int size) {
+        char value = a[offset + index];
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && a[offset + child + 1] > a[offset + child]) {
+                ++child;
+            }
+            if (value >= a[offset + child]) {
+                break;
+            }
+            a[offset + index] = a[offset + child];
+            index = child;
+        }
+        a[offset + index] = value;
+    }
+
+    private static void sortPair(char[] a, int i, int j) {
+        if (a[i] > a[j]) {
+            swap(a, i, j);
+        }
+    }
+
+    private static void swap(char[] a, int i, int j) {
+        char tmp = a[i];
+        a[i] = a[j];
+        a[j] = tmp;
+    }
+
+    static void sort(byte[] a, int fromIndex, int toIndex) {
+        if (toIndex - fromIndex > COUNTING_SORT_THRESHOLD_FOR_BYTE) {
+            int[] counts = new int[256];
+            for (int i = fromIndex; i < toIndex; ++i) {
+                counts[a[i] - Byte.MIN_VALUE]++;
+            }
+            int index = fromIndex;
+            for (int i = 0; i < counts.length; ++i) {
+                byte value = (byte) (i + Byte.MIN_VALUE);
+                for (int count = counts[i]; count > 0; --count) {
+                    a[index++] = value;
+                }
+            }
+        } else {
+            quicksort(a, fromIndex, toIndex - 1, depthLimit(toIndex - fromIndex));
+        }
+    }
+
+    private static void quicksort(byte[] a, int left, int right, int depth) {
+        while (right - left >= INSERTION_SORT_THRESHOLD) {
+            if (depth-- == 0) {
+                heapSort(a, left, right);
+                return;
+            }
+
+            // Take five evenly spaced elements, sort them and use second and fourth as pivots
+            int length = right - left + 1;
+            int seventh = (length >> 3) + (length >> 6) + 1;
+            int e3 = (left + right) >>> 1;
+            int e2 = e3 - seventh;
+            int e1 = e2 - seventh;
+            int e4 = e3 + seventh;
+            int e5 = e4 + seventh;
+            sortPair(a, e1, e2);
+            sortPair(a, e4, e5);
+            sortPair(a, e3, e5);
+            sortPair(a, e3, e4);
+            sortPair(a, e1, e4);
+            sortPair(a, e1, e3);
+            sortPair(a, e2, e5);
+            sortPair(a, e2, e4);
+            sortPair(a, e2, e3);
+            swap(a, e2, left);
+            swap(a, e4, right);
+            byte pivot1 = a[left];
+            byte pivot2 = a[right];
+
+            // Partition into three parts: [< pivot1], [pivot1 <= x <= pivot2], [> pivot2]
+            int less = left + 1;
+            int great = right - 1;
+            for (int k = less; k <= great; ++k) {
+                byte ak = a[k];
+                if (ak < pivot1) {
+                    a[k] = a[less];
+                    a[less++] = ak;
+                } else if (ak > pivot2) {
+                    while (a[great] > pivot2 && k < great) {
+                        --great;
+                    }
+                    a[k] = a[great];
+                    a[great--] = ak;
+                    ak = a[k];
+                    if (ak < pivot1) {
+                        a[k] = a[less];
+                        a[less++] = ak;
+                    }
+                }
+            }
+            a[left] = a[less - 1];
+            a[less - 1] = pivot1;
+            a[right] = a[great + 1];
+            a[great + 1] = pivot2;
+
+            quicksort(a, left, less - 2, depth);
+            quicksort(a, great + 2, right, depth);
+            if (pivot1 == pivot2) {
+                return;
+            }
+
+            // Move elements equal to pivots out of the middle part, otherwise arrays with few distinct
+            // values degrade to quadratic time
+            int i = less;
+            while (i <= great) {
+                byte ai = a[i];
+                if (ai == pivot1) {
+                    a[i++] = a[less];
+                    a[less++] = ai;
+                } else if (ai == pivot2) {
+                    a[i] = a[great];
+                    a[great--] = ai;
+                } else {
+                    ++i;
+                }
+            }
+            left = less;
+            right = great;
+        }
+        insertionSort(a, left, right);
+    }
+
+    private static void insertionSort(byte[] a, int left, int right) {
+        for (int i = left + 1; i <= right; ++i) {
+            byte ai = a[i];
+            int j = i - 1;
+            while (j >= left && a[j] > ai) {
+                a[j + 1] = a[j];
+                --j;
+            }
+            a[j + 1] = ai;
+        }
+    }
+
+    private static void heapSort(byte[] a, int left, int right) {
+        int size = right - left + 1;
+        for (int i = size / 2 - 1; i >= 0; --i) {
+            siftDown(a, left, i, size);
+        }
+        for (int end = size - 1; end > 0; --end) {
+            swap(a, left, left + end);
+            siftDown(a, left, 0, end);
+        }
+    }
+
+    private static void siftDown(byte[] a, int offset, int index, int size) {
+        byte value = a[offset + index];
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && a[offset + child + 1] > a[offset + child]) {
+                ++child;
+            }
+            if (value >= a[offset + child]) {
+                break;
+            }
+            a[offset + index] = a[offset + child];
+            index = child;
+        }
+        a[offset + index] = value;
+    }
+
+    private static void sortPair(byte[] a, int i, int j) {
+        if (a[i] > a[j]) {
+            swap(a, i, j);
+        }
+    }
+
+    private static void swap(byte[] a, int i, int j) {
+        byte tmp = a[i];
+        a[i] = a[j];
+        a[j] = tmp;
+    }
+
+    static void sort(float[] a, int fromIndex, int toIndex) {
+        // Comparison operators don't order NaN and -0.0 the way Float.compare does. Move NaNs to the end,
+        // replace -0.0 with 0.0 and restore negative zeros after sorting.
+        int last = toIndex - 1;
+        while (last >= fromIndex && a[last] != a[last]) {
+            --last;
+        }
+        int negativeZeros = 0;
+        for (int k = last; k >= fromIndex; --k) {
+            float ak = a[k];
+            if (ak != ak) {
+                a[k] = a[last];
+                a[last--] = ak;
+            } else if (ak == 0 && 1 / ak < 0) {
+                a[k] = 0;
+                negativeZeros++;
+            }
+        }
+
+        quicksort(a, fromIndex, last, depthLimit(last - fromIndex + 1));
+
+        if (negativeZeros > 0) {
+            int low = fromIndex;
+            int high = last;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                if (a[middle] < 0) {
+                    low = middle + 1;
+                } else {
+                    high = middle - 1;
+                }
+            }
+            for (int k = 0; k < negativeZeros; ++k) {
+                a[low + k] = -0.0f;
+            }
+        }
+    }
+
+    private static void quicksort(float[] a, int left, int right, int depth) {
+        while (right - left >= INSERTION_SORT_THRESHOLD) {
+            if (depth-- == 0) {
+                heapSort(a, left, right);
+                return;
+            }
+
+            // Take five evenly spaced elements, sort them and use second and fourth as pivots
+            int length = right - left + 1;
+            int seventh = (length >> 3) + (length >> 6) + 1;
+            int e3 = (left + right) >>> 1;
+            int e2 = e3 - seventh;
+            int e1 = e2 - seventh;
+            int e4 = e3 + seventh;
+            int e5 = e4 + seventh;
+            sortPair(a, e1, e2);
+            sortPair(a, e4, e5);
+            sortPair(a, e3, e5);
+            sortPair(a, e3, e4);
+            sortPair(a, e1, e4);
+            sortPair(a, e1, e3);
+            sortPair(a, e2, e5);
+            sortPair(a, e2, e4);
+            sortPair(a, e2, e3);
+            swap(a, e2, left);
+            swap(a, e4, right);
+            float pivot1 = a[left];
+            float pivot2 = a[right];
+
+            // Partition into three parts: [< pivot1], [pivot1 <= x <= pivot2], [> pivot2]
+            int less = left + 1;
+            int great = right - 1;
+            for (int k = less; k <= great; ++k) {
+                float ak = a[k];
+                if (ak < pivot1) {
+                    a[k] = a[less];
+                    a[less++] = ak;
+                } else if (ak > pivot2) {
+                    while (a[great] > pivot2 && k < great) {
+                        --great;
+                    }
+                    a[k] = a[great];
+                    a[great--] = ak;
+                    ak = a[k];
+                    if (ak < pivot1) {
+                        a[k] = a[less];
+                        a[less++] = ak;
+                    }
+                }
+            }
+            a[left] = a[less - 1];
+            a[less - 1] = pivot1;
+            a[right] = a[great + 1];
+            a[great + 1] = pivot2;
+
+            quicksort(a, left, less - 2, depth);
+            quicksort(a, great + 2, right, depth);
+            if (pivot1 == pivot2) {
+                return;
+            }
+
+            // Move elements equal to pivots out of the middle part, otherwise arrays with few distinct
+            // values degrade to quadratic time
+            int i = less;
+            while (i <= great) {
+                float ai = a[i];
+                if (ai == pivot1) {
+                    a[i++] = a[less];
+                    a[less++] = ai;
+                } else if (ai == pivot2) {
+                    a[i] = a[great];
+                    a[great--] = ai;
+                } else {
+                    ++i;
+                }
+            }
+            left = less;
+            right = great;
+        }
+        insertionSort(a, left, right);
+    }
+
+    private static void insertionSort(float[] a, int left, int right) {
+        for (int i = left + 1; i <= right; ++i) {
+            float ai = a[i];
+            int j = i - 1;
+            while (j >= left && a[j] > ai) {
+                a[j + 1] = a[j];
+                --j;
+            }
+            a[j + 1] = ai;
+        }
+    }
+
+    private static void heapSort(float[] a, int left, int right) {
+        int size = right - left + 1;
+        for (int i = size / 2 - 1; i >= 0; --i) {
+            siftDown(a, left, i, size);
+        }
+        for (int end = size - 1; end > 0; --end) {
+            swap(a, left, left + end);
+            siftDown(a, left, 0, end);
+        }
+    }
+
+    private static void siftDown(float[] a, int offset, int index, int size) {
+        float value = a[offset + index];
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && a[offset + child + 1] > a[offset + child]) {
+                ++child;
+            }
+            if (value >= a[offset + child]) {
+                break;
+            }
+            a[offset + index] = a[offset + child];
+            index = child;
+        }
+        a[offset + index] = value;
+    }
+
+    private static void sortPair(float[] a, int i, int j) {
+        if (a[i] > a[j]) {
+            swap(a, i, j);
+        }
+    }
+
+    private static void swap(float[] a, int i, int j) {
+        float tmp = a[i];
+        a[i] = a[j];
+        a[j] = tmp;
+    }
+
+    static void sort(double[] a, int fromIndex, int toIndex) {
+        // Comparison operators don't order NaN and -0.0 the way Double.compare does. Move NaNs to the end,
+        // replace -0.0 with 0.0 and restore negative zeros after sorting.
+        int last = toIndex - 1;
+        while (last >= fromIndex && a[last] != a[last]) {
+            --last;
+        }
+        int negativeZeros = 0;
+        for (int k = last; k >= fromIndex; --k) {
+            double ak = a[k];
+            if (ak != ak) {
+                a[k] = a[last];
+                a[last--] = ak;
+            } else if (ak == 0 && 1 / ak < 0) {
+                a[k] = 0;
+                negativeZeros++;
+            }
+        }
+
+        quicksort(a, fromIndex, last, depthLimit(last - fromIndex + 1));
+
+        if (negativeZeros > 0) {
+            int low = fromIndex;
+            int high = last;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                if (a[middle] < 0) {
+                    low = middle + 1;
+                } else {
+                    high = middle - 1;
+                }
+            }
+            for (int k = 0; k < negativeZeros; ++k) {
+                a[low + k] = -0.0;
+            }
+        }
+    }
+
+    private static void quicksort(double[] a, int left, int right, int depth) {
+        while (right - left >= INSERTION_SORT_THRESHOLD) {
+            if (depth-- == 0) {
+                heapSort(a, left, right);
+                return;
+            }
+
+            // Take five evenly spaced elements, sort them and use second and fourth as pivots
+            int length = right - left + 1;
+            int seventh = (length >> 3) + (length >> 6) + 1;
+            int e3 = (left + right) >>> 1;
+            int e2 = e3 - seventh;
+            int e1 = e2 - seventh;
+            int e4 = e3 + seventh;
+            int e5 = e4 + seventh;
+            sortPair(a, e1, e2);
+            sortPair(a, e4, e5);
+            sortPair(a, e3, e5);
+            sortPair(a, e3, e4);
+            sortPair(a, e1, e4);
+            sortPair(a, e1, e3);
+            sortPair(a, e2, e5);
+            sortPair(a, e2, e4);
+            sortPair(a, e2, e3);
+            swap(a, e2, left);
+            swap(a, e4, right);
+            double pivot1 = a[left];
+            double pivot2 = a[right];
+
+            // Partition into three parts: [< pivot1], [pivot1 <= x <= pivot2], [> pivot2]
+            int less = left + 1;
+            int great = right - 1;
+            for (int k = less; k <= great; ++k) {
+                double ak = a[k];
+                if (ak < pivot1) {
+                    a[k] = a[less];
+                    a[less++] = ak;
+                } else if (ak > pivot2) {
+                    while (a[great] > pivot2 && k < great) {
+                        --great;
+                    }
+                    a[k] = a[great];
+                    a[great--] = ak;
+                    ak = a[k];
+                    if (ak < pivot1) {
+                        a[k] = a[less];
+                        a[less++] = ak;
+                    }
+                }
+            }
+            a[left] = a[less - 1];
+            a[less - 1] = pivot1;
+            a[right] = a[great + 1];
+            a[great + 1] = pivot2;
+
+            quicksort(a, left, less - 2, depth);
+            quicksort(a, great + 2, right, depth);
+            if (pivot1 == pivot2) {
+                return;
+            }
+
+            // Move elements equal to pivots out of the middle part, otherwise arrays with few distinct
+            // values degrade to quadratic time
+            int i = less;
+            while (i <= great) {
+                double ai = a[i];
+                if (ai == pivot1) {
+                    a[i++] = a[less];
+                    a[less++] = ai;
+                } else if (ai == pivot2) {
+                    a[i] = a[great];
+                    a[great--] = ai;
+                } else {
+                    ++i;
+                }
+            }
+            left = less;
+            right = great;
+        }
+        insertionSort(a, left, right);
+    }
+
+    private static void insertionSort(double[] a, int left, int right) {
+        for (int i = left + 1; i <= right; ++i) {
+            double ai = a[i];
+            int j = i - 1;
+            while (j >= left && a[j] > ai) {
+                a[j + 1] = a[j];
+                --j;
+            }
+            a[j + 1] = ai;
+        }
+    }
+
+    private static void heapSort(double[] a, int left, int right) {
+        int size = right - left + 1;
+        for (int i = size / 2 - 1; i >= 0; --i) {
+            siftDown(a, left, i, size);
+        }
+        for (int end = size - 1; end > 0; --end) {
+            swap(a, left, left + end);
+            siftDown(a, left, 0, end);
+        }
+    }
+
+    private static void siftDown(double[] a, int offset, int index, int size) {
+        double value = a[offset + index];
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && a[offset + child + 1] > a[offset + child]) {
+                ++child;
+            }
+            if (value >= a[offset + child]) {
+                break;
+            }
+            a[offset + index] = a[offset + child];
+            index = child;
+        }
+        a[offset + index] = value;
+    }
+
+    private static void sortPair(double[] a, int i, int j) {
+        if (a[i] > a[j]) {
+            swap(a, i, j);
+        }
+    }
+
+    private static void swap(double[] a, int i, int j) {
+        double tmp = a[i];
+        a[i] = a[j];
+        a[j] = tmp;
+    }
+}
@@ -23,18 +23,23 @@ import java.io.OutputStreamWriter;
 import java.io.PrintStream;
 import java.io.UnsupportedEncodingException;
 import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.text.DecimalFormat;
 import java.text.DecimalFormatSymbols;
 import java.text.NumberFormat;
+import java.util.ArrayList;
 import java.util.DuplicateFormatFlagsException;
 import java.util.FormatFlagsConversionMismatchException;
 import java.util.IllegalFormatConversionException;
+import java.util.List;
 import java.util.Locale;
 import java.util.UnknownFormatConversionException;
 import org.teavm.classlib.impl.IntegerUtil;
+import org.teavm.classlib.impl.text.PatternCache;
 import org.teavm.classlib.java.text.TDecimalFormat;
 
 public final class TFormatter implements Closeable, Flushable {
+    private static final PatternCache<FormatSpecifier[]> parsedFormats = new PatternCache<>(32);
     private Locale locale;
     private Appendable out;
     private IOException ioException;
@@ -131,9 +136,6 @@ public final class TFormatter implements Closeable, Flushable {
     public TFormatter format(Locale l, String format, Object... args) {
         requireOpen();
         try {
-            if (args == null) {
-                args = new Object[1];
-            }
             new FormatWriter(this, out, l, format, args).write();
         } catch (IOException e) {
             ioException = e;
@@ -141,6 +143,42 @@ public final class TFormatter implements Closeable, Flushable {
         return this;
     }
 
+    static FormatSpecifier[] parse(String format) {
+        FormatSpecifier[] specifiers = parsedFormats.get(format);
+        if (specifiers == null) {
+            specifiers = new FormatParser(format).parse();
+            parsedFormats.put(format, specifiers);
+        }
+        return specifiers;
+    }
+
+    static final class FormatSpecifier {
+        final String text;
+        final char conversion;
+        final int flags;
+        final int argumentIndex;
+        final int width;
+        final int precision;
+        final int start;
+        final int end;
+
+        FormatSpecifier(String text) {
+            this(text, '\0', 0, -1, -1, -1, -1, -1);
+        }
+
+        FormatSpecifier(String text, char conversion, int flags, int argumentIndex, int width, int precision,
+                int start, int end) {
+            this.text = text;
+            this.conversion = conversion;
+            this.flags = flags;
+            this.argumentIndex = argumentIndex;
+            this.width = width;
+            this.precision = precision;
+            this.start = start;
+            this.end = end;
+        }
+    }
+
     static class FormatWriter {
         private static final String FORMAT_FLAGS = "--#+ 0,(<";
         private static final int MASK_FOR_GENERAL_FORMAT =
@@ -177,19 +215,23 @@ public final class TFormatter implements Closeable, Flushable {
         }
 
         void write() throws IOException {
-            while (true) {
-                int next = format.indexOf('%', index);
-                if (next < 0) {
-                    out.append(format.substring(index));
-                    break;
+            for (FormatSpecifier specifier : parse(format)) {
+                if (specifier.text != null) {
+                    out.append(specifier.text);
+                    continue;
                 }
-                out.append(format.substring(index, next));
-                index = next + 1;
-
-                formatSpecifierStart = index;
-                char specifier = parseFormatSpecifier();
+                if (specifier.conversion == '%') {
+                    out.append("%");
+                    continue;
+                }
+                formatSpecifierStart = specifier.start;
+                index = specifier.end;
+                flags = specifier.flags;
+                argumentIndex = specifier.argumentIndex;
+                width = specifier.width;
+                precision = specifier.precision;
                 configureFormat();
-                formatValue(specifier);
+                formatValue(specifier.conversion);
             }
         }
 
@@ -246,9 +288,6 @@ public final class TFormatter implements Closeable, Flushable {
                     formatFloat(specifier, false);
                     break;
 
-                case '%':
-                    out.append("%");
-                    break;
                 default:
                     throw new UnknownFormatConversionException(String.valueOf(specifier));
             }
@@ -262,7 +301,7 @@ public final class TFormatter implements Closeable, Flushable {
                 precision = 6;
             }
 
-            Object arg = args[argumentIndex];
+            Object arg = argument();
             boolean negative;
             if (arg instanceof Double) {
                 negative = (Double) arg < 0;
@@ -339,21 +378,21 @@ public final class TFormatter implements Closeable, Flushable {
 
         private void formatBoolean(char specifier, boolean upperCase) throws IOException {
             verifyFlagsForGeneralFormat(specifier);
-            Object arg = args[argumentIndex];
+            Object arg = argument();
             String s = Boolean.toString(arg instanceof Boolean ? (Boolean) arg : arg != null);
             formatGivenString(upperCase, s);
         }
 
         private void formatHex(char specifier, boolean upperCase) throws IOException {
             verifyFlagsForGeneralFormat(specifier);
-            Object arg = args[argumentIndex];
+            Object arg = argument();
             String s = arg != null ? Integer.toHexString(arg.hashCode()) : "null";
             formatGivenString(upperCase, s);
         }
 
         private void formatString(char specifier, boolean upperCase) throws IOException {
             verifyFlagsForGeneralFormat(specifier);
-            Object arg = args[argumentIndex];
+            Object arg = argument();
             if (arg instanceof TFormattable) {
                 int flagsToPass = flags & 7;
                 if (upperCase) {
@@ -367,7 +406,7 @@ public final class TFormatter implements Closeable, Flushable {
 
         private void formatChar(char specifier, boolean upperCase) throws IOException {
             verifyFlags(specifier, MASK_FOR_CHAR_FORMAT);
-            Object arg = args[argumentIndex];
+            Object arg = argument();
 
             if (precision >= 0) {
                 throw new TIllegalFormatPrecisionException(precision);
@@ -400,7 +439,7 @@ public final class TFormatter implements Closeable, Flushable {
             verifyIntFlags();
 
             String str;
-            Object arg = args[argumentIndex];
+            Object arg = argument();
             boolean negative;
             if (arg instanceof Long) {
                 long value = (Long) arg;
@@ -410,8 +449,15 @@ public final class TFormatter implements Closeable, Flushable {
                 int value = ((Number) arg).intValue();
                 str = Integer.toString(Math.abs(value));
                 negative = value < 0;
+            } else if (arg instanceof BigInteger) {
+                BigInteger value = (BigInteger) arg;
+                str = value.abs().toString();
+                negative = value.signum() < 0;
+            } else if (arg == null) {
+                formatGivenString(upperCase, "null");
+                return;
             } else {
-                throw new IllegalFormatConversionException(specifier, arg != null ? arg.getClass() : null);
+                throw new IllegalFormatConversionException(specifier, arg.getClass());
             }
 
             int additionalSymbols = 0;
@@ -474,7 +520,7 @@ public final class TFormatter implements Closeable, Flushable {
             verifyIntFlags();
 
             String str;
-            Object arg = args[argumentIndex];
+            Object arg = argument();
             if (arg instanceof Long) {
                 str = IntegerUtil.toUnsignedLogRadixString((Long) arg, radixLog2);
             } else if (arg instanceof Integer) {
@@ -570,9 +616,52 @@ public final class TFormatter implements Closeable, Flushable {
             if (argumentIndex == -1) {
                 argumentIndex = defaultArgumentIndex++;
             }
+            if (args != null && argumentIndex >= args.length) {
+                throw new TMissingFormatArgumentException(format.substring(formatSpecifierStart, index));
+            }
             previousArgumentIndex = argumentIndex;
         }
 
+        private Object argument() {
+            return args != null ? args[argumentIndex] : null;
+        }
+    }
+
+    static class FormatParser {
+        private String format;
+        private int index;
+        private int flags;
+        private int argumentIndex;
+        private int width;
+        private int precision;
+
+        FormatParser(String format) {
+            this.format = format;
+        }
+
+        FormatSpecifier[] parse() {
+            List<FormatSpecifier> specifiers = new ArrayList<>();
+            while (true) {
+                int next = format.indexOf('%', index);
+                if (next < 0) {
+                    if (index < format.length()) {
+                        specifiers.add(new FormatSpecifier(format.substring(index)));
+                    }
+                    break;
+                }
+                if (next > index) {
+                    specifiers.add(new FormatSpecifier(format.substring(index, next)));
+                }
+                index = next + 1;
+
+                int start = index;
+                char conversion = parseFormatSpecifier();
+                specifiers.add(new FormatSpecifier(null, conversion, flags, argumentIndex, width, precision,
+                        start, index));
+            }
+            return specifiers.toArray(new FormatSpecifier[0]);
+        }
+
         private char parseFormatSpecifier() {
             flags = 0;
             argumentIndex = -1;
@@ -19,6 +19,7 @@ import java.util.Arrays;
 import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
+import org.teavm.classlib.impl.HashBucketTree;
 import org.teavm.classlib.java.io.TSerializable;
 import org.teavm.classlib.java.lang.TCloneNotSupportedException;
 import org.teavm.classlib.java.lang.TCloneable;
@@ -33,8 +34,15 @@ public class THashMap<K, V> extends TAbstractMap<K, V> implements TCloneable, TS
     transient int modCount;
     private static final int DEFAULT_SIZE = 16;
     private static final float DEFAULT_LOAD_FACTOR = 0.75f;
+    private static final int TREEIFY_THRESHOLD = 8;
+    private static final int UNTREEIFY_THRESHOLD = 6;
+    private static final int MIN_TREEIFY_CAPACITY = 64;
+    // Stored in place of a bucket tree when the bucket can't be indexed, so that the chain isn't walked
+    // again on every insertion. Cleared on rehash, since the bucket is split then.
+    private static final HashBucketTree<?> UNTREEIFIABLE = HashBucketTree.empty();
     final float loadFactor;
     int threshold;
+    transient HashBucketTree<HashEntry<K, V>>[] bucketTrees;
 
     static class HashEntry<K, V> extends TMapEntry<K, V> {
         final int origKeyHash;
@@ -48,7 +56,7 @@ public class THashMap<K, V> extends TAbstractMap<K, V> implements TCloneable, TS
 
         HashEntry(K theKey, V theValue) {
             super(theKey, theValue);
-            origKeyHash = TObjects.hashCode(theKey);
+            origKeyHash = hash(theKey);
         }
 
         @Override
@@ -120,12 +128,13 @@ public class THashMap<K, V> extends TAbstractMap<K, V> implements TCloneable, TS
             if (currentEntry == null) {
                 throw new TIllegalStateException();
             }
+            int index = currentEntry.origKeyHash & (associatedMap.elementData.length - 1);
             if (prevEntry == null) {
-                int index = currentEntry.origKeyHash & (associatedMap.elementData.length - 1);
                 associatedMap.elementData[index] = associatedMap.elementData[index].next;
             } else {
                 prevEntry.next = currentEntry.next;
             }
+            associatedMap.removeFromBucketTree(currentEntry, index);
             currentEntry = null;
             expectedModCount++;
             associatedMap.modCount++;
@@ -302,6 +311,7 @@ public class THashMap<K, V> extends TAbstractMap<K, V> implements TCloneable, TS
         if (elementCount > 0) {
             elementCount = 0;
             Arrays.fill(elementData, null);
+            bucketTrees = null;
             modCount++;
         }
     }
@@ -313,6 +323,7 @@ public class THashMap<K, V> extends TAbstractMap<K, V> implements TCloneable, TS
             THashMap<K, V> map = (THashMap<K, V>) super.clone();
             map.elementCount = 0;
             map.elementData = newElementArray(elementData.length);
+            map.bucketTrees = null;
             map.putAll(this);
 
             return map;
@@ -376,7 +387,7 @@ public class THashMap<K, V> extends TAbstractMap<K, V> implements TCloneable, TS
         if (key == null) {
             m = findNullKeyEntry();
         } else {
-            int hash = key.hashCode();
+            int hash = hash(key);
             int index = hash & (elementData.length - 1);
             m = findNonNullKeyEntry(key, index, hash);
         }
@@ -384,6 +395,13 @@ public class THashMap<K, V> extends TAbstractMap<K, V> implements TCloneable, TS
     }
 
     final HashEntry<K, V> findNonNullKeyEntry(Object key, int index, int keyHash) {
+        if (bucketTrees != null) {
+            var tree = bucketTrees[index];
+            if (tree != null && tree.accepts(key)) {
+                var m = tree.find(keyHash, key);
+                return m != null && areEqualKeys(key, m.key) ? m : null;
+            }
+        }
         HashEntry<K, V> m = elementData[index];
         while (m != null && (m.origKeyHash != keyHash || !areEqualKeys(key, m.key))) {
             m = m.next;
@@ -458,10 +476,12 @@ public class THashMap<K, V> extends TAbstractMap<K, V> implements TCloneable, TS
                 entry = createHashedEntry(null, 0, 0);
                 if (++elementCount > threshold) {
                     rehash();
+                } else {
+                    addToBucketTree(entry, 0);
                 }
             }
         } else {
-            int hash = key.hashCode();
+            int hash = hash(key);
             int index = hash & (elementData.length - 1);
             entry = findNonNullKeyEntry(key, index, hash);
             if (entry == null) {
@@ -469,6 +489,8 @@ public class THashMap<K, V> extends TAbstractMap<K, V> implements TCloneable, TS
                 entry = createHashedEntry(key, index, hash);
                 if (++elementCount > threshold) {
                     rehash();
+                } else {
+                    addToBucketTree(entry, index);
                 }
             }
         }
@@ -485,6 +507,95 @@ public class THashMap<K, V> extends TAbstractMap<K, V> implements TCloneable, TS
         return entry;
     }
 
+    final void addToBucketTree(HashEntry<K, V> entry, int index) {
+        var tree = bucketTrees != null ? bucketTrees[index] : null;
+        if (tree == UNTREEIFIABLE) {
+            return;
+        }
+        if (tree != null) {
+            if (!tree.add(entry.origKeyHash, entry.key, entry)) {
+                markUntreeifiable(index);
+                return;
+            }
+            // Chains of buckets with trees are kept in tree order, so that the tree can tell
+            // which entry to unlink an entry from. New entry is at the head now.
+            var lower = tree.lower(entry.origKeyHash, entry.key);
+            if (lower != null) {
+                elementData[index] = entry.next;
+                entry.next = lower.next;
+                lower.next = entry;
+            }
+        } else if (bucketLength(index) >= TREEIFY_THRESHOLD) {
+            if (elementData.length < MIN_TREEIFY_CAPACITY) {
+                rehash();
+            } else {
+                treeifyBucket(index);
+            }
+        }
+    }
+
+    final void removeFromBucketTree(HashEntry<K, V> entry, int index) {
+        if (bucketTrees != null) {
+            var tree = bucketTrees[index];
+            if (tree != null && tree != UNTREEIFIABLE) {
+                tree.remove(entry.origKeyHash, entry.key);
+                if (tree.size() <= UNTREEIFY_THRESHOLD) {
+                    bucketTrees[index] = null;
+                }
+            }
+        }
+    }
+
+    private int bucketLength(int index) {
+        int length = 0;
+        for (var entry = elementData[index]; entry != null && length < TREEIFY_THRESHOLD; entry = entry.next) {
+            length++;
+        }
+        return length;
+    }
+
+    private void treeifyBucket(int index) {
+        var first = elementData[index];
+        HashBucketTree<HashEntry<K, V>> tree = HashBucketTree.create(first.key);
+        if (tree == null) {
+            markUntreeifiable(index);
+            return;
+        }
+        for (var entry = first.next; entry != null; entry = entry.next) {
+            if (!tree.accepts(entry.key)) {
+                markUntreeifiable(index);
+                return;
+            }
+        }
+        for (var entry = first; entry != null; entry = entry.next) {
+            if (!tree.add(entry.origKeyHash, entry.key, entry)) {
+                markUntreeifiable(index);
+                return;
+            }
+        }
+
+        var entries = tree.entries(newElementArray(tree.size()));
+        elementData[index] = entries[0];
+        for (int i = 1; i < entries.length; i++) {
+            entries[i - 1].next = entries[i];
+        }
+        entries[entries.length - 1].next = null;
+        setBucketTree(index, tree);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void markUntreeifiable(int index) {
+        setBucketTree(index, (HashBucketTree<HashEntry<K, V>>) UNTREEIFIABLE);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void setBucketTree(int index, HashBucketTree<HashEntry<K, V>> tree) {
+        if (bucketTrees == null) {
+            bucketTrees = new HashBucketTree[elementData.length];
+        }
+        bucketTrees[index] = tree;
+    }
+
     @Override
     public void putAll(TMap<? extends K, ? extends V> map) {
         if (!map.isEmpty()) {
@@ -520,6 +631,18 @@ public class THashMap<K, V> extends TAbstractMap<K, V> implements TCloneable, TS
         }
         elementData = newData;
         computeThreshold();
+
+        // Splitting a bucket never makes chains longer, so only buckets that had trees need to be revisited
+        if (bucketTrees != null) {
+            bucketTrees = null;
+            if (length >= MIN_TREEIFY_CAPACITY) {
+                for (int i = 0; i < length; i++) {
+                    if (bucketLength(i) > UNTREEIFY_THRESHOLD) {
+                        treeifyBucket(i);
+                    }
+                }
+            }
+        }
     }
 
     void rehash() {
@@ -537,15 +660,25 @@ public class THashMap<K, V> extends TAbstractMap<K, V> implements TCloneable, TS
 
     final void removeEntry(HashEntry<K, V> entry) {
         int index = entry.origKeyHash & (elementData.length - 1);
-        var m = elementData[index];
-        if (m == entry) {
-            elementData[index] = entry.next;
+        HashEntry<K, V> prev = null;
+        var tree = bucketTrees != null ? bucketTrees[index] : null;
+        if (tree != null && tree != UNTREEIFIABLE) {
+            prev = tree.lower(entry.origKeyHash, entry.key);
         } else {
-            while (m.next != entry) {
-                m = m.next;
+            var m = elementData[index];
+            if (m != entry) {
+                while (m.next != entry) {
+                    m = m.next;
+                }
+                prev = m;
             }
-            m.next = entry.next;
         }
+        if (prev == null) {
+            elementData[index] = entry.next;
+        } else {
+            prev.next = entry.next;
+        }
+        removeFromBucketTree(entry, index);
         modCount++;
         elementCount--;
     }
@@ -555,8 +688,15 @@ public class THashMap<K, V> extends TAbstractMap<K, V> implements TCloneable, TS
         HashEntry<K, V> entry;
         HashEntry<K, V> last = null;
         if (key != null) {
-            int hash = key.hashCode();
+            int hash = hash(key);
             index = hash & (elementData.length - 1);
+            if (bucketTrees != null && bucketTrees[index] != null && bucketTrees[index] != UNTREEIFIABLE) {
+                entry = findNonNullKeyEntry(key, index, hash);
+                if (entry != null) {
+                    removeEntry(entry);
+                }
+                return entry;
+            }
             entry = elementData[index];
             while (entry != null && !(entry.origKeyHash == hash && areEqualKeys(key, entry.key))) {
                 last = entry;
@@ -657,6 +797,19 @@ public class THashMap<K, V> extends TAbstractMap<K, V> implements TCloneable, TS
         }
     }
 
+    /**
+     * Computes hash code of a key and spreads its higher bits downwards, since bucket index only takes
+     * lower bits of the hash code. Keys that only differ in higher bits, like {@code Long} keys
+     * that pack two coordinates, would otherwise all fall into a few buckets.
+     */
+    static int hash(Object key) {
+        if (key == null) {
+            return 0;
+        }
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
     static boolean areEqualKeys(Object key1, Object key2) {
         return (key1 == key2) || key1.equals(key2);
     }
@@ -46,8 +46,15 @@ public interface TList<E> extends TSequencedCollection<E> {
         }
     }
 
+    @SuppressWarnings("unchecked")
     default void sort(TComparator<? super E> c) {
-        TCollections.sort(this, c);
+        Object[] array = toArray();
+        TArrays.sort(array, (TComparator<Object>) c);
+        TListIterator<E> iter = listIterator();
+        for (Object element : array) {
+            iter.next();
+            iter.set((E) element);
+        }
     }
 
     @Override
@@ -0,0 +1,487 @@
+/*
+ *  Copyright 2026 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.classlib.java.util;
+
+/**
+ * Stable adaptive merge sort. Input is split into natural runs (descending runs are reversed in place),
+ * short runs are extended by binary insertion sort, and runs are merged while keeping their lengths
+ * balanced. When one run keeps winning during a merge, its elements are copied in bulk after
+ * a galloping search. Nearly sorted input is sorted in about linear time, and temporary storage never
+ * exceeds half of the sorted range.
+ */
+final class TTimSort {
+    private static final int MIN_MERGE = 32;
+    private static final int MIN_GALLOP = 7;
+    private static final int INITIAL_TMP_LENGTH = 256;
+
+    private final Object[] a;
+    private final TComparator<Object> c;
+    private int minGallop = MIN_GALLOP;
+    private Object[] tmp;
+    private int stackSize;
+    private final int[] runBase;
+    private final int[] runLength;
+
+    private TTimSort(Object[] a, TComparator<Object> c, int length) {
+        this.a = a;
+        this.c = c;
+        int stackLength = length < 120 ? 5 : length < 1542 ? 10 : length < 119151 ? 24 : 49;
+        runBase = new int[stackLength];
+        runLength = new int[stackLength];
+    }
+
+    @SuppressWarnings("unchecked")
+    static void sort(Object[] a, int fromIndex, int toIndex, TComparator<?> comparator) {
+        TComparator<Object> c = (TComparator<Object>) comparator;
+        int remaining = toIndex - fromIndex;
+        if (remaining < 2) {
+            return;
+        }
+        if (remaining < MIN_MERGE) {
+            int runLength = countRunAndMakeAscending(a, fromIndex, toIndex, c);
+            binarySort(a, fromIndex, toIndex, fromIndex + runLength, c);
+            return;
+        }
+
+        TTimSort sorter = new TTimSort(a, c, remaining);
+        int minRun = minRunLength(remaining);
+        int low = fromIndex;
+        do {
+            int runLength = countRunAndMakeAscending(a, low, toIndex, c);
+            if (runLength < minRun) {
+                int force = Math.min(remaining, minRun);
+                binarySort(a, low, low + force, low + runLength, c);
+                runLength = force;
+            }
+            sorter.pushRun(low, runLength);
+            sorter.mergeCollapse();
+            low += runLength;
+            remaining -= runLength;
+        } while (remaining != 0);
+        sorter.mergeForceCollapse();
+    }
+
+    // Sorts [low, high) provided that [low, start) is already sorted
+    private static void binarySort(Object[] a, int low, int high, int start, TComparator<Object> c) {
+        for (; start < high; ++start) {
+            Object pivot = a[start];
+            int left = low;
+            int right = start;
+            while (left < right) {
+                int middle = (left + right) >>> 1;
+                if (c.compare(pivot, a[middle]) < 0) {
+                    right = middle;
+                } else {
+                    left = middle + 1;
+                }
+            }
+            System.arraycopy(a, left, a, left + 1, start - left);
+            a[left] = pivot;
+        }
+    }
+
+    private static int countRunAndMakeAscending(Object[] a, int low, int high, TComparator<Object> c) {
+        int runHigh = low + 1;
+        if (runHigh == high) {
+            return 1;
+        }
+        if (c.compare(a[runHigh++], a[low]) < 0) {
+            // Only strictly descending runs can be reversed without breaking stability
+            while (runHigh < high && c.compare(a[runHigh], a[runHigh - 1]) < 0) {
+                runHigh++;
+            }
+            reverseRange(a, low, runHigh);
+        } else {
+            while (runHigh < high && c.compare(a[runHigh], a[runHigh - 1]) >= 0) {
+                runHigh++;
+            }
+        }
+        return runHigh - low;
+    }
+
+    private static void reverseRange(Object[] a, int low, int high) {
+        high--;
+        while (low < high) {
+            Object t = a[low];
+            a[low++] = a[high];
+            a[high--] = t;
+        }
+    }
+
+    private static int minRunLength(int n) {
+        int r = 0;
+        while (n >= MIN_MERGE) {
+            r |= n & 1;
+            n >>= 1;
+        }
+        return n + r;
+    }
+
+    private void pushRun(int base, int length) {
+        runBase[stackSize] = base;
+        runLength[stackSize] = length;
+        stackSize++;
+    }
+
+    // Maintains invariants runLength[i - 2] > runLength[i - 1] + runLength[i] and
+    // runLength[i - 1] > runLength[i] for the whole stack, so that its size stays logarithmic
+    private void mergeCollapse() {
+        while (stackSize > 1) {
+            int n = stackSize - 2;
+            if (n > 0 && runLength[n - 1] <= runLength[n] + runLength[n + 1]
+                    || n > 1 && runLength[n - 2] <= runLength[n] + runLength[n - 1]) {
+                if (runLength[n - 1] < runLength[n + 1]) {
+                    n--;
+                }
+            } else if (runLength[n] > runLength[n + 1]) {
+                break;
+            }
+            mergeAt(n);
+        }
+    }
+
+    private void mergeForceCollapse() {
+        while (stackSize > 1) {
+            int n = stackSize - 2;
+            if (n > 0 && runLength[n - 1] < runLength[n + 1]) {
+                n--;
+            }
+            mergeAt(n);
+        }
+    }
+
+    private void mergeAt(int i) {
+        int base1 = runBase[i];
+        int length1 = runLength[i];
+        int base2 = runBase[i + 1];
+        int length2 = runLength[i + 1];
+
+        runLength[i] = length1 + length2;
+        if (i == stackSize - 3) {
+            runBase[i + 1] = runBase[i + 2];
+            runLength[i + 1] = runLength[i + 2];
+        }
+        stackSize--;
+
+        // Elements of the first run that are not greater than the first element of the second run,
+        // and elements of the second run that are not less than the last element of the first run,
+        // are already in place
+        int k = gallopRight(a[base2], a, base1, length1, 0, c);
+        base1 += k;
+        length1 -= k;
+        if (length1 == 0) {
+            return;
+        }
+        length2 = gallopLeft(a[base1 + length1 - 1], a, base2, length2, length2 - 1, c);
+        if (length2 == 0) {
+            return;
+        }
+
+        if (length1 <= length2) {
+            mergeLow(base1, length1, base2, length2);
+        } else {
+            mergeHigh(base1, length1, base2, length2);
+        }
+    }
+
+    // Finds leftmost position to insert key into sorted range, starting search at hint
+    private static int gallopLeft(Object key, Object[] a, int base, int length, int hint, TComparator<Object> c) {
+        int lastOffset = 0;
+        int offset = 1;
+        if (c.compare(key, a[base + hint]) > 0) {
+            int maxOffset = length - hint;
+            while (offset < maxOffset && c.compare(key, a[base + hint + offset]) > 0) {
+                lastOffset = offset;
+                offset = (offset << 1) + 1;
+                if (offset <= 0) {
+                    offset = maxOffset;
+                }
+            }
+            if (offset > maxOffset) {
+                offset = maxOffset;
+            }
+            lastOffset += hint;
+            offset += hint;
+        } else {
+            int maxOffset = hint + 1;
+            while (offset < maxOffset && c.compare(key, a[base + hint - offset]) <= 0) {
+                lastOffset = offset;
+                offset = (offset << 1) + 1;
+                if (offset <= 0) {
+                    offset = maxOffset;
+                }
+            }
+            if (offset > maxOffset) {
+                offset = maxOffset;
+            }
+            int t = lastOffset;
+            lastOffset = hint - offset;
+            offset = hint - t;
+        }
+
+        lastOffset++;
+        while (lastOffset < offset) {
+            int middle = lastOffset + ((offset - lastOffset) >>> 1);
+            if (c.compare(key, a[base + middle]) > 0) {
+                lastOffset = middle + 1;
+            } else {
+                offset = middle;
+            }
+        }
+        return offset;
+    }
+
+    // Finds rightmost position to insert key into sorted range, starting search at hint
+    private static int gallopRight(Object key, Object[] a, int base, int length, int hint, TComparator<Object> c) {
+        int lastOffset = 0;
+        int offset = 1;
+        if (c.compare(key, a[base + hint]) < 0) {
+            int maxOffset = hint + 1;
+            while (offset < maxOffset && c.compare(key, a[base + hint - offset]) < 0) {
+                lastOffset = offset;
+                offset = (offset << 1) + 1;
+                if (offset <= 0) {
+                    offset = maxOffset;
+                }
+            }
+            if (offset > maxOffset) {
+                offset = maxOffset;
+            }
+            int t = lastOffset;
+            lastOffset = hint - offset;
+            offset = hint - t;
+        } else {
+            int maxOffset = length - hint;
+            while (offset < maxOffset && c.compare(key, a[base + hint + offset]) >= 0) {
+                lastOffset = offset;
+                offset = (offset << 1) + 1;
+                if (offset <= 0) {
+                    offset = maxOffset;
+                }
+            }
+            if (offset > maxOffset) {
+                offset = maxOffset;
+            }
+            lastOffset += hint;
+            offset += hint;
+        }
+
+        lastOffset++;
+        while (lastOffset < offset) {
+            int middle = lastOffset + ((offset - lastOffset) >>> 1);
+            if (c.compare(key, a[base + middle]) < 0) {
+                offset = middle;
+            } else {
+                lastOffset = middle + 1;
+            }
+        }
+        return offset;
+    }
+
+    // Merges adjacent runs when the first one is shorter, copying it to temporary storage
+    private void mergeLow(int base1, int length1, int base2, int length2) {
+        Object[] tmp = ensureCapacity(length1);
+        System.arraycopy(a, base1, tmp, 0, length1);
+        int cursor1 = 0;
+        int cursor2 = base2;
+        int dest = base1;
+
+        a[dest++] = a[cursor2++];
+        if (--length2 == 0) {
+            System.arraycopy(tmp, cursor1, a, dest, length1);
+            return;
+        }
+        if (length1 == 1) {
+            System.arraycopy(a, cursor2, a, dest, length2);
+            a[dest + length2] = tmp[cursor1];
+            return;
+        }
+
+        int minGallop = this.minGallop;
+        outer:
+        while (true) {
+            int count1 = 0;
+            int count2 = 0;
+            do {
+                if (c.compare(a[cursor2], tmp[cursor1]) < 0) {
+                    a[dest++] = a[cursor2++];
+                    count2++;
+                    count1 = 0;
+                    if (--length2 == 0) {
+                        break outer;
+                    }
+                } else {
+                    a[dest++] = tmp[cursor1++];
+                    count1++;
+                    count2 = 0;
+                    if (--length1 == 1) {
+                        break outer;
+                    }
+                }
+            } while ((count1 | count2) < minGallop);
+
+            do {
+                count1 = gallopRight(a[cursor2], tmp, cursor1, length1, 0, c);
+                if (count1 != 0) {
+                    System.arraycopy(tmp, cursor1, a, dest, count1);
+                    dest += count1;
+                    cursor1 += count1;
+                    length1 -= count1;
+                    if (length1 <= 1) {
+                        break outer;
+                    }
+                }
+                a[dest++] = a[cursor2++];
+                if (--length2 == 0) {
+                    break outer;
+                }
+
+                count2 = gallopLeft(tmp[cursor1], a, cursor2, length2, 0, c);
+                if (count2 != 0) {
+                    System.arraycopy(a, cursor2, a, dest, count2);
+                    dest += count2;
+                    cursor2 += count2;
+                    length2 -= count2;
+                    if (length2 == 0) {
+                        break outer;
+                    }
+                }
+                a[dest++] = tmp[cursor1++];
+                if (--length1 == 1) {
+                    break outer;
+                }
+                minGallop--;
+            } while (count1 >= MIN_GALLOP || count2 >= MIN_GALLOP);
+            if (minGallop < 0) {
+                minGallop = 0;
+            }
+            minGallop += 2;
+        }
+        this.minGallop = Math.max(minGallop, 1);
+
+        if (length1 == 1) {
+            System.arraycopy(a, cursor2, a, dest, length2);
+            a[dest + length2] = tmp[cursor1];
+        } else if (length1 == 0) {
+            throw new IllegalArgumentException("Comparison method violates its general contract");
+        } else {
+            System.arraycopy(tmp, cursor1, a, dest, length1);
+        }
+    }
+
+    // Merges adjacent runs when the second one is shorter, copying it to temporary storage
+    private void mergeHigh(int base1, int length1, int base2, int length2) {
+        Object[] tmp = ensureCapacity(length2);
+        System.arraycopy(a, base2, tmp, 0, length2);
+        int cursor1 = base1 + length1 - 1;
+        int cursor2 = length2 - 1;
+        int dest = base2 + length2 - 1;
+
+        a[dest--] = a[cursor1--];
+        if (--length1 == 0) {
+            System.arraycopy(tmp, 0, a, dest - (length2 - 1), length2);
+            return;
+        }
+        if (length2 == 1) {
+            dest -= length1;
+            cursor1 -= length1;
+            System.arraycopy(a, cursor1 + 1, a, dest + 1, length1);
+            a[dest] = tmp[cursor2];
+            return;
+        }
+
+        int minGallop = this.minGallop;
+        outer:
+        while (true) {
+            int count1 = 0;
+            int count2 = 0;
+            do {
+                if (c.compare(tmp[cursor2], a[cursor1]) < 0) {
+                    a[dest--] = a[cursor1--];
+                    count1++;
+                    count2 = 0;
+                    if (--length1 == 0) {
+                        break outer;
+                    }
+                } else {
+                    a[dest--] = tmp[cursor2--];
+                    count2++;
+                    count1 = 0;
+                    if (--length2 == 1) {
+                        break outer;
+                    }
+                }
+            } while ((count1 | count2) < minGallop);
+
+            do {
+                count1 = length1 - gallopRight(tmp[cursor2], a, base1, length1, length1 - 1, c);
+                if (count1 != 0) {
+                    dest -= count1;
+                    cursor1 -= count1;
+                    length1 -= count1;
+                    System.arraycopy(a, cursor1 + 1, a, dest + 1, count1);
+                    if (length1 == 0) {
+                        break outer;
+                    }
+                }
+                a[dest--] = tmp[cursor2--];
+                if (--length2 == 1) {
+                    break outer;
+                }
+
+                count2 = length2 - gallopLeft(a[cursor1], tmp, 0, length2, length2 - 1, c);
+                if (count2 != 0) {
+                    dest -= count2;
+                    cursor2 -= count2;
+                    length2 -= count2;
+                    System.arraycopy(tmp, cursor2 + 1, a, dest + 1, count2);
+                    if (length2 <= 1) {
+                        break outer;
+                    }
+                }
+                a[dest--] = a[cursor1--];
+                if (--length1 == 0) {
+                    break outer;
+                }
+                minGallop--;
+            } while (count1 >= MIN_GALLOP || count2 >= MIN_GALLOP);
+            if (minGallop < 0) {
+                minGallop = 0;
+            }
+            minGallop += 2;
+        }
+        this.minGallop = Math.max(minGallop, 1);
+
+        if (length2 == 1) {
+            dest -= length1;
+            cursor1 -= length1;
+            System.arraycopy(a, cursor1 + 1, a, dest + 1, length1);
+            a[dest] = tmp[cursor2];
+        } else if (length2 == 0) {
+            throw new IllegalArgumentException("Comparison method violates its general contract");
+        } else {
+            System.arraycopy(tmp, 0, a, dest - (length2 - 1), length2);
+        }
+    }
+
+    private Object[] ensureCapacity(int capacity) {
+        if (tmp == null || tmp.length < capacity) {
+            int length = Math.max(capacity, Math.min(INITIAL_TMP_LENGTH, a.length >>> 1));
+            tmp = new Object[length];
+        }
+        return tmp;
+    }
+}
@@ -22,6 +22,7 @@ import java.util.Objects;
 import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
 import java.util.function.Function;
+import org.teavm.classlib.impl.HashBucketTree;
 import org.teavm.classlib.java.io.TSerializable;
 import org.teavm.classlib.java.lang.TCloneNotSupportedException;
 import org.teavm.classlib.java.lang.TCloneable;
@@ -45,8 +46,12 @@ public class TConcurrentHashMap<K, V> extends TAbstractMap<K, V>
     private transient HashEntry<K, V>[] elementData;
     private transient int modCount;
     private static final int DEFAULT_SIZE = 16;
+    private static final int TREEIFY_THRESHOLD = 8;
+    private static final int UNTREEIFY_THRESHOLD = 6;
+    private static final int MIN_TREEIFY_CAPACITY = 64;
     private final float loadFactor;
     private int threshold;
+    private transient HashBucketTree<HashEntry<K, V>>[] bucketTrees;
     private transient TSet<K> cachedKeySet;
     private transient TCollection<V> cachedValues;
 
@@ -129,16 +134,9 @@ public class TConcurrentHashMap<K, V> extends TAbstractMap<K, V>
             if (currentEntry == null) {
                 throw new TIllegalStateException();
             }
-            if (prevEntry == null) {
-                int index = currentEntry.origKeyHash & (associatedMap.elementData.length - 1);
-                associatedMap.elementData[index] = associatedMap.elementData[index].next;
-            } else {
-                prevEntry.next = currentEntry.next;
-            }
+            associatedMap.removeEntry(currentEntry);
             currentEntry = null;
             expectedModCount++;
-            associatedMap.modCount++;
-            associatedMap.elementCount--;
         }
     }
 
@@ -284,6 +282,7 @@ public class TConcurrentHashMap<K, V> extends TAbstractMap<K, V>
         if (elementCount > 0) {
             elementCount = 0;
             Arrays.fill(elementData, null);
+            bucketTrees = null;
             modCount++;
         }
     }
@@ -295,6 +294,9 @@ public class TConcurrentHashMap<K, V> extends TAbstractMap<K, V>
             var map = (TConcurrentHashMap<K, V>) super.clone();
             map.elementCount = 0;
             map.elementData = newElementArray(elementData.length);
+            map.bucketTrees = null;
+            map.cachedKeySet = null;
+            map.cachedValues = null;
             map.putAll(this);
 
             return map;
@@ -425,7 +427,7 @@ public class TConcurrentHashMap<K, V> extends TAbstractMap<K, V>
 
     @Override
     public V putIfAbsent(K key, V value) {
-        var hash = Objects.hashCode(key);
+        var hash = hash(key);
         var entry = getEntry(key, hash);
 
         if (entry != null) {
@@ -457,7 +459,7 @@ public class TConcurrentHashMap<K, V> extends TAbstractMap<K, V>
     public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
         Objects.requireNonNull(mappingFunction);
 
-        var hash = Objects.hashCode(key);
+        var hash = hash(key);
         var entry = getEntry(key, hash);
         if (entry != null) {
             return entry.getValue();
@@ -476,7 +478,7 @@ public class TConcurrentHashMap<K, V> extends TAbstractMap<K, V>
 
     @Override
     public V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
-        int hash = Objects.hashCode(key);
+        int hash = hash(key);
 
         V newValue = null;
         var newValueComputed = false;
@@ -503,7 +505,7 @@ public class TConcurrentHashMap<K, V> extends TAbstractMap<K, V>
 
     @Override
     public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
-        var hash = Objects.hashCode(key);
+        var hash = hash(key);
 
         while (true) {
             var entry = getEntry(key, hash);
@@ -534,7 +536,7 @@ public class TConcurrentHashMap<K, V> extends TAbstractMap<K, V>
     }
 
     private HashEntry<K, V> getEntry(Object key) {
-        return getEntry(key, Objects.hashCode(key));
+        return getEntry(key, hash(key));
     }
 
     private HashEntry<K, V> getEntry(Object key, int hash) {
@@ -546,6 +548,18 @@ public class TConcurrentHashMap<K, V> extends TAbstractMap<K, V>
                 var table = elementData;
                 int index = hash & (table.length - 1);
 
+                var trees = bucketTrees;
+                var tree = trees != null ? trees[index] : null;
+                if (tree != null && tree.accepts(key)) {
+                    var expectedModCount = modCount;
+                    var m = tree.find(hash, key);
+                    var equal = m != null && areEqualKeys(key, m.key);
+                    if (table != elementData || modCount != expectedModCount) {
+                        continue repeatTable;
+                    }
+                    return equal ? m : null;
+                }
+
                 repeatElement:
                 do {
                     var first = table[index];
@@ -579,48 +593,17 @@ public class TConcurrentHashMap<K, V> extends TAbstractMap<K, V>
     }
 
     private HashEntry<K, V> getEntryByKeyAndValue(Object key, Object value) {
-        var hash = Objects.hashCode(key);
-        repeatTable:
-        do {
-            var table = elementData;
-            int index = hash & (table.length - 1);
-
-            repeatElement:
-            do {
-                var first = table[index];
-                if (first == null) {
-                    return null;
-                }
-                var m = first;
-
-                while (m != null) {
-                    if (m.origKeyHash == hash) {
-                        boolean equal = key != null ? areEqualKeys(key, m.key) : m.key == null;
-                        if (table != elementData) {
-                            continue repeatTable;
-                        }
-                        if (m.removed) {
-                            continue repeatElement;
-                        }
-                        if (equal) {
-                            equal = areEqualValues(value, m.value);
-                            if (table != elementData) {
-                                continue repeatTable;
-                            }
-                            if (m.removed) {
-                                continue repeatElement;
-                            }
-                            return equal ? m : null;
-                        }
-                    }
-                    m = m.next;
-                }
-
-                if (first == table[index]) {
-                    return null;
-                }
-            } while (true);
-        } while (true);
+        var hash = hash(key);
+        while (true) {
+            var m = getEntry(key, hash);
+            if (m == null) {
+                return null;
+            }
+            var equal = areEqualValues(value, m.value);
+            if (!m.removed) {
+                return equal ? m : null;
+            }
+        }
     }
 
     private HashEntry<K, V> findNullKeyEntry() {
@@ -671,7 +654,7 @@ public class TConcurrentHashMap<K, V> extends TAbstractMap<K, V>
     }
 
     private V putImpl(K key, V value) {
-        var hash = Objects.hashCode(key);
+        var hash = hash(key);
         var entry = getEntry(key, hash);
         var index = computeIndex(hash);
 
@@ -689,6 +672,8 @@ public class TConcurrentHashMap<K, V> extends TAbstractMap<K, V>
         modCount++;
         if (++elementCount > threshold) {
             rehash();
+        } else {
+            addToBucketTree(entry, index);
         }
         return entry;
     }
@@ -700,6 +685,84 @@ public class TConcurrentHashMap<K, V> extends TAbstractMap<K, V>
         return entry;
     }
 
+    // Comparing keys may switch to another thread, so a bucket tree is never modified while it's
+    // visible to other threads. It's taken out of the table, updated and put back only if nobody
+    // changed the map in the meantime.
+
+    private void addToBucketTree(HashEntry<K, V> entry, int index) {
+        var trees = bucketTrees;
+        var tree = trees != null ? trees[index] : null;
+        if (tree == null) {
+            if (bucketLength(index) >= TREEIFY_THRESHOLD) {
+                if (elementData.length < MIN_TREEIFY_CAPACITY) {
+                    rehash();
+                } else {
+                    treeifyBucket(index);
+                }
+            }
+            return;
+        }
+        trees[index] = null;
+        var expectedModCount = modCount;
+        if (tree.add(entry.origKeyHash, entry.key, entry) && modCount == expectedModCount
+                && bucketTrees == trees) {
+            trees[index] = tree;
+        }
+    }
+
+    private void removeFromBucketTree(HashEntry<K, V> entry, int index) {
+        var trees = bucketTrees;
+        var tree = trees != null ? trees[index] : null;
+        if (tree == null) {
+            return;
+        }
+        trees[index] = null;
+        if (tree.size() <= UNTREEIFY_THRESHOLD + 1) {
+            return;
+        }
+        var expectedModCount = modCount;
+        tree.remove(entry.origKeyHash, entry.key);
+        if (modCount == expectedModCount && bucketTrees == trees) {
+            trees[index] = tree;
+        }
+    }
+
+    private int bucketLength(int index) {
+        int length = 0;
+        for (var entry = elementData[index]; entry != null && length < TREEIFY_THRESHOLD; entry = entry.next) {
+            length++;
+        }
+        return length;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void treeifyBucket(int index) {
+        var table = elementData;
+        var expectedModCount = modCount;
+        var first = table[index];
+        HashBucketTree<HashEntry<K, V>> tree = HashBucketTree.create(first.key);
+        if (tree == null) {
+            return;
+        }
+        for (var entry = first.next; entry != null; entry = entry.next) {
+            if (!tree.accepts(entry.key)) {
+                return;
+            }
+        }
+        for (var entry = first; entry != null; entry = entry.next) {
+            if (!tree.add(entry.origKeyHash, entry.key, entry)) {
+                return;
+            }
+        }
+        if (table != elementData || modCount != expectedModCount) {
+            return;
+        }
+        if (bucketTrees == null) {
+            bucketTrees = new HashBucketTree[table.length];
+        }
+        bucketTrees[index] = tree;
+    }
+
     @Override
     public void putAll(TMap<? extends K, ? extends V> map) {
         if (!map.isEmpty()) {
@@ -735,6 +798,17 @@ public class TConcurrentHashMap<K, V> extends TAbstractMap<K, V>
         }
         elementData = newData;
         computeThreshold();
+
+        if (bucketTrees != null) {
+            bucketTrees = null;
+            if (length >= MIN_TREEIFY_CAPACITY) {
+                for (int i = 0; i < length && elementData == newData; i++) {
+                    if (bucketLength(i) > UNTREEIFY_THRESHOLD) {
+                        treeifyBucket(i);
+                    }
+                }
+            }
+        }
     }
 
     private void rehash() {
@@ -765,6 +839,7 @@ public class TConcurrentHashMap<K, V> extends TAbstractMap<K, V>
         modCount++;
         elementCount--;
         entry.removed = true;
+        removeFromBucketTree(entry, index);
     }
 
     @Override
@@ -802,6 +877,14 @@ public class TConcurrentHashMap<K, V> extends TAbstractMap<K, V>
     }
 
     private int computeIndex(int hash) {
-        return (hash & 0x7FFFFFFF) % elementData.length;
+        return hash & (elementData.length - 1);
+    }
+
+    private static int hash(Object key) {
+        if (key == null) {
+            return 0;
+        }
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
     }
 }
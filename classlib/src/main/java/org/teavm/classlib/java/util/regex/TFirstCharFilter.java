@@ -0,0 +1,112 @@
+/*
+ *  Copyright 2026 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.classlib.java.util.regex;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Set of characters that can start a match of a group. Only built for groups, whose every alternative
+ * starts with a case-sensitive leaf (character, character class or sequence), possibly nested
+ * into other non-lookaround groups. Any other construct (quantifiers that may match nothing,
+ * anchors, back references, lookarounds, case-insensitive leaves) makes the filter unavailable.
+ */
+final class TFirstCharFilter {
+    private static final int ASCII_SIZE = 128;
+
+    private boolean[] ascii = new boolean[ASCII_SIZE];
+    private StringBuilder otherChars = new StringBuilder();
+    private List<TRangeSet> ranges = new ArrayList<>();
+    private int maxCharCount = 1;
+
+    private TFirstCharFilter() {
+    }
+
+    static TFirstCharFilter create(TJointSet set) {
+        TFirstCharFilter filter = new TFirstCharFilter();
+        return filter.collect(set) ? filter : null;
+    }
+
+    private boolean collect(TAbstractSet node) {
+        Class<?> cls = node.getClass();
+        if (cls == TCharSet.class) {
+            addChar(((TCharSet) node).getChar());
+            return true;
+        } else if (cls == TSequenceSet.class) {
+            TSequenceSet sequence = (TSequenceSet) node;
+            addChar(sequence.getFirstChar());
+            maxCharCount = Math.max(maxCharCount, sequence.charCount());
+            return true;
+        } else if (cls == TRangeSet.class) {
+            TRangeSet range = (TRangeSet) node;
+            for (int i = 0; i < ASCII_SIZE; ++i) {
+                if (range.acceptsChar((char) i)) {
+                    ascii[i] = true;
+                }
+            }
+            ranges.add(range);
+            return true;
+        } else if (cls == TSingleSet.class) {
+            return collect(((TSingleSet) node).kid);
+        } else if (cls == TJointSet.class || cls == TNonCapJointSet.class || cls == TAtomicJointSet.class) {
+            List<TAbstractSet> children = ((TJointSet) node).children;
+            if (children == null || children.isEmpty()) {
+                return false;
+            }
+            for (TAbstractSet child : children) {
+                if (!collect(child)) {
+                    return false;
+                }
+            }
+            return true;
+        } else {
+            return false;
+        }
+    }
+
+    private void addChar(char c) {
+        if (c < ASCII_SIZE) {
+            ascii[c] = true;
+        } else {
+            otherChars.append(c);
+        }
+    }
+
+    /**
+     * Returns maximum number of characters consumed by first leaves. Positions closer than that to the
+     * end of input should not be filtered out, since leaves report {@code hitEnd} there.
+     */
+    int getMaxCharCount() {
+        return maxCharCount;
+    }
+
+    boolean accepts(char c) {
+        if (c < ASCII_SIZE) {
+            return ascii[c];
+        }
+        for (int i = 0; i < otherChars.length(); ++i) {
+            if (otherChars.charAt(i) == c) {
+                return true;
+            }
+        }
+        for (int i = 0; i < ranges.size(); ++i) {
+            if (ranges.get(i).acceptsChar(c)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
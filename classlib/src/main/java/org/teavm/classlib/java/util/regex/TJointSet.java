@@ -52,6 +52,10 @@ class TJointSet extends TAbstractSet {
 
     protected int groupIndex;
 
+    private TFirstCharFilter firstCharFilter;
+
+    private boolean firstCharFilterComputed;
+
     protected TJointSet() {
     }
 
@@ -83,6 +87,33 @@ class TJointSet extends TAbstractSet {
         return -1;
     }
 
+    /**
+     * Skips positions where none of alternatives can start, when first characters of all alternatives
+     * are known (see {@link TFirstCharFilter}), otherwise falls back to trying every position.
+     */
+    @Override
+    public int find(int stringIndex, CharSequence testString, TMatchResultImpl matchResult) {
+        if (!firstCharFilterComputed) {
+            firstCharFilter = TFirstCharFilter.create(this);
+            firstCharFilterComputed = true;
+        }
+        if (firstCharFilter == null) {
+            return super.find(stringIndex, testString, matchResult);
+        }
+
+        int length = matchResult.getRightBound();
+        int lastFiltered = length - firstCharFilter.getMaxCharCount();
+        while (stringIndex <= length) {
+            if (stringIndex > lastFiltered || firstCharFilter.accepts(testString.charAt(stringIndex))) {
+                if (matches(stringIndex, testString, matchResult) >= 0) {
+                    return stringIndex;
+                }
+            }
+            stringIndex++;
+        }
+        return -1;
+    }
+
     @Override
     public void setNext(TAbstractSet next) {
         fSet.setNext(next);
@@ -115,6 +115,11 @@ public final class TPattern implements Serializable {
      */
     private transient TLexer lexemes;
 
+    /**
+     * Regular expression this pattern was compiled from
+     */
+    private String source;
+
     /**
      * Pattern compile flags;
      */
@@ -233,7 +238,7 @@ public final class TPattern implements Serializable {
      * @return the regular expression.
      */
     public String pattern() {
-        return lexemes.toString();
+        return source;
     }
 
     @Override
@@ -307,6 +312,7 @@ public final class TPattern implements Serializable {
      * @return Compiled pattern
      */
     private TPattern compileImpl(String pattern, int flags) throws TPatternSyntaxException {
+        this.source = pattern;
         this.lexemes = new TLexer(pattern, flags);
         this.flags = flags;
 
@@ -315,6 +321,8 @@ public final class TPattern implements Serializable {
             throw new TPatternSyntaxException("", lexemes.toString(), lexemes.getIndex());
         }
         finalizeCompile();
+        // Lexer is only needed during compilation, so that precompiled patterns don't reference it
+        lexemes = null;
         return this;
     }
 
@@ -64,6 +64,10 @@ class TRangeSet extends TLeafSet {
         return chars.contains(testString.charAt(strIndex)) ? 1 : -1;
     }
 
+    boolean acceptsChar(char ch) {
+        return chars.contains(ch);
+    }
+
     @Override
     protected String getName() {
         return "range:" + (alt ? "^ " : " ") + chars.toString();
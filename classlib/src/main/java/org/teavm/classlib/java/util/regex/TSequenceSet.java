@@ -117,6 +117,10 @@ class TSequenceSet extends TLeafSet {
         return -1;
     }
 
+    char getFirstChar() {
+        return string.charAt(0);
+    }
+
     @Override
     public String getName() {
         return "sequence: " + string; //$NON-NLS-1$
@@ -16,24 +16,38 @@
 
 package org.teavm.classlib.java.util.zip;
 
-import com.jcraft.jzlib.Adler32;
+import org.teavm.classlib.impl.zip.NativeZlib;
 
 public class TAdler32 implements TChecksum {
-    private Adler32 impl = new Adler32();
+    private static final int BASE = 65521;
+    /**
+     * Largest number of bytes that can be summed before {@code s2} may overflow signed 32-bit integer
+     * and needs to be reduced modulo {@link #BASE}.
+     */
+    private static final int NMAX = 3854;
+    private int adler = 1;
 
     @Override
     public long getValue() {
-        return impl.getValue();
+        return adler & 0xFFFFFFFFL;
     }
 
     @Override
     public void reset() {
-        impl.reset();
+        adler = 1;
     }
 
     @Override
     public void update(int i) {
-        update(new byte[] { (byte) i });
+        int s1 = (adler & 0xFFFF) + (i & 0xFF);
+        if (s1 >= BASE) {
+            s1 -= BASE;
+        }
+        int s2 = (adler >>> 16) + s1;
+        if (s2 >= BASE) {
+            s2 -= BASE;
+        }
+        adler = (s2 << 16) | s1;
     }
 
     public void update(byte[] buf) {
@@ -44,9 +58,29 @@ public class TAdler32 implements TChecksum {
     public void update(byte[] buf, int off, int nbytes) {
         // avoid int overflow, check null buf
         if (off <= buf.length && nbytes >= 0 && off >= 0 && buf.length - off >= nbytes) {
-            impl.update(buf, off, nbytes);
+            if (NativeZlib.isAvailable()) {
+                adler = NativeZlib.adler32(adler, buf, off, nbytes);
+            } else {
+                adler = update(adler, buf, off, nbytes);
+            }
         } else {
             throw new ArrayIndexOutOfBoundsException();
         }
     }
+
+    private static int update(int adler, byte[] buf, int off, int nbytes) {
+        int s1 = adler & 0xFFFF;
+        int s2 = adler >>> 16;
+        while (nbytes > 0) {
+            int end = off + Math.min(nbytes, NMAX);
+            nbytes -= end - off;
+            while (off < end) {
+                s1 += buf[off++] & 0xFF;
+                s2 += s1;
+            }
+            s1 %= BASE;
+            s2 %= BASE;
+        }
+        return (s2 << 16) | s1;
+    }
 }
@@ -16,26 +16,48 @@
 
 package org.teavm.classlib.java.util.zip;
 
-import com.jcraft.jzlib.CRC32;
+import org.teavm.classlib.impl.zip.NativeZlib;
 
 public class TCRC32 implements TChecksum {
-    private CRC32 impl = new CRC32();
+    /**
+     * Eight lookup tables for slicing-by-8 algorithm, 256 entries each. First table is a regular byte-wise
+     * CRC table, {@code k}-th table contains CRC of a byte followed by {@code k} zero bytes.
+     */
+    private static final int[] TABLE = createTable();
+    private int crc;
     long tbytes;
 
+    private static int[] createTable() {
+        int[] table = new int[8 * 256];
+        for (int i = 0; i < 256; ++i) {
+            int c = i;
+            for (int j = 0; j < 8; ++j) {
+                c = (c & 1) != 0 ? 0xEDB88320 ^ (c >>> 1) : c >>> 1;
+            }
+            table[i] = c;
+        }
+        for (int i = 256; i < table.length; ++i) {
+            int c = table[i - 256];
+            table[i] = table[c & 0xFF] ^ (c >>> 8);
+        }
+        return table;
+    }
+
     @Override
     public long getValue() {
-        return impl.getValue();
+        return crc & 0xFFFFFFFFL;
     }
 
     @Override
     public void reset() {
-        impl.reset();
+        crc = 0;
         tbytes = 0;
     }
 
     @Override
     public void update(int val) {
-        impl.update(new byte[] { (byte) val }, 0, 1);
+        int c = ~crc;
+        crc = ~(TABLE[(c ^ val) & 0xFF] ^ (c >>> 8));
     }
 
     public void update(byte[] buf) {
@@ -46,10 +68,36 @@ public class TCRC32 implements TChecksum {
     public void update(byte[] buf, int off, int nbytes) {
         // avoid int overflow, check null buf
         if (off <= buf.length && nbytes >= 0 && off >= 0 && buf.length - off >= nbytes) {
-            impl.update(buf, off, nbytes);
+            if (NativeZlib.isAvailable()) {
+                crc = NativeZlib.crc32(crc, buf, off, nbytes);
+            } else {
+                crc = update(crc, buf, off, nbytes);
+            }
             tbytes += nbytes;
         } else {
             throw new ArrayIndexOutOfBoundsException();
         }
     }
+
+    private static int update(int crc, byte[] buf, int off, int nbytes) {
+        int[] table = TABLE;
+        int c = ~crc;
+        int end = off + nbytes;
+        int fastEnd = off + (nbytes & ~7);
+        while (off < fastEnd) {
+            int low = c ^ ((buf[off] & 0xFF) | (buf[off + 1] & 0xFF) << 8 | (buf[off + 2] & 0xFF) << 16
+                    | buf[off + 3] << 24);
+            int high = (buf[off + 4] & 0xFF) | (buf[off + 5] & 0xFF) << 8 | (buf[off + 6] & 0xFF) << 16
+                    | buf[off + 7] << 24;
+            c = table[7 * 256 + (low & 0xFF)] ^ table[6 * 256 + ((low >>> 8) & 0xFF)]
+                    ^ table[5 * 256 + ((low >>> 16) & 0xFF)] ^ table[4 * 256 + (low >>> 24)]
+                    ^ table[3 * 256 + (high & 0xFF)] ^ table[2 * 256 + ((high >>> 8) & 0xFF)]
+                    ^ table[256 + ((high >>> 16) & 0xFF)] ^ table[high >>> 24];
+            off += 8;
+        }
+        while (off < end) {
+            c = table[(c ^ buf[off++]) & 0xFF] ^ (c >>> 8);
+        }
+        return ~c;
+    }
 }
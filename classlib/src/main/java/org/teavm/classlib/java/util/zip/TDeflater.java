@@ -20,6 +20,7 @@ import com.jcraft.jzlib.Deflater;
 import com.jcraft.jzlib.GZIPException;
 import com.jcraft.jzlib.JZlib;
 import java.util.Arrays;
+import org.teavm.classlib.impl.zip.NativeZlib;
 import org.teavm.classlib.java.lang.TAutoCloseable;
 
 public class TDeflater implements TAutoCloseable {
@@ -42,6 +43,10 @@ public class TDeflater implements TAutoCloseable {
     private int inRead;
     private int inLength;
     private boolean nowrap;
+    private long handle;
+    private NativeZlib.StreamReference nativeStream;
+    private byte[] input;
+    private int inputOffset;
 
     public TDeflater() {
         this(DEFAULT_COMPRESSION, false);
@@ -57,12 +62,24 @@ public class TDeflater implements TAutoCloseable {
             throw new IllegalArgumentException();
         }
         compressLevel = level;
+        nowrap = noHeader;
+        if (NativeZlib.isAvailable()) {
+            handle = NativeZlib.deflateInit(compressLevel, strategy, noHeader);
+            if (handle == 0) {
+                throw new OutOfMemoryError();
+            }
+            nativeStream = NativeZlib.track(this, handle, false);
+            return;
+        }
         try {
             impl = new Deflater(compressLevel, noHeader);
         } catch (GZIPException e) {
             // do nothing
         }
-        nowrap = noHeader;
+    }
+
+    private boolean ended() {
+        return impl == null && handle == 0;
     }
 
     public int deflate(byte[] buf) {
@@ -74,7 +91,7 @@ public class TDeflater implements TAutoCloseable {
     }
 
     int deflate(byte[] buf, int off, int nbytes, int flushParam) {
-        if (impl == null) {
+        if (ended()) {
             throw new IllegalStateException();
         }
         // avoid int overflow, check null buf
@@ -82,10 +99,20 @@ public class TDeflater implements TAutoCloseable {
             throw new ArrayIndexOutOfBoundsException();
         }
 
-        long sin = impl.total_in;
-        long sout = impl.total_out;
-        impl.setOutput(buf, off, nbytes);
-        int err = impl.deflate(flushParam);
+        long sin = getBytesRead();
+        long sout = getBytesWritten();
+        int err;
+        if (handle != 0) {
+            err = NativeZlib.deflate(handle, input, inputOffset + inRead, inLength - inRead, buf, off, nbytes,
+                    flushParam);
+            if (err == NativeZlib.Z_BUF_ERROR) {
+                // No progress was possible, i.e. more input or output space is needed
+                err = NativeZlib.Z_OK;
+            }
+        } else {
+            impl.setOutput(buf, off, nbytes);
+            err = impl.deflate(flushParam);
+        }
         switch (err) {
             case JZlib.Z_OK:
                 break;
@@ -96,11 +123,17 @@ public class TDeflater implements TAutoCloseable {
                 throw new RuntimeException("Error: " + err);
         }
 
-        inRead += impl.total_in - sin;
-        return (int) (impl.total_out - sout);
+        inRead += (int) (getBytesRead() - sin);
+        return (int) (getBytesWritten() - sout);
     }
     public void end() {
         impl = null;
+        input = null;
+        if (handle != 0) {
+            nativeStream.release();
+            nativeStream = null;
+            handle = 0;
+        }
     }
 
     public void finish() {
@@ -112,27 +145,27 @@ public class TDeflater implements TAutoCloseable {
     }
 
     public int getAdler() {
-        if (impl == null) {
+        if (ended()) {
             throw new IllegalStateException();
         }
 
-        return (int) impl.getAdler();
+        return handle != 0 ? NativeZlib.adler(handle) : (int) impl.getAdler();
     }
 
     public int getTotalIn() {
-        if (impl == null) {
+        if (ended()) {
             throw new IllegalStateException();
         }
 
-        return (int) impl.getTotalIn();
+        return (int) getBytesRead();
     }
 
     public int getTotalOut() {
-        if (impl == null) {
+        if (ended()) {
             throw new IllegalStateException();
         }
 
-        return (int) impl.getTotalOut();
+        return (int) getBytesWritten();
     }
 
     public boolean needsInput() {
@@ -140,12 +173,20 @@ public class TDeflater implements TAutoCloseable {
     }
 
     public void reset() {
-        if (impl == null) {
+        if (ended()) {
             throw new NullPointerException();
         }
 
         flushParm = Z_NO_FLUSH;
         finished = false;
+        if (handle != 0) {
+            inRead = 0;
+            inLength = 0;
+            input = null;
+            NativeZlib.deflateReset(handle);
+            NativeZlib.deflateParams(handle, compressLevel, strategy);
+            return;
+        }
         impl.init(compressLevel, 15, nowrap);
         impl.params(compressLevel, strategy);
     }
@@ -155,11 +196,17 @@ public class TDeflater implements TAutoCloseable {
     }
 
     public void setDictionary(byte[] buf, int off, int nbytes) {
-        if (impl == null) {
+        if (ended()) {
             throw new IllegalStateException();
         }
         // avoid int overflow, check null buf
         if (off <= buf.length && nbytes >= 0 && off >= 0 && buf.length - off >= nbytes) {
+            if (handle != 0) {
+                if (NativeZlib.deflateSetDictionary(handle, buf, off, nbytes) != NativeZlib.Z_OK) {
+                    throw new IllegalArgumentException();
+                }
+                return;
+            }
             impl.setDictionary(Arrays.copyOfRange(buf, off, buf.length), nbytes);
         } else {
             throw new ArrayIndexOutOfBoundsException();
@@ -171,13 +218,22 @@ public class TDeflater implements TAutoCloseable {
     }
 
     public void setInput(byte[] buf, int off, int nbytes) {
-        if (impl == null) {
+        if (ended()) {
             throw new IllegalStateException();
         }
         // avoid int overflow, check null buf
         if (off <= buf.length && nbytes >= 0 && off >= 0 && buf.length - off >= nbytes) {
             inLength = nbytes;
             inRead = 0;
+            if (handle != 0) {
+                if (input == null && NativeZlib.totalIn(handle) == 0) {
+                    // Nothing compressed yet, so new level and strategy can be applied without flushing
+                    NativeZlib.deflateParams(handle, compressLevel, strategy);
+                }
+                input = buf;
+                inputOffset = off;
+                return;
+            }
             if (impl.next_in == null) {
                 impl.init(compressLevel, 15, nowrap);
             }
@@ -203,18 +259,18 @@ public class TDeflater implements TAutoCloseable {
 
     public long getBytesRead() {
         // Throw NPE here
-        if (impl == null) {
+        if (ended()) {
             throw new NullPointerException();
         }
-        return impl.getTotalIn();
+        return handle != 0 ? NativeZlib.totalIn(handle) : impl.getTotalIn();
     }
 
     public long getBytesWritten() {
         // Throw NPE here
-        if (impl == null) {
+        if (ended()) {
             throw new NullPointerException();
         }
-        return impl.getTotalOut();
+        return handle != 0 ? NativeZlib.totalOut(handle) : impl.getTotalOut();
     }
 
     @Override
@@ -20,6 +20,7 @@ import com.jcraft.jzlib.GZIPException;
 import com.jcraft.jzlib.Inflater;
 import com.jcraft.jzlib.JZlib;
 import java.util.Arrays;
+import org.teavm.classlib.impl.zip.NativeZlib;
 import org.teavm.classlib.java.lang.TAutoCloseable;
 
 public class TInflater implements TAutoCloseable {
@@ -29,6 +30,10 @@ public class TInflater implements TAutoCloseable {
     int inRead;
     private boolean needsDictionary;
     private Inflater impl;
+    private long handle;
+    private NativeZlib.StreamReference nativeStream;
+    private byte[] input;
+    private int inputOffset;
 
     public TInflater() {
         this(false);
@@ -36,6 +41,14 @@ public class TInflater implements TAutoCloseable {
 
     public TInflater(boolean noHeader) {
         nowrap = noHeader;
+        if (NativeZlib.isAvailable()) {
+            handle = NativeZlib.inflateInit(noHeader);
+            if (handle == 0) {
+                throw new OutOfMemoryError();
+            }
+            nativeStream = NativeZlib.track(this, handle, true);
+            return;
+        }
         try {
             impl = new Inflater(noHeader);
         } catch (GZIPException e) {
@@ -46,7 +59,17 @@ public class TInflater implements TAutoCloseable {
     public void end() {
         inRead = 0;
         inLength = 0;
+        input = null;
         impl = null;
+        if (handle != 0) {
+            nativeStream.release();
+            nativeStream = null;
+            handle = 0;
+        }
+    }
+
+    private boolean ended() {
+        return impl == null && handle == 0;
     }
 
     public boolean finished() {
@@ -54,26 +77,26 @@ public class TInflater implements TAutoCloseable {
     }
 
     public int getAdler() {
-        if (impl == null) {
+        if (ended()) {
             throw new IllegalStateException();
         }
-        return (int) impl.getAdler();
+        return handle != 0 ? NativeZlib.adler(handle) : (int) impl.getAdler();
     }
 
     private native int getAdlerImpl(long handle);
 
     public long getBytesRead() {
-        if (impl == null) {
+        if (ended()) {
             throw new IllegalStateException();
         }
-        return impl.getTotalIn();
+        return handle != 0 ? NativeZlib.totalIn(handle) : impl.getTotalIn();
     }
 
     public long getBytesWritten() {
-        if (impl == null) {
+        if (ended()) {
             throw new IllegalStateException();
         }
-        return impl.getTotalOut();
+        return handle != 0 ? NativeZlib.totalOut(handle) : impl.getTotalOut();
     }
 
     public int getRemaining() {
@@ -102,17 +125,26 @@ public class TInflater implements TAutoCloseable {
             throw new ArrayIndexOutOfBoundsException();
         }
 
-        if (impl == null) {
+        if (ended()) {
             throw new IllegalStateException();
         }
 
-        long lastInSize = impl.total_in;
-        long lastOutSize = impl.total_out;
+        long lastInSize = getBytesRead();
+        long lastOutSize = getBytesWritten();
         boolean neededDict = needsDictionary;
         needsDictionary = false;
-        impl.setOutput(buf, off, nbytes);
 
-        int errCode = impl.inflate(0);
+        int errCode;
+        if (handle != 0) {
+            errCode = NativeZlib.inflate(handle, input, inputOffset + inRead, inLength - inRead, buf, off, nbytes);
+            if (errCode == NativeZlib.Z_BUF_ERROR) {
+                // No progress was possible, i.e. more input or output space is needed
+                errCode = NativeZlib.Z_OK;
+            }
+        } else {
+            impl.setOutput(buf, off, nbytes);
+            errCode = impl.inflate(0);
+        }
         switch (errCode) {
             case JZlib.Z_OK:
                 break;
@@ -130,8 +162,8 @@ public class TInflater implements TAutoCloseable {
             throw new TDataFormatException();
         }
 
-        inRead += impl.total_in - lastInSize;
-        return (int) (impl.total_out - lastOutSize);
+        inRead += (int) (getBytesRead() - lastInSize);
+        return (int) (getBytesWritten() - lastOutSize);
     }
 
     public boolean needsDictionary() {
@@ -143,14 +175,19 @@ public class TInflater implements TAutoCloseable {
     }
 
     public void reset() {
-        if (impl == null) {
+        if (ended()) {
             throw new NullPointerException();
         }
         finished = false;
         needsDictionary = false;
         inLength = 0;
         inRead = 0;
-        impl.init(nowrap);
+        input = null;
+        if (handle != 0) {
+            NativeZlib.inflateReset(handle);
+        } else {
+            impl.init(nowrap);
+        }
     }
 
     private native void resetImpl(long handle);
@@ -160,11 +197,17 @@ public class TInflater implements TAutoCloseable {
     }
 
     public void setDictionary(byte[] buf, int off, int nbytes) {
-        if (impl == null) {
+        if (ended()) {
             throw new IllegalStateException();
         }
         // avoid int overflow, check null buf
         if (off <= buf.length && nbytes >= 0 && off >= 0 && buf.length - off >= nbytes) {
+            if (handle != 0) {
+                if (NativeZlib.inflateSetDictionary(handle, buf, off, nbytes) != NativeZlib.Z_OK) {
+                    throw new IllegalArgumentException();
+                }
+                return;
+            }
             if (off > 0) {
                 buf = Arrays.copyOfRange(buf, off, buf.length);
             }
@@ -178,13 +221,18 @@ public class TInflater implements TAutoCloseable {
     }
 
     public void setInput(byte[] buf, int off, int nbytes) {
-        if (impl == null) {
+        if (ended()) {
             throw new IllegalStateException();
         }
         // avoid int overflow, check null buf
         if (off <= buf.length && nbytes >= 0 && off >= 0 && buf.length - off >= nbytes) {
             inRead = 0;
             inLength = nbytes;
+            if (handle != 0) {
+                input = buf;
+                inputOffset = off;
+                return;
+            }
             impl.setInput(buf, off, nbytes, false);
         } else {
             throw new ArrayIndexOutOfBoundsException();
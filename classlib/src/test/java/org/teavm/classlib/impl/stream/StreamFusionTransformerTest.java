@@ -0,0 +1,193 @@
+/*
+ *  Copyright 2026 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.classlib.impl.stream;
+
+import static org.junit.Assert.assertEquals;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestName;
+import org.teavm.cache.IncrementalDependencyRegistration;
+import org.teavm.diagnostics.Diagnostics;
+import org.teavm.model.BasicBlock;
+import org.teavm.model.ClassHierarchy;
+import org.teavm.model.ClassHolder;
+import org.teavm.model.ClassHolderTransformerContext;
+import org.teavm.model.ElementModifier;
+import org.teavm.model.Instruction;
+import org.teavm.model.MethodDescriptor;
+import org.teavm.model.MethodHolder;
+import org.teavm.model.MutableClassHolderSource;
+import org.teavm.model.Program;
+import org.teavm.model.ValueType;
+import org.teavm.model.instructions.InvokeInstruction;
+import org.teavm.model.text.ListingParseException;
+import org.teavm.model.text.ListingParser;
+
+public class StreamFusionTransformerTest {
+    private static final String STREAM = "java.util.stream.Stream";
+
+    @Rule
+    public TestName name = new TestName();
+
+    @Test
+    public void localClassLibraryList() {
+        var program = transform();
+        assertEquals(0, countInvocations(program, STREAM));
+        assertEquals(1, countInvocations(program, "java.util.Collection", "iterator"));
+    }
+
+    @Test
+    public void classLibraryFactory() {
+        var program = transform();
+        assertEquals(0, countInvocations(program, STREAM));
+        assertEquals(1, countInvocations(program, "java.util.Collection", "iterator"));
+    }
+
+    @Test
+    public void parameterList() {
+        var program = transform();
+        assertEquals(2, countInvocations(program, STREAM));
+        assertEquals(1, countInvocations(program, "java.util.List", "stream"));
+    }
+
+    @Test
+    public void userList() {
+        var program = transform();
+        assertEquals(2, countInvocations(program, STREAM));
+        assertEquals(1, countInvocations(program, "java.util.List", "stream"));
+    }
+
+    private Program transform() {
+        var classes = createClasses();
+        var program = parse("org/teavm/classlib/impl/stream/" + name.getMethodName() + ".txt");
+        var method = new MethodHolder(new MethodDescriptor("run", ValueType.object("java.util.List"),
+                ValueType.object("java.util.function.Function"), ValueType.object("java.util.function.Consumer"),
+                ValueType.VOID));
+        method.setProgram(program);
+        var cls = new ClassHolder("Caller");
+        cls.addMethod(method);
+
+        var hierarchy = new ClassHierarchy(classes);
+        new StreamFusionTransformer().transformClass(cls, new TestContext(hierarchy));
+        return program;
+    }
+
+    private static int countInvocations(Program program, String className) {
+        return countInvocations(program, className, null);
+    }
+
+    private static int countInvocations(Program program, String className, String methodName) {
+        var count = 0;
+        for (BasicBlock block : program.getBasicBlocks()) {
+            for (Instruction instruction : block) {
+                if (!(instruction instanceof InvokeInstruction)) {
+                    continue;
+                }
+                var method = ((InvokeInstruction) instruction).getMethod();
+                if (method.getClassName().equals(className)
+                        && (methodName == null || method.getName().equals(methodName))) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    private static MutableClassHolderSource createClasses() {
+        var classes = new MutableClassHolderSource();
+        var objectClass = new ClassHolder("java.lang.Object");
+        objectClass.setParent(null);
+        classes.putClassHolder(objectClass);
+
+        classes.putClassHolder(createInterface("java.util.Collection"));
+        var list = createInterface("java.util.List");
+        list.getInterfaces().add("java.util.Collection");
+        classes.putClassHolder(list);
+
+        var arrayList = new ClassHolder("java.util.ArrayList");
+        arrayList.getInterfaces().add("java.util.List");
+        classes.putClassHolder(arrayList);
+
+        var userList = new ClassHolder("UserList");
+        userList.getInterfaces().add("java.util.List");
+        classes.putClassHolder(userList);
+
+        classes.putClassHolder(createInterface(STREAM));
+        return classes;
+    }
+
+    private static ClassHolder createInterface(String name) {
+        var cls = new ClassHolder(name);
+        cls.getModifiers().add(ElementModifier.INTERFACE);
+        cls.getModifiers().add(ElementModifier.ABSTRACT);
+        return cls;
+    }
+
+    private static Program parse(String resourceName) {
+        var classLoader = StreamFusionTransformerTest.class.getClassLoader();
+        try (var reader = new InputStreamReader(classLoader.getResourceAsStream(resourceName),
+                StandardCharsets.UTF_8)) {
+            return new ListingParser().parse(reader);
+        } catch (IOException | ListingParseException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static class TestContext implements ClassHolderTransformerContext {
+        private ClassHierarchy hierarchy;
+
+        TestContext(ClassHierarchy hierarchy) {
+            this.hierarchy = hierarchy;
+        }
+
+        @Override
+        public ClassHierarchy getHierarchy() {
+            return hierarchy;
+        }
+
+        @Override
+        public Diagnostics getDiagnostics() {
+            return null;
+        }
+
+        @Override
+        public IncrementalDependencyRegistration getIncrementalCache() {
+            return null;
+        }
+
+        @Override
+        public boolean isObfuscated() {
+            return false;
+        }
+
+        @Override
+        public boolean isStrict() {
+            return false;
+        }
+
+        @Override
+        public String getEntryPoint() {
+            return null;
+        }
+
+        @Override
+        public void submit(ClassHolder cls) {
+        }
+    }
+}
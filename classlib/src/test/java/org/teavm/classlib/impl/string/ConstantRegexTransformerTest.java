@@ -0,0 +1,219 @@
+/*
+ *  Copyright 2026 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.classlib.impl.string;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestName;
+import org.teavm.cache.IncrementalDependencyRegistration;
+import org.teavm.classlib.impl.ClasslibSubstitutionPolicy;
+import org.teavm.diagnostics.Diagnostics;
+import org.teavm.model.BasicBlock;
+import org.teavm.model.ClassHierarchy;
+import org.teavm.model.ClassHolder;
+import org.teavm.model.ClassHolderTransformerContext;
+import org.teavm.model.Instruction;
+import org.teavm.model.MethodDescriptor;
+import org.teavm.model.MethodHolder;
+import org.teavm.model.Program;
+import org.teavm.model.ReferenceCache;
+import org.teavm.model.ValueType;
+import org.teavm.model.instructions.ConstructInstruction;
+import org.teavm.model.instructions.InvokeInstruction;
+import org.teavm.model.text.ListingParseException;
+import org.teavm.model.text.ListingParser;
+import org.teavm.parsing.ClasspathClassHolderSource;
+import org.teavm.parsing.ClasspathResourceProvider;
+import org.teavm.parsing.substitution.DefaultSubstituteClassNameMapping;
+
+public class ConstantRegexTransformerTest {
+    private static final String PATTERN = "java.util.regex.Pattern";
+    private static final String MATCHER = "java.util.regex.Matcher";
+    private static final String STRING = "java.lang.String";
+    private static final ClassHierarchy HIERARCHY = createHierarchy();
+
+    @Rule
+    public TestName name = new TestName();
+
+    @Test
+    public void compile() {
+        var cls = transform();
+        var program = runProgram(cls);
+        assertEquals(0, countInvocations(program, PATTERN, "compile"));
+        assertEquals(1, countInvocations(program, cls.getName(), "regex$0"));
+        assertPrecompiled(cls, 1);
+    }
+
+    @Test
+    public void compileWithFlags() {
+        var cls = transform();
+        assertEquals(0, countInvocations(runProgram(cls), PATTERN, "compile"));
+        assertPrecompiled(cls, 1);
+    }
+
+    @Test
+    public void malformed() {
+        var cls = transform();
+        assertEquals(1, countInvocations(runProgram(cls), PATTERN, "compile"));
+        assertPrecompiled(cls, 0);
+    }
+
+    @Test
+    public void unicodeCase() {
+        var cls = transform();
+        assertEquals(1, countInvocations(runProgram(cls), PATTERN, "compile"));
+        assertPrecompiled(cls, 0);
+    }
+
+    @Test
+    public void nonConstant() {
+        var cls = transform();
+        assertEquals(1, countInvocations(runProgram(cls), PATTERN, "compile"));
+        assertPrecompiled(cls, 0);
+    }
+
+    @Test
+    public void stringMethods() {
+        var cls = transform();
+        var program = runProgram(cls);
+        assertEquals(0, countInvocations(program, STRING, null));
+        assertEquals(3, countInvocations(program, cls.getName(), "regex$0"));
+        assertEquals(1, countInvocations(program, MATCHER, "matches"));
+        assertEquals(1, countInvocations(program, PATTERN, "split"));
+        assertEquals(1, countInvocations(program, MATCHER, "replaceFirst"));
+        assertPrecompiled(cls, 1);
+    }
+
+    private ClassHolder transform() {
+        var program = parse("org/teavm/classlib/impl/string/" + name.getMethodName() + ".txt");
+        var method = new MethodHolder(new MethodDescriptor("run", String.class, void.class));
+        method.setProgram(program);
+        var cls = new ClassHolder("Caller");
+        cls.addMethod(method);
+        new ConstantRegexTransformer().transformClass(cls, new TestContext(HIERARCHY));
+        return cls;
+    }
+
+    private static Program runProgram(ClassHolder cls) {
+        return cls.getMethod(new MethodDescriptor("run", String.class, void.class)).getProgram();
+    }
+
+    private static void assertPrecompiled(ClassHolder cls, int expectedFactories) {
+        var factories = 0;
+        for (var method : cls.getMethods()) {
+            if (!method.getName().startsWith("regex$")) {
+                continue;
+            }
+            factories++;
+            assertEquals(ValueType.object(PATTERN), method.getResultType());
+            for (BasicBlock block : method.getProgram().getBasicBlocks()) {
+                for (Instruction instruction : block) {
+                    if (instruction instanceof ConstructInstruction) {
+                        var type = ((ConstructInstruction) instruction).getType();
+                        assertNotEquals("java.util.regex.Lexer", type);
+                    } else if (instruction instanceof InvokeInstruction) {
+                        var invoked = ((InvokeInstruction) instruction).getMethod();
+                        assertNotEquals(PATTERN, invoked.getClassName());
+                    }
+                }
+            }
+        }
+        assertEquals(expectedFactories, factories);
+    }
+
+    private static int countInvocations(Program program, String className, String methodName) {
+        var count = 0;
+        for (BasicBlock block : program.getBasicBlocks()) {
+            for (Instruction instruction : block) {
+                if (!(instruction instanceof InvokeInstruction)) {
+                    continue;
+                }
+                var method = ((InvokeInstruction) instruction).getMethod();
+                if (method.getClassName().equals(className)
+                        && (methodName == null || method.getName().equals(methodName))) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    private static ClassHierarchy createHierarchy() {
+        var classLoader = ConstantRegexTransformerTest.class.getClassLoader();
+        var mapping = DefaultSubstituteClassNameMapping.createWithPolicies(List.of(new ClasslibSubstitutionPolicy()));
+        var classes = new ClasspathClassHolderSource(new ClasspathResourceProvider(classLoader),
+                new ReferenceCache(), mapping);
+        return new ClassHierarchy(classes);
+    }
+
+    private static Program parse(String resourceName) {
+        var classLoader = ConstantRegexTransformerTest.class.getClassLoader();
+        try (var reader = new InputStreamReader(classLoader.getResourceAsStream(resourceName),
+                StandardCharsets.UTF_8)) {
+            return new ListingParser().parse(reader);
+        } catch (IOException | ListingParseException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static class TestContext implements ClassHolderTransformerContext {
+        private ClassHierarchy hierarchy;
+
+        TestContext(ClassHierarchy hierarchy) {
+            this.hierarchy = hierarchy;
+        }
+
+        @Override
+        public ClassHierarchy getHierarchy() {
+            return hierarchy;
+        }
+
+        @Override
+        public Diagnostics getDiagnostics() {
+            return null;
+        }
+
+        @Override
+        public IncrementalDependencyRegistration getIncrementalCache() {
+            return null;
+        }
+
+        @Override
+        public boolean isObfuscated() {
+            return false;
+        }
+
+        @Override
+        public boolean isStrict() {
+            return false;
+        }
+
+        @Override
+        public String getEntryPoint() {
+            return null;
+        }
+
+        @Override
+        public void submit(ClassHolder cls) {
+        }
+    }
+}
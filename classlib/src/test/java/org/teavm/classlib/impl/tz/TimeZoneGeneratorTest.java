@@ -0,0 +1,72 @@
+/*
+ *  Copyright 2026 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.classlib.impl.tz;
+
+import static org.junit.Assert.assertEquals;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import org.junit.Test;
+
+public class TimeZoneGeneratorTest {
+    private final StorableDateTimeZone berlin = new FixedDateTimeZone("Europe/Berlin", 3_600_000, 3_600_000);
+    private final StorableDateTimeZone paris = new FixedDateTimeZone("Europe/Paris", 3_600_000, 3_600_000);
+    private final StorableDateTimeZone tokyo = new FixedDateTimeZone("Asia/Tokyo", 32_400_000, 32_400_000);
+    private final StorableDateTimeZone utc = new FixedDateTimeZone("UTC", 0, 0);
+    private final StorableDateTimeZone etcUtc = new AliasDateTimeZone("Etc/UTC", utc);
+    private final StorableDateTimeZone zulu = new AliasDateTimeZone("Zulu", etcUtc);
+    private final StorableDateTimeZone japan = new AliasDateTimeZone("Japan", tokyo);
+    private final List<StorableDateTimeZone> zones = List.of(berlin, paris, tokyo, utc, etcUtc, zulu, japan);
+
+    @Test
+    public void exactIds() {
+        assertEquals(List.of("Europe/Berlin", "UTC"), ids(TimeZoneGenerator.filterZones(zones, "Europe/Berlin,UTC")));
+    }
+
+    @Test
+    public void area() {
+        assertEquals(List.of("Europe/Berlin", "Europe/Paris"), ids(TimeZoneGenerator.filterZones(zones, "Europe/*")));
+        assertEquals(List.of("Europe/Berlin", "Europe/Paris", "Asia/Tokyo"),
+                ids(TimeZoneGenerator.filterZones(zones, "Europe/*,Asia/Tokyo")));
+    }
+
+    @Test
+    public void aliasTargetsKept() {
+        assertEquals(List.of("Japan", "Asia/Tokyo"), ids(TimeZoneGenerator.filterZones(zones, "Japan")));
+        assertEquals(List.of("Zulu", "Etc/UTC", "UTC"), ids(TimeZoneGenerator.filterZones(zones, "Zulu")));
+        assertEquals(List.of("UTC", "Etc/UTC"), ids(TimeZoneGenerator.filterZones(zones, "UTC, Etc/UTC")));
+    }
+
+    @Test
+    public void whitespaceAndEmptyEntries() {
+        assertEquals(List.of("Europe/Berlin", "Asia/Tokyo"),
+                ids(TimeZoneGenerator.filterZones(zones, " Europe/Berlin ,, Asia/Tokyo , ")));
+        assertEquals(List.of(), ids(TimeZoneGenerator.filterZones(zones, " , ")));
+    }
+
+    @Test
+    public void unknownEntries() {
+        assertEquals(List.of("Europe/Berlin"), ids(TimeZoneGenerator.filterZones(zones, "Mars/*,Europe/Berlin,Moon")));
+    }
+
+    private static List<String> ids(Collection<StorableDateTimeZone> zones) {
+        var result = new ArrayList<String>();
+        for (var tz : zones) {
+            result.add(tz.getID());
+        }
+        return result;
+    }
+}
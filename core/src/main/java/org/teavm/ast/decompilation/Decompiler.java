@@ -23,6 +23,7 @@ import java.util.Deque;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
+import java.util.function.Predicate;
 import org.teavm.ast.AsyncMethodNode;
 import org.teavm.ast.AsyncMethodPart;
 import org.teavm.ast.BlockStatement;
@@ -69,14 +70,21 @@ public class Decompiler {
     private RangeTree.Node currentNode;
     private RangeTree.Node parentNode;
     private Set<MethodReference> splitMethods;
+    private Predicate<MethodReference> splitVirtualCalls;
     private List<TryCatchBookmark> tryCatchBookmarks = new ArrayList<>();
     private Deque<Block> stack;
     private Program program;
     private boolean friendlyToDebugger;
 
     public Decompiler(ClassHolderSource classSource, Set<MethodReference> splitMethods, boolean friendlyToDebugger) {
+        this(classSource, splitMethods, null, friendlyToDebugger);
+    }
+
+    public Decompiler(ClassHolderSource classSource, Set<MethodReference> splitMethods,
+            Predicate<MethodReference> splitVirtualCalls, boolean friendlyToDebugger) {
         this.classSource = classSource;
         this.splitMethods = splitMethods;
+        this.splitVirtualCalls = splitVirtualCalls;
         this.friendlyToDebugger = friendlyToDebugger;
     }
 
@@ -134,7 +142,7 @@ public class Decompiler {
 
     public AsyncMethodNode decompileAsync(MethodHolder method) {
         AsyncMethodNode node = new AsyncMethodNode(method.getReference());
-        AsyncProgramSplitter splitter = new AsyncProgramSplitter(classSource, splitMethods);
+        AsyncProgramSplitter splitter = new AsyncProgramSplitter(classSource, splitMethods, splitVirtualCalls);
         splitter.split(method.getProgram());
         for (int i = 0; i < splitter.size(); ++i) {
             AsyncMethodPart part;
@@ -64,6 +64,7 @@ import org.teavm.backend.c.generators.ReferenceQueueGenerator;
 import org.teavm.backend.c.generators.ReflectionGenerator;
 import org.teavm.backend.c.generators.WeakReferenceGenerator;
 import org.teavm.backend.c.intrinsic.AddressIntrinsic;
+import org.teavm.backend.c.intrinsic.AllocatorIntrinsic;
 import org.teavm.backend.c.intrinsic.CResourcesIntrinsic;
 import org.teavm.backend.c.intrinsic.ConsoleIntrinsic;
 import org.teavm.backend.c.intrinsic.ExceptionHandlingIntrinsic;
@@ -141,6 +142,7 @@ import org.teavm.model.MethodReference;
 import org.teavm.model.Program;
 import org.teavm.model.ValueType;
 import org.teavm.model.analysis.ClassMetadataRequirements;
+import org.teavm.model.analysis.InterproceduralEscapeAnalysis;
 import org.teavm.model.classes.TagRegistry;
 import org.teavm.model.classes.VirtualTableBuilder;
 import org.teavm.model.classes.VirtualTableProvider;
@@ -151,6 +153,7 @@ import org.teavm.model.lowlevel.ClassInitializerTransformer;
 import org.teavm.model.lowlevel.ExportDependencyListener;
 import org.teavm.model.lowlevel.LowLevelNullCheckFilter;
 import org.teavm.model.lowlevel.ShadowStackTransformer;
+import org.teavm.model.lowlevel.StackAllocationTransformer;
 import org.teavm.model.lowlevel.WriteBarrierInsertion;
 import org.teavm.model.optimization.InliningFilterFactory;
 import org.teavm.model.transformation.BoundCheckInsertion;
@@ -193,7 +196,7 @@ public class CTarget implements TeaVMTarget, TeaVMCHost {
             "exceptions.h", "fiber.c", "fiber.h", "file.c", "file.h", "heapdump.c", "heapdump.h", "heaptrace.c",
             "heaptrace.h", "log.c", "log.h", "memory.c", "memory.h", "references.c", "references.h",
             "resource.c", "resource.h", "runtime.h", "stack.c", "stack.h", "string.c", "string.h",
-            "stringhash.c", "stringhash.h", "time.c", "time.h", "virtcall.c", "virtcall.h",
+            "stringhash.c", "stringhash.h", "threads.c", "threads.h", "time.c", "time.h", "virtcall.c", "virtcall.h",
             "arrayclass.c", "arrayclass.h", "uchar.h", "reflection.c", "reflection.h", "proxy.h"
     };
 
@@ -204,6 +207,7 @@ public class CTarget implements TeaVMTarget, TeaVMCHost {
     private ClassInitializerTransformer classInitializerTransformer;
     private ShadowStackTransformer shadowStackTransformer;
     private WriteBarrierInsertion writeBarrierInsertion;
+    private StackAllocationTransformer stackAllocationTransformer;
     private NullCheckInsertion nullCheckInsertion;
     private BoundCheckInsertion boundCheckInsertion = new BoundCheckInsertion();
     private ExportDependencyListener exportDependencyListener = new ExportDependencyListener();
@@ -220,6 +224,8 @@ public class CTarget implements TeaVMTarget, TeaVMCHost {
     private SimpleStringPool stringPool;
     private boolean heapDump;
     private boolean obfuscated;
+    private boolean conservativeStackScanning;
+    private boolean multithreaded;
     private List<CallSiteDescriptor> callSites = new ArrayList<>();
     private ReflectionDependencyListener reflection;
     private ProxyIntrinsicContext proxyContext;
@@ -256,6 +262,24 @@ public class CTarget implements TeaVMTarget, TeaVMCHost {
         this.obfuscated = obfuscated;
     }
 
+    public void setConservativeStackScanning(boolean conservativeStackScanning) {
+        this.conservativeStackScanning = conservativeStackScanning;
+    }
+
+    /**
+     * Enables runtime support for several OS threads running managed code: per-thread allocation buffers,
+     * stop-the-world safepoints before garbage collection and scanning stacks of all attached threads.
+     * Native threads join and leave runtime with {@code teavm_attachThread} and {@code teavm_detachThread}.
+     * Implies conservative stack scanning. Java threads are still run as fibers on the main thread.
+     */
+    public void setMultithreaded(boolean multithreaded) {
+        this.multithreaded = multithreaded;
+    }
+
+    private boolean isConservativeStackScanning() {
+        return conservativeStackScanning || multithreaded;
+    }
+
     public void setFileNames(FileNameProvider fileNames) {
         this.fileNames = fileNames;
     }
@@ -284,7 +308,7 @@ public class CTarget implements TeaVMTarget, TeaVMCHost {
         characteristics = new Characteristics(controller.getUnprocessedClassSource());
         classInitializerEliminator = new ClassInitializerEliminator(controller.getUnprocessedClassSource());
         classInitializerTransformer = new ClassInitializerTransformer();
-        shadowStackTransformer = new ShadowStackTransformer(characteristics);
+        shadowStackTransformer = new ShadowStackTransformer(characteristics, !isConservativeStackScanning());
         nullCheckInsertion = new NullCheckInsertion(new LowLevelNullCheckFilter(characteristics));
         writeBarrierInsertion = new WriteBarrierInsertion(characteristics);
 
@@ -398,6 +422,14 @@ public class CTarget implements TeaVMTarget, TeaVMCHost {
         asyncMethods = new HashSet<>(asyncFinder.getAsyncMethods());
         asyncMethods.addAll(asyncFinder.getAsyncFamilyMethods());
         hasThreads = asyncFinder.hasAsyncMethods();
+
+        if (!incremental) {
+            var escapeAnalysis = new InterproceduralEscapeAnalysis(controller.getDependencyInfo().getCallGraph(),
+                    asyncMethods::contains);
+            escapeAnalysis.analyze(classSource);
+            stackAllocationTransformer = new StackAllocationTransformer(controller.getUnprocessedClassSource(),
+                    escapeAnalysis, asyncMethods::contains);
+        }
     }
 
     @Override
@@ -413,11 +445,14 @@ public class CTarget implements TeaVMTarget, TeaVMCHost {
     @Override
     public void afterOptimizations(Program program, MethodReader method) {
         classInitializerEliminator.apply(program);
+        if (stackAllocationTransformer != null) {
+            stackAllocationTransformer.apply(program, method.getReference());
+        }
         new CoroutineTransformation(controller.getUnprocessedClassSource(), asyncMethods, hasThreads)
                 .apply(program, method.getReference());
         var shadowStackTransformer = !incremental
                 ? this.shadowStackTransformer
-                : new ShadowStackTransformer(characteristics);
+                : new ShadowStackTransformer(characteristics, !isConservativeStackScanning());
         shadowStackTransformer.apply(program, method);
         writeBarrierInsertion.apply(program);
     }
@@ -435,6 +470,7 @@ public class CTarget implements TeaVMTarget, TeaVMCHost {
 
         List<Intrinsic> intrinsics = new ArrayList<>();
         intrinsics.add(new ShadowStackIntrinsic());
+        intrinsics.add(new AllocatorIntrinsic());
         intrinsics.add(new AddressIntrinsic());
         intrinsics.add(new StructureIntrinsic(characteristics));
         intrinsics.add(new GCIntrinsic());
@@ -498,7 +534,8 @@ public class CTarget implements TeaVMTarget, TeaVMCHost {
                 controller.getDependencyInfo(), stringPool, nameProvider, fileNames,
                 controller.getDiagnostics(), classes, controller.getUnprocessedClassSource(), hierarchy, intrinsics,
                 generators, asyncMethods::contains, buildTarget, controller.getClassInitializerInfo(), incremental,
-                vmAssertions, vmAssertions || heapDump, obfuscated, types, typeLiterals, metadataRequirements);
+                vmAssertions, vmAssertions || heapDump, obfuscated, multithreaded, types, typeLiterals,
+                metadataRequirements);
         for (var clsName : classes.getClassNames()) {
             types.add(ValueType.object(clsName));
         }
@@ -519,6 +556,12 @@ public class CTarget implements TeaVMTarget, TeaVMCHost {
         if (obfuscated) {
             configHeaderWriter.println("#define TEAVM_OBFUSCATED 1");
         }
+        if (isConservativeStackScanning()) {
+            configHeaderWriter.println("#define TEAVM_CONSERVATIVE_STACK_SCAN 1");
+        }
+        if (multithreaded) {
+            configHeaderWriter.println("#define TEAVM_MULTITHREADED 1");
+        }
         if (gcStats) {
             configHeaderWriter.println("#define TEAVM_GC_STATS 1");
         }
@@ -1169,6 +1212,7 @@ public class CTarget implements TeaVMTarget, TeaVMCHost {
         files.add("string.c");
         files.add("stringhash.c");
         files.add("strings.c");
+        files.add("threads.c");
         files.add("time.c");
         files.add("virtcall.c");
         files.add("arrayclass.c");
@@ -1237,6 +1281,7 @@ public class CTarget implements TeaVMTarget, TeaVMCHost {
 
         writer.println("int " + mainFunctionName + "(int argc, char** argv) {").indent();
 
+        writer.println("teavm_gc_setNativeStackBase(&argc);");
         writer.println("teavm_beforeInit();");
         writer.println("teavm_initHeap(" + minHeapSize + ", " + maxHeapSize + ");");
         generateVirtualTableHeaders(context, writer);
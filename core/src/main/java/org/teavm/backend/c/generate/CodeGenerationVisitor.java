@@ -1267,6 +1267,10 @@ public class CodeGenerationVisitor implements ExprVisitor, StatementVisitor {
         int statementId = registerIdentifiedStatement(statement);
 
         writer.println("while (1) {").indent();
+        if (managed && context.isMultithreaded()) {
+            includes.includePath("threads.h");
+            writer.println("TEAVM_SAFEPOINT();");
+        }
 
         // This can't be moved to 'while', since C11 standard allows removing infinite loops
         // See https://www.iso-9899.info/n1570.html#6.8.5p6
@@ -57,6 +57,7 @@ public class GenerationContext {
     private boolean vmAssertions;
     private boolean heapDump;
     private boolean obfuscated;
+    private boolean multithreaded;
     private Set<ValueType> types;
     private Set<ValueType> typeLiterals;
     private ClassMetadataRequirements metadataRequirements;
@@ -67,7 +68,7 @@ public class GenerationContext {
             ClassHierarchy hierarchy, List<Intrinsic> intrinsics, List<Generator> generators,
             Predicate<MethodReference> asyncMethods, BuildTarget buildTarget,
             ClassInitializerInfo classInitializerInfo, boolean incremental, boolean vmAssertions, boolean heapDump,
-            boolean obfuscated, Set<ValueType> types, Set<ValueType> typeLiterals,
+            boolean obfuscated, boolean multithreaded, Set<ValueType> types, Set<ValueType> typeLiterals,
             ClassMetadataRequirements metadataRequirements) {
         this.virtualTableProvider = virtualTableProvider;
         this.characteristics = characteristics;
@@ -88,6 +89,7 @@ public class GenerationContext {
         this.vmAssertions = vmAssertions;
         this.heapDump = heapDump;
         this.obfuscated = obfuscated;
+        this.multithreaded = multithreaded;
         this.types = types;
         this.typeLiterals = typeLiterals;
         this.metadataRequirements = metadataRequirements;
@@ -183,6 +185,10 @@ public class GenerationContext {
         return obfuscated;
     }
 
+    public boolean isMultithreaded() {
+        return multithreaded;
+    }
+
     public void addTypeLiteral(ValueType type) {
         typeLiterals.add(type);
     }
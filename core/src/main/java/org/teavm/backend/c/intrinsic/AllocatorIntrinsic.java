@@ -0,0 +1,40 @@
+/*
+ *  Copyright 2026 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.backend.c.intrinsic;
+
+import org.teavm.ast.InvocationExpr;
+import org.teavm.backend.c.util.ConstantUtil;
+import org.teavm.model.MethodReference;
+import org.teavm.model.ValueType;
+import org.teavm.runtime.Allocator;
+
+public class AllocatorIntrinsic implements Intrinsic {
+    @Override
+    public boolean canHandle(MethodReference method) {
+        if (!method.getClassName().equals(Allocator.class.getName())) {
+            return false;
+        }
+        return method.getName().equals("allocateStack");
+    }
+
+    @Override
+    public void apply(IntrinsicContext context, InvocationExpr invocation) {
+        String className = ConstantUtil.getClassLiteral(context, invocation, invocation.getArguments().get(0));
+        context.includes().includeClass(className);
+        context.writer().print("TEAVM_ALLOC_ON_STACK(").print(context.names().forClass(className)).print(", &")
+                .print(context.names().forClassInstance(ValueType.object(className))).print(")");
+    }
+}
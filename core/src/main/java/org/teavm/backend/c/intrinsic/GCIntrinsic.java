@@ -40,6 +40,15 @@ public class GCIntrinsic implements Intrinsic {
             case "cardTable":
             case "writeBarrier":
             case "canShrinkHeap":
+            case "collectNativeStackRoots":
+            case "nativeStackRoots":
+            case "nativeStackRootCount":
+            case "isMultithreaded":
+            case "allocLocal":
+            case "lockHeap":
+            case "unlockHeap":
+            case "stopTheWorld":
+            case "resumeTheWorld":
                 return true;
             default:
                 return false;
@@ -65,6 +74,37 @@ public class GCIntrinsic implements Intrinsic {
                 context.writer().print("1");
                 break;
 
+            case "collectNativeStackRoots":
+                context.includes().includePath("memory.h");
+                context.writer().print("teavm_gc_collectNativeStackRoots()");
+                break;
+
+            case "nativeStackRoots":
+            case "nativeStackRootCount":
+                context.includes().includePath("memory.h");
+                context.writer().print("teavm_gc_").print(invocation.getMethod().getName());
+                break;
+
+            case "isMultithreaded":
+                context.includes().includePath("definitions.h");
+                context.writer().print("TEAVM_MULTITHREADED");
+                break;
+
+            case "allocLocal":
+                context.includes().includePath("threads.h");
+                context.writer().print("teavm_gc_allocLocal(");
+                context.emit(invocation.getArguments().get(0));
+                context.writer().print(")");
+                break;
+
+            case "lockHeap":
+            case "unlockHeap":
+            case "stopTheWorld":
+            case "resumeTheWorld":
+                context.includes().includePath("threads.h");
+                context.writer().print("teavm_gc_").print(invocation.getMethod().getName()).print("()");
+                break;
+
             default:
                 context.includes().includePath("heaptrace.h");
                 context.writer().print("teavm_gc_").print(invocation.getMethod().getName());
@@ -0,0 +1,66 @@
+/*
+ *  Copyright 2026 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.backend.javascript;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+import org.teavm.backend.javascript.codegen.MethodDeclarationListener;
+import org.teavm.model.MethodReference;
+
+class HotPatchRecorder implements MethodDeclarationListener {
+    private final StringBuilder output;
+    private final Predicate<MethodReference> patchable;
+    private final StringBuilder skeleton = new StringBuilder();
+    private final Map<MethodReference, HotPatchSnapshot.Declaration> methods = new LinkedHashMap<>();
+    private int skeletonEnd;
+    private MethodReference currentMethod;
+    private String currentTarget;
+    private int currentStart;
+
+    HotPatchRecorder(StringBuilder output, Predicate<MethodReference> patchable) {
+        this.output = output;
+        this.patchable = patchable;
+    }
+
+    @Override
+    public void valueStarted(MethodReference method, String target) {
+        if (!patchable.test(method)) {
+            return;
+        }
+        currentMethod = method;
+        currentTarget = target;
+        currentStart = output.length();
+    }
+
+    @Override
+    public void valueEnded() {
+        if (currentMethod == null) {
+            return;
+        }
+        skeleton.append(output, skeletonEnd, currentStart).append('\0');
+        skeletonEnd = output.length();
+        var value = output.substring(currentStart, skeletonEnd);
+        methods.put(currentMethod, new HotPatchSnapshot.Declaration(currentTarget, value));
+        currentMethod = null;
+        currentTarget = null;
+    }
+
+    HotPatchSnapshot finish() {
+        skeleton.append(output, skeletonEnd, output.length());
+        return new HotPatchSnapshot(skeleton.toString(), methods);
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ *  Copyright 2026 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.backend.javascript;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import org.teavm.model.MethodReference;
+
+/**
+ * <p>Describes JavaScript output of a single build in a form suitable for replacing methods in running code.
+ * Output is split into method values (i.e. the right sides of top-level method declarations) and a skeleton,
+ * which is everything else.</p>
+ *
+ * <p>When two consecutive builds have equal skeletons, the second build can be applied to a page that runs
+ * the first one by re-assigning changed methods, see {@link #createPatch(HotPatchSnapshot)}.</p>
+ */
+public class HotPatchSnapshot {
+    private final String skeleton;
+    private final Map<MethodReference, Declaration> methods;
+
+    HotPatchSnapshot(String skeleton, Map<MethodReference, Declaration> methods) {
+        this.skeleton = skeleton;
+        this.methods = Collections.unmodifiableMap(methods);
+    }
+
+    public Map<? extends MethodReference, ? extends Declaration> getMethods() {
+        return methods;
+    }
+
+    /**
+     * Creates script that turns code of previous build into code of this build.
+     *
+     * @param previous snapshot of the build that currently runs in the browser.
+     * @return script that should be evaluated by the hot patching hook or {@code null}, if builds differ in
+     *     anything except for method bodies and therefore require full reload.
+     */
+    public String createPatch(HotPatchSnapshot previous) {
+        if (previous == null || !skeleton.equals(previous.skeleton)
+                || !methods.keySet().equals(previous.methods.keySet())) {
+            return null;
+        }
+        var sb = new StringBuilder();
+        for (var entry : methods.entrySet()) {
+            var declaration = entry.getValue();
+            var previousDeclaration = previous.methods.get(entry.getKey());
+            if (!declaration.target.equals(previousDeclaration.target)) {
+                return null;
+            }
+            if (!declaration.value.equals(previousDeclaration.value)) {
+                sb.append(declaration.target).append(" = ").append(declaration.value).append(";\n");
+            }
+        }
+        return sb.toString();
+    }
+
+    public static class Declaration {
+        private final String target;
+        private final String value;
+
+        Declaration(String target, String value) {
+            this.target = Objects.requireNonNull(target);
+            this.value = Objects.requireNonNull(value);
+        }
+
+        public String getTarget() {
+            return target;
+        }
+
+        public String getValue() {
+            return value;
+        }
+    }
+}
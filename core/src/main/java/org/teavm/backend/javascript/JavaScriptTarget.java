@@ -99,6 +99,7 @@ import org.teavm.model.instructions.InvokeInstruction;
 import org.teavm.model.instructions.RaiseInstruction;
 import org.teavm.model.instructions.StringConstantInstruction;
 import org.teavm.model.transformation.BoundCheckInsertion;
+import org.teavm.model.transformation.LongNarrowing;
 import org.teavm.model.transformation.NullCheckFilter;
 import org.teavm.model.transformation.NullCheckInsertion;
 import org.teavm.model.util.DefaultVariableCategoryProvider;
@@ -141,6 +142,8 @@ public class JavaScriptTarget implements TeaVMTarget, TeaVMJavaScriptHost {
     private JSModuleType moduleType = JSModuleType.UMD;
     private List<ExportedDeclaration> exports = new ArrayList<>();
     private int maxTopLevelNames = 80_000;
+    private boolean hotPatchingSupported;
+    private HotPatchSnapshot hotPatchSnapshot;
 
     private ReflectionDependencyListener reflection;
 
@@ -246,6 +249,25 @@ public class JavaScriptTarget implements TeaVMTarget, TeaVMJavaScriptHost {
         this.maxTopLevelNames = maxTopLevelNames;
     }
 
+    /**
+     * Specifies whether generated code should allow replacing methods in a running program.
+     * When enabled, virtual methods are always called through the top-level method declarations,
+     * the module installs global <code>$teavm_hotPatch</code> function that evaluates code in the module scope,
+     * and the target records {@link #getHotPatchSnapshot() snapshot} of the output.
+     *
+     * @param hotPatchingSupported whether hot patching is supported.
+     */
+    public void setHotPatchingSupported(boolean hotPatchingSupported) {
+        this.hotPatchingSupported = hotPatchingSupported;
+    }
+
+    /**
+     * Returns snapshot of the last generated code, or {@code null} if hot patching is not supported.
+     */
+    public HotPatchSnapshot getHotPatchSnapshot() {
+        return hotPatchSnapshot;
+    }
+
     @Override
     public List<TeaVMHostExtension> getHostExtensions() {
         return Collections.singletonList(this);
@@ -371,9 +393,11 @@ public class JavaScriptTarget implements TeaVMTarget, TeaVMJavaScriptHost {
 
     @Override
     public void afterOptimizations(Program program, MethodReader method) {
+        new LongNarrowing().transformProgram(program);
     }
 
-    private void emit(ListableClassHolderSource classes, Writer writer, BuildTarget target) {
+    private void emit(ListableClassHolderSource classes, Writer writer, BuildTarget target) throws IOException {
+        hotPatchSnapshot = null;
         var aliasProvider = obfuscated
                 ? new MinifyingAliasProvider(maxTopLevelNames)
                 : new DefaultAliasProvider(maxTopLevelNames);
@@ -425,6 +449,7 @@ public class JavaScriptTarget implements TeaVMTarget, TeaVMJavaScriptHost {
                 templateFactory, exports, controller.getEntryPoint());
         renderer.setProperties(controller.getProperties());
         renderer.setProgressConsumer(controller::reportProgress);
+        renderer.setLiveMethodBindings(hotPatchingSupported);
 
         for (var listener : rendererListeners) {
             listener.begin(renderer, target);
@@ -477,7 +502,17 @@ public class JavaScriptTarget implements TeaVMTarget, TeaVMJavaScriptHost {
         epilogue.replay(frequencyEstimator, RememberedSource.FILTER_REF);
         frequencyEstimator.apply(naming);
 
-        var sourceWriter = builder.build(writer);
+        StringBuilder hotPatchBuffer = null;
+        HotPatchRecorder hotPatchRecorder = null;
+        OutputSourceWriter sourceWriter;
+        if (hotPatchingSupported) {
+            hotPatchBuffer = new StringBuilder();
+            hotPatchRecorder = new HotPatchRecorder(hotPatchBuffer, m -> !renderer.isAsyncMethod(m));
+            sourceWriter = builder.build(hotPatchBuffer);
+            sourceWriter.setMethodDeclarationListener(hotPatchRecorder);
+        } else {
+            sourceWriter = builder.build(writer);
+        }
         sourceWriter.setDebugInformationEmitter(debugEmitterToUse);
         printWrapperStart(sourceWriter);
         if (frequencyEstimator.hasAdditionalScope()) {
@@ -491,9 +526,17 @@ public class JavaScriptTarget implements TeaVMTarget, TeaVMJavaScriptHost {
         metadata.write(sourceWriter, 0);
         runtimeEpilogue.write(sourceWriter, 0);
         epilogue.write(sourceWriter, 0);
+        if (hotPatchingSupported) {
+            sourceWriter.append("globalThis.$teavm_hotPatch").ws().append("=").ws().append("code").ws()
+                    .append("=>").ws().append("eval(code);").softNewLine();
+        }
 
         printModuleEnd(sourceWriter);
         sourceWriter.finish();
+        if (hotPatchBuffer != null) {
+            hotPatchSnapshot = hotPatchRecorder.finish();
+            writer.append(hotPatchBuffer);
+        }
 
         int totalSize = sourceWriter.getOffset() - start;
         printStats(sourceWriter, totalSize);
@@ -0,0 +1,30 @@
+/*
+ *  Copyright 2026 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.backend.javascript.codegen;
+
+import org.teavm.model.MethodReference;
+
+public interface MethodDeclarationListener {
+    /**
+     * Called when writer is about to emit value of a top-level method declaration.
+     *
+     * @param method method being declared.
+     * @param target expression that holds the method, suitable as a left side of an assignment.
+     */
+    void valueStarted(MethodReference method, String target);
+
+    void valueEnded();
+}
@@ -49,6 +49,8 @@ public class OutputSourceWriter extends SourceWriter implements LocationProvider
     private DeclarationType currentDeclarationType;
     private boolean expectingDeclarationName;
     private int letSequenceSize;
+    private MethodDeclarationListener methodDeclarationListener;
+    private MethodReference declaredMethod;
 
     OutputSourceWriter(NamingStrategy naming, Appendable innerWriter, int lineWidth) {
         this.naming = naming;
@@ -61,6 +63,10 @@ public class OutputSourceWriter extends SourceWriter implements LocationProvider
         debugInformationEmitter.setLocationProvider(this);
     }
 
+    public void setMethodDeclarationListener(MethodDeclarationListener methodDeclarationListener) {
+        this.methodDeclarationListener = methodDeclarationListener;
+    }
+
     void setMinified(boolean minified) {
         this.minified = minified;
     }
@@ -158,6 +164,10 @@ public class OutputSourceWriter extends SourceWriter implements LocationProvider
 
     @Override
     public SourceWriter appendMethod(MethodReference method) {
+        if (expectingDeclarationName && methodDeclarationListener != null
+                && currentDeclarationType != DeclarationType.VARIABLE_WITHOUT_VALUE) {
+            declaredMethod = method;
+        }
         return appendDeclaration(naming.methodName(method));
     }
 
@@ -216,6 +226,10 @@ public class OutputSourceWriter extends SourceWriter implements LocationProvider
         if (currentDeclarationType == null || expectingDeclarationName) {
             throw new IllegalStateException();
         }
+        if (declaredMethod != null) {
+            declaredMethod = null;
+            methodDeclarationListener.valueEnded();
+        }
         switch (currentDeclarationType) {
             case FUNCTION:
                 newLine();
@@ -244,8 +258,11 @@ public class OutputSourceWriter extends SourceWriter implements LocationProvider
                 finishLet();
                 if (name.scoped) {
                     append(naming.additionalScopeName()).append('.').append(name.name).ws()
-                            .append('=').ws().append("function");
+                            .append('=').ws();
+                    notifyMethodValueStarted(name);
+                    append("function");
                 } else {
+                    notifyMethodValueStarted(name);
                     append("function ").append(name.name);
                 }
                 break;
@@ -261,6 +278,7 @@ public class OutputSourceWriter extends SourceWriter implements LocationProvider
                     }
                 }
                 append(name.name).ws().append('=').ws();
+                notifyMethodValueStarted(name);
                 break;
             case VARIABLE_WITHOUT_VALUE:
                 if (!name.scoped) {
@@ -278,6 +296,13 @@ public class OutputSourceWriter extends SourceWriter implements LocationProvider
         return this;
     }
 
+    private void notifyMethodValueStarted(ScopedName name) {
+        if (declaredMethod != null) {
+            var target = name.scoped ? naming.additionalScopeName() + "." + name.name : name.name;
+            methodDeclarationListener.valueStarted(declaredMethod, target);
+        }
+    }
+
     private SourceWriter appendName(ScopedName name) {
         if (name.scoped) {
             append(naming.additionalScopeName());
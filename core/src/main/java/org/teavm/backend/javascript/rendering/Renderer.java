@@ -20,6 +20,7 @@ import com.carrotsearch.hppc.ObjectIntMap;
 import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
@@ -94,6 +95,7 @@ public class Renderer implements RenderingManager {
     private List<ExportedDeclaration> exports;
     private String entryPoint;
     private VariableNameGenerator variableNameGenerator;
+    private boolean liveMethodBindings;
 
     public static final MethodDescriptor CLINIT_METHOD = new MethodDescriptor("<clinit>", ValueType.VOID);
 
@@ -149,6 +151,18 @@ public class Renderer implements RenderingManager {
         return threadLibraryUsed;
     }
 
+    /**
+     * Makes virtual method tables refer to top-level method declarations by name instead of capturing their
+     * values, so that re-assigning a declaration takes effect for virtual calls as well.
+     */
+    public void setLiveMethodBindings(boolean liveMethodBindings) {
+        this.liveMethodBindings = liveMethodBindings;
+    }
+
+    public boolean isAsyncMethod(MethodReference method) {
+        return asyncMethods.contains(method);
+    }
+
     @Override
     public ListableClassReaderSource getClassSource() {
         return classSource;
@@ -252,10 +266,10 @@ public class Renderer implements RenderingManager {
                 context.getDependencyInfo());
         asyncFinder.find(classes);
         asyncMethods.addAll(asyncFinder.getAsyncMethods());
-        var splitMethods = new HashSet<>(asyncMethods);
-        splitMethods.addAll(asyncFinder.getAsyncFamilyMethods());
+        printAsyncReport(asyncFinder);
 
-        var decompiler = new Decompiler(classes, splitMethods, isFriendlyToDebugger);
+        var decompiler = new Decompiler(classes, new HashSet<>(asyncMethods), asyncFinder::isAsyncVirtualCall,
+                isFriendlyToDebugger);
 
         int index = 0;
         for (var cls : sequence) {
@@ -271,6 +285,20 @@ public class Renderer implements RenderingManager {
         return true;
     }
 
+    private void printAsyncReport(AsyncMethodFinder asyncFinder) {
+        if (!Boolean.parseBoolean(System.getProperty("teavm.js.asyncReport", "false"))) {
+            return;
+        }
+
+        var methods = new ArrayList<>(asyncFinder.getAsyncMethods());
+        methods.sort(Comparator.comparing(MethodReference::toString));
+        System.out.println("Async methods: " + methods.size() + " of "
+                + context.getDependencyInfo().getReachableMethods().size() + " reachable");
+        for (var method : methods) {
+            System.out.println(asyncFinder.getAsyncReason(method));
+        }
+    }
+
     private void orderClasses(ClassHolderSource classes, String className, Set<String> visited,
             List<ClassHolder> order) {
         if (!visited.add(className)) {
@@ -790,10 +818,16 @@ public class Renderer implements RenderingManager {
     private void emitVirtualFunctionWrapper(MethodReference method) {
         var forced = context.isForcedFunction(method);
         if (forced) {
-            writer.appendFunction("$rt_wrapFunctionVararg").append("(").appendMethod(method).append(")");
+            writer.appendFunction("$rt_wrapFunctionVararg").append("(");
+            if (liveMethodBindings) {
+                writer.append("(...args)").ws().append("=>").ws().appendMethod(method).append("(...args)");
+            } else {
+                writer.appendMethod(method);
+            }
+            writer.append(")");
             return;
         }
-        if (method.parameterCount() <= 4 && !forced) {
+        if (method.parameterCount() <= 4 && !liveMethodBindings) {
             writer.appendFunction("$rt_wrapFunction" + method.parameterCount());
             writer.append("(").appendMethod(method).append(")");
             return;
@@ -625,6 +625,11 @@ public class WasmGCTarget implements TeaVMTarget, TeaVMWasmGCHost {
         return false;
     }
 
+    @Override
+    public boolean needsLoopIdiomRecognition() {
+        return true;
+    }
+
     @Override
     public boolean filterClassInitializer(String initializer) {
         if (initializer.equals(StringInternPool.class.getName())) {
@@ -31,6 +31,17 @@ import org.teavm.runtime.Fiber;
 import org.teavm.runtime.heap.Heap;
 
 public class WasmGCDependencies {
+    public static final List<MethodReference> ARRAY_FILL_METHODS = List.of(
+            new MethodReference(Arrays.class, "fill", boolean[].class, int.class, int.class, boolean.class,
+                    void.class),
+            new MethodReference(Arrays.class, "fill", byte[].class, int.class, int.class, byte.class, void.class),
+            new MethodReference(Arrays.class, "fill", short[].class, int.class, int.class, short.class, void.class),
+            new MethodReference(Arrays.class, "fill", char[].class, int.class, int.class, char.class, void.class),
+            new MethodReference(Arrays.class, "fill", int[].class, int.class, int.class, int.class, void.class),
+            new MethodReference(Arrays.class, "fill", long[].class, int.class, int.class, long.class, void.class),
+            new MethodReference(Arrays.class, "fill", float[].class, int.class, int.class, float.class, void.class),
+            new MethodReference(Arrays.class, "fill", double[].class, int.class, int.class, double.class,
+                    void.class));
     private DependencyAnalyzer analyzer;
 
     public WasmGCDependencies(DependencyAnalyzer analyzer) {
@@ -46,6 +57,7 @@ public class WasmGCDependencies {
         contributeString();
         contributeBuffers();
         contributeFiber();
+        contributeBulkArrayOperations();
         analyzer.addDependencyListener(new WasmGCReferenceQueueDependency());
         analyzer.addDependencyListener(new WasmGCResourceDependency());
         analyzer.addDependencyListener(new SystemArrayCopyDependencySupport());
@@ -150,6 +162,17 @@ public class WasmGCDependencies {
                 void.class)).use();
     }
 
+    // Loop idiom recognition replaces fill and copy loops with these methods after dependency analysis
+    private void contributeBulkArrayOperations() {
+        for (var method : ARRAY_FILL_METHODS) {
+            analyzer.linkMethod(method).use();
+        }
+        analyzer.linkMethod(new MethodReference(WasmGCSupport.class, "checkArrayFill", int.class, int.class,
+                int.class, void.class)).use();
+        analyzer.linkMethod(new MethodReference(System.class, "arraycopy", Object.class, int.class, Object.class,
+                int.class, int.class, void.class)).use();
+    }
+
     private void contributeFiber() {
         analyzer.linkMethod(new MethodReference(Fiber.class, "isResuming", boolean.class)).use();
         analyzer.linkMethod(new MethodReference(Fiber.class, "isSuspending", boolean.class)).use();
@@ -72,6 +72,9 @@ public abstract class BaseDisassemblyListener  {
                     case FLOAT64:
                         writer.write("f64");
                         return;
+                    case V128:
+                        writer.write("v128");
+                        return;
                     default:
                         break;
                 }
@@ -25,6 +25,8 @@ import org.teavm.backend.wasm.model.instruction.WasmIntBinaryOperation;
 import org.teavm.backend.wasm.model.instruction.WasmIntType;
 import org.teavm.backend.wasm.model.instruction.WasmIntUnaryOperation;
 import org.teavm.backend.wasm.model.instruction.WasmSignedType;
+import org.teavm.backend.wasm.model.instruction.WasmVectorBinaryOperation;
+import org.teavm.backend.wasm.model.instruction.WasmVectorShape;
 import org.teavm.backend.wasm.parser.BranchOpcode;
 import org.teavm.backend.wasm.parser.CodeListener;
 import org.teavm.backend.wasm.parser.LocalOpcode;
@@ -463,6 +465,127 @@ public class DisassemblyCodeListener extends BaseDisassemblyListener implements
         writer.address().write("memory.copy").eol();
     }
 
+    @Override
+    public void loadVector(int align, int offset) {
+        writer.address().write("v128.load");
+        writeMemArg(align, 16, offset);
+        writer.eol();
+    }
+
+    @Override
+    public void storeVector(int align, int offset) {
+        writer.address().write("v128.store");
+        writeMemArg(align, 16, offset);
+        writer.eol();
+    }
+
+    @Override
+    public void vectorConstant(byte[] value) {
+        writer.address().write("v128.const i8x16");
+        for (var b : value) {
+            writer.write(" " + (b & 0xFF));
+        }
+        writer.eol();
+    }
+
+    @Override
+    public void vectorSplat(WasmVectorShape shape) {
+        writer.address();
+        writeVectorShape(shape);
+        writer.write(".splat").eol();
+    }
+
+    @Override
+    public void vectorExtractLane(WasmVectorShape shape, WasmSignedType signedType, int lane) {
+        writer.address();
+        writeVectorShape(shape);
+        writer.write(".extract_lane");
+        if (signedType != null) {
+            writer.write(signedType == WasmSignedType.SIGNED ? "_s" : "_u");
+        }
+        writer.write(" " + lane).eol();
+    }
+
+    @Override
+    public void vectorReplaceLane(WasmVectorShape shape, int lane) {
+        writer.address();
+        writeVectorShape(shape);
+        writer.write(".replace_lane " + lane).eol();
+    }
+
+    @Override
+    public void vectorBinary(WasmVectorBinaryOperation opcode, WasmVectorShape shape) {
+        writer.address();
+        if (shape == null) {
+            writer.write("v128");
+        } else {
+            writeVectorShape(shape);
+        }
+        var isFloat = shape == WasmVectorShape.F32X4 || shape == WasmVectorShape.F64X2;
+        switch (opcode) {
+            case ADD:
+                writer.write(".add");
+                break;
+            case SUB:
+                writer.write(".sub");
+                break;
+            case MUL:
+                writer.write(".mul");
+                break;
+            case DIV:
+                writer.write(".div");
+                break;
+            case MIN:
+                writer.write(isFloat ? ".min" : ".min_s");
+                break;
+            case MIN_UNSIGNED:
+                writer.write(".min_u");
+                break;
+            case MAX:
+                writer.write(isFloat ? ".max" : ".max_s");
+                break;
+            case MAX_UNSIGNED:
+                writer.write(".max_u");
+                break;
+            case AND:
+                writer.write(".and");
+                break;
+            case AND_NOT:
+                writer.write(".andnot");
+                break;
+            case OR:
+                writer.write(".or");
+                break;
+            case XOR:
+                writer.write(".xor");
+                break;
+        }
+        writer.eol();
+    }
+
+    private void writeVectorShape(WasmVectorShape shape) {
+        switch (shape) {
+            case I8X16:
+                writer.write("i8x16");
+                break;
+            case I16X8:
+                writer.write("i16x8");
+                break;
+            case I32X4:
+                writer.write("i32x4");
+                break;
+            case I64X2:
+                writer.write("i64x2");
+                break;
+            case F32X4:
+                writer.write("f32x4");
+                break;
+            case F64X2:
+                writer.write("f64x2");
+                break;
+        }
+    }
+
     private void writeMemArg(int align, int defaultAlign, int offset) {
         var needsComma = false;
         if (align != defaultAlign) {
@@ -929,6 +1052,13 @@ public class DisassemblyCodeListener extends BaseDisassemblyListener implements
         writer.eol();
     }
 
+    @Override
+    public void arrayFill(int typeIndex) {
+        writer.address().write("array.fill ");
+        writeTypeRef(typeIndex);
+        writer.eol();
+    }
+
     @Override
     public void arrayCopy(int targetTypeIndex, int sourceTypeIndex) {
         writer.address().write("array.copy ");
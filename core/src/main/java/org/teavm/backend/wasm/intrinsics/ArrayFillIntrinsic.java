@@ -0,0 +1,92 @@
+/*
+ *  Copyright 2026 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.backend.wasm.intrinsics;
+
+import org.teavm.ast.InvocationExpr;
+import org.teavm.backend.wasm.BaseWasmFunctionRepository;
+import org.teavm.backend.wasm.generate.WasmGeneratorUtil;
+import org.teavm.backend.wasm.generate.classes.WasmGCClassInfoProvider;
+import org.teavm.backend.wasm.generate.classes.WasmGCTypeMapper;
+import org.teavm.backend.wasm.model.WasmArray;
+import org.teavm.backend.wasm.model.WasmFunction;
+import org.teavm.backend.wasm.model.WasmStructure;
+import org.teavm.backend.wasm.model.WasmType;
+import org.teavm.backend.wasm.model.instruction.WasmInstructionBuilder;
+import org.teavm.backend.wasm.model.instruction.WasmIntBinaryOperation;
+import org.teavm.backend.wasm.model.instruction.WasmIntType;
+import org.teavm.backend.wasm.runtime.WasmGCSupport;
+import org.teavm.model.MethodReference;
+
+public class ArrayFillIntrinsic implements WasmGCInlineIntrinsic {
+    private BaseWasmFunctionRepository functions;
+    private WasmGCTypeMapper typeMapper;
+    private WasmFunction checkFunction;
+
+    public ArrayFillIntrinsic(BaseWasmFunctionRepository functions, WasmGCTypeMapper typeMapper) {
+        this.functions = functions;
+        this.typeMapper = typeMapper;
+    }
+
+    @Override
+    public void apply(InvocationExpr invocation, WasmGCInlineIntrinsicContext context,
+            WasmInstructionBuilder builder) {
+        var method = invocation.getMethod();
+        var wasmArrayType = (WasmType.CompositeReference) typeMapper.mapType(method.parameterType(0));
+        var wasmArrayStruct = (WasmStructure) wasmArrayType.composite;
+        var wasmDataTypeRef = (WasmType.CompositeReference) wasmArrayStruct.getFields()
+                .get(WasmGCClassInfoProvider.ARRAY_DATA_FIELD_OFFSET).getUnpackedType();
+        if (context.isAsync()) {
+            wasmDataTypeRef = wasmDataTypeRef.composite.getReference();
+        }
+
+        context.generate(builder, invocation.getArguments().get(0));
+        builder.structGet(wasmArrayStruct, WasmGCClassInfoProvider.ARRAY_DATA_FIELD_OFFSET);
+        var wasmData = context.valueCache().create(wasmDataTypeRef, builder);
+        builder.drop();
+
+        context.generate(builder, invocation.getArguments().get(1));
+        var wasmFrom = context.valueCache().create(WasmType.INT32, builder);
+        builder.drop();
+
+        context.generate(builder, invocation.getArguments().get(2));
+        var wasmTo = context.valueCache().create(WasmType.INT32, builder);
+        builder.drop();
+
+        context.generate(builder, invocation.getArguments().get(3));
+        var wasmValue = context.valueCache().create(WasmGeneratorUtil.mapType(method.parameterType(3)), builder);
+        builder.drop();
+
+        builder.append(wasmData).arrayLength().append(wasmFrom).append(wasmTo);
+        builder.call(getCheckFunction());
+
+        builder.append(wasmData).append(wasmFrom).append(wasmValue)
+                .append(wasmTo).append(wasmFrom).intBinary(WasmIntType.INT32, WasmIntBinaryOperation.SUB);
+        builder.arrayFill((WasmArray) wasmDataTypeRef.composite);
+
+        wasmData.release();
+        wasmFrom.release();
+        wasmTo.release();
+        wasmValue.release();
+    }
+
+    private WasmFunction getCheckFunction() {
+        if (checkFunction == null) {
+            checkFunction = functions.forStaticMethod(new MethodReference(WasmGCSupport.class, "checkArrayFill",
+                    int.class, int.class, int.class, void.class));
+        }
+        return checkFunction;
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ *  Copyright 2026 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.backend.wasm.intrinsics;
+
+import org.teavm.ast.InvocationExpr;
+import org.teavm.backend.wasm.model.WasmType;
+import org.teavm.backend.wasm.model.instruction.WasmFloatBinaryOperation;
+import org.teavm.backend.wasm.model.instruction.WasmFloatType;
+import org.teavm.backend.wasm.model.instruction.WasmInstructionBuilder;
+import org.teavm.backend.wasm.model.instruction.WasmIntBinaryOperation;
+import org.teavm.backend.wasm.model.instruction.WasmIntType;
+import org.teavm.backend.wasm.model.instruction.WasmVectorBinaryOperation;
+import org.teavm.backend.wasm.model.instruction.WasmVectorShape;
+
+public class SimdIntrinsic implements WasmGCInlineIntrinsic {
+    private static final int ALIGNMENT = 16;
+
+    @Override
+    public void apply(InvocationExpr invocation, WasmGCInlineIntrinsicContext context,
+            WasmInstructionBuilder builder) {
+        var name = invocation.getMethod().getName();
+        switch (name) {
+            case "copy":
+                context.generate(builder, invocation.getArguments().get(1));
+                context.generate(builder, invocation.getArguments().get(0));
+                builder.loadV128(ALIGNMENT, 0).storeV128(ALIGNMENT, 0);
+                return;
+            case "and":
+                binary(invocation, context, builder, WasmVectorShape.I8X16, WasmVectorBinaryOperation.AND);
+                return;
+            case "or":
+                binary(invocation, context, builder, WasmVectorShape.I8X16, WasmVectorBinaryOperation.OR);
+                return;
+            case "xor":
+                binary(invocation, context, builder, WasmVectorShape.I8X16, WasmVectorBinaryOperation.XOR);
+                return;
+        }
+
+        WasmVectorShape shape;
+        String operation;
+        if (name.endsWith("Float32x4")) {
+            shape = WasmVectorShape.F32X4;
+            operation = name.substring(0, name.length() - "Float32x4".length());
+        } else if (name.endsWith("Float64x2")) {
+            shape = WasmVectorShape.F64X2;
+            operation = name.substring(0, name.length() - "Float64x2".length());
+        } else if (name.endsWith("Int32x4")) {
+            shape = WasmVectorShape.I32X4;
+            operation = name.substring(0, name.length() - "Int32x4".length());
+        } else if (name.endsWith("Int16x8")) {
+            shape = WasmVectorShape.I16X8;
+            operation = name.substring(0, name.length() - "Int16x8".length());
+        } else if (name.endsWith("Int8x16")) {
+            shape = WasmVectorShape.I8X16;
+            operation = name.substring(0, name.length() - "Int8x16".length());
+        } else {
+            throw new IllegalArgumentException(invocation.getMethod().toString());
+        }
+
+        switch (operation) {
+            case "fill":
+                context.generate(builder, invocation.getArguments().get(0));
+                context.generate(builder, invocation.getArguments().get(1));
+                builder.vectorSplat(shape).storeV128(ALIGNMENT, 0);
+                break;
+            case "add":
+                binary(invocation, context, builder, shape, WasmVectorBinaryOperation.ADD);
+                break;
+            case "sub":
+                binary(invocation, context, builder, shape, WasmVectorBinaryOperation.SUB);
+                break;
+            case "mul":
+                binary(invocation, context, builder, shape, WasmVectorBinaryOperation.MUL);
+                break;
+            case "div":
+                binary(invocation, context, builder, shape, WasmVectorBinaryOperation.DIV);
+                break;
+            case "min":
+                binary(invocation, context, builder, shape, WasmVectorBinaryOperation.MIN);
+                break;
+            case "max":
+                binary(invocation, context, builder, shape, WasmVectorBinaryOperation.MAX);
+                break;
+            case "sum":
+                sum(invocation, context, builder, shape);
+                break;
+            default:
+                throw new IllegalArgumentException(invocation.getMethod().toString());
+        }
+    }
+
+    private void binary(InvocationExpr invocation, WasmGCInlineIntrinsicContext context,
+            WasmInstructionBuilder builder, WasmVectorShape shape, WasmVectorBinaryOperation operation) {
+        context.generate(builder, invocation.getArguments().get(2));
+        context.generate(builder, invocation.getArguments().get(0));
+        builder.loadV128(ALIGNMENT, 0);
+        context.generate(builder, invocation.getArguments().get(1));
+        builder.loadV128(ALIGNMENT, 0)
+                .vectorBinary(shape, operation)
+                .storeV128(ALIGNMENT, 0);
+    }
+
+    private void sum(InvocationExpr invocation, WasmGCInlineIntrinsicContext context,
+            WasmInstructionBuilder builder, WasmVectorShape shape) {
+        var vector = context.tempVars().acquire(WasmType.V128);
+        context.generate(builder, invocation.getArguments().get(0));
+        builder.loadV128(ALIGNMENT, 0).teeLocal(vector).vectorExtractLane(shape, 0, null);
+        for (var i = 1; i < shape.getLaneCount(); ++i) {
+            builder.getLocal(vector).vectorExtractLane(shape, i, null);
+            switch (shape) {
+                case F32X4:
+                    builder.floatBinary(WasmFloatType.FLOAT32, WasmFloatBinaryOperation.ADD);
+                    break;
+                case F64X2:
+                    builder.floatBinary(WasmFloatType.FLOAT64, WasmFloatBinaryOperation.ADD);
+                    break;
+                default:
+                    builder.intBinary(WasmIntType.INT32, WasmIntBinaryOperation.ADD);
+                    break;
+            }
+        }
+        context.tempVars().release(vector);
+    }
+}
@@ -18,6 +18,7 @@ package org.teavm.backend.wasm.intrinsics;
 import java.lang.ref.WeakReference;
 import java.lang.reflect.Proxy;
 import org.teavm.backend.wasm.WasmRuntime;
+import org.teavm.backend.wasm.dependencies.WasmGCDependencies;
 import org.teavm.backend.wasm.intrinsics.reflection.AnnotationConstructorIntrinsic;
 import org.teavm.backend.wasm.intrinsics.reflection.AnnotationDataIntrinsic;
 import org.teavm.backend.wasm.intrinsics.reflection.AnnotationInfoIntrinsic;
@@ -46,6 +47,7 @@ import org.teavm.backend.wasm.model.instruction.WasmIntType;
 import org.teavm.backend.wasm.runtime.StringInternPool;
 import org.teavm.backend.wasm.runtime.WasmGCSupport;
 import org.teavm.interop.Address;
+import org.teavm.interop.Simd;
 import org.teavm.interop.Structure;
 import org.teavm.model.MethodReference;
 import org.teavm.reflection.AnnotationGenerationHelper;
@@ -85,8 +87,10 @@ public class WasmGCIntrinsics {
                 "getClassInfo", "getMonitor", "setMonitor", "wasmGCIdentity", "setWasmGCIdentity",
                 "cloneObject");
         fillSystem(inlineReg, ctx);
+        fillArrays(inlineReg, ctx);
         inlineReg.registerIntrinsic(Heap.class, new HeapIntrinsic());
         inlineReg.registerIntrinsic(Address.class, new AddressIntrinsic(ctx.classInfoProvider(), ctx.functions()));
+        inlineReg.registerIntrinsic(Simd.class, new SimdIntrinsic());
         inlineReg.registerIntrinsic(Structure.class, new StructureIntrinsic(ctx.classInfoProvider()));
         fillIntLong(inlineReg, ctx);
         inlineReg.registerIntrinsic(Float.class, new FloatIntrinsic(), "isNaN", "isFinite", "floatToRawIntBits",
@@ -164,4 +168,12 @@ public class WasmGCIntrinsics {
                 int.class, int.class, void.class), arrayCopyIntrinsic);
         reg.registerIntrinsic(System.class, new SystemIntrinsic(ctx.functionTypes(), ctx.module()));
     }
+
+    private static void fillArrays(IntrinsicRegistry<WasmGCInlineIntrinsic> reg,
+            WasmGCCodeGenContext ctx) {
+        var fillIntrinsic = new ArrayFillIntrinsic(ctx.functions(), ctx.typeMapper());
+        for (var method : WasmGCDependencies.ARRAY_FILL_METHODS) {
+            reg.registerIntrinsic(method, fillIntrinsic);
+        }
+    }
 }
@@ -20,6 +20,7 @@ public abstract class WasmType {
     public static final WasmType.Number INT64 = new Number(WasmNumType.INT64);
     public static final WasmType.Number FLOAT32 = new Number(WasmNumType.FLOAT32);
     public static final WasmType.Number FLOAT64 = new Number(WasmNumType.FLOAT64);
+    public static final WasmType.Number V128 = new Number(WasmNumType.V128);
 
     public static final SpecialReference FUNC = SpecialReferenceKind.FUNC.asType();
     public static final SpecialReference ANY = SpecialReferenceKind.ANY.asType();
@@ -60,6 +61,8 @@ public abstract class WasmType {
                 return FLOAT32;
             case FLOAT64:
                 return FLOAT64;
+            case V128:
+                return V128;
             default:
                 throw new IllegalArgumentException();
         }
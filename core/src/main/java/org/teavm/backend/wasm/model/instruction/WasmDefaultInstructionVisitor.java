@@ -179,6 +179,34 @@ public class WasmDefaultInstructionVisitor implements WasmInstructionVisitor {
     public void visit(WasmCopy instruction) {
     }
 
+    @Override
+    public void visit(WasmLoadVector instruction) {
+    }
+
+    @Override
+    public void visit(WasmStoreVector instruction) {
+    }
+
+    @Override
+    public void visit(WasmVectorConstant instruction) {
+    }
+
+    @Override
+    public void visit(WasmVectorSplat instruction) {
+    }
+
+    @Override
+    public void visit(WasmVectorExtractLane instruction) {
+    }
+
+    @Override
+    public void visit(WasmVectorReplaceLane instruction) {
+    }
+
+    @Override
+    public void visit(WasmVectorBinary instruction) {
+    }
+
     @Override
     public void visit(WasmTry instruction) {
         visitMany(instruction.getBody());
@@ -244,6 +272,10 @@ public class WasmDefaultInstructionVisitor implements WasmInstructionVisitor {
     public void visit(WasmArrayCopy instruction) {
     }
 
+    @Override
+    public void visit(WasmArrayFill instruction) {
+    }
+
     @Override
     public void visit(WasmFunctionReference instruction) {
     }
@@ -345,6 +345,38 @@ public class WasmInstructionBuilder {
         return add(new WasmCopy());
     }
 
+    public WasmInstructionBuilder loadV128(int alignment, int offset) {
+        var insn = new WasmLoadVector(alignment);
+        insn.setOffset(offset);
+        return add(insn);
+    }
+
+    public WasmInstructionBuilder storeV128(int alignment, int offset) {
+        var insn = new WasmStoreVector(alignment);
+        insn.setOffset(offset);
+        return add(insn);
+    }
+
+    public WasmInstructionBuilder v128Const(byte[] value) {
+        return add(new WasmVectorConstant(value));
+    }
+
+    public WasmInstructionBuilder vectorSplat(WasmVectorShape shape) {
+        return add(new WasmVectorSplat(shape));
+    }
+
+    public WasmInstructionBuilder vectorExtractLane(WasmVectorShape shape, int lane, WasmSignedType signedType) {
+        return add(new WasmVectorExtractLane(shape, lane, signedType));
+    }
+
+    public WasmInstructionBuilder vectorReplaceLane(WasmVectorShape shape, int lane) {
+        return add(new WasmVectorReplaceLane(shape, lane));
+    }
+
+    public WasmInstructionBuilder vectorBinary(WasmVectorShape shape, WasmVectorBinaryOperation operation) {
+        return add(new WasmVectorBinary(shape, operation));
+    }
+
     public WasmTry try_(WasmType resultType) {
         var insn = new WasmTry();
         insn.setType(resultType);
@@ -433,6 +465,10 @@ public class WasmInstructionBuilder {
         return add(new WasmArrayCopy(targetArrayType, sourceArrayType));
     }
 
+    public WasmInstructionBuilder arrayFill(WasmArray arrayType) {
+        return add(new WasmArrayFill(arrayType));
+    }
+
     public WasmInstructionBuilder funcRef(WasmFunction function) {
         return add(new WasmFunctionReference(function));
     }
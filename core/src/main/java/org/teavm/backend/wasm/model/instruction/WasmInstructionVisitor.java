@@ -96,6 +96,20 @@ public interface WasmInstructionVisitor {
 
     void visit(WasmCopy instruction);
 
+    void visit(WasmLoadVector instruction);
+
+    void visit(WasmStoreVector instruction);
+
+    void visit(WasmVectorConstant instruction);
+
+    void visit(WasmVectorSplat instruction);
+
+    void visit(WasmVectorExtractLane instruction);
+
+    void visit(WasmVectorReplaceLane instruction);
+
+    void visit(WasmVectorBinary instruction);
+
     void visit(WasmTry instruction);
 
     void visit(WasmThrow instruction);
@@ -128,6 +142,8 @@ public interface WasmInstructionVisitor {
 
     void visit(WasmArrayCopy instruction);
 
+    void visit(WasmArrayFill instruction);
+
     void visit(WasmFunctionReference instruction);
 
     void visit(WasmInt31Reference instruction);
@@ -331,6 +331,53 @@ public class WasmTypeInference implements WasmInstructionVisitor {
         depthBeforeLastInstructionOut = typeStack.size();
     }
 
+    @Override
+    public void visit(WasmLoadVector instruction) {
+        pop();
+        depthBeforeLastInstructionOut = typeStack.size();
+        typeStack.add(WasmType.V128);
+    }
+
+    @Override
+    public void visit(WasmStoreVector instruction) {
+        popN(2);
+        depthBeforeLastInstructionOut = typeStack.size();
+    }
+
+    @Override
+    public void visit(WasmVectorConstant instruction) {
+        depthBeforeLastInstructionOut = typeStack.size();
+        typeStack.add(WasmType.V128);
+    }
+
+    @Override
+    public void visit(WasmVectorSplat instruction) {
+        pop();
+        depthBeforeLastInstructionOut = typeStack.size();
+        typeStack.add(WasmType.V128);
+    }
+
+    @Override
+    public void visit(WasmVectorExtractLane instruction) {
+        pop();
+        depthBeforeLastInstructionOut = typeStack.size();
+        typeStack.add(WasmType.num(instruction.getShape().getLaneType()));
+    }
+
+    @Override
+    public void visit(WasmVectorReplaceLane instruction) {
+        popN(2);
+        depthBeforeLastInstructionOut = typeStack.size();
+        typeStack.add(WasmType.V128);
+    }
+
+    @Override
+    public void visit(WasmVectorBinary instruction) {
+        popN(2);
+        depthBeforeLastInstructionOut = typeStack.size();
+        typeStack.add(WasmType.V128);
+    }
+
     @Override
     public void visit(WasmTry instruction) {
         depthBeforeLastInstructionOut = typeStack.size();
@@ -446,6 +493,12 @@ public class WasmTypeInference implements WasmInstructionVisitor {
         depthBeforeLastInstructionOut = typeStack.size();
     }
 
+    @Override
+    public void visit(WasmArrayFill instruction) {
+        popN(4);
+        depthBeforeLastInstructionOut = typeStack.size();
+    }
+
     @Override
     public void visit(WasmFunctionReference instruction) {
         depthBeforeLastInstructionOut = typeStack.size();
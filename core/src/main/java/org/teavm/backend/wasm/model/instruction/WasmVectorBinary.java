@@ -0,0 +1,49 @@
+/*
+ *  Copyright 2026 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.backend.wasm.model.instruction;
+
+import java.util.Objects;
+
+public class WasmVectorBinary extends WasmInstruction {
+    private WasmVectorShape shape;
+    private WasmVectorBinaryOperation operation;
+
+    public WasmVectorBinary(WasmVectorShape shape, WasmVectorBinaryOperation operation) {
+        this.shape = Objects.requireNonNull(shape);
+        this.operation = Objects.requireNonNull(operation);
+    }
+
+    public WasmVectorShape getShape() {
+        return shape;
+    }
+
+    public void setShape(WasmVectorShape shape) {
+        this.shape = Objects.requireNonNull(shape);
+    }
+
+    public WasmVectorBinaryOperation getOperation() {
+        return operation;
+    }
+
+    public void setOperation(WasmVectorBinaryOperation operation) {
+        this.operation = Objects.requireNonNull(operation);
+    }
+
+    @Override
+    public void acceptVisitor(WasmInstructionVisitor visitor) {
+        visitor.visit(this);
+    }
+}
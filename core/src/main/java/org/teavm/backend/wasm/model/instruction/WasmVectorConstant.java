@@ -0,0 +1,42 @@
+/*
+ *  Copyright 2026 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.backend.wasm.model.instruction;
+
+public class WasmVectorConstant extends WasmInstruction {
+    public static final int SIZE = 16;
+
+    private byte[] value;
+
+    public WasmVectorConstant(byte[] value) {
+        setValue(value);
+    }
+
+    public byte[] getValue() {
+        return value.clone();
+    }
+
+    public void setValue(byte[] value) {
+        if (value.length != SIZE) {
+            throw new IllegalArgumentException("Vector constant must have exactly " + SIZE + " bytes");
+        }
+        this.value = value.clone();
+    }
+
+    @Override
+    public void acceptVisitor(WasmInstructionVisitor visitor) {
+        visitor.visit(this);
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ *  Copyright 2026 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.backend.wasm.model.instruction;
+
+import java.util.Objects;
+
+public class WasmVectorExtractLane extends WasmInstruction {
+    private WasmVectorShape shape;
+    private int lane;
+    private WasmSignedType signedType;
+
+    public WasmVectorExtractLane(WasmVectorShape shape, int lane, WasmSignedType signedType) {
+        this.shape = Objects.requireNonNull(shape);
+        this.lane = lane;
+        this.signedType = signedType;
+    }
+
+    public WasmVectorShape getShape() {
+        return shape;
+    }
+
+    public void setShape(WasmVectorShape shape) {
+        this.shape = Objects.requireNonNull(shape);
+    }
+
+    public int getLane() {
+        return lane;
+    }
+
+    public void setLane(int lane) {
+        this.lane = lane;
+    }
+
+    public WasmSignedType getSignedType() {
+        return signedType;
+    }
+
+    public void setSignedType(WasmSignedType signedType) {
+        this.signedType = signedType;
+    }
+
+    @Override
+    public void acceptVisitor(WasmInstructionVisitor visitor) {
+        visitor.visit(this);
+    }
+}
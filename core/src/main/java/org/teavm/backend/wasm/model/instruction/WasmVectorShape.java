@@ -0,0 +1,43 @@
+/*
+ *  Copyright 2026 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.backend.wasm.model.instruction;
+
+import org.teavm.backend.wasm.model.WasmNumType;
+
+public enum WasmVectorShape {
+    I8X16(16, WasmNumType.INT32),
+    I16X8(8, WasmNumType.INT32),
+    I32X4(4, WasmNumType.INT32),
+    I64X2(2, WasmNumType.INT64),
+    F32X4(4, WasmNumType.FLOAT32),
+    F64X2(2, WasmNumType.FLOAT64);
+
+    private final int laneCount;
+    private final WasmNumType laneType;
+
+    WasmVectorShape(int laneCount, WasmNumType laneType) {
+        this.laneCount = laneCount;
+        this.laneType = laneType;
+    }
+
+    public int getLaneCount() {
+        return laneCount;
+    }
+
+    public WasmNumType getLaneType() {
+        return laneType;
+    }
+}
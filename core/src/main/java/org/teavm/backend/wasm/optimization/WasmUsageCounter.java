@@ -28,6 +28,7 @@ import org.teavm.backend.wasm.model.WasmModule;
 import org.teavm.backend.wasm.model.WasmStructure;
 import org.teavm.backend.wasm.model.WasmType;
 import org.teavm.backend.wasm.model.instruction.WasmArrayCopy;
+import org.teavm.backend.wasm.model.instruction.WasmArrayFill;
 import org.teavm.backend.wasm.model.instruction.WasmArrayGet;
 import org.teavm.backend.wasm.model.instruction.WasmArrayNewDefault;
 import org.teavm.backend.wasm.model.instruction.WasmArrayNewFixed;
@@ -208,6 +209,11 @@ public class WasmUsageCounter extends WasmDefaultInstructionVisitor implements W
         addUsage(instruction.getTargetArrayType());
     }
 
+    @Override
+    public void visit(WasmArrayFill instruction) {
+        addUsage(instruction.getArrayType());
+    }
+
     private void addUsage(WasmBlockType type) {
         if (type == null) {
             return;
@@ -25,6 +25,8 @@ import org.teavm.backend.wasm.model.instruction.WasmIntBinaryOperation;
 import org.teavm.backend.wasm.model.instruction.WasmIntType;
 import org.teavm.backend.wasm.model.instruction.WasmIntUnaryOperation;
 import org.teavm.backend.wasm.model.instruction.WasmSignedType;
+import org.teavm.backend.wasm.model.instruction.WasmVectorBinaryOperation;
+import org.teavm.backend.wasm.model.instruction.WasmVectorShape;
 
 public interface CodeListener {
     default void error(int depth) {
@@ -135,6 +137,27 @@ public interface CodeListener {
     default void memoryCopy() {
     }
 
+    default void loadVector(int align, int offset) {
+    }
+
+    default void storeVector(int align, int offset) {
+    }
+
+    default void vectorConstant(byte[] value) {
+    }
+
+    default void vectorSplat(WasmVectorShape shape) {
+    }
+
+    default void vectorExtractLane(WasmVectorShape shape, WasmSignedType signedType, int lane) {
+    }
+
+    default void vectorReplaceLane(WasmVectorShape shape, int lane) {
+    }
+
+    default void vectorBinary(WasmVectorBinaryOperation opcode, WasmVectorShape shape) {
+    }
+
     default void int32Constant(int value) {
     }
 
@@ -180,6 +203,9 @@ public interface CodeListener {
     default void arraySet(int typeIndex) {
     }
 
+    default void arrayFill(int typeIndex) {
+    }
+
     default void arrayCopy(int targetTypeIndex, int sourceTypeIndex) {
     }
 
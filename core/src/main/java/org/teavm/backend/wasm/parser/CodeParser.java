@@ -27,6 +27,8 @@ import org.teavm.backend.wasm.model.instruction.WasmIntBinaryOperation;
 import org.teavm.backend.wasm.model.instruction.WasmIntType;
 import org.teavm.backend.wasm.model.instruction.WasmIntUnaryOperation;
 import org.teavm.backend.wasm.model.instruction.WasmSignedType;
+import org.teavm.backend.wasm.model.instruction.WasmVectorBinaryOperation;
+import org.teavm.backend.wasm.model.instruction.WasmVectorShape;
 
 public class CodeParser extends BaseSectionParser {
     private CodeListener codeListener;
@@ -624,6 +626,8 @@ public class CodeParser extends BaseSectionParser {
                 return parseExtExpr2();
             case 0xFC:
                 return parseExtExpr();
+            case 0xFD:
+                return parseVectorExpr();
 
             default:
                 return false;
@@ -678,6 +682,188 @@ public class CodeParser extends BaseSectionParser {
         }
     }
 
+    private boolean parseVectorExpr() {
+        var opcode = readLEB();
+        switch (opcode) {
+            case 0:
+                codeListener.loadVector(1 << readLEB(), readLEB());
+                return true;
+            case 11:
+                codeListener.storeVector(1 << readLEB(), readLEB());
+                return true;
+            case 12: {
+                var value = new byte[16];
+                System.arraycopy(reader.data, reader.ptr, value, 0, value.length);
+                reader.ptr += value.length;
+                codeListener.vectorConstant(value);
+                return true;
+            }
+
+            case 15:
+                codeListener.vectorSplat(WasmVectorShape.I8X16);
+                return true;
+            case 16:
+                codeListener.vectorSplat(WasmVectorShape.I16X8);
+                return true;
+            case 17:
+                codeListener.vectorSplat(WasmVectorShape.I32X4);
+                return true;
+            case 18:
+                codeListener.vectorSplat(WasmVectorShape.I64X2);
+                return true;
+            case 19:
+                codeListener.vectorSplat(WasmVectorShape.F32X4);
+                return true;
+            case 20:
+                codeListener.vectorSplat(WasmVectorShape.F64X2);
+                return true;
+
+            case 21:
+                codeListener.vectorExtractLane(WasmVectorShape.I8X16, WasmSignedType.SIGNED, readLane());
+                return true;
+            case 22:
+                codeListener.vectorExtractLane(WasmVectorShape.I8X16, WasmSignedType.UNSIGNED, readLane());
+                return true;
+            case 23:
+                codeListener.vectorReplaceLane(WasmVectorShape.I8X16, readLane());
+                return true;
+            case 24:
+                codeListener.vectorExtractLane(WasmVectorShape.I16X8, WasmSignedType.SIGNED, readLane());
+                return true;
+            case 25:
+                codeListener.vectorExtractLane(WasmVectorShape.I16X8, WasmSignedType.UNSIGNED, readLane());
+                return true;
+            case 26:
+                codeListener.vectorReplaceLane(WasmVectorShape.I16X8, readLane());
+                return true;
+            case 27:
+                codeListener.vectorExtractLane(WasmVectorShape.I32X4, null, readLane());
+                return true;
+            case 28:
+                codeListener.vectorReplaceLane(WasmVectorShape.I32X4, readLane());
+                return true;
+            case 29:
+                codeListener.vectorExtractLane(WasmVectorShape.I64X2, null, readLane());
+                return true;
+            case 30:
+                codeListener.vectorReplaceLane(WasmVectorShape.I64X2, readLane());
+                return true;
+            case 31:
+                codeListener.vectorExtractLane(WasmVectorShape.F32X4, null, readLane());
+                return true;
+            case 32:
+                codeListener.vectorReplaceLane(WasmVectorShape.F32X4, readLane());
+                return true;
+            case 33:
+                codeListener.vectorExtractLane(WasmVectorShape.F64X2, null, readLane());
+                return true;
+            case 34:
+                codeListener.vectorReplaceLane(WasmVectorShape.F64X2, readLane());
+                return true;
+
+            case 0x4E:
+                codeListener.vectorBinary(WasmVectorBinaryOperation.AND, null);
+                return true;
+            case 0x4F:
+                codeListener.vectorBinary(WasmVectorBinaryOperation.AND_NOT, null);
+                return true;
+            case 0x50:
+                codeListener.vectorBinary(WasmVectorBinaryOperation.OR, null);
+                return true;
+            case 0x51:
+                codeListener.vectorBinary(WasmVectorBinaryOperation.XOR, null);
+                return true;
+
+            case 0xCE:
+                codeListener.vectorBinary(WasmVectorBinaryOperation.ADD, WasmVectorShape.I64X2);
+                return true;
+            case 0xD1:
+                codeListener.vectorBinary(WasmVectorBinaryOperation.SUB, WasmVectorShape.I64X2);
+                return true;
+            case 0xD5:
+                codeListener.vectorBinary(WasmVectorBinaryOperation.MUL, WasmVectorShape.I64X2);
+                return true;
+
+            default:
+                if (opcode >= 0x6E && opcode <= 0x79) {
+                    return parseIntegerVectorBinary(opcode - 0x6E, WasmVectorShape.I8X16);
+                } else if (opcode >= 0x8E && opcode <= 0x99) {
+                    return parseIntegerVectorBinary(opcode - 0x8E, WasmVectorShape.I16X8);
+                } else if (opcode >= 0xAE && opcode <= 0xB9) {
+                    return parseIntegerVectorBinary(opcode - 0xAE, WasmVectorShape.I32X4);
+                } else if (opcode >= 0xE4 && opcode <= 0xE9) {
+                    return parseFloatVectorBinary(opcode - 0xE4, WasmVectorShape.F32X4);
+                } else if (opcode >= 0xF0 && opcode <= 0xF5) {
+                    return parseFloatVectorBinary(opcode - 0xF0, WasmVectorShape.F64X2);
+                }
+                return false;
+        }
+    }
+
+    private int readLane() {
+        return reader.data[reader.ptr++] & 0xFF;
+    }
+
+    private boolean parseIntegerVectorBinary(int index, WasmVectorShape shape) {
+        WasmVectorBinaryOperation operation;
+        switch (index) {
+            case 0:
+                operation = WasmVectorBinaryOperation.ADD;
+                break;
+            case 3:
+                operation = WasmVectorBinaryOperation.SUB;
+                break;
+            case 7:
+                if (shape == WasmVectorShape.I8X16) {
+                    return false;
+                }
+                operation = WasmVectorBinaryOperation.MUL;
+                break;
+            case 8:
+                operation = WasmVectorBinaryOperation.MIN;
+                break;
+            case 9:
+                operation = WasmVectorBinaryOperation.MIN_UNSIGNED;
+                break;
+            case 10:
+                operation = WasmVectorBinaryOperation.MAX;
+                break;
+            case 11:
+                operation = WasmVectorBinaryOperation.MAX_UNSIGNED;
+                break;
+            default:
+                return false;
+        }
+        codeListener.vectorBinary(operation, shape);
+        return true;
+    }
+
+    private boolean parseFloatVectorBinary(int index, WasmVectorShape shape) {
+        WasmVectorBinaryOperation operation;
+        switch (index) {
+            case 0:
+                operation = WasmVectorBinaryOperation.ADD;
+                break;
+            case 1:
+                operation = WasmVectorBinaryOperation.SUB;
+                break;
+            case 2:
+                operation = WasmVectorBinaryOperation.MUL;
+                break;
+            case 3:
+                operation = WasmVectorBinaryOperation.DIV;
+                break;
+            case 4:
+                operation = WasmVectorBinaryOperation.MIN;
+                break;
+            default:
+                operation = WasmVectorBinaryOperation.MAX;
+                break;
+        }
+        codeListener.vectorBinary(operation, shape);
+        return true;
+    }
+
     private boolean parseExtExpr2() {
         switch (readLEB()) {
             case 0:
@@ -727,6 +913,10 @@ public class CodeParser extends BaseSectionParser {
                 codeListener.opcode(Opcode.ARRAY_LENGTH);
                 return true;
 
+            case 16:
+                codeListener.arrayFill(readLEB());
+                return true;
+
             case 17:
                 codeListener.arrayCopy(readLEB(), readLEB());
                 return true;
@@ -72,6 +72,8 @@ public class WasmBinaryReader {
                 return WasmHollowType.FLOAT32;
             case 0x7C:
                 return WasmHollowType.FLOAT64;
+            case 0x7B:
+                return WasmHollowType.V128;
             case 0x63:
                 return readHeapType(true);
             case 0x64:
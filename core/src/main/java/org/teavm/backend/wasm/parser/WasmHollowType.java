@@ -24,6 +24,7 @@ public class WasmHollowType {
     public static final Number INT64 = new Number(WasmNumType.INT64);
     public static final Number FLOAT32 = new Number(WasmNumType.FLOAT32);
     public static final Number FLOAT64 = new Number(WasmNumType.FLOAT64);
+    public static final Number V128 = new Number(WasmNumType.V128);
 
     private WasmHollowType() {
     }
@@ -38,6 +39,8 @@ public class WasmHollowType {
                 return FLOAT32;
             case FLOAT64:
                 return FLOAT64;
+            case V128:
+                return V128;
             default:
                 throw new IllegalArgumentException();
         }
@@ -26,6 +26,7 @@ import org.teavm.backend.wasm.generate.DwarfGenerator;
 import org.teavm.backend.wasm.model.WasmBlockType;
 import org.teavm.backend.wasm.model.WasmModule;
 import org.teavm.backend.wasm.model.instruction.WasmArrayCopy;
+import org.teavm.backend.wasm.model.instruction.WasmArrayFill;
 import org.teavm.backend.wasm.model.instruction.WasmArrayGet;
 import org.teavm.backend.wasm.model.instruction.WasmArrayLength;
 import org.teavm.backend.wasm.model.instruction.WasmArrayNewDefault;
@@ -66,6 +67,7 @@ import org.teavm.backend.wasm.model.instruction.WasmLoadFloat32;
 import org.teavm.backend.wasm.model.instruction.WasmLoadFloat64;
 import org.teavm.backend.wasm.model.instruction.WasmLoadInt32;
 import org.teavm.backend.wasm.model.instruction.WasmLoadInt64;
+import org.teavm.backend.wasm.model.instruction.WasmLoadVector;
 import org.teavm.backend.wasm.model.instruction.WasmMemoryGrow;
 import org.teavm.backend.wasm.model.instruction.WasmNullBranch;
 import org.teavm.backend.wasm.model.instruction.WasmNullConstant;
@@ -78,6 +80,7 @@ import org.teavm.backend.wasm.model.instruction.WasmStoreFloat32;
 import org.teavm.backend.wasm.model.instruction.WasmStoreFloat64;
 import org.teavm.backend.wasm.model.instruction.WasmStoreInt32;
 import org.teavm.backend.wasm.model.instruction.WasmStoreInt64;
+import org.teavm.backend.wasm.model.instruction.WasmStoreVector;
 import org.teavm.backend.wasm.model.instruction.WasmStructGet;
 import org.teavm.backend.wasm.model.instruction.WasmStructNew;
 import org.teavm.backend.wasm.model.instruction.WasmStructNewDefault;
@@ -88,6 +91,13 @@ import org.teavm.backend.wasm.model.instruction.WasmTest;
 import org.teavm.backend.wasm.model.instruction.WasmThrow;
 import org.teavm.backend.wasm.model.instruction.WasmTry;
 import org.teavm.backend.wasm.model.instruction.WasmUnreachable;
+import org.teavm.backend.wasm.model.instruction.WasmVectorBinary;
+import org.teavm.backend.wasm.model.instruction.WasmVectorBinaryOperation;
+import org.teavm.backend.wasm.model.instruction.WasmVectorConstant;
+import org.teavm.backend.wasm.model.instruction.WasmVectorExtractLane;
+import org.teavm.backend.wasm.model.instruction.WasmVectorReplaceLane;
+import org.teavm.backend.wasm.model.instruction.WasmVectorShape;
+import org.teavm.backend.wasm.model.instruction.WasmVectorSplat;
 import org.teavm.model.InliningInfo;
 import org.teavm.model.TextLocation;
 
@@ -934,6 +944,205 @@ class WasmBinaryRenderingVisitor implements WasmInstructionVisitor {
         writer.writeByte(0);
     }
 
+    @Override
+    public void visit(WasmLoadVector instruction) {
+        emitLocation(instruction);
+        writer.writeByte(0xFD);
+        writer.writeLEB(0);
+        writer.writeByte(alignment(instruction.getAlignment()));
+        writer.writeLEB(instruction.getOffset());
+    }
+
+    @Override
+    public void visit(WasmStoreVector instruction) {
+        emitLocation(instruction);
+        writer.writeByte(0xFD);
+        writer.writeLEB(11);
+        writer.writeByte(alignment(instruction.getAlignment()));
+        writer.writeLEB(instruction.getOffset());
+    }
+
+    @Override
+    public void visit(WasmVectorConstant instruction) {
+        emitLocation(instruction);
+        writer.writeByte(0xFD);
+        writer.writeLEB(12);
+        writer.writeBytes(instruction.getValue());
+    }
+
+    @Override
+    public void visit(WasmVectorSplat instruction) {
+        emitLocation(instruction);
+        writer.writeByte(0xFD);
+        switch (instruction.getShape()) {
+            case I8X16:
+                writer.writeLEB(15);
+                break;
+            case I16X8:
+                writer.writeLEB(16);
+                break;
+            case I32X4:
+                writer.writeLEB(17);
+                break;
+            case I64X2:
+                writer.writeLEB(18);
+                break;
+            case F32X4:
+                writer.writeLEB(19);
+                break;
+            case F64X2:
+                writer.writeLEB(20);
+                break;
+        }
+    }
+
+    @Override
+    public void visit(WasmVectorExtractLane instruction) {
+        emitLocation(instruction);
+        writer.writeByte(0xFD);
+        var unsigned = instruction.getSignedType() == WasmSignedType.UNSIGNED;
+        switch (instruction.getShape()) {
+            case I8X16:
+                writer.writeLEB(unsigned ? 22 : 21);
+                break;
+            case I16X8:
+                writer.writeLEB(unsigned ? 25 : 24);
+                break;
+            case I32X4:
+                writer.writeLEB(27);
+                break;
+            case I64X2:
+                writer.writeLEB(29);
+                break;
+            case F32X4:
+                writer.writeLEB(31);
+                break;
+            case F64X2:
+                writer.writeLEB(33);
+                break;
+        }
+        writer.writeByte(instruction.getLane());
+    }
+
+    @Override
+    public void visit(WasmVectorReplaceLane instruction) {
+        emitLocation(instruction);
+        writer.writeByte(0xFD);
+        switch (instruction.getShape()) {
+            case I8X16:
+                writer.writeLEB(23);
+                break;
+            case I16X8:
+                writer.writeLEB(26);
+                break;
+            case I32X4:
+                writer.writeLEB(28);
+                break;
+            case I64X2:
+                writer.writeLEB(30);
+                break;
+            case F32X4:
+                writer.writeLEB(32);
+                break;
+            case F64X2:
+                writer.writeLEB(34);
+                break;
+        }
+        writer.writeByte(instruction.getLane());
+    }
+
+    @Override
+    public void visit(WasmVectorBinary instruction) {
+        emitLocation(instruction);
+        var opcode = vectorBinaryOpcode(instruction.getShape(), instruction.getOperation());
+        if (opcode < 0) {
+            throw new IllegalArgumentException("Operation " + instruction.getOperation()
+                    + " is not supported for " + instruction.getShape());
+        }
+        writer.writeByte(0xFD);
+        writer.writeLEB(opcode);
+    }
+
+    private static int vectorBinaryOpcode(WasmVectorShape shape, WasmVectorBinaryOperation operation) {
+        switch (operation) {
+            case AND:
+                return 0x4E;
+            case AND_NOT:
+                return 0x4F;
+            case OR:
+                return 0x50;
+            case XOR:
+                return 0x51;
+            default:
+                break;
+        }
+        switch (shape) {
+            case I8X16:
+                return integerVectorBinaryOpcode(0x6E, operation, false);
+            case I16X8:
+                return integerVectorBinaryOpcode(0x8E, operation, true);
+            case I32X4:
+                return integerVectorBinaryOpcode(0xAE, operation, true);
+            case I64X2:
+                switch (operation) {
+                    case ADD:
+                        return 0xCE;
+                    case SUB:
+                        return 0xD1;
+                    case MUL:
+                        return 0xD5;
+                    default:
+                        return -1;
+                }
+            case F32X4:
+                return floatVectorBinaryOpcode(0xE4, operation);
+            case F64X2:
+                return floatVectorBinaryOpcode(0xF0, operation);
+            default:
+                return -1;
+        }
+    }
+
+    private static int integerVectorBinaryOpcode(int base, WasmVectorBinaryOperation operation, boolean hasMul) {
+        switch (operation) {
+            case ADD:
+                return base;
+            case SUB:
+                return base + 3;
+            case MUL:
+                return hasMul ? base + 7 : -1;
+            case MIN:
+                return base + 8;
+            case MIN_UNSIGNED:
+                return base + 9;
+            case MAX:
+                return base + 10;
+            case MAX_UNSIGNED:
+                return base + 11;
+            default:
+                return -1;
+        }
+    }
+
+    private static int floatVectorBinaryOpcode(int base, WasmVectorBinaryOperation operation) {
+        switch (operation) {
+            case ADD:
+                return base;
+            case SUB:
+                return base + 1;
+            case MUL:
+                return base + 2;
+            case DIV:
+                return base + 3;
+            case MIN:
+                return base + 4;
+            case MAX:
+                return base + 5;
+            default:
+                return -1;
+        }
+    }
+
     @Override
     public void visit(WasmTry instruction) {
         writer.writeByte(0x1F);
@@ -1116,6 +1325,14 @@ class WasmBinaryRenderingVisitor implements WasmInstructionVisitor {
         writer.writeLEB(module.types.indexOf(instruction.getSourceArrayType()));
     }
 
+    @Override
+    public void visit(WasmArrayFill instruction) {
+        emitLocation(instruction);
+        writer.writeByte(0xFB);
+        writer.writeByte(16);
+        writer.writeLEB(module.types.indexOf(instruction.getArrayType()));
+    }
+
     @Override
     public void visit(WasmFunctionReference instruction) {
         emitLocation(instruction);
@@ -103,6 +103,9 @@ public class WasmBinaryWriter {
             case FLOAT64:
                 writeByte(0x7C);
                 break;
+            case V128:
+                writeByte(0x7B);
+                break;
         }
     }
 
@@ -32,6 +32,15 @@ public class WasmGCSupport {
         return new ArrayIndexOutOfBoundsException();
     }
 
+    public static void checkArrayFill(int length, int fromIndex, int toIndex) {
+        if (fromIndex > toIndex) {
+            throw new IllegalArgumentException();
+        }
+        if (fromIndex < 0 || toIndex > length) {
+            throw new ArrayIndexOutOfBoundsException();
+        }
+    }
+
     public static ClassCastException cce() {
         return new ClassCastException();
     }
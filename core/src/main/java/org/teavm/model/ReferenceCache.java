@@ -15,18 +15,22 @@
  */
 package org.teavm.model;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Canonicalizes references, so that equal references share the same instance.
+ * Thread-safe, so that classes can be parsed on several threads with the same cache.
+ */
 public class ReferenceCache {
-    private Map<String, Map<MethodDescriptor, MethodReference>> referenceCache = new HashMap<>();
-    private Map<FieldReference, FieldReference> fieldRefenceCache = new HashMap<>();
-    private Map<MethodDescriptor, MethodDescriptor> descriptorCache = new HashMap<>();
-    private Map<ValueType, ValueType> valueTypeCache = new HashMap<>();
-    private Map<GenericValueType, GenericValueType> genericValueTypeCache = new HashMap<>();
-    private Map<String, String> stringCache = new HashMap<>();
-    private Map<String, MethodDescriptor> descriptorParseCache = new HashMap<>();
-    private Map<String, ValueType> valueTypeParseCache = new HashMap<>();
+    private Map<String, Map<MethodDescriptor, MethodReference>> referenceCache = new ConcurrentHashMap<>();
+    private Map<FieldReference, FieldReference> fieldRefenceCache = new ConcurrentHashMap<>();
+    private Map<MethodDescriptor, MethodDescriptor> descriptorCache = new ConcurrentHashMap<>();
+    private Map<ValueType, ValueType> valueTypeCache = new ConcurrentHashMap<>();
+    private Map<GenericValueType, GenericValueType> genericValueTypeCache = new ConcurrentHashMap<>();
+    private Map<String, String> stringCache = new ConcurrentHashMap<>();
+    private Map<String, MethodDescriptor> descriptorParseCache = new ConcurrentHashMap<>();
+    private Map<String, ValueType> valueTypeParseCache = new ConcurrentHashMap<>();
 
     public MethodReference getCached(MethodReference reference) {
         return getCached(reference.getClassName(), reference.getDescriptor());
@@ -34,7 +38,7 @@ public class ReferenceCache {
 
     public MethodReference getCached(String className, MethodDescriptor descriptor) {
         return referenceCache
-                .computeIfAbsent(className, key -> new HashMap<>())
+                .computeIfAbsent(className, key -> new ConcurrentHashMap<>())
                 .computeIfAbsent(getCached(descriptor), key -> new MethodReference(className, key));
     }
 
@@ -58,7 +62,10 @@ public class ReferenceCache {
             if (signatureChanged) {
                 result = new MethodDescriptor(descriptor.getName(), signature);
             }
-            descriptorCache.put(result, result);
+            var existing = descriptorCache.putIfAbsent(result, result);
+            if (existing != null) {
+                result = existing;
+            }
         }
         return result;
     }
@@ -72,13 +79,16 @@ public class ReferenceCache {
             if (classNameCached != reference.getClassName() || fieldNameCached != reference.getFieldName()) {
                 result = new FieldReference(classNameCached, fieldNameCached);
             }
-            fieldRefenceCache.put(result, result);
+            var existing = fieldRefenceCache.putIfAbsent(result, result);
+            if (existing != null) {
+                result = existing;
+            }
         }
         return result;
     }
 
     public ValueType getCached(ValueType valueType) {
-        if (valueType instanceof ValueType.Primitive) {
+        if (valueType == null || valueType instanceof ValueType.Primitive) {
             return valueType;
         }
 
@@ -98,13 +108,16 @@ public class ReferenceCache {
                     result = ValueType.arrayOf(cachedItem);
                 }
             }
-            valueTypeCache.put(result, result);
+            var existing = valueTypeCache.putIfAbsent(result, result);
+            if (existing != null) {
+                result = existing;
+            }
         }
         return result;
     }
 
     public GenericValueType getCached(GenericValueType valueType) {
-        if (valueType instanceof GenericValueType.Primitive
+        if (valueType == null || valueType instanceof GenericValueType.Primitive
                 || valueType instanceof GenericValueType.Variable
                 || valueType instanceof GenericValueType.Void) {
             return valueType;
@@ -158,26 +171,28 @@ public class ReferenceCache {
                     result = new GenericValueType.Array(cachedItem);
                 }
             }
-            genericValueTypeCache.put(result, result);
+            var existing = genericValueTypeCache.putIfAbsent(result, result);
+            if (existing != null) {
+                result = existing;
+            }
         }
 
         return result;
     }
 
     public String getCached(String s) {
-        String result = stringCache.get(s);
-        if (result == null) {
-            result = s;
-            stringCache.put(result, result);
+        if (s == null) {
+            return null;
         }
-        return result;
+        var result = stringCache.putIfAbsent(s, s);
+        return result != null ? result : s;
     }
 
     public MethodDescriptor parseDescriptorCached(String value) {
         MethodDescriptor result = descriptorParseCache.get(value);
         if (result == null) {
             result = getCached(MethodDescriptor.parse(value));
-            descriptorParseCache.put(value, result);
+            descriptorParseCache.putIfAbsent(value, result);
         }
         return result;
     }
@@ -186,7 +201,7 @@ public class ReferenceCache {
         ValueType result = valueTypeParseCache.get(value);
         if (result == null) {
             result = getCached(ValueType.parse(value));
-            valueTypeParseCache.put(value, result);
+            valueTypeParseCache.putIfAbsent(value, result);
         }
         return result;
     }
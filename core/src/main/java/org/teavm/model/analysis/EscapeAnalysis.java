@@ -32,7 +32,12 @@ import java.util.Set;
 import org.teavm.common.DisjointSet;
 import org.teavm.common.Graph;
 import org.teavm.common.GraphBuilder;
+import org.teavm.common.LoopGraph;
 import org.teavm.model.BasicBlock;
+import org.teavm.model.ClassReader;
+import org.teavm.model.ClassReaderSource;
+import org.teavm.model.ElementModifier;
+import org.teavm.model.FieldReader;
 import org.teavm.model.FieldReference;
 import org.teavm.model.Incoming;
 import org.teavm.model.Instruction;
@@ -49,6 +54,7 @@ import org.teavm.model.instructions.BranchingInstruction;
 import org.teavm.model.instructions.CastInstruction;
 import org.teavm.model.instructions.ClassConstantInstruction;
 import org.teavm.model.instructions.CloneArrayInstruction;
+import org.teavm.model.instructions.ConstructInstruction;
 import org.teavm.model.instructions.ExitInstruction;
 import org.teavm.model.instructions.GetElementInstruction;
 import org.teavm.model.instructions.GetFieldInstruction;
@@ -65,16 +71,34 @@ import org.teavm.model.instructions.StringConstantInstruction;
 import org.teavm.model.instructions.UnwrapArrayInstruction;
 import org.teavm.model.util.DefinitionExtractor;
 import org.teavm.model.util.LivenessAnalyzer;
+import org.teavm.model.util.ProgramUtils;
 import org.teavm.model.util.UsageExtractor;
 
 public class EscapeAnalysis {
+    private ClassReaderSource classSource;
+    private InterproceduralEscapeAnalysis interproceduralAnalysis;
     private int[] definitionClasses;
     private boolean[] escapingVars;
     private FieldReference[][] fields;
+    private String[] materializedTypes;
     private Map<FieldReference, ValueType> fieldTypes;
 
+    public EscapeAnalysis() {
+    }
+
+    /**
+     * Creates escape analysis that does not consider an object escaping when it is passed to a call that
+     * does not let it escape, according to the given interprocedural analysis. Such object has to be
+     * materialized right before the call, see {@link #getMaterializedType(int)}.
+     */
+    public EscapeAnalysis(ClassReaderSource classSource, InterproceduralEscapeAnalysis interproceduralAnalysis) {
+        this.classSource = classSource;
+        this.interproceduralAnalysis = interproceduralAnalysis;
+    }
+
     public void analyze(Program program, MethodReference methodReference) {
-        InstructionEscapeVisitor visitor = new InstructionEscapeVisitor(program.variableCount());
+        InstructionEscapeVisitor visitor = new InstructionEscapeVisitor(program.variableCount(), methodReference,
+                interproceduralAnalysis);
         for (int i = 0; i <= methodReference.parameterCount(); ++i) {
             visitor.escapingVars[i] = true;
         }
@@ -96,6 +120,10 @@ public class EscapeAnalysis {
                 escapingVars[definitionClasses[i]] = true;
             }
         }
+        materializedTypes = new String[program.variableCount()];
+        if (!visitor.calls.isEmpty()) {
+            analyzeCalls(program, visitor);
+        }
         analyzePhis(program, methodReference.getDescriptor());
 
         propagateFields(program, visitor.fields);
@@ -115,6 +143,134 @@ public class EscapeAnalysis {
         return varFields != null ? varFields.clone() : null;
     }
 
+    /**
+     * Returns class of an object that does not escape, but is passed to a call, so it should be materialized
+     * before the call. Such object has fields for all of its instance fields.
+     */
+    public String getMaterializedType(int var) {
+        return materializedTypes[definitionClasses[var]];
+    }
+
+    /*
+     * An object passed to a call is only materialized when it's only created by a single instruction, passed
+     * to a single call outside of exception handlers, in the same loop as the allocation, but in a different
+     * basic block. This way materialization never happens more often than the original allocation, and
+     * doesn't repeat on subsequent runs.
+     */
+    private void analyzeCalls(Program program, InstructionEscapeVisitor visitor) {
+        int[] constructCount = new int[program.variableCount()];
+        ConstructInstruction[] constructs = new ConstructInstruction[program.variableCount()];
+        for (ConstructInstruction construct : visitor.constructs) {
+            int cls = definitionClasses[construct.getReceiver().getIndex()];
+            constructCount[cls]++;
+            constructs[cls] = construct;
+        }
+
+        int[] callCount = new int[program.variableCount()];
+        InvokeInstruction[] calls = new InvokeInstruction[program.variableCount()];
+        for (InvokeInstruction call : visitor.calls) {
+            Map<Integer, Variable> passedObjects = new HashMap<>();
+            List<Variable> arguments = new ArrayList<>(call.getArguments());
+            if (call.getInstance() != null) {
+                arguments.add(call.getInstance());
+            }
+            for (Variable arg : arguments) {
+                int cls = definitionClasses[arg.getIndex()];
+                Variable existing = passedObjects.putIfAbsent(cls, arg);
+                if (existing != null && existing != arg) {
+                    // Copies of an object passed to the same call must share identity
+                    escapingVars[cls] = true;
+                }
+            }
+            for (int cls : passedObjects.keySet()) {
+                callCount[cls]++;
+                calls[cls] = call;
+            }
+        }
+
+        boolean[] phiClasses = new boolean[program.variableCount()];
+        for (BasicBlock block : program.getBasicBlocks()) {
+            for (Phi phi : block.getPhis()) {
+                phiClasses[definitionClasses[phi.getReceiver().getIndex()]] = true;
+                for (Incoming incoming : phi.getIncomings()) {
+                    phiClasses[definitionClasses[incoming.getValue().getIndex()]] = true;
+                }
+            }
+        }
+
+        LoopGraph loopGraph = null;
+        List<List<FieldReader>> classFields = new ArrayList<>(Collections.nCopies(program.variableCount(), null));
+        for (int i = 0; i < program.variableCount(); ++i) {
+            if (callCount[i] == 0 || escapingVars[i]) {
+                continue;
+            }
+            List<FieldReader> instanceFields = null;
+            if (callCount[i] == 1 && constructCount[i] == 1 && !phiClasses[i]
+                    && calls[i].getBasicBlock().getTryCatchBlocks().isEmpty()
+                    && calls[i].getBasicBlock() != constructs[i].getBasicBlock()) {
+                if (loopGraph == null) {
+                    loopGraph = new LoopGraph(ProgramUtils.buildControlFlowGraph(program));
+                }
+                if (loopGraph.loopAt(calls[i].getBasicBlock().getIndex())
+                        == loopGraph.loopAt(constructs[i].getBasicBlock().getIndex())) {
+                    instanceFields = getInstanceFields(constructs[i].getType());
+                }
+            }
+            if (instanceFields == null) {
+                escapingVars[i] = true;
+            } else {
+                classFields.set(i, instanceFields);
+            }
+        }
+
+        for (int i = 0; i < program.variableCount(); ++i) {
+            Set<FieldReference> usedFields = visitor.fields.get(i);
+            List<FieldReader> instanceFields = classFields.get(definitionClasses[i]);
+            if (usedFields == null || instanceFields == null) {
+                continue;
+            }
+            for (FieldReference field : usedFields) {
+                if (instanceFields.stream().noneMatch(f -> f.getReference().equals(field))) {
+                    escapingVars[definitionClasses[i]] = true;
+                    classFields.set(definitionClasses[i], null);
+                    break;
+                }
+            }
+        }
+
+        for (int i = 0; i < program.variableCount(); ++i) {
+            List<FieldReader> instanceFields = classFields.get(i);
+            if (instanceFields == null) {
+                continue;
+            }
+            ConstructInstruction construct = constructs[i];
+            materializedTypes[i] = construct.getType();
+            for (FieldReader field : instanceFields) {
+                visitor.addField(construct.getReceiver(), field.getReference(), field.getType());
+            }
+        }
+    }
+
+    private List<FieldReader> getInstanceFields(String className) {
+        List<FieldReader> result = new ArrayList<>();
+        ClassReader cls = classSource.get(className);
+        if (cls == null || cls.hasModifier(ElementModifier.ABSTRACT)) {
+            return null;
+        }
+        while (!cls.getName().equals("java.lang.Object")) {
+            for (FieldReader field : cls.getFields()) {
+                if (!field.hasModifier(ElementModifier.STATIC)) {
+                    result.add(field);
+                }
+            }
+            cls = cls.getParent() != null ? classSource.get(cls.getParent()) : null;
+            if (cls == null) {
+                return null;
+            }
+        }
+        return result;
+    }
+
     private void analyzePhis(Program program, MethodDescriptor methodDescriptor) {
         LivenessAnalyzer livenessAnalyzer = new LivenessAnalyzer();
         livenessAnalyzer.analyze(program, methodDescriptor);
@@ -282,8 +438,15 @@ public class EscapeAnalysis {
         boolean[] escapingVars;
         List<Set<FieldReference>> fields;
         Map<FieldReference, ValueType> fieldTypes = new HashMap<>();
-
-        InstructionEscapeVisitor(int variableCount) {
+        MethodReference method;
+        InterproceduralEscapeAnalysis interproceduralAnalysis;
+        List<ConstructInstruction> constructs = new ArrayList<>();
+        List<InvokeInstruction> calls = new ArrayList<>();
+
+        InstructionEscapeVisitor(int variableCount, MethodReference method,
+                InterproceduralEscapeAnalysis interproceduralAnalysis) {
+            this.method = method;
+            this.interproceduralAnalysis = interproceduralAnalysis;
             fields = new ArrayList<>(Collections.nCopies(variableCount, null));
             definitionClasses = new DisjointSet();
             for (int i = 0; i < variableCount; ++i) {
@@ -353,7 +516,7 @@ public class EscapeAnalysis {
             addField(insn.getInstance(), insn.getField(), insn.getFieldType());
         }
 
-        private void addField(Variable instance, FieldReference field, ValueType fieldType) {
+        void addField(Variable instance, FieldReference field, ValueType fieldType) {
             if (instance == null) {
                 return;
             }
@@ -376,19 +539,37 @@ public class EscapeAnalysis {
             escapingVars[insn.getValue().getIndex()] = true;
         }
 
+        @Override
+        public void visit(ConstructInstruction insn) {
+            constructs.add(insn);
+        }
+
         @Override
         public void visit(InvokeInstruction insn) {
+            boolean passed = false;
             if (insn.getInstance() != null) {
-                escapingVars[insn.getInstance().getIndex()] = true;
+                passed |= passArgument(insn, insn.getInstance(), 0);
+            }
+            for (int i = 0; i < insn.getArguments().size(); ++i) {
+                passed |= passArgument(insn, insn.getArguments().get(i), i + 1);
             }
-            for (Variable arg : insn.getArguments()) {
-                escapingVars[arg.getIndex()] = true;
+            if (passed) {
+                calls.add(insn);
             }
             if (insn.getReceiver() != null) {
                 escapingVars[insn.getReceiver().getIndex()] = true;
             }
         }
 
+        private boolean passArgument(InvokeInstruction insn, Variable argument, int index) {
+            if (interproceduralAnalysis == null || interproceduralAnalysis.argumentEscapes(method,
+                    insn.getMethod(), insn.getType(), index)) {
+                escapingVars[argument.getIndex()] = true;
+                return false;
+            }
+            return true;
+        }
+
         @Override
         public void visit(IsInstanceInstruction insn) {
             escapingVars[insn.getValue().getIndex()] = true;
@@ -0,0 +1,389 @@
+/*
+ *  Copyright 2026 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.model.analysis;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.function.Predicate;
+import org.teavm.callgraph.CallGraph;
+import org.teavm.callgraph.CallGraphNode;
+import org.teavm.callgraph.CallSite;
+import org.teavm.common.DisjointSet;
+import org.teavm.model.BasicBlockReader;
+import org.teavm.model.ClassReader;
+import org.teavm.model.ElementModifier;
+import org.teavm.model.FieldReference;
+import org.teavm.model.IncomingReader;
+import org.teavm.model.ListableClassReaderSource;
+import org.teavm.model.MethodDescriptor;
+import org.teavm.model.MethodHandle;
+import org.teavm.model.MethodReader;
+import org.teavm.model.MethodReference;
+import org.teavm.model.PhiReader;
+import org.teavm.model.ProgramReader;
+import org.teavm.model.RuntimeConstant;
+import org.teavm.model.ValueType;
+import org.teavm.model.VariableReader;
+import org.teavm.model.instructions.AbstractInstructionReader;
+import org.teavm.model.instructions.ArrayElementType;
+import org.teavm.model.instructions.InvocationType;
+
+/**
+ * Computes which parameters of methods may escape, i.e. may be stored to heap, returned, thrown, used as a monitor
+ * or passed to a method that lets them escape. Summaries are computed over call graph, so that a callee
+ * that only reads fields of its argument allows callers to keep the argument local.
+ *
+ * Targets of virtual calls are implementations of the method in all subclasses of the receiver type.
+ * Since the analysis may be applied to programs after inlining, a call is only trusted when call graph
+ * contains a matching call site in the analyzed method. Otherwise (for example, the call came from inlined
+ * code), arguments escape.
+ *
+ * Analysis is optimistic: it starts with assumption that nothing escapes and iterates until fixpoint.
+ * Methods without program and methods accepted by `opaqueMethods` predicate are considered to let
+ * all of their parameters escape.
+ */
+public class InterproceduralEscapeAnalysis {
+    private final CallGraph callGraph;
+    private final Predicate<MethodReference> opaqueMethods;
+    private final Map<MethodReference, boolean[]> summaries = new HashMap<>();
+    private ListableClassReaderSource classes;
+    private final Map<String, List<String>> subclasses = new HashMap<>();
+    private final Map<MethodReference, List<MethodReference>> virtualTargets = new HashMap<>();
+
+    public InterproceduralEscapeAnalysis(CallGraph callGraph, Predicate<MethodReference> opaqueMethods) {
+        this.callGraph = callGraph;
+        this.opaqueMethods = opaqueMethods;
+    }
+
+    public void analyze(ListableClassReaderSource classes) {
+        this.classes = classes;
+        Map<MethodReference, MethodReader> methods = new HashMap<>();
+        Map<MethodReference, Set<MethodReference>> dependents = new HashMap<>();
+        Queue<MethodReference> queue = new ArrayDeque<>();
+        Set<MethodReference> queued = new LinkedHashSet<>();
+        for (String className : classes.getClassNames()) {
+            ClassReader cls = classes.get(className);
+            if (cls.getParent() != null) {
+                subclasses.computeIfAbsent(cls.getParent(), k -> new ArrayList<>()).add(className);
+            }
+            for (String itf : cls.getInterfaces()) {
+                subclasses.computeIfAbsent(itf, k -> new ArrayList<>()).add(className);
+            }
+            for (MethodReader method : cls.getMethods()) {
+                if (method.getProgram() == null || opaqueMethods.test(method.getReference())) {
+                    continue;
+                }
+                boolean[] summary = new boolean[method.parameterCount() + 1];
+                if (method.hasModifier(ElementModifier.SYNCHRONIZED)) {
+                    summary[0] = true;
+                }
+                summaries.put(method.getReference(), summary);
+                methods.put(method.getReference(), method);
+                queue.add(method.getReference());
+                queued.add(method.getReference());
+            }
+        }
+
+        while (!queue.isEmpty()) {
+            MethodReference methodRef = queue.remove();
+            queued.remove(methodRef);
+            MethodReader method = methods.get(methodRef);
+            Set<MethodReference> targets = new LinkedHashSet<>();
+            boolean[] escaping = findEscapingVariables(method.getProgram(), methodRef, targets);
+            for (MethodReference target : targets) {
+                dependents.computeIfAbsent(target, k -> new LinkedHashSet<>()).add(methodRef);
+            }
+            boolean[] summary = summaries.get(methodRef);
+            boolean changed = false;
+            for (int i = 0; i < summary.length && i < escaping.length; ++i) {
+                if (escaping[i] && !summary[i]) {
+                    summary[i] = true;
+                    changed = true;
+                }
+            }
+            if (!changed) {
+                continue;
+            }
+
+            for (MethodReference callerRef : dependents.getOrDefault(methodRef, Collections.emptySet())) {
+                if (queued.add(callerRef)) {
+                    queue.add(callerRef);
+                }
+            }
+        }
+    }
+
+    /**
+     * Tells whether parameter of a method may escape.
+     *
+     * @param method method to check.
+     * @param index index of the parameter, where 0 stands for `this`.
+     */
+    public boolean parameterEscapes(MethodReference method, int index) {
+        boolean[] summary = summaries.get(method);
+        return summary == null || index >= summary.length || summary[index];
+    }
+
+    /**
+     * Tells whether argument of a call in the given method may escape through any of the call targets.
+     *
+     * @param caller method that contains the call.
+     * @param method method being called.
+     * @param type type of the call.
+     * @param index index of the argument, where 0 stands for the instance.
+     */
+    public boolean argumentEscapes(MethodReference caller, MethodReference method, InvocationType type,
+            int index) {
+        List<MethodReference> targets = getCallTargets(caller, method, type);
+        if (targets == null) {
+            return true;
+        }
+        for (MethodReference target : targets) {
+            if (parameterEscapes(target, index)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Finds variables of the given program that may escape. Variables connected by assignments, null checks
+     * and phis share the same flag. Parameters only escape when the program lets them escape.
+     */
+    public boolean[] findEscapingVariables(ProgramReader program, MethodReference method) {
+        return findEscapingVariables(program, method, null);
+    }
+
+    private boolean[] findEscapingVariables(ProgramReader program, MethodReference method,
+            Set<MethodReference> calledTargets) {
+        Analyzer analyzer = new Analyzer(program, method, calledTargets);
+        for (BasicBlockReader block : program.getBasicBlocks()) {
+            for (PhiReader phi : block.readPhis()) {
+                for (IncomingReader incoming : phi.readIncomings()) {
+                    analyzer.classes.union(phi.getReceiver().getIndex(), incoming.getValue().getIndex());
+                }
+            }
+            block.readAllInstructions(analyzer);
+        }
+
+        int[] classes = analyzer.classes.pack(program.variableCount());
+        boolean[] escapingClasses = new boolean[program.variableCount()];
+        for (int i = 0; i < program.variableCount(); ++i) {
+            if (analyzer.escaping[i]) {
+                escapingClasses[classes[i]] = true;
+            }
+        }
+        boolean[] result = new boolean[program.variableCount()];
+        for (int i = 0; i < result.length; ++i) {
+            result[i] = escapingClasses[classes[i]];
+        }
+        return result;
+    }
+
+    private List<MethodReference> getCallTargets(MethodReference caller, MethodReference method,
+            InvocationType type) {
+        CallGraphNode node = callGraph.getNode(caller);
+        if (node == null || !hasCallSite(node, method)) {
+            return null;
+        }
+        if (type != InvocationType.VIRTUAL) {
+            MethodReader resolved = classes != null ? classes.resolve(method) : null;
+            return Collections.singletonList(resolved != null ? resolved.getReference() : method);
+        }
+        if (classes == null) {
+            return null;
+        }
+        return virtualTargets.computeIfAbsent(method, this::findVirtualTargets);
+    }
+
+    private boolean hasCallSite(CallGraphNode node, MethodReference method) {
+        MethodDescriptor descriptor = method.getDescriptor();
+        for (CallSite callSite : node.getCallSites()) {
+            for (CallGraphNode callee : callSite.getCalledMethods()) {
+                MethodReference calleeRef = callee.getMethod();
+                if (calleeRef.getDescriptor().equals(descriptor)
+                        && isRelated(calleeRef.getClassName(), method.getClassName())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private boolean isRelated(String first, String second) {
+        if (first.equals(second)) {
+            return true;
+        }
+        if (classes == null) {
+            return false;
+        }
+        return classes.isSuperType(first, second).orElse(false) || classes.isSuperType(second, first).orElse(false);
+    }
+
+    private List<MethodReference> findVirtualTargets(MethodReference method) {
+        if (classes.get(method.getClassName()) == null) {
+            return null;
+        }
+        Set<MethodReference> targets = new LinkedHashSet<>();
+        Set<String> visited = new HashSet<>();
+        Deque<String> stack = new ArrayDeque<>();
+        stack.push(method.getClassName());
+        while (!stack.isEmpty()) {
+            String className = stack.pop();
+            if (!visited.add(className)) {
+                continue;
+            }
+            ClassReader cls = classes.get(className);
+            if (cls != null && !cls.hasModifier(ElementModifier.ABSTRACT)
+                    && !cls.hasModifier(ElementModifier.INTERFACE)) {
+                MethodReader implementation = classes.resolveImplementation(className, method.getDescriptor());
+                if (implementation != null) {
+                    targets.add(implementation.getReference());
+                }
+            }
+            for (String subclass : subclasses.getOrDefault(className, Collections.emptyList())) {
+                stack.push(subclass);
+            }
+        }
+        return targets.isEmpty() ? null : new ArrayList<>(targets);
+    }
+
+    private class Analyzer extends AbstractInstructionReader {
+        final MethodReference method;
+        final DisjointSet classes = new DisjointSet();
+        final boolean[] escaping;
+        final Set<MethodReference> calledTargets;
+
+        Analyzer(ProgramReader program, MethodReference method, Set<MethodReference> calledTargets) {
+            this.method = method;
+            this.calledTargets = calledTargets;
+            for (int i = 0; i < program.variableCount(); ++i) {
+                classes.create();
+            }
+            escaping = new boolean[program.variableCount()];
+        }
+
+        private void escape(VariableReader variable) {
+            if (variable != null) {
+                escaping[variable.getIndex()] = true;
+            }
+        }
+
+        @Override
+        public void assign(VariableReader receiver, VariableReader assignee) {
+            classes.union(receiver.getIndex(), assignee.getIndex());
+        }
+
+        @Override
+        public void nullCheck(VariableReader receiver, VariableReader value) {
+            classes.union(receiver.getIndex(), value.getIndex());
+        }
+
+        @Override
+        public void unwrapArray(VariableReader receiver, VariableReader array, ArrayElementType elementType) {
+            classes.union(receiver.getIndex(), array.getIndex());
+        }
+
+        @Override
+        public void cast(VariableReader receiver, VariableReader value, ValueType targetType, boolean weak) {
+            escape(receiver);
+            escape(value);
+        }
+
+        @Override
+        public void cloneArray(VariableReader receiver, VariableReader array) {
+            escape(array);
+        }
+
+        @Override
+        public void exit(VariableReader valueToReturn) {
+            escape(valueToReturn);
+        }
+
+        @Override
+        public void raise(VariableReader exception) {
+            escape(exception);
+        }
+
+        @Override
+        public void putField(VariableReader instance, FieldReference field, VariableReader value,
+                ValueType fieldType) {
+            escape(value);
+        }
+
+        @Override
+        public void putElement(VariableReader array, VariableReader index, VariableReader value,
+                ArrayElementType elementType) {
+            escape(value);
+        }
+
+        @Override
+        public void monitorEnter(VariableReader objectRef) {
+            escape(objectRef);
+        }
+
+        @Override
+        public void monitorExit(VariableReader objectRef) {
+            escape(objectRef);
+        }
+
+        @Override
+        public void invoke(VariableReader receiver, VariableReader instance, MethodReference method,
+                List<? extends VariableReader> arguments, InvocationType type) {
+            List<MethodReference> targets = getCallTargets(this.method, method, type);
+            if (targets == null) {
+                escape(instance);
+                for (VariableReader argument : arguments) {
+                    escape(argument);
+                }
+                return;
+            }
+
+            for (MethodReference target : targets) {
+                if (calledTargets != null) {
+                    calledTargets.add(target);
+                }
+                if (instance != null && parameterEscapes(target, 0)) {
+                    escape(instance);
+                }
+                for (int i = 0; i < arguments.size(); ++i) {
+                    if (parameterEscapes(target, i + 1)) {
+                        escape(arguments.get(i));
+                    }
+                }
+            }
+        }
+
+        @Override
+        public void invokeDynamic(VariableReader receiver, VariableReader instance, MethodDescriptor method,
+                List<? extends VariableReader> arguments, MethodHandle bootstrapMethod,
+                List<RuntimeConstant> bootstrapArguments) {
+            escape(instance);
+            for (VariableReader argument : arguments) {
+                escape(argument);
+            }
+        }
+    }
+}
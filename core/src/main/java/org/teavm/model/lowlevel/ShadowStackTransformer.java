@@ -39,7 +39,17 @@ public class ShadowStackTransformer {
     private GCShadowStackContributor gcContributor;
 
     public ShadowStackTransformer(Characteristics characteristics) {
-        gcContributor = new GCShadowStackContributor(characteristics);
+        this(characteristics, true);
+    }
+
+    /**
+     * @param gcRoots whether to spill GC roots to shadow stack. When GC discovers roots by some other means
+     *                (i.e. by scanning native stack), shadow stack is only maintained to track call sites.
+     */
+    public ShadowStackTransformer(Characteristics characteristics, boolean gcRoots) {
+        if (gcRoots) {
+            gcContributor = new GCShadowStackContributor(characteristics);
+        }
         this.characteristics = characteristics;
     }
 
@@ -48,7 +58,7 @@ public class ShadowStackTransformer {
             return;
         }
 
-        int shadowStackSize = gcContributor.contribute(program, method);
+        int shadowStackSize = gcContributor != null ? gcContributor.contribute(program, method) : 0;
         var exceptions = false;
         outer: for (BasicBlock block : program.getBasicBlocks()) {
             if (!block.getTryCatchBlocks().isEmpty()) {
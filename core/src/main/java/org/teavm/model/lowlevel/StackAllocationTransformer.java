@@ -0,0 +1,172 @@
+/*
+ *  Copyright 2026 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.model.lowlevel;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+import org.teavm.common.DisjointSet;
+import org.teavm.common.LoopGraph;
+import org.teavm.interop.Address;
+import org.teavm.model.BasicBlock;
+import org.teavm.model.ClassReader;
+import org.teavm.model.ClassReaderSource;
+import org.teavm.model.ElementModifier;
+import org.teavm.model.FieldReader;
+import org.teavm.model.Incoming;
+import org.teavm.model.Instruction;
+import org.teavm.model.MethodReference;
+import org.teavm.model.Phi;
+import org.teavm.model.Program;
+import org.teavm.model.ValueType;
+import org.teavm.model.analysis.InterproceduralEscapeAnalysis;
+import org.teavm.model.instructions.AssignInstruction;
+import org.teavm.model.instructions.ClassConstantInstruction;
+import org.teavm.model.instructions.ConstructInstruction;
+import org.teavm.model.instructions.InvocationType;
+import org.teavm.model.instructions.InvokeInstruction;
+import org.teavm.model.instructions.NullCheckInstruction;
+import org.teavm.model.util.ProgramUtils;
+import org.teavm.runtime.Allocator;
+
+/**
+ * Replaces allocation of objects that don't escape the method with allocation on native stack.
+ * Such objects are neither registered in shadow stack nor visited by GC, so only objects without
+ * reference fields are allocated this way. Besides, an object is only allocated on stack when:
+ *
+ * - allocation happens outside of a loop, so that each allocation site allocates at most once per call;
+ * - the object never reaches a phi, since GC roots are computed for phis as a whole;
+ * - the method is not asynchronous, since its native stack frame may be discarded on suspension.
+ */
+public class StackAllocationTransformer {
+    private static final MethodReference ALLOCATE_STACK = new MethodReference(Allocator.class, "allocateStack",
+            Class.class, Address.class);
+    private static final int MAX_FIELDS = 8;
+    private ClassReaderSource classSource;
+    private InterproceduralEscapeAnalysis escapeAnalysis;
+    private Predicate<MethodReference> asyncMethods;
+    private Map<String, Boolean> allocatableClasses = new HashMap<>();
+
+    public StackAllocationTransformer(ClassReaderSource classSource, InterproceduralEscapeAnalysis escapeAnalysis,
+            Predicate<MethodReference> asyncMethods) {
+        this.classSource = classSource;
+        this.escapeAnalysis = escapeAnalysis;
+        this.asyncMethods = asyncMethods;
+    }
+
+    public void apply(Program program, MethodReference method) {
+        if (program.basicBlockCount() == 0 || asyncMethods.test(method)) {
+            return;
+        }
+
+        boolean[] escaping = null;
+        boolean[] reachesPhi = null;
+        LoopGraph loopGraph = null;
+        for (BasicBlock block : program.getBasicBlocks()) {
+            for (Instruction instruction : block) {
+                if (!(instruction instanceof ConstructInstruction)) {
+                    continue;
+                }
+                ConstructInstruction construct = (ConstructInstruction) instruction;
+                if (!isAllocatable(construct.getType())) {
+                    continue;
+                }
+                if (escaping == null) {
+                    escaping = escapeAnalysis.findEscapingVariables(program, method);
+                    reachesPhi = findVariablesReachingPhis(program);
+                    loopGraph = new LoopGraph(ProgramUtils.buildControlFlowGraph(program));
+                }
+                int receiver = construct.getReceiver().getIndex();
+                if (escaping[receiver] || reachesPhi[receiver] || loopGraph.loopAt(block.getIndex()) != null) {
+                    continue;
+                }
+
+                ClassConstantInstruction type = new ClassConstantInstruction();
+                type.setConstant(ValueType.object(construct.getType()));
+                type.setReceiver(program.createVariable());
+                type.setLocation(construct.getLocation());
+                construct.insertPrevious(type);
+
+                InvokeInstruction allocation = new InvokeInstruction();
+                allocation.setType(InvocationType.SPECIAL);
+                allocation.setMethod(ALLOCATE_STACK);
+                allocation.setArguments(type.getReceiver());
+                allocation.setReceiver(construct.getReceiver());
+                allocation.setLocation(construct.getLocation());
+                construct.replace(allocation);
+            }
+        }
+    }
+
+    private boolean isAllocatable(String className) {
+        return allocatableClasses.computeIfAbsent(className, this::checkAllocatable);
+    }
+
+    private boolean checkAllocatable(String className) {
+        ClassReader cls = classSource.get(className);
+        if (cls == null || cls.hasModifier(ElementModifier.ABSTRACT)
+                || cls.hasModifier(ElementModifier.INTERFACE)) {
+            return false;
+        }
+        int fieldCount = 0;
+        while (cls != null && !cls.getName().equals("java.lang.Object")) {
+            for (FieldReader field : cls.getFields()) {
+                if (field.hasModifier(ElementModifier.STATIC)) {
+                    continue;
+                }
+                if (!(field.getType() instanceof ValueType.Primitive) || ++fieldCount > MAX_FIELDS) {
+                    return false;
+                }
+            }
+            cls = cls.getParent() != null ? classSource.get(cls.getParent()) : null;
+        }
+        return cls != null;
+    }
+
+    private boolean[] findVariablesReachingPhis(Program program) {
+        DisjointSet classes = new DisjointSet();
+        for (int i = 0; i < program.variableCount(); ++i) {
+            classes.create();
+        }
+        for (BasicBlock block : program.getBasicBlocks()) {
+            for (Instruction instruction : block) {
+                if (instruction instanceof AssignInstruction) {
+                    AssignInstruction assign = (AssignInstruction) instruction;
+                    classes.union(assign.getReceiver().getIndex(), assign.getAssignee().getIndex());
+                } else if (instruction instanceof NullCheckInstruction) {
+                    NullCheckInstruction nullCheck = (NullCheckInstruction) instruction;
+                    classes.union(nullCheck.getReceiver().getIndex(), nullCheck.getValue().getIndex());
+                }
+            }
+        }
+
+        boolean[] phiClasses = new boolean[program.variableCount()];
+        for (BasicBlock block : program.getBasicBlocks()) {
+            for (Phi phi : block.getPhis()) {
+                phiClasses[classes.find(phi.getReceiver().getIndex())] = true;
+                for (Incoming incoming : phi.getIncomings()) {
+                    phiClasses[classes.find(incoming.getValue().getIndex())] = true;
+                }
+            }
+        }
+
+        boolean[] result = new boolean[program.variableCount()];
+        for (int i = 0; i < result.length; ++i) {
+            result[i] = phiClasses[classes.find(i)];
+        }
+        return result;
+    }
+}
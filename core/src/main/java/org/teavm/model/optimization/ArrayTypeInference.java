@@ -0,0 +1,53 @@
+/*
+ *  Copyright 2026 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.model.optimization;
+
+import java.util.Objects;
+import org.teavm.model.MethodReference;
+import org.teavm.model.Program;
+import org.teavm.model.ValueType;
+import org.teavm.model.analysis.BaseTypeInference;
+
+class ArrayTypeInference extends BaseTypeInference<ValueType> {
+    private static final ValueType DEFAULT_TYPE = ValueType.object("java.lang.Object");
+
+    ArrayTypeInference(Program program, MethodReference reference) {
+        super(program, reference);
+    }
+
+    @Override
+    public ValueType merge(ValueType a, ValueType b) {
+        if (!Objects.equals(a, b)) {
+            return DEFAULT_TYPE;
+        }
+        return a;
+    }
+
+    @Override
+    public ValueType elementType(ValueType valueType) {
+        return valueType instanceof ValueType.Array ? ((ValueType.Array) valueType).getItemType() : DEFAULT_TYPE;
+    }
+
+    @Override
+    public ValueType nullType() {
+        return DEFAULT_TYPE;
+    }
+
+    @Override
+    public ValueType mapType(ValueType type) {
+        return type instanceof ValueType.Array ? type : DEFAULT_TYPE;
+    }
+}
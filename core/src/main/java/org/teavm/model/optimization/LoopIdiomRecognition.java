@@ -0,0 +1,27 @@
+/*
+ *  Copyright 2026 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.model.optimization;
+
+import org.teavm.model.Program;
+
+public class LoopIdiomRecognition implements MethodOptimization {
+    @Override
+    public boolean optimize(MethodOptimizationContext context, Program program) {
+        var dependencies = context.getDependencyInfo();
+        return new LoopIdiomRecognitionImpl(program, context.getMethod().getReference(),
+                method -> dependencies == null || dependencies.getMethod(method) != null).apply();
+    }
+}
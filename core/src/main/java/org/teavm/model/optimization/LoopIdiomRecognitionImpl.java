@@ -0,0 +1,427 @@
+/*
+ *  Copyright 2026 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.model.optimization;
+
+import com.carrotsearch.hppc.IntHashSet;
+import com.carrotsearch.hppc.IntSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+import org.teavm.common.Graph;
+import org.teavm.common.Loop;
+import org.teavm.common.LoopGraph;
+import org.teavm.model.BasicBlock;
+import org.teavm.model.Incoming;
+import org.teavm.model.Instruction;
+import org.teavm.model.MethodReference;
+import org.teavm.model.Phi;
+import org.teavm.model.Program;
+import org.teavm.model.ValueType;
+import org.teavm.model.Variable;
+import org.teavm.model.instructions.ArrayElementType;
+import org.teavm.model.instructions.BinaryInstruction;
+import org.teavm.model.instructions.BinaryOperation;
+import org.teavm.model.instructions.BranchingCondition;
+import org.teavm.model.instructions.BranchingInstruction;
+import org.teavm.model.instructions.GetElementInstruction;
+import org.teavm.model.instructions.IntegerConstantInstruction;
+import org.teavm.model.instructions.InvocationType;
+import org.teavm.model.instructions.InvokeInstruction;
+import org.teavm.model.instructions.JumpInstruction;
+import org.teavm.model.instructions.NumericOperandType;
+import org.teavm.model.instructions.PutElementInstruction;
+import org.teavm.model.instructions.UnwrapArrayInstruction;
+import org.teavm.model.util.DefinitionExtractor;
+import org.teavm.model.util.ProgramUtils;
+import org.teavm.model.util.UsageExtractor;
+
+/**
+ * Replaces innermost loops in form:
+ *
+ * ```
+ * for (int i = from; i < to; ++i) {
+ *     a[i] = value;
+ * }
+ * ```
+ *
+ * with `Arrays.fill(a, from, to, value)`, and loops in form:
+ *
+ * ```
+ * for (int i = from; i < to; ++i) {
+ *     b[i] = a[i];
+ * }
+ * ```
+ *
+ * with `System.arraycopy(a, from, b, from, to - from)`, where `a` and `b` are arrays of the same primitive type
+ * and `from`, `to` and `value` are computed outside of the loop. Targets are expected to lower these calls
+ * to bulk array operations.
+ *
+ * The call is only made when the loop condition holds for `from`. Loops with bound checks are left as is,
+ * since both methods check the whole range before writing anything, while the loop would write some elements
+ * before it fails.
+ */
+class LoopIdiomRecognitionImpl {
+    private static final MethodReference ARRAY_COPY_METHOD = new MethodReference(System.class,
+            "arraycopy", Object.class, int.class, Object.class, int.class, int.class, void.class);
+
+    private final Program program;
+    private final MethodReference method;
+    private final Predicate<MethodReference> methodAvailable;
+    private Graph cfg;
+    private Instruction[] definitions;
+    private int[] definitionBlocks;
+    private ArrayTypeInference types;
+
+    LoopIdiomRecognitionImpl(Program program, MethodReference method, Predicate<MethodReference> methodAvailable) {
+        this.program = program;
+        this.method = method;
+        this.methodAvailable = methodAvailable;
+    }
+
+    boolean apply() {
+        cfg = ProgramUtils.buildControlFlowGraph(program);
+        LoopGraph loopGraph = new LoopGraph(cfg);
+
+        Map<Loop, IntSet> loopNodes = new LinkedHashMap<>();
+        Set<Loop> outerLoops = new HashSet<>();
+        for (int node = 0; node < cfg.size(); ++node) {
+            Loop loop = loopGraph.loopAt(node);
+            if (loop == null) {
+                continue;
+            }
+            loopNodes.computeIfAbsent(loop, k -> new IntHashSet()).add(node);
+            for (Loop parent = loop.getParent(); parent != null; parent = parent.getParent()) {
+                outerLoops.add(parent);
+            }
+        }
+        if (loopNodes.isEmpty()) {
+            return false;
+        }
+
+        buildDefinitions();
+        types = new ArrayTypeInference(program, method);
+
+        boolean affected = false;
+        for (Map.Entry<Loop, IntSet> entry : loopNodes.entrySet()) {
+            if (outerLoops.contains(entry.getKey()) || entry.getValue().size() != 2) {
+                continue;
+            }
+            if (new IdiomLoop(entry.getKey().getHead(), entry.getValue()).replace()) {
+                affected = true;
+            }
+        }
+        return affected;
+    }
+
+    private void buildDefinitions() {
+        definitions = new Instruction[program.variableCount()];
+        definitionBlocks = new int[program.variableCount()];
+        Arrays.fill(definitionBlocks, -1);
+        DefinitionExtractor defExtractor = new DefinitionExtractor();
+        for (BasicBlock block : program.getBasicBlocks()) {
+            for (Phi phi : block.getPhis()) {
+                definitionBlocks[phi.getReceiver().getIndex()] = block.getIndex();
+            }
+            if (block.getExceptionVariable() != null) {
+                definitionBlocks[block.getExceptionVariable().getIndex()] = block.getIndex();
+            }
+            for (Instruction instruction : block) {
+                instruction.acceptVisitor(defExtractor);
+                for (Variable variable : defExtractor.getDefinedVariables()) {
+                    definitions[variable.getIndex()] = instruction;
+                    definitionBlocks[variable.getIndex()] = block.getIndex();
+                }
+            }
+        }
+    }
+
+    private class IdiomLoop {
+        final int head;
+        final int body;
+        final IntSet nodes;
+        Variable induction;
+        Variable next;
+        Variable from;
+        Variable to;
+        BinaryInstruction comparison;
+        BranchingInstruction condition;
+        BasicBlock exit;
+        GetElementInstruction load;
+        PutElementInstruction store;
+        Variable sourceArray;
+        Variable targetArray;
+        MethodReference replacement;
+
+        IdiomLoop(int head, IntSet nodes) {
+            this.head = head;
+            this.nodes = nodes;
+            int body = -1;
+            for (int node : nodes.toArray()) {
+                if (node != head) {
+                    body = node;
+                }
+            }
+            this.body = body;
+        }
+
+        boolean replace() {
+            for (int node : nodes.toArray()) {
+                BasicBlock block = program.basicBlockAt(node);
+                if (!block.getTryCatchBlocks().isEmpty() || block.getExceptionVariable() != null) {
+                    return false;
+                }
+            }
+            int[] bodySuccessors = cfg.outgoingEdges(body);
+            if (bodySuccessors.length != 1 || bodySuccessors[0] != head) {
+                return false;
+            }
+            if (!analyzeHead() || !analyzeBody() || !chooseReplacement() || usedOutside()) {
+                return false;
+            }
+            rewrite();
+            return true;
+        }
+
+        private boolean analyzeHead() {
+            BasicBlock headBlock = program.basicBlockAt(head);
+            if (headBlock.getPhis().size() != 1 || headBlock.instructionCount() != 2) {
+                return false;
+            }
+            Phi phi = headBlock.getPhis().get(0);
+            if (phi.getIncomings().size() != 2) {
+                return false;
+            }
+            induction = phi.getReceiver();
+            for (Incoming incoming : phi.getIncomings()) {
+                if (incoming.getSource().getIndex() == body) {
+                    next = incoming.getValue();
+                } else {
+                    from = incoming.getValue();
+                }
+            }
+            if (next == null || from == null || !isInvariant(from)) {
+                return false;
+            }
+
+            if (!(headBlock.getFirstInstruction() instanceof BinaryInstruction)
+                    || !(headBlock.getLastInstruction() instanceof BranchingInstruction)) {
+                return false;
+            }
+            comparison = (BinaryInstruction) headBlock.getFirstInstruction();
+            condition = (BranchingInstruction) headBlock.getLastInstruction();
+            if (comparison.getOperandType() != NumericOperandType.INT
+                    || (comparison.getOperation() != BinaryOperation.COMPARE_LESS
+                    && comparison.getOperation() != BinaryOperation.COMPARE_GREATER)
+                    || comparison.getFirstOperand() != induction
+                    || condition.getOperand() != comparison.getReceiver()) {
+                return false;
+            }
+            to = comparison.getSecondOperand();
+            if (!isInvariant(to)) {
+                return false;
+            }
+
+            if (condition.getCondition() == BranchingCondition.LESS
+                    && condition.getConsequent().getIndex() == body) {
+                exit = condition.getAlternative();
+            } else if (condition.getCondition() == BranchingCondition.GREATER_OR_EQUAL
+                    && condition.getAlternative().getIndex() == body) {
+                exit = condition.getConsequent();
+            } else {
+                return false;
+            }
+            return !nodes.contains(exit.getIndex());
+        }
+
+        private boolean analyzeBody() {
+            BinaryInstruction increment = null;
+            for (Instruction instruction : program.basicBlockAt(body)) {
+                if (instruction instanceof UnwrapArrayInstruction || instruction instanceof JumpInstruction) {
+                    continue;
+                } else if (instruction instanceof GetElementInstruction && load == null) {
+                    load = (GetElementInstruction) instruction;
+                } else if (instruction instanceof PutElementInstruction && store == null) {
+                    store = (PutElementInstruction) instruction;
+                } else if (instruction instanceof BinaryInstruction && increment == null) {
+                    increment = (BinaryInstruction) instruction;
+                } else {
+                    return false;
+                }
+            }
+            if (store == null || increment == null || !isIncrement(increment)) {
+                return false;
+            }
+
+            if (store.getIndex() != induction || store.getType() == ArrayElementType.OBJECT) {
+                return false;
+            }
+            targetArray = unwrappedArray(store.getArray());
+            if (targetArray == null) {
+                return false;
+            }
+
+            if (load == null) {
+                return isInvariant(store.getValue());
+            }
+            if (load.getIndex() != induction || load.getType() != store.getType()
+                    || store.getValue() != load.getReceiver()) {
+                return false;
+            }
+            sourceArray = unwrappedArray(load.getArray());
+            return sourceArray != null;
+        }
+
+        private boolean isIncrement(BinaryInstruction increment) {
+            if (increment.getOperation() != BinaryOperation.ADD
+                    || increment.getOperandType() != NumericOperandType.INT
+                    || increment.getReceiver() != next) {
+                return false;
+            }
+            if (increment.getFirstOperand() == induction) {
+                return isOne(increment.getSecondOperand());
+            } else if (increment.getSecondOperand() == induction) {
+                return isOne(increment.getFirstOperand());
+            }
+            return false;
+        }
+
+        private boolean isOne(Variable variable) {
+            Instruction definition = definitions[variable.getIndex()];
+            return definition instanceof IntegerConstantInstruction
+                    && ((IntegerConstantInstruction) definition).getConstant() == 1;
+        }
+
+        private Variable unwrappedArray(Variable data) {
+            Instruction definition = definitions[data.getIndex()];
+            if (!(definition instanceof UnwrapArrayInstruction)) {
+                return null;
+            }
+            Variable array = ((UnwrapArrayInstruction) definition).getArray();
+            return isInvariant(array) ? array : null;
+        }
+
+        private boolean chooseReplacement() {
+            ValueType targetType = types.typeOf(targetArray);
+            if (!(targetType instanceof ValueType.Array)
+                    || !(((ValueType.Array) targetType).getItemType() instanceof ValueType.Primitive)) {
+                return false;
+            }
+            if (sourceArray != null) {
+                if (!targetType.equals(types.typeOf(sourceArray))) {
+                    return false;
+                }
+                replacement = ARRAY_COPY_METHOD;
+            } else {
+                ValueType itemType = ((ValueType.Array) targetType).getItemType();
+                replacement = new MethodReference("java.util.Arrays", "fill", targetType, ValueType.INTEGER,
+                        ValueType.INTEGER, itemType, ValueType.VOID);
+            }
+            return !replacement.equals(method) && methodAvailable.test(replacement);
+        }
+
+        private boolean usedOutside() {
+            Set<Variable> loopVariables = new HashSet<>();
+            DefinitionExtractor defExtractor = new DefinitionExtractor();
+            for (int node : nodes.toArray()) {
+                BasicBlock block = program.basicBlockAt(node);
+                for (Phi phi : block.getPhis()) {
+                    loopVariables.add(phi.getReceiver());
+                }
+                for (Instruction instruction : block) {
+                    instruction.acceptVisitor(defExtractor);
+                    loopVariables.addAll(Arrays.asList(defExtractor.getDefinedVariables()));
+                }
+            }
+
+            UsageExtractor useExtractor = new UsageExtractor();
+            for (BasicBlock block : program.getBasicBlocks()) {
+                if (nodes.contains(block.getIndex())) {
+                    continue;
+                }
+                for (Phi phi : block.getPhis()) {
+                    for (Incoming incoming : phi.getIncomings()) {
+                        if (loopVariables.contains(incoming.getValue())) {
+                            return true;
+                        }
+                    }
+                }
+                for (Instruction instruction : block) {
+                    instruction.acceptVisitor(useExtractor);
+                    for (Variable variable : useExtractor.getUsedVariables()) {
+                        if (loopVariables.contains(variable)) {
+                            return true;
+                        }
+                    }
+                }
+            }
+            return false;
+        }
+
+        private boolean isInvariant(Variable variable) {
+            return !nodes.contains(definitionBlocks[variable.getIndex()]);
+        }
+
+        private void rewrite() {
+            BasicBlock headBlock = program.basicBlockAt(head);
+            BasicBlock bodyBlock = program.basicBlockAt(body);
+            headBlock.getPhis().clear();
+            comparison.setFirstOperand(from);
+
+            bodyBlock.removeAllInstructions();
+            InvokeInstruction invoke = new InvokeInstruction();
+            invoke.setType(InvocationType.SPECIAL);
+            invoke.setMethod(replacement);
+            invoke.setLocation(store.getLocation());
+            if (sourceArray != null) {
+                Variable length = program.createVariable();
+                BinaryInstruction subtract = new BinaryInstruction(BinaryOperation.SUBTRACT,
+                        NumericOperandType.INT);
+                subtract.setFirstOperand(to);
+                subtract.setSecondOperand(from);
+                subtract.setReceiver(length);
+                subtract.setLocation(store.getLocation());
+                bodyBlock.add(subtract);
+                invoke.setArguments(sourceArray, from, targetArray, from, length);
+            } else {
+                invoke.setArguments(targetArray, from, to, store.getValue());
+            }
+            bodyBlock.add(invoke);
+
+            JumpInstruction jump = new JumpInstruction();
+            jump.setTarget(exit);
+            jump.setLocation(condition.getLocation());
+            bodyBlock.add(jump);
+
+            for (Phi phi : exit.getPhis()) {
+                List<Incoming> newIncomings = new ArrayList<>();
+                for (Incoming incoming : phi.getIncomings()) {
+                    if (incoming.getSource() == headBlock) {
+                        Incoming bodyIncoming = new Incoming();
+                        bodyIncoming.setSource(bodyBlock);
+                        bodyIncoming.setValue(incoming.getValue());
+                        newIncomings.add(bodyIncoming);
+                    }
+                }
+                phi.getIncomings().addAll(newIncomings);
+            }
+        }
+    }
+}
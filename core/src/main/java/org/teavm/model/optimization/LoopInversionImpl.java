@@ -93,11 +93,11 @@ class LoopInversionImpl {
         this.program = program;
         this.method = method;
         this.parameterCount = parameterCount;
-        definitionPlaces = ProgramUtils.getVariableDefinitionPlaces(program);
     }
 
     boolean apply() {
         do {
+            program.pack();
             cfg = ProgramUtils.buildControlFlowGraph(program);
             LoopGraph loopGraph = new LoopGraph(cfg);
             dom = GraphUtils.buildDominatorTree(cfg);
@@ -105,6 +105,7 @@ class LoopInversionImpl {
 
             postponed = false;
             if (!loops.isEmpty()) {
+                findInvertibleLoops(loops);
                 for (LoopWithExits loop : loops) {
                     loop.invert();
                 }
@@ -150,6 +151,31 @@ class LoopInversionImpl {
         return resultList;
     }
 
+    /*
+     * Nullness information synthesizes variables and re-packs the program when disposed, so it's built once
+     * per round, before any loop gets inverted and before the program stops being in SSA form. This keeps block
+     * and variable indexes consistent with the CFG and definition places computed for the round.
+     */
+    private void findInvertibleLoops(List<LoopWithExits> loops) {
+        definitionPlaces = ProgramUtils.getVariableDefinitionPlaces(program);
+        NullnessInformation nullness = null;
+        for (LoopWithExits loop : loops) {
+            if (!loop.findCondition() || loop.bodyStart < 0) {
+                continue;
+            }
+            if (nullness == null) {
+                nullness = NullnessInformation.build(program, method.getDescriptor());
+            }
+            IntSet nodesToCopy = loop.nodesToCopy();
+            if (loop.isInversionProfitable(nodesToCopy, nullness)) {
+                loop.nodesToCopy = nodesToCopy;
+            }
+        }
+        if (nullness != null) {
+            nullness.dispose();
+        }
+    }
+
     private LoopWithExits getLoopWithExits(Map<Loop, LoopWithExits> cache, Loop loop) {
         return cache.computeIfAbsent(loop, k -> {
             LoopWithExits parent = loop.getParent() != null ? getLoopWithExits(cache, loop.getParent()) : null;
@@ -176,6 +202,7 @@ class LoopInversionImpl {
         int bodyStart;
         int headCopy;
         final IntIntMap copiedNodes = new IntIntHashMap();
+        IntSet nodesToCopy;
         boolean shouldSkip;
 
         LoopWithExits(int head, LoopWithExits parent) {
@@ -199,15 +226,7 @@ class LoopInversionImpl {
                 return false;
             }
 
-            if (!findCondition() || bodyStart < 0) {
-                return false;
-            }
-
-            IntSet nodesToCopy = nodesToCopy();
-            NullnessInformation nullness = NullnessInformation.build(program, method.getDescriptor());
-            boolean profitable = isInversionProfitable(nodesToCopy, nullness);
-            nullness.dispose();
-            if (!profitable) {
+            if (nodesToCopy == null) {
                 return false;
             }
             copyBasicBlocks(nodesToCopy);
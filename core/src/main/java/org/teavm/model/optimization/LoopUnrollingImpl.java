@@ -0,0 +1,434 @@
+/*
+ *  Copyright 2026 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.model.optimization;
+
+import com.carrotsearch.hppc.IntHashSet;
+import com.carrotsearch.hppc.IntIntHashMap;
+import com.carrotsearch.hppc.IntIntMap;
+import com.carrotsearch.hppc.IntSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.teavm.common.Graph;
+import org.teavm.common.Loop;
+import org.teavm.common.LoopGraph;
+import org.teavm.model.BasicBlock;
+import org.teavm.model.Incoming;
+import org.teavm.model.Instruction;
+import org.teavm.model.Phi;
+import org.teavm.model.Program;
+import org.teavm.model.Variable;
+import org.teavm.model.instructions.AssignInstruction;
+import org.teavm.model.instructions.BinaryInstruction;
+import org.teavm.model.instructions.BinaryOperation;
+import org.teavm.model.instructions.BranchingCondition;
+import org.teavm.model.instructions.BranchingInstruction;
+import org.teavm.model.instructions.IntegerConstantInstruction;
+import org.teavm.model.instructions.JumpInstruction;
+import org.teavm.model.instructions.NumericOperandType;
+import org.teavm.model.util.BasicBlockMapper;
+import org.teavm.model.util.DefinitionExtractor;
+import org.teavm.model.util.PhiUpdater;
+import org.teavm.model.util.ProgramUtils;
+
+/**
+ * Fully unrolls innermost loops in form:
+ *
+ * ```
+ * for (int i = C1; i < C2; i += C3) {
+ *     body;
+ * }
+ * ```
+ *
+ * where `C1`, `C2` and `C3` are constants, the only exit of the loop is the condition in its head
+ * and both trip count and size of the unrolled code are small enough.
+ *
+ * Each iteration gets its own copy of loop nodes. Since outcome of the condition is known for every iteration,
+ * copies of the condition end with unconditional jumps, so the resulting code is straight-line.
+ */
+class LoopUnrollingImpl {
+    static final int MAX_TRIP_COUNT = 16;
+    static final int MAX_UNROLLED_SIZE = 128;
+    static final int MAX_METHOD_SIZE = 2048;
+
+    private final Program program;
+    private final int parameterCount;
+    private Graph cfg;
+    private Instruction[] definitions;
+
+    LoopUnrollingImpl(Program program, int parameterCount) {
+        this.program = program;
+        this.parameterCount = parameterCount;
+    }
+
+    boolean apply() {
+        boolean affected = false;
+        while (unrollSingleLoop()) {
+            affected = true;
+            new PhiUpdater().updatePhis(program, parameterCount);
+        }
+        return affected;
+    }
+
+    private boolean unrollSingleLoop() {
+        cfg = ProgramUtils.buildControlFlowGraph(program);
+        LoopGraph loopGraph = new LoopGraph(cfg);
+        buildDefinitions();
+
+        int programSize = 0;
+        for (BasicBlock block : program.getBasicBlocks()) {
+            programSize += block.instructionCount();
+        }
+
+        Map<Loop, IntSet> loopNodes = new LinkedHashMap<>();
+        Set<Loop> outerLoops = new HashSet<>();
+        for (int node = 0; node < cfg.size(); ++node) {
+            Loop loop = loopGraph.loopAt(node);
+            if (loop == null) {
+                continue;
+            }
+            loopNodes.computeIfAbsent(loop, k -> new IntHashSet()).add(node);
+            for (Loop parent = loop.getParent(); parent != null; parent = parent.getParent()) {
+                outerLoops.add(parent);
+            }
+        }
+
+        for (Map.Entry<Loop, IntSet> entry : loopNodes.entrySet()) {
+            if (outerLoops.contains(entry.getKey())) {
+                continue;
+            }
+            UnrollableLoop loop = new UnrollableLoop(entry.getKey().getHead(), entry.getValue());
+            if (loop.analyze(programSize)) {
+                loop.unroll();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void buildDefinitions() {
+        definitions = new Instruction[program.variableCount()];
+        DefinitionExtractor defExtractor = new DefinitionExtractor();
+        for (BasicBlock block : program.getBasicBlocks()) {
+            for (Instruction instruction : block) {
+                instruction.acceptVisitor(defExtractor);
+                for (Variable variable : defExtractor.getDefinedVariables()) {
+                    definitions[variable.getIndex()] = instruction;
+                }
+            }
+        }
+    }
+
+    private Variable resolve(Variable variable) {
+        while (definitions[variable.getIndex()] instanceof AssignInstruction) {
+            variable = ((AssignInstruction) definitions[variable.getIndex()]).getAssignee();
+        }
+        return variable;
+    }
+
+    private Integer constantValue(Variable variable) {
+        Instruction definition = definitions[resolve(variable).getIndex()];
+        return definition instanceof IntegerConstantInstruction
+                ? ((IntegerConstantInstruction) definition).getConstant()
+                : null;
+    }
+
+    private class UnrollableLoop {
+        final int head;
+        final IntSet nodes;
+        int[] sortedNodes;
+        BranchingInstruction condition;
+        BasicBlock loopSuccessor;
+        BasicBlock exit;
+        int tripCount;
+        final List<IntIntMap> iterations = new ArrayList<>();
+
+        UnrollableLoop(int head, IntSet nodes) {
+            this.head = head;
+            this.nodes = nodes;
+            sortedNodes = nodes.toArray();
+            Arrays.sort(sortedNodes);
+        }
+
+        boolean analyze(int programSize) {
+            int size = 0;
+            for (int node : sortedNodes) {
+                BasicBlock block = program.basicBlockAt(node);
+                if (!block.getTryCatchBlocks().isEmpty() || block.getExceptionVariable() != null) {
+                    return false;
+                }
+                if (node != head) {
+                    for (int successor : cfg.outgoingEdges(node)) {
+                        if (!nodes.contains(successor)) {
+                            return false;
+                        }
+                    }
+                }
+                size += block.instructionCount();
+            }
+
+            BasicBlock headBlock = program.basicBlockAt(head);
+            if (!(headBlock.getLastInstruction() instanceof BranchingInstruction)) {
+                return false;
+            }
+            condition = (BranchingInstruction) headBlock.getLastInstruction();
+            boolean consequentInLoop = nodes.contains(condition.getConsequent().getIndex());
+            boolean alternativeInLoop = nodes.contains(condition.getAlternative().getIndex());
+            if (consequentInLoop == alternativeInLoop) {
+                return false;
+            }
+            loopSuccessor = consequentInLoop ? condition.getConsequent() : condition.getAlternative();
+            exit = consequentInLoop ? condition.getAlternative() : condition.getConsequent();
+
+            if (!countTrips(consequentInLoop) || tripCount == 0) {
+                return false;
+            }
+
+            int unrolledSize = size * tripCount + headBlock.instructionCount();
+            return unrolledSize <= MAX_UNROLLED_SIZE && programSize - size + unrolledSize <= MAX_METHOD_SIZE;
+        }
+
+        private boolean countTrips(boolean stayOnTrue) {
+            if (condition.getCondition() == BranchingCondition.NULL
+                    || condition.getCondition() == BranchingCondition.NOT_NULL) {
+                return false;
+            }
+
+            Variable first = resolve(condition.getOperand());
+            Variable second = null;
+            Instruction comparison = definitions[first.getIndex()];
+            if (comparison instanceof BinaryInstruction) {
+                BinaryInstruction binary = (BinaryInstruction) comparison;
+                if (binary.getOperandType() == NumericOperandType.INT
+                        && (binary.getOperation() == BinaryOperation.COMPARE_LESS
+                        || binary.getOperation() == BinaryOperation.COMPARE_GREATER)) {
+                    first = resolve(binary.getFirstOperand());
+                    second = resolve(binary.getSecondOperand());
+                }
+            }
+
+            boolean inductionFirst;
+            Phi phi = findInductionPhi(first);
+            Integer limit;
+            if (phi != null) {
+                inductionFirst = true;
+                limit = second != null ? constantValue(second) : Integer.valueOf(0);
+            } else if (second != null) {
+                inductionFirst = false;
+                phi = findInductionPhi(second);
+                limit = constantValue(first);
+            } else {
+                return false;
+            }
+            if (phi == null || limit == null) {
+                return false;
+            }
+
+            Integer initial = null;
+            Variable next = null;
+            for (Incoming incoming : phi.getIncomings()) {
+                if (nodes.contains(incoming.getSource().getIndex())) {
+                    if (next != null && next != incoming.getValue()) {
+                        return false;
+                    }
+                    next = incoming.getValue();
+                } else {
+                    Integer value = constantValue(incoming.getValue());
+                    if (value == null || (initial != null && !initial.equals(value))) {
+                        return false;
+                    }
+                    initial = value;
+                }
+            }
+            if (initial == null || next == null) {
+                return false;
+            }
+            Integer step = getStep(phi.getReceiver(), resolve(next));
+            if (step == null) {
+                return false;
+            }
+
+            int value = initial;
+            for (int trips = 0; trips <= MAX_TRIP_COUNT; ++trips) {
+                int comparisonResult = inductionFirst ? Integer.compare(value, limit) : Integer.compare(limit, value);
+                if (satisfies(condition.getCondition(), comparisonResult) != stayOnTrue) {
+                    tripCount = trips;
+                    return true;
+                }
+                value += step;
+            }
+            return false;
+        }
+
+        private Phi findInductionPhi(Variable variable) {
+            for (Phi phi : program.basicBlockAt(head).getPhis()) {
+                if (phi.getReceiver() == variable) {
+                    return phi;
+                }
+            }
+            return null;
+        }
+
+        private Integer getStep(Variable induction, Variable next) {
+            if (!(definitions[next.getIndex()] instanceof BinaryInstruction)) {
+                return null;
+            }
+            BinaryInstruction binary = (BinaryInstruction) definitions[next.getIndex()];
+            if (binary.getOperandType() != NumericOperandType.INT) {
+                return null;
+            }
+            Variable first = resolve(binary.getFirstOperand());
+            Variable second = resolve(binary.getSecondOperand());
+            switch (binary.getOperation()) {
+                case ADD:
+                    if (first == induction) {
+                        return constantValue(second);
+                    } else if (second == induction) {
+                        return constantValue(first);
+                    }
+                    return null;
+                case SUBTRACT: {
+                    if (first != induction) {
+                        return null;
+                    }
+                    Integer step = constantValue(second);
+                    return step != null ? -step : null;
+                }
+                default:
+                    return null;
+            }
+        }
+
+        private boolean satisfies(BranchingCondition condition, int comparisonResult) {
+            switch (condition) {
+                case EQUAL:
+                    return comparisonResult == 0;
+                case NOT_EQUAL:
+                    return comparisonResult != 0;
+                case LESS:
+                    return comparisonResult < 0;
+                case LESS_OR_EQUAL:
+                    return comparisonResult <= 0;
+                case GREATER:
+                    return comparisonResult > 0;
+                case GREATER_OR_EQUAL:
+                    return comparisonResult >= 0;
+                default:
+                    throw new AssertionError();
+            }
+        }
+
+        void unroll() {
+            iterations.add(null);
+            for (int i = 1; i <= tripCount; ++i) {
+                IntIntMap copies = new IntIntHashMap();
+                for (int node : sortedNodes) {
+                    if (i < tripCount || node == head) {
+                        copies.put(node, program.createBasicBlock().getIndex());
+                    }
+                }
+                iterations.add(copies);
+            }
+
+            for (int i = 1; i <= tripCount; ++i) {
+                for (int node : iterations.get(i).keys().toArray()) {
+                    copyBlock(i, node);
+                }
+            }
+
+            BasicBlockMapper mapper = new BasicBlockMapper((int block) -> mapTarget(0, block));
+            for (int node : sortedNodes) {
+                if (node != head) {
+                    program.basicBlockAt(node).getLastInstruction().acceptVisitor(mapper);
+                }
+            }
+            BasicBlock headBlock = program.basicBlockAt(head);
+            for (Phi phi : headBlock.getPhis()) {
+                phi.getIncomings().removeIf(incoming -> nodes.contains(incoming.getSource().getIndex()));
+            }
+            condition.replace(createJump(mapTarget(0, loopSuccessor.getIndex())));
+
+            BasicBlock lastHead = program.basicBlockAt(blockAt(tripCount, head));
+            for (Phi phi : exit.getPhis()) {
+                for (Incoming incoming : phi.getIncomings()) {
+                    if (incoming.getSource().getIndex() == head) {
+                        incoming.setSource(lastHead);
+                    }
+                }
+            }
+        }
+
+        private void copyBlock(int iteration, int node) {
+            BasicBlock source = program.basicBlockAt(node);
+            BasicBlock target = program.basicBlockAt(blockAt(iteration, node));
+
+            BasicBlockMapper mapper = new BasicBlockMapper((int block) -> mapTarget(iteration, block));
+            Instruction last = node == head ? source.getLastInstruction() : null;
+            for (Instruction instruction : ProgramUtils.copyInstructions(source.getFirstInstruction(), last,
+                    program)) {
+                instruction.acceptVisitor(mapper);
+                target.add(instruction);
+            }
+            if (node == head) {
+                target.add(createJump(iteration < tripCount
+                        ? mapTarget(iteration, loopSuccessor.getIndex())
+                        : exit.getIndex()));
+            }
+
+            for (Phi phi : source.getPhis()) {
+                Phi phiCopy = new Phi();
+                phiCopy.setReceiver(phi.getReceiver());
+                for (Incoming incoming : phi.getIncomings()) {
+                    int incomingSource = incoming.getSource().getIndex();
+                    if (!nodes.contains(incomingSource)) {
+                        continue;
+                    }
+                    Incoming incomingCopy = new Incoming();
+                    incomingCopy.setValue(incoming.getValue());
+                    int sourceIteration = node == head ? iteration - 1 : iteration;
+                    incomingCopy.setSource(program.basicBlockAt(blockAt(sourceIteration, incomingSource)));
+                    phiCopy.getIncomings().add(incomingCopy);
+                }
+                target.getPhis().add(phiCopy);
+            }
+        }
+
+        private JumpInstruction createJump(int target) {
+            JumpInstruction jump = new JumpInstruction();
+            jump.setTarget(program.basicBlockAt(target));
+            jump.setLocation(condition.getLocation());
+            return jump;
+        }
+
+        private int mapTarget(int iteration, int block) {
+            if (!nodes.contains(block)) {
+                return block;
+            }
+            if (block == head) {
+                iteration++;
+            }
+            return blockAt(iteration, block);
+        }
+
+        private int blockAt(int iteration, int node) {
+            return iteration == 0 ? node : iterations.get(iteration).get(node);
+        }
+    }
+}
@@ -18,8 +18,10 @@ package org.teavm.model.optimization;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import org.teavm.model.BasicBlock;
 import org.teavm.model.FieldReference;
 import org.teavm.model.Incoming;
@@ -30,6 +32,7 @@ import org.teavm.model.Program;
 import org.teavm.model.ValueType;
 import org.teavm.model.Variable;
 import org.teavm.model.analysis.EscapeAnalysis;
+import org.teavm.model.analysis.InterproceduralEscapeAnalysis;
 import org.teavm.model.instructions.AbstractInstructionVisitor;
 import org.teavm.model.instructions.AssignInstruction;
 import org.teavm.model.instructions.ConstructInstruction;
@@ -37,6 +40,7 @@ import org.teavm.model.instructions.DoubleConstantInstruction;
 import org.teavm.model.instructions.FloatConstantInstruction;
 import org.teavm.model.instructions.GetFieldInstruction;
 import org.teavm.model.instructions.IntegerConstantInstruction;
+import org.teavm.model.instructions.InvokeInstruction;
 import org.teavm.model.instructions.LongConstantInstruction;
 import org.teavm.model.instructions.NullCheckInstruction;
 import org.teavm.model.instructions.NullConstantInstruction;
@@ -44,6 +48,19 @@ import org.teavm.model.instructions.PutFieldInstruction;
 import org.teavm.model.util.PhiUpdater;
 
 public class ScalarReplacement implements MethodOptimization {
+    private InterproceduralEscapeAnalysis interproceduralAnalysis;
+
+    public ScalarReplacement() {
+    }
+
+    /**
+     * Creates scalar replacement that also replaces objects passed to calls that don't let them escape.
+     * Such objects are materialized right before the call and their fields are read back after it.
+     */
+    public ScalarReplacement(InterproceduralEscapeAnalysis interproceduralAnalysis) {
+        this.interproceduralAnalysis = interproceduralAnalysis;
+    }
+
     @Override
     public boolean optimize(MethodOptimizationContext context, Program program) {
         boolean changed = false;
@@ -58,7 +75,9 @@ public class ScalarReplacement implements MethodOptimization {
                 Collections.nCopies(program.variableCount(), null));
 
         MethodReference methodReference = context.getMethod().getReference();
-        EscapeAnalysis escapeAnalysis = new EscapeAnalysis();
+        EscapeAnalysis escapeAnalysis = interproceduralAnalysis != null
+                ? new EscapeAnalysis(context.getClassSource(), interproceduralAnalysis)
+                : new EscapeAnalysis();
         escapeAnalysis.analyze(program, methodReference);
         boolean canPerform = false;
         for (int i = 0; i < fieldMappings.size(); ++i) {
@@ -84,11 +103,12 @@ public class ScalarReplacement implements MethodOptimization {
             return false;
         }
 
-        ScalarReplacementVisitor visitor = new ScalarReplacementVisitor(escapeAnalysis, fieldMappings);
+        ScalarReplacementVisitor visitor = new ScalarReplacementVisitor(program, escapeAnalysis, fieldMappings);
         for (BasicBlock block : program.getBasicBlocks()) {
             for (Instruction instruction : block) {
                 instruction.acceptVisitor(visitor);
             }
+            visitor.insertFieldReloads();
             List<Phi> additionalPhis = new ArrayList<>();
             for (int i = 0; i < block.getPhis().size(); ++i) {
                 Phi phi = block.getPhis().get(i);
@@ -133,15 +153,89 @@ public class ScalarReplacement implements MethodOptimization {
     }
 
     static class ScalarReplacementVisitor extends AbstractInstructionVisitor {
+        private Program program;
         private EscapeAnalysis escapeAnalysis;
         private List<Map<FieldReference, Variable>> fieldMappings;
+        private Map<Instruction, List<Instruction>> fieldReloads = new LinkedHashMap<>();
 
-        ScalarReplacementVisitor(EscapeAnalysis escapeAnalysis,
+        ScalarReplacementVisitor(Program program, EscapeAnalysis escapeAnalysis,
                 List<Map<FieldReference, Variable>> fieldMappings) {
+            this.program = program;
             this.escapeAnalysis = escapeAnalysis;
             this.fieldMappings = fieldMappings;
         }
 
+        // Reloads are inserted after the whole block is visited, otherwise visitor would see them
+        void insertFieldReloads() {
+            for (Map.Entry<Instruction, List<Instruction>> entry : fieldReloads.entrySet()) {
+                entry.getKey().insertNextAll(entry.getValue());
+            }
+            fieldReloads.clear();
+        }
+
+        @Override
+        public void visit(InvokeInstruction insn) {
+            Set<Variable> passedObjects = new LinkedHashSet<>();
+            if (insn.getInstance() != null && isMaterialized(insn.getInstance())) {
+                passedObjects.add(insn.getInstance());
+            }
+            for (Variable argument : insn.getArguments()) {
+                if (isMaterialized(argument)) {
+                    passedObjects.add(argument);
+                }
+            }
+            if (passedObjects.isEmpty()) {
+                return;
+            }
+
+            List<Instruction> reloads = new ArrayList<>();
+            Map<Variable, Variable> materializedObjects = new LinkedHashMap<>();
+            for (Variable object : passedObjects) {
+                ConstructInstruction construct = new ConstructInstruction();
+                construct.setType(escapeAnalysis.getMaterializedType(object.getIndex()));
+                construct.setReceiver(program.createVariable());
+                construct.getReceiver().setDebugName(object.getDebugName());
+                construct.getReceiver().setLabel(object.getLabel());
+                construct.setLocation(insn.getLocation());
+                insn.insertPrevious(construct);
+                materializedObjects.put(object, construct.getReceiver());
+
+                for (Map.Entry<FieldReference, Variable> field : fieldMappings.get(object.getIndex()).entrySet()) {
+                    ValueType fieldType = escapeAnalysis.getFieldType(field.getKey());
+                    PutFieldInstruction putField = new PutFieldInstruction();
+                    putField.setInstance(construct.getReceiver());
+                    putField.setField(field.getKey());
+                    putField.setFieldType(fieldType);
+                    putField.setValue(field.getValue());
+                    putField.setLocation(insn.getLocation());
+                    insn.insertPrevious(putField);
+
+                    GetFieldInstruction getField = new GetFieldInstruction();
+                    getField.setInstance(construct.getReceiver());
+                    getField.setField(field.getKey());
+                    getField.setFieldType(fieldType);
+                    getField.setReceiver(field.getValue());
+                    getField.setLocation(insn.getLocation());
+                    reloads.add(getField);
+                }
+            }
+
+            if (insn.getInstance() != null) {
+                insn.setInstance(materializedObjects.getOrDefault(insn.getInstance(), insn.getInstance()));
+            }
+            List<Variable> arguments = new ArrayList<>(insn.getArguments());
+            for (int i = 0; i < arguments.size(); ++i) {
+                arguments.set(i, materializedObjects.getOrDefault(arguments.get(i), arguments.get(i)));
+            }
+            insn.setArguments(arguments.toArray(new Variable[0]));
+            fieldReloads.put(insn, reloads);
+        }
+
+        private boolean isMaterialized(Variable var) {
+            return !escapeAnalysis.escapes(var.getIndex())
+                    && escapeAnalysis.getMaterializedType(var.getIndex()) != null;
+        }
+
         @Override
         public void visit(ConstructInstruction insn) {
             int var = insn.getReceiver().getIndex();
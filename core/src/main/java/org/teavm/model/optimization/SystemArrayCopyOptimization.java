@@ -15,11 +15,9 @@
  */
 package org.teavm.model.optimization;
 
-import java.util.Objects;
 import org.teavm.model.MethodReference;
 import org.teavm.model.Program;
 import org.teavm.model.ValueType;
-import org.teavm.model.analysis.BaseTypeInference;
 import org.teavm.model.instructions.InvokeInstruction;
 
 public class SystemArrayCopyOptimization implements MethodOptimization {
@@ -27,11 +25,10 @@ public class SystemArrayCopyOptimization implements MethodOptimization {
             "arraycopy", Object.class, int.class, Object.class, int.class, int.class, void.class);
     private static final MethodReference FAST_ARRAY_COPY_METHOD = new MethodReference(System.class,
             "fastArraycopy", Object.class, int.class, Object.class, int.class, int.class, void.class);
-    private static final ValueType DEFAULT_TYPE = ValueType.object("java.lang.Object");
 
     @Override
     public boolean optimize(MethodOptimizationContext context, Program program) {
-        var typeInference = new TypeInference(program, context.getMethod().getReference());
+        var typeInference = new ArrayTypeInference(program, context.getMethod().getReference());
         var somethingChanged = false;
         for (var block : program.getBasicBlocks()) {
             for (var instruction : block) {
@@ -54,33 +51,4 @@ public class SystemArrayCopyOptimization implements MethodOptimization {
         }
         return somethingChanged;
     }
-
-    private static class TypeInference extends BaseTypeInference<ValueType> {
-        TypeInference(Program program, MethodReference reference) {
-            super(program, reference);
-        }
-
-        @Override
-        public ValueType merge(ValueType a, ValueType b) {
-            if (!Objects.equals(a, b)) {
-                return DEFAULT_TYPE;
-            }
-            return a;
-        }
-
-        @Override
-        public ValueType elementType(ValueType valueType) {
-            return valueType instanceof ValueType.Array ? ((ValueType.Array) valueType).getItemType() : DEFAULT_TYPE;
-        }
-
-        @Override
-        public ValueType nullType() {
-            return DEFAULT_TYPE;
-        }
-
-        @Override
-        public ValueType mapType(ValueType type) {
-            return type instanceof ValueType.Array ? type : DEFAULT_TYPE;
-        }
-    }
 }
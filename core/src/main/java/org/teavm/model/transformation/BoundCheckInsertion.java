@@ -23,6 +23,7 @@ import java.util.Arrays;
 import org.teavm.model.BasicBlock;
 import org.teavm.model.Instruction;
 import org.teavm.model.MethodReference;
+import org.teavm.model.Phi;
 import org.teavm.model.Program;
 import org.teavm.model.Variable;
 import org.teavm.model.instructions.AbstractInstructionVisitor;
@@ -51,9 +52,11 @@ public class BoundCheckInsertion {
             return;
         }
 
-        InsertionVisitor visitor = new InsertionVisitor(program.variableCount());
+        InductionVariableRanges inductionVariables = new InductionVariableRanges(program);
+        InsertionVisitor visitor = new InsertionVisitor(program.variableCount(), inductionVariables);
         new DominatorWalker(program).walk(visitor);
         if (visitor.changed) {
+            new BoundCheckLoopVersioning(program, inductionVariables).apply();
             new PhiUpdater().updatePhis(program, methodReference.parameterCount() + 1);
         }
     }
@@ -76,8 +79,10 @@ public class BoundCheckInsertion {
         private int comparisonValue;
         private int comparisonVariable;
         private ComparisonMode comparisonMode;
+        private InductionVariableRanges inductionVariables;
 
-        InsertionVisitor(int variableCount) {
+        InsertionVisitor(int variableCount, InductionVariableRanges inductionVariables) {
+            this.inductionVariables = inductionVariables;
             isConstant = new boolean[variableCount];
             isConstantSizedArray = new boolean[variableCount];
             constantValue = new int[variableCount];
@@ -110,6 +115,17 @@ public class BoundCheckInsertion {
                 }
             }
 
+            for (Phi phi : block.getPhis()) {
+                int receiver = index(phi.getReceiver());
+                if (inductionVariables.isNonNegative(phi.getReceiver())) {
+                    markAsNonNegative(receiver);
+                }
+                int array = inductionVariables.getUpperArray(phi.getReceiver());
+                if (array >= 0) {
+                    addArrayBound(receiver, map[array]);
+                }
+            }
+
             for (Instruction instruction : block) {
                 instruction.acceptVisitor(this);
             }
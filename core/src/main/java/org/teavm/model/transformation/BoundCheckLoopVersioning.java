@@ -0,0 +1,418 @@
+/*
+ *  Copyright 2026 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.model.transformation;
+
+import com.carrotsearch.hppc.IntArrayList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.teavm.common.DominatorTree;
+import org.teavm.common.Graph;
+import org.teavm.common.GraphUtils;
+import org.teavm.common.Loop;
+import org.teavm.common.LoopGraph;
+import org.teavm.model.BasicBlock;
+import org.teavm.model.Incoming;
+import org.teavm.model.Instruction;
+import org.teavm.model.Phi;
+import org.teavm.model.Program;
+import org.teavm.model.TryCatchBlock;
+import org.teavm.model.Variable;
+import org.teavm.model.instructions.ArrayLengthInstruction;
+import org.teavm.model.instructions.AssignInstruction;
+import org.teavm.model.instructions.BinaryInstruction;
+import org.teavm.model.instructions.BinaryOperation;
+import org.teavm.model.instructions.BoundCheckInstruction;
+import org.teavm.model.instructions.BranchingCondition;
+import org.teavm.model.instructions.BranchingInstruction;
+import org.teavm.model.instructions.IntegerConstantInstruction;
+import org.teavm.model.instructions.JumpInstruction;
+import org.teavm.model.instructions.NullCheckInstruction;
+import org.teavm.model.instructions.NumericOperandType;
+import org.teavm.model.instructions.UnwrapArrayInstruction;
+import org.teavm.model.util.BasicBlockMapper;
+import org.teavm.model.util.DefinitionExtractor;
+import org.teavm.model.util.ProgramUtils;
+
+/**
+ * Removes bound checks from loops like {@code for (i = start; i < end; ++i) a[i]}, where start and end are
+ * not known, by versioning. The loop is copied, and the copy keeps bound checks, while the original loop
+ * is only entered when {@code a != null && start >= 0 && end <= a.length}, which proves that
+ * {@code 0 <= i < a.length} wherever {@code i < end} holds. Must run after bound checks are inserted, but
+ * before SSA is restored, since copied loop defines same variables as the original one.
+ *
+ * Only loops with a single entry and without exception handlers are versioned. End of the loop should be
+ * either computed before the loop, or as a sum or a difference of such values, since javac evaluates
+ * {@code off + len} on each iteration.
+ */
+class BoundCheckLoopVersioning {
+    private Program program;
+    private InductionVariableRanges inductionVariables;
+    private Graph cfg;
+    private DominatorTree dom;
+    private LoopGraph loopGraph;
+    private int[] roots;
+    private int[] definedIn;
+
+    BoundCheckLoopVersioning(Program program, InductionVariableRanges inductionVariables) {
+        this.program = program;
+        this.inductionVariables = inductionVariables;
+    }
+
+    boolean apply() {
+        cfg = ProgramUtils.buildControlFlowGraph(program);
+        dom = GraphUtils.buildDominatorTree(cfg);
+        loopGraph = new LoopGraph(cfg);
+        collectDefinitions();
+
+        List<Candidate> candidates = new ArrayList<>();
+        for (int i = 0; i < cfg.size(); ++i) {
+            for (Phi phi : program.basicBlockAt(i).getPhis()) {
+                var loop = inductionVariables.getCountedLoop(phi);
+                if (loop == null) {
+                    continue;
+                }
+                var candidate = createCandidate(loop);
+                if (candidate != null && isIndependent(candidate, candidates)) {
+                    candidates.add(candidate);
+                }
+            }
+        }
+
+        for (Candidate candidate : candidates) {
+            version(candidate);
+        }
+        return !candidates.isEmpty();
+    }
+
+    private void collectDefinitions() {
+        roots = new int[program.variableCount()];
+        definedIn = new int[program.variableCount()];
+        Arrays.fill(definedIn, -1);
+        for (int i = 0; i < roots.length; ++i) {
+            roots[i] = i;
+        }
+        var extractor = new DefinitionExtractor();
+        for (int i = 0; i < cfg.size(); ++i) {
+            var block = program.basicBlockAt(i);
+            for (Phi phi : block.getPhis()) {
+                definedIn[phi.getReceiver().getIndex()] = i;
+            }
+            if (block.getExceptionVariable() != null) {
+                definedIn[block.getExceptionVariable().getIndex()] = i;
+            }
+            for (Instruction instruction : block) {
+                instruction.acceptVisitor(extractor);
+                for (Variable variable : extractor.getDefinedVariables()) {
+                    definedIn[variable.getIndex()] = i;
+                }
+                if (instruction instanceof AssignInstruction) {
+                    var assign = (AssignInstruction) instruction;
+                    roots[assign.getReceiver().getIndex()] = assign.getAssignee().getIndex();
+                } else if (instruction instanceof UnwrapArrayInstruction) {
+                    var unwrap = (UnwrapArrayInstruction) instruction;
+                    roots[unwrap.getReceiver().getIndex()] = unwrap.getArray().getIndex();
+                } else if (instruction instanceof NullCheckInstruction) {
+                    var nullCheck = (NullCheckInstruction) instruction;
+                    roots[nullCheck.getReceiver().getIndex()] = nullCheck.getValue().getIndex();
+                }
+            }
+        }
+    }
+
+    private int root(int variable) {
+        int steps = 0;
+        while (roots[variable] != variable && steps++ < roots.length) {
+            variable = roots[variable];
+        }
+        return variable;
+    }
+
+    private Candidate createCandidate(InductionVariableRanges.CountedLoop countedLoop) {
+        int head = countedLoop.counter.getBasicBlock().getIndex();
+        Loop loop = loopGraph.loopAt(head);
+        if (loop == null || loop.getHead() != head) {
+            return null;
+        }
+        var candidate = new Candidate();
+        candidate.counter = countedLoop.counter;
+        candidate.guardBlock = countedLoop.guardBlock;
+        candidate.body = new boolean[cfg.size()];
+        for (int i = 0; i < cfg.size(); ++i) {
+            Loop blockLoop = loopGraph.loopAt(i);
+            if (blockLoop != null && blockLoop.isChildOf(loop)) {
+                candidate.body[i] = true;
+                if (!program.basicBlockAt(i).getTryCatchBlocks().isEmpty()) {
+                    return null;
+                }
+            }
+        }
+        if (!candidate.body[candidate.guardBlock]) {
+            return null;
+        }
+
+        candidate.entry = -1;
+        for (int predecessor : cfg.incomingEdges(head)) {
+            if (!candidate.body[predecessor]) {
+                if (candidate.entry >= 0) {
+                    return null;
+                }
+                candidate.entry = predecessor;
+            }
+        }
+        if (candidate.entry < 0 || countedLoop.start.getSource().getIndex() != candidate.entry) {
+            return null;
+        }
+        candidate.start = countedLoop.start.getValue();
+
+        candidate.end = program.variableAt(countedLoop.end);
+        if (!isInvariant(candidate, countedLoop.end)) {
+            var definition = findDefinition(countedLoop.end);
+            if (!(definition instanceof BinaryInstruction)) {
+                return null;
+            }
+            var binary = (BinaryInstruction) definition;
+            if (binary.getOperandType() != NumericOperandType.INT
+                    || (binary.getOperation() != BinaryOperation.ADD
+                    && binary.getOperation() != BinaryOperation.SUBTRACT)
+                    || !isInvariant(candidate, binary.getFirstOperand().getIndex())
+                    || !isInvariant(candidate, binary.getSecondOperand().getIndex())) {
+                return null;
+            }
+            candidate.endDefinition = binary;
+        }
+
+        findRemovableChecks(candidate);
+        return candidate.array != null ? candidate : null;
+    }
+
+    private boolean isInvariant(Candidate candidate, int variable) {
+        int block = definedIn[variable];
+        return block < 0 || !candidate.body[block];
+    }
+
+    private Instruction findDefinition(int variable) {
+        int block = definedIn[variable];
+        if (block < 0) {
+            return null;
+        }
+        var extractor = new DefinitionExtractor();
+        for (Instruction instruction : program.basicBlockAt(block)) {
+            instruction.acceptVisitor(extractor);
+            for (Variable defined : extractor.getDefinedVariables()) {
+                if (defined.getIndex() == variable) {
+                    return instruction;
+                }
+            }
+        }
+        return null;
+    }
+
+    /*
+     * Lower checks of the counter are removed anywhere below the guard, since counter never decreases and
+     * starts with non-negative value. Upper checks are only removed for a single array that does not change
+     * in the loop.
+     */
+    private void findRemovableChecks(Candidate candidate) {
+        int counter = candidate.counter.getReceiver().getIndex();
+        for (int i = 0; i < cfg.size(); ++i) {
+            if (!candidate.body[i] || !dom.dominates(candidate.guardBlock, i)) {
+                continue;
+            }
+            for (Instruction instruction : program.basicBlockAt(i)) {
+                if (!(instruction instanceof BoundCheckInstruction)) {
+                    continue;
+                }
+                var boundCheck = (BoundCheckInstruction) instruction;
+                if (inductionVariables.resolveVariable(boundCheck.getIndex().getIndex()) != counter) {
+                    continue;
+                }
+                if (boundCheck.getArray() != null && candidate.array == null) {
+                    int array = root(boundCheck.getArray().getIndex());
+                    if (isInvariant(candidate, array)) {
+                        candidate.array = program.variableAt(array);
+                    }
+                }
+                candidate.boundChecks.add(boundCheck);
+            }
+        }
+    }
+
+    private boolean isIndependent(Candidate candidate, List<Candidate> others) {
+        for (Candidate other : others) {
+            if (other.body[candidate.entry] || candidate.body[other.entry]) {
+                return false;
+            }
+            for (int i = 0; i < cfg.size(); ++i) {
+                if (other.body[i] && candidate.body[i]) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private void version(Candidate candidate) {
+        int[] copies = copyLoop(candidate);
+        int head = candidate.counter.getBasicBlock().getIndex();
+
+        var slowEntry = program.createBasicBlock();
+        var jumpToCopy = new JumpInstruction();
+        jumpToCopy.setTarget(program.basicBlockAt(copies[head]));
+        slowEntry.add(jumpToCopy);
+
+        var nullCheckBlock = program.createBasicBlock();
+        var startCheckBlock = program.createBasicBlock();
+        var endCheckBlock = program.createBasicBlock();
+
+        var nullBranch = new BranchingInstruction(BranchingCondition.NULL);
+        nullBranch.setOperand(candidate.array);
+        nullBranch.setConsequent(slowEntry);
+        nullBranch.setAlternative(startCheckBlock);
+        nullCheckBlock.add(nullBranch);
+
+        var zero = new IntegerConstantInstruction();
+        zero.setReceiver(program.createVariable());
+        startCheckBlock.add(zero);
+        var startComparison = compare(candidate.start, zero.getReceiver());
+        startCheckBlock.add(startComparison);
+        var startBranch = new BranchingInstruction(BranchingCondition.GREATER_OR_EQUAL);
+        startBranch.setOperand(startComparison.getReceiver());
+        startBranch.setConsequent(endCheckBlock);
+        startBranch.setAlternative(slowEntry);
+        startCheckBlock.add(startBranch);
+
+        var end = candidate.end;
+        if (candidate.endDefinition != null) {
+            var endCopy = new BinaryInstruction(candidate.endDefinition.getOperation(), NumericOperandType.INT);
+            endCopy.setFirstOperand(candidate.endDefinition.getFirstOperand());
+            endCopy.setSecondOperand(candidate.endDefinition.getSecondOperand());
+            endCopy.setReceiver(program.createVariable());
+            endCheckBlock.add(endCopy);
+            end = endCopy.getReceiver();
+        }
+        var length = new ArrayLengthInstruction();
+        length.setArray(candidate.array);
+        length.setReceiver(program.createVariable());
+        endCheckBlock.add(length);
+        var endComparison = compare(end, length.getReceiver());
+        endCheckBlock.add(endComparison);
+        var endBranch = new BranchingInstruction(BranchingCondition.LESS_OR_EQUAL);
+        endBranch.setOperand(endComparison.getReceiver());
+        endBranch.setConsequent(program.basicBlockAt(head));
+        endBranch.setAlternative(slowEntry);
+        endCheckBlock.add(endBranch);
+
+        var entry = program.basicBlockAt(candidate.entry);
+        entry.getLastInstruction().acceptVisitor(new BasicBlockMapper((int block) -> block == head
+                ? nullCheckBlock.getIndex()
+                : block));
+        for (Phi phi : program.basicBlockAt(head).getPhis()) {
+            for (Incoming incoming : phi.getIncomings()) {
+                if (incoming.getSource() == entry) {
+                    incoming.setSource(endCheckBlock);
+                }
+            }
+        }
+        for (Phi phi : program.basicBlockAt(copies[head]).getPhis()) {
+            for (Incoming incoming : phi.getIncomings()) {
+                if (incoming.getSource() == entry) {
+                    incoming.setSource(slowEntry);
+                }
+            }
+        }
+
+        int array = candidate.array.getIndex();
+        for (BoundCheckInstruction boundCheck : candidate.boundChecks) {
+            if (boundCheck.getArray() != null && root(boundCheck.getArray().getIndex()) != array) {
+                boundCheck.setLower(false);
+            } else {
+                boundCheck.delete();
+            }
+        }
+    }
+
+    private BinaryInstruction compare(Variable first, Variable second) {
+        var comparison = new BinaryInstruction(BinaryOperation.COMPARE_GREATER, NumericOperandType.INT);
+        comparison.setFirstOperand(first);
+        comparison.setSecondOperand(second);
+        comparison.setReceiver(program.createVariable());
+        return comparison;
+    }
+
+    private int[] copyLoop(Candidate candidate) {
+        int[] copies = new int[cfg.size()];
+        for (int i = 0; i < cfg.size(); ++i) {
+            copies[i] = candidate.body[i] ? program.createBasicBlock().getIndex() : i;
+        }
+        var mapper = new BasicBlockMapper((int block) -> block < copies.length ? copies[block] : block);
+
+        for (int i = 0; i < cfg.size(); ++i) {
+            if (!candidate.body[i]) {
+                continue;
+            }
+            var source = program.basicBlockAt(i);
+            var target = program.basicBlockAt(copies[i]);
+            for (Instruction instruction : ProgramUtils.copyInstructions(source.getFirstInstruction(), null,
+                    program)) {
+                target.add(instruction);
+            }
+            for (Phi phi : source.getPhis()) {
+                var phiCopy = new Phi();
+                phiCopy.setReceiver(phi.getReceiver());
+                for (Incoming incoming : phi.getIncomings()) {
+                    var incomingCopy = new Incoming();
+                    incomingCopy.setSource(incoming.getSource());
+                    incomingCopy.setValue(incoming.getValue());
+                    phiCopy.getIncomings().add(incomingCopy);
+                }
+                target.getPhis().add(phiCopy);
+            }
+            mapper.transform(target);
+        }
+
+        // Exits of the loop are reached from both copies
+        for (int i = 0; i < cfg.size(); ++i) {
+            if (candidate.body[i]) {
+                continue;
+            }
+            for (Phi phi : program.basicBlockAt(i).getPhis()) {
+                for (Incoming incoming : phi.getIncomings().toArray(new Incoming[0])) {
+                    int source = incoming.getSource().getIndex();
+                    if (source < copies.length && candidate.body[source]) {
+                        var incomingCopy = new Incoming();
+                        incomingCopy.setSource(program.basicBlockAt(copies[source]));
+                        incomingCopy.setValue(incoming.getValue());
+                        phi.getIncomings().add(incomingCopy);
+                    }
+                }
+            }
+        }
+        return copies;
+    }
+
+    static class Candidate {
+        Phi counter;
+        int guardBlock;
+        boolean[] body;
+        int entry;
+        Variable start;
+        Variable end;
+        BinaryInstruction endDefinition;
+        Variable array;
+        List<BoundCheckInstruction> boundChecks = new ArrayList<>();
+    }
+}
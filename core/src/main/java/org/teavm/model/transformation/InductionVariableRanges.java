@@ -0,0 +1,404 @@
+/*
+ *  Copyright 2026 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.model.transformation;
+
+import com.carrotsearch.hppc.IntArrayList;
+import java.util.Arrays;
+import org.teavm.common.DominatorTree;
+import org.teavm.common.Graph;
+import org.teavm.common.GraphUtils;
+import org.teavm.model.BasicBlock;
+import org.teavm.model.Incoming;
+import org.teavm.model.Instruction;
+import org.teavm.model.Phi;
+import org.teavm.model.Program;
+import org.teavm.model.Variable;
+import org.teavm.model.instructions.ArrayLengthInstruction;
+import org.teavm.model.instructions.AssignInstruction;
+import org.teavm.model.instructions.BinaryInstruction;
+import org.teavm.model.instructions.BinaryOperation;
+import org.teavm.model.instructions.BranchingInstruction;
+import org.teavm.model.instructions.IntegerConstantInstruction;
+import org.teavm.model.instructions.NumericOperandType;
+import org.teavm.model.instructions.UnwrapArrayInstruction;
+import org.teavm.model.util.ProgramUtils;
+
+/**
+ * Finds ranges of loop induction variables, i.e. phis that are either incremented by one starting
+ * from non-negative value or decremented by one starting from {@code array.length - c}.
+ * To prove that increment or decrement does not overflow, it must be dominated by a comparison
+ * that bounds induction variable from the corresponding side.
+ */
+class InductionVariableRanges {
+    private Program program;
+    private Graph cfg;
+    private DominatorTree dom;
+    private int[] resolved;
+    private Instruction[] definitions;
+    private IntArrayList[] upperGuards;
+    private IntArrayList[] lowerGuards;
+    private IntArrayList[] lessThanGuards;
+    private boolean[] nonNegative;
+    private int[] upperArray;
+
+    InductionVariableRanges(Program program) {
+        this.program = program;
+        int variableCount = program.variableCount();
+        resolved = new int[variableCount];
+        definitions = new Instruction[variableCount];
+        upperGuards = new IntArrayList[variableCount];
+        lowerGuards = new IntArrayList[variableCount];
+        lessThanGuards = new IntArrayList[variableCount];
+        nonNegative = new boolean[variableCount];
+        upperArray = new int[variableCount];
+        Arrays.fill(upperArray, -1);
+        for (int i = 0; i < variableCount; ++i) {
+            resolved[i] = i;
+        }
+
+        cfg = ProgramUtils.buildControlFlowGraph(program);
+        dom = GraphUtils.buildDominatorTree(cfg);
+        collectDefinitions();
+        collectGuards();
+        analyzePhis();
+    }
+
+    boolean isNonNegative(Variable variable) {
+        return nonNegative[variable.getIndex()];
+    }
+
+    int getUpperArray(Variable variable) {
+        return upperArray[variable.getIndex()];
+    }
+
+    int resolveVariable(int variable) {
+        return resolve(variable);
+    }
+
+    /**
+     * Finds counter of a loop like {@code for (i = start; i < end; ++i)}, i.e. phi that takes some value
+     * and its own increment by one, guarded by {@code i < end}. Unlike {@link #isNonNegative(Variable)},
+     * start value is not required to be known.
+     */
+    CountedLoop getCountedLoop(Phi phi) {
+        if (phi.getIncomings().size() != 2) {
+            return null;
+        }
+        int receiver = phi.getReceiver().getIndex();
+        var guards = lessThanGuards[receiver];
+        if (guards == null) {
+            return null;
+        }
+        for (int i = 0; i < 2; ++i) {
+            var increment = phi.getIncomings().get(i);
+            var start = phi.getIncomings().get(1 - i);
+            var definition = definition(increment.getValue().getIndex());
+            if (getStep(definition, receiver) != 1) {
+                continue;
+            }
+            for (int j = 0; j < guards.size(); j += 2) {
+                int guardBlock = guards.get(j);
+                if (dom.dominates(guardBlock, definition.getBasicBlock().getIndex())) {
+                    return new CountedLoop(phi, start, guards.get(j + 1), guardBlock);
+                }
+            }
+        }
+        return null;
+    }
+
+    private void collectDefinitions() {
+        for (int i = 0; i < program.basicBlockCount(); ++i) {
+            for (Instruction instruction : program.basicBlockAt(i)) {
+                if (instruction instanceof IntegerConstantInstruction) {
+                    definitions[((IntegerConstantInstruction) instruction).getReceiver().getIndex()] = instruction;
+                } else if (instruction instanceof BinaryInstruction) {
+                    definitions[((BinaryInstruction) instruction).getReceiver().getIndex()] = instruction;
+                } else if (instruction instanceof ArrayLengthInstruction) {
+                    definitions[((ArrayLengthInstruction) instruction).getReceiver().getIndex()] = instruction;
+                } else if (instruction instanceof AssignInstruction) {
+                    var assign = (AssignInstruction) instruction;
+                    resolved[assign.getReceiver().getIndex()] = assign.getAssignee().getIndex();
+                } else if (instruction instanceof UnwrapArrayInstruction) {
+                    var unwrap = (UnwrapArrayInstruction) instruction;
+                    resolved[unwrap.getReceiver().getIndex()] = unwrap.getArray().getIndex();
+                }
+            }
+        }
+    }
+
+    private int resolve(int variable) {
+        int steps = 0;
+        while (resolved[variable] != variable && steps++ < resolved.length) {
+            variable = resolved[variable];
+        }
+        return variable;
+    }
+
+    private Instruction definition(int variable) {
+        return definitions[resolve(variable)];
+    }
+
+    private void collectGuards() {
+        for (int i = 0; i < program.basicBlockCount(); ++i) {
+            var block = program.basicBlockAt(i);
+            if (!(block.getLastInstruction() instanceof BranchingInstruction)) {
+                continue;
+            }
+            var branch = (BranchingInstruction) block.getLastInstruction();
+            var comparison = definition(branch.getOperand().getIndex());
+            if (!(comparison instanceof BinaryInstruction)) {
+                continue;
+            }
+            var binary = (BinaryInstruction) comparison;
+            if (binary.getOperandType() != NumericOperandType.INT
+                    || (binary.getOperation() != BinaryOperation.COMPARE_LESS
+                    && binary.getOperation() != BinaryOperation.COMPARE_GREATER)) {
+                continue;
+            }
+            int left = resolve(binary.getFirstOperand().getIndex());
+            int right = resolve(binary.getSecondOperand().getIndex());
+
+            switch (branch.getCondition()) {
+                case LESS:
+                    addLessGuard(left, right, branch.getConsequent());
+                    addGreaterOrEqualGuard(left, right, branch.getAlternative());
+                    break;
+                case GREATER_OR_EQUAL:
+                    addLessGuard(left, right, branch.getAlternative());
+                    addGreaterOrEqualGuard(left, right, branch.getConsequent());
+                    break;
+                case GREATER:
+                    addLessGuard(right, left, branch.getConsequent());
+                    addGreaterOrEqualGuard(right, left, branch.getAlternative());
+                    break;
+                case LESS_OR_EQUAL:
+                    addLessGuard(right, left, branch.getAlternative());
+                    addGreaterOrEqualGuard(right, left, branch.getConsequent());
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
+    // Block is only entered when left < right, so left can't be MAX_VALUE and right can't be MIN_VALUE
+    private void addLessGuard(int left, int right, BasicBlock block) {
+        if (!isGuardBlock(block)) {
+            return;
+        }
+        addGuard(upperGuards, left, block);
+        addGuard(lowerGuards, right, block);
+        addGuard(lessThanGuards, left, block);
+        lessThanGuards[left].add(right);
+    }
+
+    // Block is only entered when left >= right
+    private void addGreaterOrEqualGuard(int left, int right, BasicBlock block) {
+        if (!isGuardBlock(block)) {
+            return;
+        }
+        var rightDefinition = definition(right);
+        if (rightDefinition instanceof IntegerConstantInstruction
+                && ((IntegerConstantInstruction) rightDefinition).getConstant() > Integer.MIN_VALUE) {
+            addGuard(lowerGuards, left, block);
+        }
+        var leftDefinition = definition(left);
+        if (leftDefinition instanceof IntegerConstantInstruction
+                && ((IntegerConstantInstruction) leftDefinition).getConstant() < Integer.MAX_VALUE) {
+            addGuard(upperGuards, right, block);
+        }
+    }
+
+    private boolean isGuardBlock(BasicBlock block) {
+        return cfg.incomingEdgesCount(block.getIndex()) == 1;
+    }
+
+    private void addGuard(IntArrayList[] guards, int variable, BasicBlock block) {
+        var list = guards[variable];
+        if (list == null) {
+            list = new IntArrayList();
+            guards[variable] = list;
+        }
+        list.add(block.getIndex());
+    }
+
+    private boolean isGuarded(IntArrayList[] guards, int variable, BasicBlock block) {
+        var list = guards[variable];
+        if (list == null) {
+            return false;
+        }
+        for (int i = 0; i < list.size(); ++i) {
+            if (dom.dominates(list.get(i), block.getIndex())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void analyzePhis() {
+        boolean changed;
+        do {
+            changed = false;
+            for (int i = 0; i < program.basicBlockCount(); ++i) {
+                for (Phi phi : program.basicBlockAt(i).getPhis()) {
+                    int receiver = phi.getReceiver().getIndex();
+                    if (!nonNegative[receiver] && isNonNegativeInduction(phi)) {
+                        nonNegative[receiver] = true;
+                        changed = true;
+                    }
+                    if (upperArray[receiver] < 0) {
+                        int array = findUpperArray(phi);
+                        if (array >= 0) {
+                            upperArray[receiver] = array;
+                            changed = true;
+                        }
+                    }
+                }
+            }
+        } while (changed);
+    }
+
+    private boolean isNonNegativeInduction(Phi phi) {
+        int receiver = phi.getReceiver().getIndex();
+        boolean hasIncrement = false;
+        for (var incoming : phi.getIncomings()) {
+            int value = resolve(incoming.getValue().getIndex());
+            var definition = definitions[value];
+            if (nonNegative[value] || definition instanceof ArrayLengthInstruction) {
+                continue;
+            }
+            if (definition instanceof IntegerConstantInstruction
+                    && ((IntegerConstantInstruction) definition).getConstant() >= 0) {
+                continue;
+            }
+            if (getStep(definition, receiver) == 1
+                    && isGuarded(upperGuards, receiver, definition.getBasicBlock())) {
+                hasIncrement = true;
+                continue;
+            }
+            return false;
+        }
+        return hasIncrement;
+    }
+
+    private int findUpperArray(Phi phi) {
+        int receiver = phi.getReceiver().getIndex();
+        int array = -1;
+        boolean hasDecrement = false;
+        for (var incoming : phi.getIncomings()) {
+            int value = resolve(incoming.getValue().getIndex());
+            var definition = definitions[value];
+            int valueArray = upperArray[value];
+            if (valueArray < 0) {
+                if (getStep(definition, receiver) == -1
+                        && isGuarded(lowerGuards, receiver, definition.getBasicBlock())) {
+                    hasDecrement = true;
+                    continue;
+                }
+                valueArray = getArrayLengthMinusConstant(definition);
+                if (valueArray < 0) {
+                    return -1;
+                }
+            }
+            if (array >= 0 && array != valueArray) {
+                return -1;
+            }
+            array = valueArray;
+        }
+        return hasDecrement ? array : -1;
+    }
+
+    private int getStep(Instruction instruction, int variable) {
+        if (!(instruction instanceof BinaryInstruction)) {
+            return 0;
+        }
+        var binary = (BinaryInstruction) instruction;
+        if (binary.getOperandType() != NumericOperandType.INT) {
+            return 0;
+        }
+        int first = resolve(binary.getFirstOperand().getIndex());
+        int second = resolve(binary.getSecondOperand().getIndex());
+        switch (binary.getOperation()) {
+            case ADD:
+                if (first == variable) {
+                    return constantOf(second);
+                } else if (second == variable) {
+                    return constantOf(first);
+                }
+                return 0;
+            case SUBTRACT:
+                if (first == variable) {
+                    int constant = constantOf(second);
+                    return constant == 1 ? -1 : 0;
+                }
+                return 0;
+            default:
+                return 0;
+        }
+    }
+
+    private int getArrayLengthMinusConstant(Instruction instruction) {
+        if (!(instruction instanceof BinaryInstruction)) {
+            return -1;
+        }
+        var binary = (BinaryInstruction) instruction;
+        if (binary.getOperandType() != NumericOperandType.INT) {
+            return -1;
+        }
+        var length = definition(binary.getFirstOperand().getIndex());
+        if (!(length instanceof ArrayLengthInstruction)) {
+            return -1;
+        }
+        var constant = definition(binary.getSecondOperand().getIndex());
+        if (!(constant instanceof IntegerConstantInstruction)) {
+            return -1;
+        }
+        int value = ((IntegerConstantInstruction) constant).getConstant();
+        boolean decreases;
+        switch (binary.getOperation()) {
+            case SUBTRACT:
+                decreases = value > 0;
+                break;
+            case ADD:
+                decreases = value < 0;
+                break;
+            default:
+                return -1;
+        }
+        return decreases ? resolve(((ArrayLengthInstruction) length).getArray().getIndex()) : -1;
+    }
+
+    private int constantOf(int variable) {
+        var definition = definitions[variable];
+        return definition instanceof IntegerConstantInstruction
+                ? ((IntegerConstantInstruction) definition).getConstant()
+                : 0;
+    }
+
+    static class CountedLoop {
+        final Phi counter;
+        final Incoming start;
+        final int end;
+        final int guardBlock;
+
+        CountedLoop(Phi counter, Incoming start, int end, int guardBlock) {
+            this.counter = counter;
+            this.start = start;
+            this.end = end;
+            this.guardBlock = guardBlock;
+        }
+    }
+}
@@ -0,0 +1,367 @@
+/*
+ *  Copyright 2026 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.model.transformation;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.teavm.model.BasicBlock;
+import org.teavm.model.Incoming;
+import org.teavm.model.Instruction;
+import org.teavm.model.Phi;
+import org.teavm.model.Program;
+import org.teavm.model.Variable;
+import org.teavm.model.instructions.AssignInstruction;
+import org.teavm.model.instructions.BinaryInstruction;
+import org.teavm.model.instructions.BinaryOperation;
+import org.teavm.model.instructions.CastNumberInstruction;
+import org.teavm.model.instructions.DoubleConstantInstruction;
+import org.teavm.model.instructions.LongConstantInstruction;
+import org.teavm.model.instructions.NegateInstruction;
+import org.teavm.model.instructions.NumericOperandType;
+import org.teavm.model.util.DefinitionExtractor;
+import org.teavm.model.util.InstructionVariableMapper;
+import org.teavm.model.util.UsageExtractor;
+
+/**
+ * Replaces long arithmetic with double arithmetic where {@link LongValueRanges} proves that all values
+ * fit into 53 bits. This is intended for backends where long is expensive (like BigInt in JavaScript)
+ * while double is cheap. Only local variables are affected: whenever narrowed value escapes
+ * to an instruction that expects long (invocation, field, array element, return, division, bitwise
+ * operation and so on), it's converted back to long right before that instruction.
+ */
+public class LongNarrowing {
+    public void transformProgram(Program program) {
+        if (program.basicBlockCount() == 0 || !hasLongArithmetic(program)) {
+            return;
+        }
+        new Transformation(program, new LongValueRanges(program)).run();
+    }
+
+    private static boolean hasLongArithmetic(Program program) {
+        for (int i = 0; i < program.basicBlockCount(); ++i) {
+            for (Instruction instruction : program.basicBlockAt(i)) {
+                if (instruction instanceof BinaryInstruction) {
+                    var binary = (BinaryInstruction) instruction;
+                    if (binary.getOperandType() == NumericOperandType.LONG && isNarrowable(binary.getOperation())) {
+                        return true;
+                    }
+                } else if (instruction instanceof NegateInstruction) {
+                    if (((NegateInstruction) instruction).getOperandType() == NumericOperandType.LONG) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean isNarrowable(BinaryOperation operation) {
+        switch (operation) {
+            case ADD:
+            case SUBTRACT:
+            case MULTIPLY:
+            case MODULO:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    static class Transformation {
+        private Program program;
+        private LongValueRanges ranges;
+        private boolean[] narrowed;
+        private boolean[] isConstant;
+        private long[] constants;
+        private Instruction[] definitions;
+        private DefinitionExtractor definitionExtractor = new DefinitionExtractor();
+        private UsageExtractor usageExtractor = new UsageExtractor();
+
+        Transformation(Program program, LongValueRanges ranges) {
+            this.program = program;
+            this.ranges = ranges;
+            int variableCount = program.variableCount();
+            narrowed = new boolean[variableCount];
+            isConstant = new boolean[variableCount];
+            constants = new long[variableCount];
+            definitions = new Instruction[variableCount];
+        }
+
+        void run() {
+            boolean[] leaves = new boolean[narrowed.length];
+            for (int i = 0; i < narrowed.length; ++i) {
+                narrowed[i] = ranges.isKnown(program.variableAt(i));
+            }
+            for (int i = 0; i < program.basicBlockCount(); ++i) {
+                for (Instruction instruction : program.basicBlockAt(i)) {
+                    instruction.acceptVisitor(definitionExtractor);
+                    for (Variable variable : definitionExtractor.getDefinedVariables()) {
+                        definitions[variable.getIndex()] = instruction;
+                    }
+                    if (instruction instanceof LongConstantInstruction) {
+                        var constant = (LongConstantInstruction) instruction;
+                        isConstant[constant.getReceiver().getIndex()] = true;
+                        constants[constant.getReceiver().getIndex()] = constant.getConstant();
+                        leaves[constant.getReceiver().getIndex()] = true;
+                    } else if (instruction instanceof CastNumberInstruction
+                            && ((CastNumberInstruction) instruction).getSourceType() == NumericOperandType.INT) {
+                        leaves[((CastNumberInstruction) instruction).getReceiver().getIndex()] = true;
+                    }
+                }
+            }
+            pruneLeaves(leaves);
+
+            for (int i = 0; i < program.basicBlockCount(); ++i) {
+                var block = program.basicBlockAt(i);
+                List<Instruction> instructions = new ArrayList<>();
+                for (Instruction instruction : block) {
+                    instructions.add(instruction);
+                }
+                for (Instruction instruction : instructions) {
+                    transformInstruction(instruction);
+                }
+            }
+            for (int i = 0; i < program.basicBlockCount(); ++i) {
+                transformPhis(program.basicBlockAt(i));
+            }
+        }
+
+        // Constants and widened ints that are only used as longs would only get an extra conversion
+        private void pruneLeaves(boolean[] leaves) {
+            boolean changed;
+            do {
+                changed = false;
+                boolean[] consumed = new boolean[narrowed.length];
+                for (int i = 0; i < program.basicBlockCount(); ++i) {
+                    var block = program.basicBlockAt(i);
+                    for (Phi phi : block.getPhis()) {
+                        if (narrowed[phi.getReceiver().getIndex()]) {
+                            for (Incoming incoming : phi.getIncomings()) {
+                                consumed[incoming.getValue().getIndex()] = true;
+                            }
+                        }
+                    }
+                    for (Instruction instruction : block) {
+                        if (acceptsNarrowed(instruction)) {
+                            instruction.acceptVisitor(usageExtractor);
+                            for (Variable variable : usageExtractor.getUsedVariables()) {
+                                consumed[variable.getIndex()] = true;
+                            }
+                        }
+                    }
+                }
+                for (int i = 0; i < narrowed.length; ++i) {
+                    if (narrowed[i] && leaves[i] && !consumed[i]) {
+                        narrowed[i] = false;
+                        changed = true;
+                    }
+                }
+            } while (changed);
+        }
+
+        private boolean acceptsNarrowed(Instruction instruction) {
+            instruction.acceptVisitor(definitionExtractor);
+            for (Variable variable : definitionExtractor.getDefinedVariables()) {
+                if (narrowed[variable.getIndex()]) {
+                    return true;
+                }
+            }
+            if (instruction instanceof BinaryInstruction) {
+                var binary = (BinaryInstruction) instruction;
+                return binary.getOperandType() == NumericOperandType.LONG
+                        && (binary.getOperation() == BinaryOperation.COMPARE_LESS
+                                || binary.getOperation() == BinaryOperation.COMPARE_GREATER)
+                        && narrowed[binary.getFirstOperand().getIndex()]
+                        && narrowed[binary.getSecondOperand().getIndex()];
+            } else if (instruction instanceof CastNumberInstruction) {
+                var cast = (CastNumberInstruction) instruction;
+                if (cast.getSourceType() != NumericOperandType.LONG || !narrowed[cast.getValue().getIndex()]) {
+                    return false;
+                }
+                switch (cast.getTargetType()) {
+                    case INT:
+                        return ranges.getLower(cast.getValue()) >= Integer.MIN_VALUE
+                                && ranges.getUpper(cast.getValue()) <= Integer.MAX_VALUE;
+                    case FLOAT:
+                    case DOUBLE:
+                        return true;
+                    default:
+                        return false;
+                }
+            }
+            return false;
+        }
+
+        private void transformInstruction(Instruction instruction) {
+            if (acceptsNarrowed(instruction)) {
+                var replacement = narrow(instruction);
+                if (replacement != null) {
+                    replacement.setLocation(instruction.getLocation());
+                    instruction.replace(replacement);
+                    replacement.acceptVisitor(definitionExtractor);
+                    for (Variable variable : definitionExtractor.getDefinedVariables()) {
+                        definitions[variable.getIndex()] = replacement;
+                    }
+                }
+                return;
+            }
+
+            instruction.acceptVisitor(usageExtractor);
+            Map<Variable, Variable> conversions = new HashMap<>();
+            for (Variable variable : usageExtractor.getUsedVariables()) {
+                if (narrowed[variable.getIndex()] && !conversions.containsKey(variable)) {
+                    var conversion = createConversion(variable);
+                    conversion.setLocation(instruction.getLocation());
+                    instruction.insertPrevious(conversion);
+                    conversions.put(variable, receiverOf(conversion));
+                }
+            }
+            if (!conversions.isEmpty()) {
+                instruction.acceptVisitor(new InstructionVariableMapper(
+                        variable -> conversions.getOrDefault(variable, variable)));
+            }
+        }
+
+        private Instruction narrow(Instruction instruction) {
+            if (instruction instanceof LongConstantInstruction) {
+                var constant = (LongConstantInstruction) instruction;
+                var result = new DoubleConstantInstruction();
+                result.setConstant(constant.getConstant());
+                result.setReceiver(constant.getReceiver());
+                return result;
+            } else if (instruction instanceof NegateInstruction) {
+                var negate = (NegateInstruction) instruction;
+                var result = new NegateInstruction(NumericOperandType.DOUBLE);
+                result.setOperand(negate.getOperand());
+                result.setReceiver(negate.getReceiver());
+                return result;
+            } else if (instruction instanceof BinaryInstruction) {
+                var binary = (BinaryInstruction) instruction;
+                var result = new BinaryInstruction(binary.getOperation(), NumericOperandType.DOUBLE);
+                result.setFirstOperand(binary.getFirstOperand());
+                result.setSecondOperand(binary.getSecondOperand());
+                result.setReceiver(binary.getReceiver());
+                return result;
+            } else if (instruction instanceof CastNumberInstruction) {
+                var cast = (CastNumberInstruction) instruction;
+                if (cast.getSourceType() == NumericOperandType.INT) {
+                    var result = new CastNumberInstruction(NumericOperandType.INT, NumericOperandType.DOUBLE);
+                    result.setValue(cast.getValue());
+                    result.setReceiver(cast.getReceiver());
+                    return result;
+                }
+                var value = cast.getValue();
+                if (cast.getTargetType() != NumericOperandType.INT && mayBeNegativeZero(value)) {
+                    // Products and remainders may produce -0, while long to double conversion never does
+                    var zero = new DoubleConstantInstruction();
+                    zero.setReceiver(program.createVariable());
+                    zero.setLocation(cast.getLocation());
+                    cast.insertPrevious(zero);
+                    var sum = new BinaryInstruction(BinaryOperation.ADD, NumericOperandType.DOUBLE);
+                    sum.setFirstOperand(value);
+                    sum.setSecondOperand(zero.getReceiver());
+                    if (cast.getTargetType() == NumericOperandType.DOUBLE) {
+                        sum.setReceiver(cast.getReceiver());
+                        return sum;
+                    }
+                    sum.setReceiver(program.createVariable());
+                    sum.setLocation(cast.getLocation());
+                    cast.insertPrevious(sum);
+                    value = sum.getReceiver();
+                }
+                if (cast.getTargetType() == NumericOperandType.DOUBLE) {
+                    var result = new AssignInstruction();
+                    result.setAssignee(value);
+                    result.setReceiver(cast.getReceiver());
+                    return result;
+                }
+                var result = new CastNumberInstruction(NumericOperandType.DOUBLE, cast.getTargetType());
+                result.setValue(value);
+                result.setReceiver(cast.getReceiver());
+                return result;
+            }
+            return null;
+        }
+
+        private void transformPhis(BasicBlock block) {
+            for (Phi phi : block.getPhis()) {
+                if (narrowed[phi.getReceiver().getIndex()]) {
+                    continue;
+                }
+                for (Incoming incoming : phi.getIncomings()) {
+                    var value = incoming.getValue();
+                    if (!narrowed[value.getIndex()]) {
+                        continue;
+                    }
+                    var conversion = createConversion(value);
+                    if (ranges.isExceptionHandler(block)) {
+                        // Exception may be thrown anywhere in the source block, so convert eagerly
+                        var definition = definitions[value.getIndex()];
+                        if (definition != null) {
+                            conversion.setLocation(definition.getLocation());
+                            definition.insertNext(conversion);
+                        } else {
+                            findPhiBlock(value).addFirst(conversion);
+                        }
+                    } else {
+                        var last = incoming.getSource().getLastInstruction();
+                        conversion.setLocation(last.getLocation());
+                        last.insertPrevious(conversion);
+                    }
+                    incoming.setValue(receiverOf(conversion));
+                }
+            }
+        }
+
+        private BasicBlock findPhiBlock(Variable variable) {
+            for (int i = 0; i < program.basicBlockCount(); ++i) {
+                var block = program.basicBlockAt(i);
+                for (Phi phi : block.getPhis()) {
+                    if (phi.getReceiver() == variable) {
+                        return block;
+                    }
+                }
+            }
+            return null;
+        }
+
+        private boolean mayBeNegativeZero(Variable value) {
+            return !isConstant[value.getIndex()] && !(definitions[value.getIndex()] instanceof CastNumberInstruction);
+        }
+
+        private Instruction createConversion(Variable value) {
+            if (isConstant[value.getIndex()]) {
+                var constant = new LongConstantInstruction();
+                constant.setConstant(constants[value.getIndex()]);
+                constant.setReceiver(program.createVariable());
+                return constant;
+            }
+            var cast = new CastNumberInstruction(NumericOperandType.DOUBLE, NumericOperandType.LONG);
+            cast.setValue(value);
+            cast.setReceiver(program.createVariable());
+            return cast;
+        }
+
+        private static Variable receiverOf(Instruction conversion) {
+            if (conversion instanceof LongConstantInstruction) {
+                return ((LongConstantInstruction) conversion).getReceiver();
+            }
+            return ((CastNumberInstruction) conversion).getReceiver();
+        }
+    }
+}
@@ -0,0 +1,505 @@
+/*
+ *  Copyright 2026 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.model.transformation;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.teavm.common.DominatorTree;
+import org.teavm.common.Graph;
+import org.teavm.common.GraphUtils;
+import org.teavm.model.BasicBlock;
+import org.teavm.model.Incoming;
+import org.teavm.model.Instruction;
+import org.teavm.model.Phi;
+import org.teavm.model.Program;
+import org.teavm.model.TryCatchBlock;
+import org.teavm.model.Variable;
+import org.teavm.model.instructions.AssignInstruction;
+import org.teavm.model.instructions.BinaryInstruction;
+import org.teavm.model.instructions.BinaryOperation;
+import org.teavm.model.instructions.BranchingInstruction;
+import org.teavm.model.instructions.CastNumberInstruction;
+import org.teavm.model.instructions.LongConstantInstruction;
+import org.teavm.model.instructions.NegateInstruction;
+import org.teavm.model.instructions.NumericOperandType;
+import org.teavm.model.util.ProgramUtils;
+
+/**
+ * Finds long variables whose values are guaranteed to stay within {@code ±(2^53 - 1)}, i.e. can be
+ * represented by double exactly. Ranges are derived from long constants, ints widened to long and
+ * additive, multiplicative and remainder operations over such variables. Loop phis are supported when
+ * they are incremented (decremented) by a positive constant and every new value is bound by
+ * a comparison against a variable with known range. Analysis is pessimistic: variable gets its range
+ * only when ranges of all its operands are known, so cycles can only be broken by induction phis.
+ */
+class LongValueRanges {
+    static final long LIMIT = (1L << 53) - 1;
+
+    private Program program;
+    private Graph cfg;
+    private DominatorTree dom;
+    private int[] resolved;
+    private Instruction[] definitions;
+    private boolean[] handlers;
+    private List<List<Guard>> guards = new ArrayList<>();
+    private boolean[] known;
+    private long[] lower;
+    private long[] upper;
+
+    LongValueRanges(Program program) {
+        this.program = program;
+        int variableCount = program.variableCount();
+        resolved = new int[variableCount];
+        definitions = new Instruction[variableCount];
+        known = new boolean[variableCount];
+        lower = new long[variableCount];
+        upper = new long[variableCount];
+        handlers = new boolean[program.basicBlockCount()];
+        for (int i = 0; i < variableCount; ++i) {
+            resolved[i] = i;
+        }
+        for (int i = 0; i < program.basicBlockCount(); ++i) {
+            guards.add(null);
+        }
+
+        cfg = ProgramUtils.buildControlFlowGraph(program);
+        dom = GraphUtils.buildDominatorTree(cfg);
+        collectDefinitions();
+        collectGuards();
+        analyze();
+        removeInconsistent();
+    }
+
+    boolean isKnown(Variable variable) {
+        return known[variable.getIndex()];
+    }
+
+    long getLower(Variable variable) {
+        return lower[variable.getIndex()];
+    }
+
+    long getUpper(Variable variable) {
+        return upper[variable.getIndex()];
+    }
+
+    boolean isExceptionHandler(BasicBlock block) {
+        return handlers[block.getIndex()];
+    }
+
+    private void collectDefinitions() {
+        for (int i = 0; i < program.basicBlockCount(); ++i) {
+            var block = program.basicBlockAt(i);
+            for (TryCatchBlock tryCatch : block.getTryCatchBlocks()) {
+                handlers[tryCatch.getHandler().getIndex()] = true;
+            }
+            for (Instruction instruction : block) {
+                if (instruction instanceof LongConstantInstruction) {
+                    definitions[((LongConstantInstruction) instruction).getReceiver().getIndex()] = instruction;
+                } else if (instruction instanceof BinaryInstruction) {
+                    definitions[((BinaryInstruction) instruction).getReceiver().getIndex()] = instruction;
+                } else if (instruction instanceof NegateInstruction) {
+                    definitions[((NegateInstruction) instruction).getReceiver().getIndex()] = instruction;
+                } else if (instruction instanceof CastNumberInstruction) {
+                    definitions[((CastNumberInstruction) instruction).getReceiver().getIndex()] = instruction;
+                } else if (instruction instanceof AssignInstruction) {
+                    var assign = (AssignInstruction) instruction;
+                    definitions[assign.getReceiver().getIndex()] = instruction;
+                    resolved[assign.getReceiver().getIndex()] = assign.getAssignee().getIndex();
+                }
+            }
+        }
+    }
+
+    private int resolve(int variable) {
+        int steps = 0;
+        while (resolved[variable] != variable && steps++ < resolved.length) {
+            variable = resolved[variable];
+        }
+        return variable;
+    }
+
+    private void collectGuards() {
+        for (int i = 0; i < program.basicBlockCount(); ++i) {
+            var block = program.basicBlockAt(i);
+            if (!(block.getLastInstruction() instanceof BranchingInstruction)) {
+                continue;
+            }
+            var branch = (BranchingInstruction) block.getLastInstruction();
+            if (branch.getConsequent() == branch.getAlternative()) {
+                continue;
+            }
+            var comparison = definitions[resolve(branch.getOperand().getIndex())];
+            if (!(comparison instanceof BinaryInstruction)) {
+                continue;
+            }
+            var binary = (BinaryInstruction) comparison;
+            if (binary.getOperandType() != NumericOperandType.LONG
+                    || (binary.getOperation() != BinaryOperation.COMPARE_LESS
+                    && binary.getOperation() != BinaryOperation.COMPARE_GREATER)) {
+                continue;
+            }
+            int left = resolve(binary.getFirstOperand().getIndex());
+            int right = resolve(binary.getSecondOperand().getIndex());
+            var consequent = branch.getConsequent();
+            var alternative = branch.getAlternative();
+
+            switch (branch.getCondition()) {
+                case LESS:
+                    addGuard(block, consequent, left, right, true);
+                    addGuard(block, alternative, right, left, false);
+                    break;
+                case LESS_OR_EQUAL:
+                    addGuard(block, consequent, left, right, false);
+                    addGuard(block, alternative, right, left, true);
+                    break;
+                case GREATER:
+                    addGuard(block, consequent, right, left, true);
+                    addGuard(block, alternative, left, right, false);
+                    break;
+                case GREATER_OR_EQUAL:
+                    addGuard(block, consequent, right, left, false);
+                    addGuard(block, alternative, left, right, true);
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
+    // Edge from source to target is only taken when left < right (or left <= right when not strict)
+    private void addGuard(BasicBlock source, BasicBlock target, int left, int right, boolean strict) {
+        var list = guards.get(target.getIndex());
+        if (list == null) {
+            list = new ArrayList<>();
+            guards.set(target.getIndex(), list);
+        }
+        list.add(new Guard(source.getIndex(), left, right, strict));
+    }
+
+    private void analyze() {
+        boolean changed;
+        do {
+            changed = false;
+            for (int i = 0; i < program.basicBlockCount(); ++i) {
+                var block = program.basicBlockAt(i);
+                if (!handlers[i]) {
+                    for (Phi phi : block.getPhis()) {
+                        if (!known[phi.getReceiver().getIndex()] && analyzePhi(phi)) {
+                            changed = true;
+                        }
+                    }
+                }
+                for (Instruction instruction : block) {
+                    if (analyzeInstruction(instruction)) {
+                        changed = true;
+                    }
+                }
+            }
+        } while (changed);
+    }
+
+    private boolean analyzeInstruction(Instruction instruction) {
+        if (instruction instanceof LongConstantInstruction) {
+            var constant = (LongConstantInstruction) instruction;
+            return define(constant.getReceiver().getIndex(), constant.getConstant(), constant.getConstant());
+        } else if (instruction instanceof CastNumberInstruction) {
+            var cast = (CastNumberInstruction) instruction;
+            if (cast.getSourceType() == NumericOperandType.INT && cast.getTargetType() == NumericOperandType.LONG) {
+                return define(cast.getReceiver().getIndex(), Integer.MIN_VALUE, Integer.MAX_VALUE);
+            }
+        } else if (instruction instanceof AssignInstruction) {
+            var assign = (AssignInstruction) instruction;
+            int assignee = assign.getAssignee().getIndex();
+            if (known[assignee]) {
+                return define(assign.getReceiver().getIndex(), lower[assignee], upper[assignee]);
+            }
+        } else if (instruction instanceof NegateInstruction) {
+            var negate = (NegateInstruction) instruction;
+            int operand = negate.getOperand().getIndex();
+            if (negate.getOperandType() == NumericOperandType.LONG && known[operand]) {
+                return define(negate.getReceiver().getIndex(), -upper[operand], -lower[operand]);
+            }
+        } else if (instruction instanceof BinaryInstruction) {
+            return analyzeBinary((BinaryInstruction) instruction);
+        }
+        return false;
+    }
+
+    private boolean analyzeBinary(BinaryInstruction binary) {
+        int first = binary.getFirstOperand().getIndex();
+        int second = binary.getSecondOperand().getIndex();
+        if (binary.getOperandType() != NumericOperandType.LONG || !known[first] || !known[second]) {
+            return false;
+        }
+        int receiver = binary.getReceiver().getIndex();
+        switch (binary.getOperation()) {
+            case ADD:
+                return define(receiver, lower[first] + lower[second], upper[first] + upper[second]);
+            case SUBTRACT:
+                return define(receiver, lower[first] - upper[second], upper[first] - lower[second]);
+            case MULTIPLY: {
+                // Operands fit into 53 bits, so their products are precise enough as doubles to be compared
+                // against the limit
+                double a = (double) lower[first] * lower[second];
+                double b = (double) lower[first] * upper[second];
+                double c = (double) upper[first] * lower[second];
+                double d = (double) upper[first] * upper[second];
+                double min = Math.min(Math.min(a, b), Math.min(c, d));
+                double max = Math.max(Math.max(a, b), Math.max(c, d));
+                if (min < -LIMIT || max > LIMIT) {
+                    return false;
+                }
+                return define(receiver, (long) min, (long) max);
+            }
+            case MODULO: {
+                // Division by zero must still throw ArithmeticException
+                if (lower[second] <= 0 && upper[second] >= 0) {
+                    return false;
+                }
+                long divisor = Math.max(Math.abs(lower[second]), Math.abs(upper[second])) - 1;
+                long dividend = Math.max(Math.abs(lower[first]), Math.abs(upper[first]));
+                long bound = Math.min(divisor, dividend);
+                return define(receiver, lower[first] < 0 ? -bound : 0, upper[first] > 0 ? bound : 0);
+            }
+            default:
+                return false;
+        }
+    }
+
+    private boolean analyzePhi(Phi phi) {
+        int receiver = phi.getReceiver().getIndex();
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        int direction = 0;
+        List<Incoming> steps = new ArrayList<>();
+        for (Incoming incoming : phi.getIncomings()) {
+            int value = incoming.getValue().getIndex();
+            int step = getStep(value, receiver);
+            if (step != 0) {
+                if (direction != 0 && direction != Integer.signum(step)) {
+                    return false;
+                }
+                direction = Integer.signum(step);
+                steps.add(incoming);
+            } else if (known[value]) {
+                min = Math.min(min, lower[value]);
+                max = Math.max(max, upper[value]);
+            } else {
+                return false;
+            }
+        }
+        if (min > max) {
+            return false;
+        }
+
+        for (Incoming incoming : steps) {
+            if (direction > 0) {
+                long bound = findUpperBound(incoming, receiver);
+                if (bound > LIMIT) {
+                    return false;
+                }
+                max = Math.max(max, bound);
+            } else {
+                long bound = findLowerBound(incoming, receiver);
+                if (bound < -LIMIT) {
+                    return false;
+                }
+                min = Math.min(min, bound);
+            }
+        }
+        return define(receiver, min, max);
+    }
+
+    // Returns positive constant c when value = phi + c, negative constant -c when value = phi - c
+    // and zero otherwise
+    private int getStep(int value, int phi) {
+        var definition = definitions[resolve(value)];
+        if (!(definition instanceof BinaryInstruction)) {
+            return 0;
+        }
+        var binary = (BinaryInstruction) definition;
+        if (binary.getOperandType() != NumericOperandType.LONG) {
+            return 0;
+        }
+        int first = resolve(binary.getFirstOperand().getIndex());
+        int second = resolve(binary.getSecondOperand().getIndex());
+        switch (binary.getOperation()) {
+            case ADD:
+                if (first == phi) {
+                    return positiveConstant(second);
+                } else if (second == phi) {
+                    return positiveConstant(first);
+                }
+                return 0;
+            case SUBTRACT:
+                return first == phi ? -positiveConstant(second) : 0;
+            default:
+                return 0;
+        }
+    }
+
+    private int positiveConstant(int variable) {
+        var definition = definitions[variable];
+        if (definition instanceof LongConstantInstruction) {
+            long constant = ((LongConstantInstruction) definition).getConstant();
+            if (constant > 0 && constant <= Integer.MAX_VALUE) {
+                return (int) constant;
+            }
+        }
+        return 0;
+    }
+
+    private long findUpperBound(Incoming incoming, int phi) {
+        int value = resolve(incoming.getValue().getIndex());
+        long result = Long.MAX_VALUE;
+
+        // Incoming value itself is checked on the edge to the phi, like in `do { ... } while (++i < n)`
+        var phiGuards = guards.get(incoming.getPhi().getBasicBlock().getIndex());
+        if (phiGuards != null) {
+            for (Guard guard : phiGuards) {
+                if (guard.source == incoming.getSource().getIndex() && guard.left == value
+                        && known[guard.right]) {
+                    result = Math.min(result, upper[guard.right] - (guard.strict ? 1 : 0));
+                }
+            }
+        }
+
+        // Increment is dominated by check of the phi, like in `for (...; i < n; ++i)`
+        var increment = definitions[value];
+        int step = Math.abs(getStep(value, phi));
+        for (BasicBlock block : guardedBlocks(increment.getBasicBlock())) {
+            for (Guard guard : guards.get(block.getIndex())) {
+                if (guard.left == phi && known[guard.right]) {
+                    result = Math.min(result, upper[guard.right] - (guard.strict ? 1 : 0) + step);
+                }
+            }
+        }
+
+        return result;
+    }
+
+    private long findLowerBound(Incoming incoming, int phi) {
+        int value = resolve(incoming.getValue().getIndex());
+        long result = Long.MIN_VALUE;
+
+        var phiGuards = guards.get(incoming.getPhi().getBasicBlock().getIndex());
+        if (phiGuards != null) {
+            for (Guard guard : phiGuards) {
+                if (guard.source == incoming.getSource().getIndex() && guard.right == value
+                        && known[guard.left]) {
+                    result = Math.max(result, lower[guard.left] + (guard.strict ? 1 : 0));
+                }
+            }
+        }
+
+        var decrement = definitions[value];
+        int step = Math.abs(getStep(value, phi));
+        for (BasicBlock block : guardedBlocks(decrement.getBasicBlock())) {
+            for (Guard guard : guards.get(block.getIndex())) {
+                if (guard.right == phi && known[guard.left]) {
+                    result = Math.max(result, lower[guard.left] + (guard.strict ? 1 : 0) - step);
+                }
+            }
+        }
+
+        return result;
+    }
+
+    // Blocks that have single incoming edge, carry guards and dominate given block, so that guard
+    // conditions hold everywhere in the given block
+    private List<BasicBlock> guardedBlocks(BasicBlock block) {
+        List<BasicBlock> result = new ArrayList<>();
+        for (int i = 0; i < program.basicBlockCount(); ++i) {
+            if (guards.get(i) != null && cfg.incomingEdgesCount(i) == 1 && dom.dominates(i, block.getIndex())) {
+                result.add(program.basicBlockAt(i));
+            }
+        }
+        return result;
+    }
+
+    private boolean define(int variable, long min, long max) {
+        if (known[variable] || min < -LIMIT || max > LIMIT) {
+            return false;
+        }
+        known[variable] = true;
+        lower[variable] = min;
+        upper[variable] = max;
+        return true;
+    }
+
+    // Induction phi may be proven before its increment, and the increment itself may still be unknown
+    // (e.g. when its range computed from phi range exceeds the limit). Unknown operands make
+    // results unknown as well.
+    private void removeInconsistent() {
+        boolean changed;
+        do {
+            changed = false;
+            for (int i = 0; i < program.basicBlockCount(); ++i) {
+                var block = program.basicBlockAt(i);
+                for (Phi phi : block.getPhis()) {
+                    if (!known[phi.getReceiver().getIndex()]) {
+                        continue;
+                    }
+                    for (Incoming incoming : phi.getIncomings()) {
+                        if (!known[incoming.getValue().getIndex()]) {
+                            known[phi.getReceiver().getIndex()] = false;
+                            changed = true;
+                            break;
+                        }
+                    }
+                }
+                for (Instruction instruction : block) {
+                    if (instruction instanceof AssignInstruction) {
+                        var assign = (AssignInstruction) instruction;
+                        changed |= invalidate(assign.getReceiver(), assign.getAssignee(), assign.getAssignee());
+                    } else if (instruction instanceof NegateInstruction) {
+                        var negate = (NegateInstruction) instruction;
+                        changed |= invalidate(negate.getReceiver(), negate.getOperand(), negate.getOperand());
+                    } else if (instruction instanceof BinaryInstruction) {
+                        var binary = (BinaryInstruction) instruction;
+                        changed |= invalidate(binary.getReceiver(), binary.getFirstOperand(),
+                                binary.getSecondOperand());
+                    }
+                }
+            }
+        } while (changed);
+    }
+
+    private boolean invalidate(Variable receiver, Variable first, Variable second) {
+        if (receiver == null || !known[receiver.getIndex()]) {
+            return false;
+        }
+        if (known[first.getIndex()] && known[second.getIndex()]) {
+            return false;
+        }
+        known[receiver.getIndex()] = false;
+        return true;
+    }
+
+    static class Guard {
+        final int source;
+        final int left;
+        final int right;
+        final boolean strict;
+
+        Guard(int source, int left, int right, boolean strict) {
+            this.source = source;
+            this.left = left;
+            this.right = right;
+            this.strict = strict;
+        }
+    }
+}
@@ -27,6 +27,7 @@ import org.teavm.callgraph.CallGraphNode;
 import org.teavm.callgraph.CallSite;
 import org.teavm.dependency.DependencyInfo;
 import org.teavm.interop.Async;
+import org.teavm.model.ClassHierarchy;
 import org.teavm.model.ClassReader;
 import org.teavm.model.ElementModifier;
 import org.teavm.model.ListableClassReaderSource;
@@ -34,18 +35,23 @@ import org.teavm.model.MethodDescriptor;
 import org.teavm.model.MethodReader;
 import org.teavm.model.MethodReference;
 import org.teavm.model.ProgramReader;
+import org.teavm.model.ValueType;
 import org.teavm.model.VariableReader;
 import org.teavm.model.instructions.AbstractInstructionReader;
 import org.teavm.runtime.Fiber;
 
 public class AsyncMethodFinder {
     private Set<MethodReference> asyncMethods = new HashSet<>();
+    private Map<MethodReference, CallStack> asyncReasons = new HashMap<>();
+    private Map<MethodDescriptor, List<MethodReference>> asyncMethodsByDescriptor = new HashMap<>();
+    private Map<MethodReference, Boolean> asyncVirtualCalls = new HashMap<>();
     private DependencyInfo dependency;
     private Map<MethodReference, Boolean> asyncFamilyMethods = new HashMap<>();
     private Set<MethodReference> readonlyAsyncMethods = Collections.unmodifiableSet(asyncMethods);
     private Set<MethodReference> readonlyAsyncFamilyMethods = Collections.unmodifiableSet(asyncFamilyMethods.keySet());
     private CallGraph callGraph;
     private ListableClassReaderSource classSource;
+    private ClassHierarchy hierarchy;
     private boolean hasAsyncMethods;
 
     public AsyncMethodFinder(CallGraph callGraph, DependencyInfo dependency) {
@@ -61,8 +67,65 @@ public class AsyncMethodFinder {
         return readonlyAsyncFamilyMethods;
     }
 
+    /**
+     * Explains why the given method is async, i.e. shows call chain that leads from the method to
+     * a method that is async by itself.
+     *
+     * @return human-readable explanation or {@code null} if the method is not async
+     */
+    public String getAsyncReason(MethodReference method) {
+        var stack = asyncReasons.get(method);
+        return stack != null ? stack.toString() : null;
+    }
+
+    /**
+     * Tells whether virtual invocation of the given method may dispatch to an async method. Unlike
+     * {@link #getAsyncFamilyMethods()}, which covers whole override hierarchies, this only takes into account
+     * async implementations that, according to dependency analysis, receive instances of subclasses
+     * of the class the method is invoked on.
+     *
+     * <p>The answer is the same for all call sites of the method. Receiver types of a particular call site are
+     * not known here, so they are approximated by the union of receiver types of all implementations. For example,
+     * a call of an interface method is considered async if any async implementation of the interface is reachable,
+     * even when the call site itself only ever sees synchronous implementations.</p>
+     */
+    public boolean isAsyncVirtualCall(MethodReference method) {
+        return asyncVirtualCalls.computeIfAbsent(method, this::computeAsyncVirtualCall);
+    }
+
+    private boolean computeAsyncVirtualCall(MethodReference method) {
+        var implementations = asyncMethodsByDescriptor.get(method.getDescriptor());
+        if (implementations == null) {
+            return false;
+        }
+        for (var implementation : implementations) {
+            if (mayDispatch(method.getClassName(), implementation)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean mayDispatch(String className, MethodReference implementation) {
+        var methodDep = dependency.getMethod(implementation);
+        var receiver = methodDep != null && methodDep.getVariableCount() > 0 ? methodDep.getVariable(0) : null;
+        var receiverTypes = receiver != null ? receiver.getTypes() : null;
+        if (receiverTypes == null || receiverTypes.length == 0) {
+            return hierarchy.isSuperType(className, implementation.getClassName(), true)
+                    || hierarchy.isSuperType(implementation.getClassName(), className, true);
+        }
+        var invokedType = ValueType.object(className);
+        for (var type : receiverTypes) {
+            if (type instanceof ValueType.Array || hierarchy.isSuperType(invokedType, type, true)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     public void find(ListableClassReaderSource classSource) {
         this.classSource = classSource;
+        hierarchy = new ClassHierarchy(classSource);
         hasAsyncMethods = findAsyncMethods();
         for (String clsName : classSource.getClassNames()) {
             ClassReader cls = classSource.get(clsName);
@@ -72,7 +135,7 @@ public class AsyncMethodFinder {
                     continue;
                 }
                 if (method.getAnnotations().get(Async.class.getName()) != null) {
-                    add(method.getReference(), new CallStack(method.getReference(), null));
+                    add(method.getReference(), new CallStack(method.getReference(), "is annotated with @Async"));
                 }
             }
         }
@@ -85,7 +148,7 @@ public class AsyncMethodFinder {
                         continue;
                     }
                     if (hasMonitor(method)) {
-                        add(method.getReference(), new CallStack(method.getReference(), null));
+                        add(method.getReference(), new CallStack(method.getReference(), "acquires a monitor"));
                     }
                 }
             }
@@ -104,6 +167,16 @@ public class AsyncMethodFinder {
                 asyncFamilyMethods.remove(entry.getKey());
             }
         }
+        for (MethodReference methodRef : asyncMethods) {
+            if (methodRef.getName().equals("<init>") || methodRef.getName().equals("<clinit>")) {
+                continue;
+            }
+            MethodReader method = classSource.resolve(methodRef);
+            if (method != null && !method.hasModifier(ElementModifier.STATIC)) {
+                asyncMethodsByDescriptor.computeIfAbsent(methodRef.getDescriptor(), k -> new ArrayList<>())
+                        .add(methodRef);
+            }
+        }
     }
 
     private boolean findAsyncMethods() {
@@ -152,6 +225,7 @@ public class AsyncMethodFinder {
         if (!asyncMethods.add(methodRef)) {
             return;
         }
+        asyncReasons.put(methodRef, stack);
         CallGraphNode node = callGraph.getNode(methodRef);
         if (node == null) {
             return;
@@ -172,7 +246,7 @@ public class AsyncMethodFinder {
         }
         for (CallSite callSite : node.getCallerCallSites()) {
             for (CallGraphNode caller : callSite.getCallers()) {
-                add(caller.getMethod(), new CallStack(caller.getMethod(), stack));
+                add(caller.getMethod(), new CallStack(caller.getMethod(), stack, null));
             }
         }
     }
@@ -180,19 +254,29 @@ public class AsyncMethodFinder {
     static class CallStack {
         MethodReference method;
         CallStack next;
+        String reason;
 
-        CallStack(MethodReference method, CallStack next) {
+        CallStack(MethodReference method, String reason) {
+            this(method, null, reason);
+        }
+
+        CallStack(MethodReference method, CallStack next, String reason) {
             this.method = method;
             this.next = next;
+            this.reason = reason;
         }
 
         @Override
         public String toString() {
             StringBuilder sb = new StringBuilder();
+            sb.append(method);
             CallStack stack = this;
-            while (stack != null) {
-                sb.append("\n    calling " + stack.method);
+            while (stack.next != null) {
                 stack = stack.next;
+                sb.append("\n    calling ").append(stack.method);
+            }
+            if (stack.reason != null) {
+                sb.append("\n    which ").append(stack.reason);
             }
             return sb.toString();
         }
@@ -24,6 +24,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Queue;
 import java.util.Set;
+import java.util.function.Predicate;
 import org.teavm.common.Graph;
 import org.teavm.common.GraphSplittingBackend;
 import org.teavm.common.GraphUtils;
@@ -50,12 +51,24 @@ public class AsyncProgramSplitter {
     private Map<Instruction, Integer> partMap = new HashMap<>();
     private ClassReaderSource classSource;
     private Set<MethodReference> asyncMethods;
+    private Predicate<MethodReference> asyncVirtualCalls;
     private Program program;
     private static final MethodDescriptor CLINIT_METHOD = new MethodDescriptor("<clinit>", ValueType.VOID);
 
     public AsyncProgramSplitter(ClassReaderSource classSource, Set<MethodReference> asyncMethods) {
+        this(classSource, asyncMethods, null);
+    }
+
+    /**
+     * @param asyncVirtualCalls tells whether virtual invocation of a method may dispatch to an async method.
+     *                          When {@code null}, virtual invocation is considered async if invoked method or any
+     *                          of its ancestors belongs to {@code asyncMethods}.
+     */
+    public AsyncProgramSplitter(ClassReaderSource classSource, Set<MethodReference> asyncMethods,
+            Predicate<MethodReference> asyncVirtualCalls) {
         this.classSource = classSource;
         this.asyncMethods = asyncMethods;
+        this.asyncVirtualCalls = asyncVirtualCalls;
     }
 
     public void split(Program program) {
@@ -85,7 +98,7 @@ public class AsyncProgramSplitter {
                 if (insn instanceof InvokeInstruction) {
                     InvokeInstruction invoke = (InvokeInstruction) insn;
                     if (invoke.getType() == InvocationType.VIRTUAL) {
-                        if (!isAsyncMethod(findRealMethod(invoke.getMethod()))) {
+                        if (!isAsyncVirtualCall(invoke.getMethod())) {
                             continue;
                         }
                     } else {
@@ -235,6 +248,14 @@ public class AsyncProgramSplitter {
         return method;
     }
 
+    private boolean isAsyncVirtualCall(MethodReference method) {
+        // Decided per invoked method rather than per call site, see AsyncMethodFinder.isAsyncVirtualCall
+        if (asyncVirtualCalls != null) {
+            return asyncVirtualCalls.test(method);
+        }
+        return isAsyncMethod(findRealMethod(method));
+    }
+
     private boolean isAsyncMethod(MethodReference method) {
         if (asyncMethods.isEmpty()) {
             return false;
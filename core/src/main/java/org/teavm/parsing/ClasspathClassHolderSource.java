@@ -16,8 +16,10 @@
 package org.teavm.parsing;
 
 import java.util.Date;
+import java.util.concurrent.Executor;
 import org.teavm.model.ClassHolder;
 import org.teavm.model.ClassHolderSource;
+import org.teavm.model.ClassReaderSource;
 import org.teavm.model.ReferenceCache;
 import org.teavm.parsing.resource.ResourceBytecodeClassHolderSource;
 import org.teavm.parsing.resource.ResourceProvider;
@@ -25,6 +27,9 @@ import org.teavm.parsing.substitution.DefaultSubstituteClassNameMapping;
 import org.teavm.parsing.substitution.SubstituteClassNameMapping;
 
 public class ClasspathClassHolderSource implements ClassHolderSource, ClassDateProvider {
+    private ResourceProvider resourceProvider;
+    private SubstituteClassNameMapping nameMapping;
+    private ResourceBytecodeClassHolderSource rawMapper;
     private RenamingClassHolderSource classPathMapper;
 
     public ClasspathClassHolderSource(ResourceProvider resourceProvider, ReferenceCache referenceCache,
@@ -34,7 +39,9 @@ public class ClasspathClassHolderSource implements ClassHolderSource, ClassDateP
 
     public ClasspathClassHolderSource(ResourceProvider resourceProvider, ReferenceCache referenceCache,
             SubstituteClassNameMapping nameMapping) {
-        var rawMapper = new ResourceBytecodeClassHolderSource(resourceProvider, referenceCache);
+        this.resourceProvider = resourceProvider;
+        this.nameMapping = nameMapping;
+        rawMapper = new ResourceBytecodeClassHolderSource(resourceProvider, referenceCache);
         classPathMapper = new RenamingClassHolderSource(resourceProvider, referenceCache, rawMapper, nameMapping);
     }
 
@@ -43,6 +50,26 @@ public class ClasspathClassHolderSource implements ClassHolderSource, ClassDateP
                 ClasspathClassHolderSource.class.getClassLoader());
     }
 
+    /**
+     * Enables parsing of classes on background threads ahead of time, as soon as a class that
+     * references them is requested. Resource provider must be thread-safe.
+     */
+    public void setPrefetchExecutor(Executor executor) {
+        ClassReaderSource resourceExistence = name -> {
+            var resourceName = name.replace('.', '/') + ".class";
+            return resourceProvider.getResource(resourceName) != null ? new ClassHolder(name) : null;
+        };
+        rawMapper.setPrefetching(executor, name -> nameMapping.originalToSubstitute(resourceExistence, name));
+    }
+
+    /**
+     * Drops classes that were prefetched but never requested. Should be called when no more classes
+     * are expected to be requested in bulk, i.e. after dependency analysis.
+     */
+    public void stopPrefetching() {
+        rawMapper.stopPrefetching();
+    }
+
     @Override
     public ClassHolder get(String name) {
         return classPathMapper.get(name);
@@ -15,13 +15,20 @@
  */
 package org.teavm.parsing.resource;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class CompositeResourceProvider implements ResourceProvider {
+    private static final ResourceProvider[] NO_PROVIDERS = new ResourceProvider[0];
     private ResourceProvider[] providers;
+    private volatile Map<String, ResourceProvider[]> index;
+    private ResourceProvider[] unindexedProviders;
+    private Map<String, ResourceProvider[]> providersByDirectory = new ConcurrentHashMap<>();
 
     public CompositeResourceProvider(ResourceProvider... providers) {
         this.providers = providers;
@@ -29,9 +36,10 @@ public class CompositeResourceProvider implements ResourceProvider {
 
     @Override
     public Iterator<Resource> getResources(String name) {
-        var iterators = Stream.of(providers)
-                .map(provider -> provider.getResources(name))
-                .collect(Collectors.toList());
+        var iterators = new ArrayList<Iterator<Resource>>();
+        for (var provider : getProviders(name)) {
+            iterators.add(provider.getResources(name));
+        }
         return new Iterator<>() {
             Iterator<Resource> current;
             int currentIndex;
@@ -72,6 +80,78 @@ public class CompositeResourceProvider implements ResourceProvider {
         };
     }
 
+    private ResourceProvider[] getProviders(String name) {
+        var directory = name.substring(0, Math.max(0, name.lastIndexOf('/')));
+        var result = providersByDirectory.get(directory);
+        if (result == null) {
+            result = computeProviders(directory);
+            providersByDirectory.put(directory, result);
+        }
+        return result;
+    }
+
+    // Providers that can list their directories are looked up via index, others are queried for every resource.
+    // Result preserves original order of providers, so that classpath shadowing is not affected.
+    private ResourceProvider[] computeProviders(String directory) {
+        var index = getIndex();
+        var indexed = index.getOrDefault(directory, NO_PROVIDERS);
+        if (unindexedProviders.length == 0) {
+            return indexed;
+        }
+        if (indexed.length == 0) {
+            return unindexedProviders;
+        }
+        var result = new ArrayList<ResourceProvider>(indexed.length + unindexedProviders.length);
+        int indexedPtr = 0;
+        int unindexedPtr = 0;
+        for (var provider : providers) {
+            if (indexedPtr < indexed.length && indexed[indexedPtr] == provider) {
+                result.add(provider);
+                indexedPtr++;
+            } else if (unindexedPtr < unindexedProviders.length && unindexedProviders[unindexedPtr] == provider) {
+                result.add(provider);
+                unindexedPtr++;
+            }
+        }
+        return result.toArray(NO_PROVIDERS);
+    }
+
+    private Map<String, ResourceProvider[]> getIndex() {
+        var result = index;
+        if (result == null) {
+            synchronized (this) {
+                result = index;
+                if (result == null) {
+                    result = buildIndex();
+                    index = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    private Map<String, ResourceProvider[]> buildIndex() {
+        var unindexed = new ArrayList<ResourceProvider>();
+        var providersByDirectory = new HashMap<String, List<ResourceProvider>>();
+        for (var provider : providers) {
+            var directories = provider.getDirectories();
+            if (directories == null) {
+                unindexed.add(provider);
+            } else {
+                for (var directory : directories) {
+                    providersByDirectory.computeIfAbsent(directory, k -> new ArrayList<>()).add(provider);
+                }
+            }
+        }
+        unindexedProviders = unindexed.toArray(NO_PROVIDERS);
+
+        var result = new HashMap<String, ResourceProvider[]>();
+        for (var entry : providersByDirectory.entrySet()) {
+            result.put(entry.getKey(), entry.getValue().toArray(NO_PROVIDERS));
+        }
+        return result;
+    }
+
     @Override
     public void close() {
         for (var provider : providers) {
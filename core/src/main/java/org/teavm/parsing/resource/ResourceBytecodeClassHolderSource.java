@@ -16,6 +16,18 @@
 package org.teavm.parsing.resource;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
 import org.objectweb.asm.ClassReader;
 import org.objectweb.asm.tree.ClassNode;
 import org.teavm.model.ClassHolder;
@@ -24,28 +36,175 @@ import org.teavm.model.ReferenceCache;
 import org.teavm.parsing.Parser;
 
 public class ResourceBytecodeClassHolderSource implements ClassHolderSource {
+    private static final int CONSTANT_CLASS_TAG = 7;
+    private static final int DEFAULT_MAX_PREFETCHED_CLASSES = 4096;
     private Parser parser;
     private ResourceProvider resourceProvider;
+    private Executor prefetchExecutor;
+    private Function<String, String> prefetchNameMapping;
+    private int maxPrefetchedClasses = DEFAULT_MAX_PREFETCHED_CLASSES;
+    private volatile boolean prefetchingStopped;
+    private Map<String, FutureTask<ParsedClass>> prefetchedClasses = new ConcurrentHashMap<>();
+    private Queue<String> prefetchOrder = new ConcurrentLinkedQueue<>();
+    private Set<String> requestedPrefetches = ConcurrentHashMap.newKeySet();
+    private ThreadLocal<Parser> prefetchParser;
 
     public ResourceBytecodeClassHolderSource(ResourceProvider resourceProvider, ReferenceCache referenceCache) {
         this.resourceProvider = resourceProvider;
         parser = new Parser(referenceCache);
+        prefetchParser = ThreadLocal.withInitial(() -> new Parser(referenceCache));
+    }
+
+    /**
+     * Enables speculative parsing of classes referenced by each class returned from {@link #get(String)}.
+     * Resource provider must be thread-safe.
+     *
+     * @param executor executor to parse classes on.
+     * @param nameMapping maps name of referenced class to name of class that would be actually requested
+     *                    from this source, or to {@code null} if referenced class should not be prefetched.
+     *                    Called on executor threads.
+     */
+    public void setPrefetching(Executor executor, Function<String, String> nameMapping) {
+        this.prefetchExecutor = executor;
+        this.prefetchNameMapping = nameMapping;
+    }
+
+    /**
+     * Sets maximum number of prefetched classes kept in memory. When exceeded, the classes that were
+     * prefetched earliest are dropped and parsed again if requested later.
+     */
+    public void setMaxPrefetchedClasses(int maxPrefetchedClasses) {
+        this.maxPrefetchedClasses = maxPrefetchedClasses;
+    }
+
+    /**
+     * Stops scheduling of new prefetches and drops all prefetched classes that were not requested so far.
+     * Classes are still available via {@link #get(String)}, they are parsed on demand.
+     */
+    public void stopPrefetching() {
+        prefetchingStopped = true;
+        prefetchedClasses.clear();
+        prefetchOrder.clear();
+    }
+
+    int getPrefetchedClassCount() {
+        return prefetchedClasses.size();
     }
 
     @Override
     public ClassHolder get(String name) {
+        if (prefetchExecutor == null || prefetchingStopped) {
+            var parsed = parse(name, parser);
+            return parsed != null ? parsed.cls : null;
+        }
+
+        ParsedClass parsed;
+        var task = prefetchedClasses.remove(name);
+        if (task != null) {
+            // Either runs task in current thread or waits until another thread completes it
+            task.run();
+            try {
+                parsed = task.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw new RuntimeException(e.getCause());
+            }
+        } else {
+            parsed = parse(name, parser);
+        }
+        if (parsed == null) {
+            return null;
+        }
+        for (var reference : parsed.references) {
+            prefetch(reference);
+        }
+        return parsed.cls;
+    }
+
+    private void prefetch(String name) {
+        if (prefetchingStopped || !requestedPrefetches.add(name)) {
+            return;
+        }
+        try {
+            prefetchExecutor.execute(() -> {
+                String mappedName;
+                try {
+                    mappedName = prefetchNameMapping.apply(name);
+                } catch (RuntimeException e) {
+                    // Prefetching is speculative, the error will be reported when class is actually requested
+                    return;
+                }
+                if (mappedName == null || prefetchingStopped) {
+                    return;
+                }
+                var task = new FutureTask<>(() -> parse(mappedName, prefetchParser.get()));
+                if (prefetchedClasses.putIfAbsent(mappedName, task) == null) {
+                    prefetchOrder.add(mappedName);
+                    evictPrefetched();
+                    task.run();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Executor is shut down, no need to prefetch anymore
+        }
+    }
+
+    private void evictPrefetched() {
+        while (prefetchedClasses.size() > maxPrefetchedClasses) {
+            var oldest = prefetchOrder.poll();
+            if (oldest == null) {
+                break;
+            }
+            prefetchedClasses.remove(oldest);
+        }
+    }
+
+    private ParsedClass parse(String name, Parser parser) {
         ClassNode clsNode = new ClassNode();
         String resourceName = name.replace('.', '/') + ".class";
         var resource = resourceProvider.getResource(resourceName);
         if (resource == null) {
             return null;
         }
+        List<String> references;
         try (var input = resource.open()) {
             ClassReader reader = new ClassReader(input);
             reader.accept(clsNode, 0);
+            references = prefetchExecutor != null ? getReferencedClasses(reader) : List.of();
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
-        return parser.parseClass(clsNode);
+        return new ParsedClass(parser.parseClass(clsNode), references);
+    }
+
+    private static List<String> getReferencedClasses(ClassReader reader) {
+        var result = new ArrayList<String>();
+        var buffer = new char[reader.getMaxStringLength()];
+        for (var i = 1; i < reader.getItemCount(); ++i) {
+            var offset = reader.getItem(i);
+            if (offset == 0 || reader.readByte(offset - 1) != CONSTANT_CLASS_TAG) {
+                continue;
+            }
+            var name = reader.readUTF8(offset, buffer);
+            if (!name.startsWith("[")) {
+                result.add(name.replace('/', '.'));
+            }
+        }
+        return result;
+    }
+
+    private static class ParsedClass {
+        final ClassHolder cls;
+        final List<String> references;
+
+        ParsedClass(ClassHolder cls, List<String> references) {
+            this.cls = cls;
+            this.references = references;
+        }
     }
 }
@@ -20,7 +20,16 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
 
+/**
+ * Provides access to class files and other resources on the class path.
+ * <p>
+ * When class prefetching is enabled (see
+ * {@link org.teavm.parsing.ClasspathClassHolderSource#setPrefetchExecutor(java.util.concurrent.Executor)}),
+ * provider and resources it returns are accessed from several threads at once, so such providers must be
+ * thread-safe. Providers created by {@link #ofClassPath(List)} are.
+ */
 public interface ResourceProvider extends AutoCloseable {
     default Resource getResource(String name) {
         var iter = getResources(name);
@@ -29,6 +38,16 @@ public interface ResourceProvider extends AutoCloseable {
 
     Iterator<Resource> getResources(String name);
 
+    /**
+     * Returns names of directories that directly contain resources of this provider,
+     * without trailing slash (empty string for root directory).
+     *
+     * @return set of directories or {@code null} if the provider can't list its resources cheaply.
+     */
+    default Set<String> getDirectories() {
+        return null;
+    }
+
     @Override
     void close();
 
@@ -18,18 +18,21 @@ package org.teavm.parsing.resource;
 import java.io.*;
 import java.util.Collections;
 import java.util.Date;
-import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 
 public class ZipFileResourceProvider implements ResourceProvider {
     private File file;
     private ZipFile zipFile;
-    private Map<String, Optional<ZipEntry>> entryCache = new HashMap<>();
+    private Map<String, Optional<ZipEntry>> entryCache = new ConcurrentHashMap<>();
+    private volatile Set<String> directories;
 
     public ZipFileResourceProvider(File file) {
         this.file = Objects.requireNonNull(file);
@@ -76,6 +79,25 @@ public class ZipFileResourceProvider implements ResourceProvider {
         return entryCache.computeIfAbsent(name, n -> Optional.ofNullable(zipFile.getEntry(name))).orElse(null);
     }
 
+    @Override
+    public Set<String> getDirectories() {
+        var result = directories;
+        if (result == null) {
+            result = new HashSet<>();
+            var entries = zipFile.entries();
+            while (entries.hasMoreElements()) {
+                var entry = entries.nextElement();
+                if (!entry.isDirectory()) {
+                    var name = entry.getName();
+                    result.add(name.substring(0, Math.max(0, name.lastIndexOf('/'))));
+                }
+            }
+            result = Collections.unmodifiableSet(result);
+            directories = result;
+        }
+        return result;
+    }
+
     @Override
     public void close() {
         try {
@@ -33,6 +33,12 @@ public final class Allocator {
         return object.toAddress();
     }
 
+    /**
+     * Allocates object of the given class in the native stack frame of the calling method.
+     * Object is not visible to GC, so it should not have reference fields and should not outlive the frame.
+     */
+    public static native Address allocateStack(Class<?> type);
+
     public static Address allocateArray(RuntimeClass tag, int size) {
         int itemSize = RuntimeClass.isPrimitive(tag.itemType) ? tag.itemType.size : Address.sizeOf();
         int sizeInBytes = Address.align(Address.fromInt(Structure.sizeOf(RuntimeArray.class)), itemSize).toInt();
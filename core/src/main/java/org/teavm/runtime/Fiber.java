@@ -20,6 +20,12 @@ import org.teavm.interop.AsyncCallback;
 import org.teavm.interop.StaticInit;
 import org.teavm.interop.Unmanaged;
 
+/**
+ * Green thread for low-level targets. All fibers run on a single OS thread and switch only at suspension
+ * points of async methods, which {@code CoroutineTransformation} splits into resumable parts. Monitors
+ * rely on this. In multithreaded mode of C backend GC, allocator and shadow stack support other OS threads
+ * as well, but Java threads are still fibers.
+ */
 @StaticInit
 public class Fiber {
     public static final int STATE_RUNNING = 0;
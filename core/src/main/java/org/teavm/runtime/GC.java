@@ -50,6 +50,8 @@ public final class GC {
     static boolean isFullGC = true;
     private static int youngGCCount;
     private static RuntimeBuffer firstDirectBuffer;
+    private static int resolvedNativeStackRoots;
+    private static boolean nativeStackRootsResolved;
 
     static native Address gcStorageAddress();
 
@@ -77,6 +79,24 @@ public final class GC {
 
     public static native void writeBarrier(RuntimeObject object);
 
+    private static native void collectNativeStackRoots();
+
+    private static native Address nativeStackRoots();
+
+    private static native int nativeStackRootCount();
+
+    private static native boolean isMultithreaded();
+
+    private static native RuntimeObject allocLocal(int size);
+
+    private static native void lockHeap();
+
+    private static native void unlockHeap();
+
+    private static native void stopTheWorld();
+
+    private static native void resumeTheWorld();
+
     @Import(name = "teavm_outOfMemory")
     public static native void outOfMemory();
 
@@ -108,7 +128,17 @@ public final class GC {
         firstDirectBuffer = buffer;
     }
 
+    // In multithreaded mode every thread allocates from its own buffer, and only takes
+    // the heap lock to get a new buffer from the shared allocator
     public static RuntimeObject alloc(int size) {
+        if (isMultithreaded()) {
+            return allocLocal(size);
+        }
+        return allocShared(size);
+    }
+
+    @Export(name = "teavm_gc_allocShared")
+    public static RuntimeObject allocShared(int size) {
         FreeChunk current = currentChunk;
         Address next = current.toAddress().add(size);
         if (!next.add(Structure.sizeOf(FreeChunk.class)).isLessThan(currentChunkLimit)) {
@@ -126,6 +156,7 @@ public final class GC {
         if (getNextChunkIfPossible(size)) {
             return;
         }
+        stopTheWorld();
         collectGarbageImpl(size);
         if (!hasAvailableMemory(size)) {
             collectGarbageFullImpl(size);
@@ -134,6 +165,7 @@ public final class GC {
                 outOfMemory();
             }
         }
+        resumeTheWorld();
     }
 
     private static boolean hasAvailableMemory(int size) {
@@ -164,14 +196,22 @@ public final class GC {
 
     @Export(name = "teavm_gc_collect")
     public static void collectGarbage() {
+        lockHeap();
+        stopTheWorld();
         fixHeap();
         collectGarbageImpl(0);
+        resumeTheWorld();
+        unlockHeap();
     }
 
     @Export(name = "teavm_gc_collectFull")
     public static void collectGarbageFull() {
+        lockHeap();
+        stopTheWorld();
         fixHeap();
         collectGarbageFullImpl(0);
+        resumeTheWorld();
+        unlockHeap();
     }
 
     private static void collectGarbageFullImpl(int size) {
@@ -180,6 +220,8 @@ public final class GC {
     }
 
     private static void triggerFullGC() {
+        // Region table is used to resolve native stack roots, so they have to be resolved before it's cleared
+        resolveNativeStackRoots();
         isFullGC = true;
         int regionsCount = getRegionCount();
         Address.fill(cardTable(), (byte) 0, getRegionCount());
@@ -211,6 +253,7 @@ public final class GC {
         currentChunkLimit = currentChunk.toAddress().add(currentChunk.size);
 
         Address.fill(cardTable(), CARD_VALID, getRegionCount());
+        nativeStackRootsResolved = false;
     }
 
     private static void doCollectGarbage() {
@@ -271,6 +314,7 @@ public final class GC {
         MemoryTrace.markStarted();
         firstWeakReference = null;
 
+        resolveNativeStackRoots();
         markFromStaticFields();
         markFromClasses();
         markFromStack();
@@ -313,10 +357,81 @@ public final class GC {
             Address stackRootsPtr = ShadowStack.getStackRootPointer(stackRoots);
             while (count-- > 0) {
                 RuntimeObject obj = stackRootsPtr.getAddress().toStructure();
-                mark(obj);
+                if (isInHeap(obj)) {
+                    mark(obj);
+                }
                 stackRootsPtr = stackRootsPtr.add(Address.sizeOf());
             }
         }
+
+        Address nativeRootsPtr = nativeStackRoots();
+        for (int i = 0; i < resolvedNativeStackRoots; ++i) {
+            mark(nativeRootsPtr.getAddress().toStructure());
+            nativeRootsPtr = nativeRootsPtr.add(Address.sizeOf());
+        }
+    }
+
+    // Native stack is scanned conservatively, so any word that looks like a pointer into heap
+    // is treated as a reference to the object that contains this address. Objects found this way
+    // are pinned during defragmentation, since we can't update ambiguous references.
+    // Roots are resolved once per collection, while stack and heap layout stay the same.
+    private static void resolveNativeStackRoots() {
+        if (nativeStackRootsResolved) {
+            return;
+        }
+        nativeStackRootsResolved = true;
+        collectNativeStackRoots();
+        int count = nativeStackRootCount();
+        resolvedNativeStackRoots = 0;
+
+        Address roots = nativeStackRoots();
+        Address resolvedPtr = roots;
+        long lastResolved = 0;
+        FreeChunk object = heapAddress().toStructure();
+        for (int i = 0; i < count; ++i) {
+            Address candidate = roots.add(i * Address.sizeOf()).getAddress();
+            object = findWalkStart(object.toAddress(), candidate).toStructure();
+            Address next = object.toAddress().add(objectSize(object));
+            while (!candidate.isLessThan(next)) {
+                object = next.toStructure();
+                next = object.toAddress().add(objectSize(object));
+            }
+            if (object.classReference != 0 && object.toAddress().toLong() != lastResolved) {
+                lastResolved = object.toAddress().toLong();
+                resolvedPtr.putAddress(object.toAddress());
+                resolvedPtr = resolvedPtr.add(Address.sizeOf());
+                resolvedNativeStackRoots++;
+            }
+        }
+    }
+
+    // Candidates are sorted, so heap is walked forward from the previous position. To avoid walking
+    // through the whole heap, walk jumps to the start of the closest region that precedes candidate,
+    // as recorded during previous collections.
+    private static Address findWalkStart(Address position, Address candidate) {
+        int regionSize = regionSize();
+        int positionRegion = (int) ((position.toLong() - heapAddress().toLong()) / regionSize);
+        int region = (int) ((candidate.toLong() - heapAddress().toLong()) / regionSize);
+        for (; region >= positionRegion; --region) {
+            int offset = Structure.add(Region.class, regionsAddress(), region).start;
+            if (offset == 0) {
+                continue;
+            }
+            Address boundary = heapAddress().add(region * regionSize).add(offset - 1);
+            if (!position.isLessThan(boundary)) {
+                break;
+            }
+            if (!candidate.isLessThan(boundary)) {
+                return boundary;
+            }
+        }
+        return position;
+    }
+
+    // Objects allocated on native stack may be referenced from shadow stack, but GC does not manage them
+    private static boolean isInHeap(RuntimeObject object) {
+        Address address = object.toAddress();
+        return !address.isLessThan(heapAddress()) && address.isLessThan(heapAddress().add(availableBytes()));
     }
 
     private static void markFromOldGeneration() {
@@ -789,14 +904,26 @@ public final class GC {
             Address stackRootsPtr = ShadowStack.getStackRootPointer(stackRoots);
             while (count-- > 0) {
                 RuntimeObject obj = stackRootsPtr.getAddress().toStructure();
-                if (!obj.toAddress().isLessThan(relocationThreshold)) {
-                    if (isFullGC || (obj.classReference & RuntimeObject.GC_OLD_GENERATION) == 0) {
-                        obj.classReference |= RuntimeObject.GC_MARKED;
-                    }
+                if (isInHeap(obj)) {
+                    pinStackRoot(obj, relocationThreshold);
                 }
                 stackRootsPtr = stackRootsPtr.add(Address.sizeOf());
             }
         }
+
+        Address nativeRootsPtr = nativeStackRoots();
+        for (int i = 0; i < resolvedNativeStackRoots; ++i) {
+            pinStackRoot(nativeRootsPtr.getAddress().toStructure(), relocationThreshold);
+            nativeRootsPtr = nativeRootsPtr.add(Address.sizeOf());
+        }
+    }
+
+    private static void pinStackRoot(RuntimeObject obj, Address relocationThreshold) {
+        if (!obj.toAddress().isLessThan(relocationThreshold)) {
+            if (isFullGC || (obj.classReference & RuntimeObject.GC_OLD_GENERATION) == 0) {
+                obj.classReference |= RuntimeObject.GC_MARKED;
+            }
+        }
     }
 
     private static void moveNonRelocatableObjectsToOldGeneration() {
@@ -73,6 +73,7 @@ import org.teavm.model.ProgramCache;
 import org.teavm.model.ValueType;
 import org.teavm.model.analysis.ClassInitializerAnalysis;
 import org.teavm.model.analysis.ClassInitializerInfo;
+import org.teavm.model.analysis.InterproceduralEscapeAnalysis;
 import org.teavm.model.instructions.ExitInstruction;
 import org.teavm.model.instructions.InitClassInstruction;
 import org.teavm.model.instructions.InvokeInstruction;
@@ -84,7 +85,10 @@ import org.teavm.model.optimization.Devirtualization;
 import org.teavm.model.optimization.GlobalValueNumbering;
 import org.teavm.model.optimization.Inlining;
 import org.teavm.model.optimization.InliningStrategy;
+import org.teavm.model.optimization.LoopIdiomRecognition;
 import org.teavm.model.optimization.LoopInvariantMotion;
+import org.teavm.model.optimization.LoopInversion;
+import org.teavm.model.optimization.LoopUnrolling;
 import org.teavm.model.optimization.MethodOptimization;
 import org.teavm.model.optimization.MethodOptimizationContext;
 import org.teavm.model.optimization.RedundantJumpElimination;
@@ -170,6 +174,7 @@ public class TeaVM implements TeaVMHost, ServiceRepository {
     private int compileProgressValue;
     private ClassSourcePacker classSourcePacker;
     private ClassInitializerInfo classInitializerInfo;
+    private InterproceduralEscapeAnalysis escapeAnalysis;
 
     TeaVM(TeaVMBuilder builder) {
         target = builder.target;
@@ -531,6 +536,12 @@ public class TeaVM implements TeaVMHost, ServiceRepository {
             return null;
         }
 
+        // Escape summaries of callees are not tracked by cache, so they are only used for full builds
+        if (rawCacheStatus == AlwaysStaleCacheStatus.INSTANCE) {
+            escapeAnalysis = new InterproceduralEscapeAnalysis(dependencyAnalyzer.getCallGraph(), m -> false);
+            escapeAnalysis.analyze(classSet);
+        }
+
         target.analyzeBeforeOptimizations(new ListableClassReaderSourceAdapter(
                 dependencyAnalyzer.getClassSource(),
                 new LinkedHashSet<>(dependencyAnalyzer.getReachableClasses())));
@@ -842,8 +853,13 @@ public class TeaVM implements TeaVMHost, ServiceRepository {
         optimizations.add(new RedundantJumpElimination());
         optimizations.add(new ArrayUnwrapMotion());
         if (optimizationLevel.ordinal() >= TeaVMOptimizationLevel.ADVANCED.ordinal()) {
-            optimizations.add(new ScalarReplacement());
-            //optimizations.add(new LoopInversion());
+            optimizations.add(escapeAnalysis != null ? new ScalarReplacement(escapeAnalysis)
+                    : new ScalarReplacement());
+            optimizations.add(new LoopUnrolling());
+            if (target.needsLoopIdiomRecognition()) {
+                optimizations.add(new LoopIdiomRecognition());
+            }
+            optimizations.add(new LoopInversion());
             optimizations.add(new LoopInvariantMotion());
         }
         if (optimizationLevel.ordinal() >= TeaVMOptimizationLevel.ADVANCED.ordinal()) {
@@ -74,6 +74,10 @@ public interface TeaVMTarget {
         return true;
     }
 
+    default boolean needsLoopIdiomRecognition() {
+        return false;
+    }
+
     default boolean filterClassInitializer(String initializer) {
         return true;
     }
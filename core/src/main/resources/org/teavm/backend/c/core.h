@@ -7,6 +7,7 @@
 #include "memory.h"
 #include "core_defs.h"
 #include <stdlib.h>
+#include <string.h>
 
 #if TEAVM_MEMORY_TRACE
     #include "heaptrace.h"
@@ -143,6 +144,23 @@ static inline void teavm_initializeClass(TeaVM_Class* cls, void (*initializer)()
 #define TEAVM_CLASS_OF(obj) (TEAVM_UNPACK_CLASS(((TeaVM_Object*) (obj))->header))
 #define TEAVM_AS(ptr, type) ((type*) (ptr))
 
+#if TEAVM_WINDOWS
+    #include <malloc.h>
+    #define TEAVM_ALLOCA(size) _alloca(size)
+#else
+    #include <alloca.h>
+    #define TEAVM_ALLOCA(size) alloca(size)
+#endif
+
+static inline void* teavm_initStackObject(void* address, TeaVM_Class* cls, size_t size) {
+    memset(address, 0, size);
+    ((TeaVM_Object*) address)->header = TEAVM_PACK_CLASS(cls);
+    return address;
+}
+
+#define TEAVM_ALLOC_ON_STACK(type, cls) \
+    teavm_initStackObject(TEAVM_ALLOCA(sizeof(type)), (TeaVM_Class*) (cls), sizeof(type))
+
 #if TEAVM_MEMORY_TRACE
     static inline void teavm_gc_assertAddress(void* address) {
         if ((unsigned int) (uintptr_t) address % sizeof(void*) != 0) {
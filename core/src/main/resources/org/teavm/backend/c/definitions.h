@@ -80,6 +80,10 @@
     #define TEAVM_GC_STATS 0
 #endif
 
+#ifndef TEAVM_MULTITHREADED
+    #define TEAVM_MULTITHREADED 0
+#endif
+
 #ifndef TEAVM_OBFUSCATED
     #define TEAVM_OBFUSCATED 0
 #endif
\ No newline at end of file
@@ -1,8 +1,10 @@
 #include "memory.h"
 #include "heaptrace.h"
 #include "definitions.h"
+#include "threads.h"
 #include <stdlib.h>
 #include <string.h>
+#include <setjmp.h>
 
 #if TEAVM_UNIX
     #include <unistd.h>
@@ -267,6 +269,114 @@ void teavm_initStaticGcRoots() {
     }
 }
 
+void* teavm_gc_nativeStackBase = NULL;
+void** teavm_gc_nativeStackRoots = NULL;
+int32_t teavm_gc_nativeStackRootCount = 0;
+
+void teavm_gc_setNativeStackBase(void* base) {
+    teavm_gc_nativeStackBase = base;
+    #if TEAVM_MULTITHREADED
+        teavm_attachThread(base);
+    #endif
+}
+
+#if TEAVM_CONSERVATIVE_STACK_SCAN
+
+static int32_t teavm_gc_nativeStackRootCapacity = 0;
+static volatile int32_t teavm_gc_nativeStackScanCount = 0;
+
+extern void teavm_outOfMemory();
+
+static int teavm_gc_compareAddresses(const void* a, const void* b) {
+    uintptr_t first = (uintptr_t) *(void* const*) a;
+    uintptr_t second = (uintptr_t) *(void* const*) b;
+    return first < second ? -1 : first > second ? 1 : 0;
+}
+
+static void teavm_gc_addNativeStackRoot(void* candidate) {
+    if (teavm_gc_nativeStackRootCount == teavm_gc_nativeStackRootCapacity) {
+        teavm_gc_nativeStackRootCapacity = teavm_gc_nativeStackRootCapacity == 0
+                ? 256
+                : teavm_gc_nativeStackRootCapacity * 2;
+        void** newRoots = realloc(teavm_gc_nativeStackRoots, teavm_gc_nativeStackRootCapacity * sizeof(void*));
+        if (newRoots == NULL) {
+            teavm_outOfMemory();
+        }
+        teavm_gc_nativeStackRoots = newRoots;
+    }
+    teavm_gc_nativeStackRoots[teavm_gc_nativeStackRootCount++] = candidate;
+}
+
+#if defined(__GNUC__) || defined(__clang__)
+    #define TEAVM_GC_NOINLINE __attribute__((noinline))
+#elif defined(_MSC_VER)
+    #define TEAVM_GC_NOINLINE __declspec(noinline)
+#else
+    #define TEAVM_GC_NOINLINE
+#endif
+
+static void teavm_gc_scanStackRange(char* from, char* to) {
+    char* heapStart = (char*) teavm_gc_heapAddress;
+    char* heapEnd = heapStart + teavm_gc_availableBytes;
+    if (from > to) {
+        char* tmp = from;
+        from = to;
+        to = tmp;
+    }
+    from = (char*) (((uintptr_t) from) & ~(uintptr_t) (sizeof(void*) - 1));
+
+    for (void** ptr = (void**) from; (char*) (ptr + 1) <= to; ++ptr) {
+        char* candidate = (char*) *(void* volatile*) ptr;
+        if (candidate >= heapStart && candidate < heapEnd) {
+            teavm_gc_addNativeStackRoot(candidate);
+        }
+    }
+}
+
+// Called after callee-saved registers were spilled by the caller, so the frame of this function lies
+// below the spilled registers and scanning from its local variable covers them
+static TEAVM_GC_NOINLINE void teavm_gc_scanNativeStack() {
+    void* volatile marker = NULL;
+    teavm_gc_nativeStackRootCount = 0;
+    #if TEAVM_MULTITHREADED
+        // Other threads are stopped at this point and have their stack tops recorded
+        for (TeaVM_Thread* thread = teavm_firstThread; thread != NULL; thread = thread->next) {
+            if (thread == teavm_currentThread) {
+                teavm_gc_scanStackRange((char*) &marker, (char*) thread->stackBase);
+            } else {
+                teavm_gc_scanStackRange((char*) thread->stackTop, (char*) thread->stackBase);
+            }
+        }
+    #else
+        teavm_gc_scanStackRange((char*) &marker, (char*) teavm_gc_nativeStackBase);
+    #endif
+
+    qsort(teavm_gc_nativeStackRoots, teavm_gc_nativeStackRootCount, sizeof(void*), teavm_gc_compareAddresses);
+}
+
+void teavm_gc_collectNativeStackRoots() {
+    // Spill callee-saved registers, so that references held in them are found on stack as well.
+    // setjmp is not suitable on glibc, since it stores some registers (including rbp) mangled.
+    #if defined(__GNUC__) || defined(__clang__)
+        __builtin_unwind_init();
+    #else
+        // MSVC stores registers in jmp_buf as is
+        jmp_buf registers;
+        setjmp(registers);
+    #endif
+    teavm_gc_scanNativeStack();
+    // Store after the call prevents it from becoming a tail call, which would release the frame
+    // that holds spilled registers before the scan
+    teavm_gc_nativeStackScanCount++;
+}
+
+#else
+
+void teavm_gc_collectNativeStackRoots() {
+}
+
+#endif
+
 #if TEAVM_PSP
 
 int64_t teavm_pageSize() {
@@ -17,4 +17,9 @@ extern void teavm_initHeap(int64_t minHeap, int64_t maxHeap);
 extern void teavm_gc_resizeHeap(int64_t newSize);
 
 extern void teavm_registerStaticGcRoots(void***, int);
-extern void teavm_initStaticGcRoots();
\ No newline at end of file
+extern void teavm_initStaticGcRoots();
+
+extern void** teavm_gc_nativeStackRoots;
+extern int32_t teavm_gc_nativeStackRootCount;
+extern void teavm_gc_setNativeStackBase(void* base);
+extern void teavm_gc_collectNativeStackRoots();
\ No newline at end of file
@@ -1,3 +1,7 @@
 #include "stack.h"
 
-TeaVM_StackFrame* teavm_stackTop = NULL;
\ No newline at end of file
+#if TEAVM_MULTITHREADED
+_Thread_local TeaVM_StackFrame* teavm_stackTop = NULL;
+#else
+TeaVM_StackFrame* teavm_stackTop = NULL;
+#endif
\ No newline at end of file
@@ -100,4 +100,8 @@ typedef struct TeaVM_StackFrame {
 #define TEAVM_GET_NEXT_FRAME(frame) (((TeaVM_StackFrame*) (frame))->next)
 #define TEAVM_GET_CALL_SITE_ID(frame) (((TeaVM_StackFrame*) (frame))->callSiteId)
 
-extern TeaVM_StackFrame* teavm_stackTop;
\ No newline at end of file
+#if TEAVM_MULTITHREADED
+extern _Thread_local TeaVM_StackFrame* teavm_stackTop;
+#else
+extern TeaVM_StackFrame* teavm_stackTop;
+#endif
\ No newline at end of file
@@ -0,0 +1,195 @@
+#include "threads.h"
+#include "definitions.h"
+
+#if TEAVM_MULTITHREADED
+
+#include <pthread.h>
+#include <stdlib.h>
+
+extern void* teavm_gc_allocShared(int32_t size);
+extern void teavm_outOfMemory();
+
+_Thread_local TeaVM_Thread* teavm_currentThread = NULL;
+atomic_int teavm_gc_safepointRequested = 0;
+
+// Guards thread list and safepoint state
+static pthread_mutex_t teavm_threadsLock = PTHREAD_MUTEX_INITIALIZER;
+static pthread_cond_t teavm_threadsParked = PTHREAD_COND_INITIALIZER;
+static pthread_cond_t teavm_threadsResumed = PTHREAD_COND_INITIALIZER;
+TeaVM_Thread* teavm_firstThread = NULL;
+static TeaVM_Thread* teavm_worldStoppedBy = NULL;
+
+// Serializes access to shared allocator and GC
+static pthread_mutex_t teavm_heapLock = PTHREAD_MUTEX_INITIALIZER;
+
+#if defined(__GNUC__) || defined(__clang__)
+    #define TEAVM_THREADS_NOINLINE __attribute__((noinline))
+#else
+    #define TEAVM_THREADS_NOINLINE
+#endif
+
+// Stack of a thread that does not run managed code is scanned by GC conservatively, from the recorded top
+// to its base. Callee-saved registers are spilled first, so that references held in them are scanned as well.
+static TEAVM_THREADS_NOINLINE void teavm_recordStackTop(TeaVM_Thread* thread) {
+    #if defined(__GNUC__) || defined(__clang__)
+        thread->stackTop = __builtin_frame_address(0);
+    #else
+        void* volatile marker = NULL;
+        thread->stackTop = (void*) &marker;
+    #endif
+}
+
+static TEAVM_THREADS_NOINLINE void teavm_markSafe(TeaVM_Thread* thread) {
+    #if defined(__GNUC__) || defined(__clang__)
+        __builtin_unwind_init();
+    #endif
+    teavm_recordStackTop(thread);
+    thread->safe = 1;
+    pthread_cond_broadcast(&teavm_threadsParked);
+}
+
+static void teavm_waitForResume(TeaVM_Thread* thread) {
+    while (atomic_load(&teavm_gc_safepointRequested)) {
+        pthread_cond_wait(&teavm_threadsResumed, &teavm_threadsLock);
+    }
+    thread->safe = 0;
+    thread->stackTop = NULL;
+}
+
+static void teavm_retireAllocationBuffer(TeaVM_Thread* thread) {
+    if (thread->allocationStart < thread->allocationLimit) {
+        int32_t* chunk = (int32_t*) thread->allocationStart;
+        chunk[0] = 0;
+        chunk[1] = (int32_t) (thread->allocationLimit - thread->allocationStart);
+    }
+    thread->allocationStart = NULL;
+    thread->allocationLimit = NULL;
+}
+
+void teavm_attachThread(void* stackBase) {
+    TeaVM_Thread* thread = calloc(1, sizeof(TeaVM_Thread));
+    if (thread == NULL) {
+        teavm_outOfMemory();
+    }
+    thread->stackBase = stackBase;
+
+    pthread_mutex_lock(&teavm_threadsLock);
+    teavm_waitForResume(thread);
+    thread->next = teavm_firstThread;
+    teavm_firstThread = thread;
+    pthread_mutex_unlock(&teavm_threadsLock);
+
+    teavm_currentThread = thread;
+}
+
+// Thread that runs managed code can't be stopped, so its buffer can be retired without taking heap lock
+void teavm_detachThread() {
+    TeaVM_Thread* thread = teavm_currentThread;
+    teavm_retireAllocationBuffer(thread);
+
+    pthread_mutex_lock(&teavm_threadsLock);
+    TeaVM_Thread** ptr = &teavm_firstThread;
+    while (*ptr != thread) {
+        ptr = &(*ptr)->next;
+    }
+    *ptr = thread->next;
+    pthread_cond_broadcast(&teavm_threadsParked);
+    pthread_mutex_unlock(&teavm_threadsLock);
+
+    teavm_currentThread = NULL;
+    free(thread);
+}
+
+// Thread that stopped the world may reach safepoint while collecting garbage, it should not wait for itself
+void teavm_gc_park() {
+    TeaVM_Thread* thread = teavm_currentThread;
+    pthread_mutex_lock(&teavm_threadsLock);
+    if (atomic_load(&teavm_gc_safepointRequested) && thread != teavm_worldStoppedBy) {
+        teavm_markSafe(thread);
+        teavm_waitForResume(thread);
+    }
+    pthread_mutex_unlock(&teavm_threadsLock);
+}
+
+void teavm_enterSafeRegion() {
+    TeaVM_Thread* thread = teavm_currentThread;
+    pthread_mutex_lock(&teavm_threadsLock);
+    teavm_markSafe(thread);
+    pthread_mutex_unlock(&teavm_threadsLock);
+}
+
+void teavm_leaveSafeRegion() {
+    TeaVM_Thread* thread = teavm_currentThread;
+    pthread_mutex_lock(&teavm_threadsLock);
+    teavm_waitForResume(thread);
+    pthread_mutex_unlock(&teavm_threadsLock);
+}
+
+// Other threads may collect garbage while this thread waits for the lock, so it has to be in safe region
+void teavm_gc_lockHeap() {
+    if (pthread_mutex_trylock(&teavm_heapLock) == 0) {
+        return;
+    }
+    teavm_enterSafeRegion();
+    pthread_mutex_lock(&teavm_heapLock);
+    teavm_leaveSafeRegion();
+}
+
+void teavm_gc_unlockHeap() {
+    pthread_mutex_unlock(&teavm_heapLock);
+}
+
+// Must be called with heap lock held. Returns when all other threads reach safepoint or safe region.
+// Allocation buffers are retired, so that heap can be walked, and since GC may move or free them.
+void teavm_gc_stopTheWorld() {
+    TeaVM_Thread* self = teavm_currentThread;
+    pthread_mutex_lock(&teavm_threadsLock);
+    atomic_store(&teavm_gc_safepointRequested, 1);
+    while (1) {
+        int allStopped = 1;
+        for (TeaVM_Thread* thread = teavm_firstThread; thread != NULL; thread = thread->next) {
+            if (thread != self && !thread->safe) {
+                allStopped = 0;
+                break;
+            }
+        }
+        if (allStopped) {
+            break;
+        }
+        pthread_cond_wait(&teavm_threadsParked, &teavm_threadsLock);
+    }
+    teavm_worldStoppedBy = self;
+    for (TeaVM_Thread* thread = teavm_firstThread; thread != NULL; thread = thread->next) {
+        teavm_retireAllocationBuffer(thread);
+    }
+    pthread_mutex_unlock(&teavm_threadsLock);
+}
+
+void teavm_gc_resumeTheWorld() {
+    pthread_mutex_lock(&teavm_threadsLock);
+    teavm_worldStoppedBy = NULL;
+    atomic_store(&teavm_gc_safepointRequested, 0);
+    pthread_cond_broadcast(&teavm_threadsResumed);
+    pthread_mutex_unlock(&teavm_threadsLock);
+}
+
+// No safepoint here, since object is not initialized yet and heap can't be walked.
+// Large objects are allocated directly from shared allocator, to avoid wasting the rest of the buffer
+void* teavm_gc_refillAllocationBuffer(int32_t size) {
+    TeaVM_Thread* thread = teavm_currentThread;
+    void* result;
+    teavm_gc_lockHeap();
+    if (size > TEAVM_ALLOCATION_BUFFER_SIZE / 4) {
+        result = teavm_gc_allocShared(size);
+    } else {
+        teavm_retireAllocationBuffer(thread);
+        char* buffer = teavm_gc_allocShared(TEAVM_ALLOCATION_BUFFER_SIZE);
+        thread->allocationStart = buffer + size;
+        thread->allocationLimit = buffer + TEAVM_ALLOCATION_BUFFER_SIZE;
+        result = buffer;
+    }
+    teavm_gc_unlockHeap();
+    return result;
+}
+
+#endif
@@ -0,0 +1,73 @@
+#pragma once
+#include <stdint.h>
+#include "definitions.h"
+
+#if TEAVM_MULTITHREADED
+
+#if !TEAVM_UNIX
+    #error "Multithreaded runtime is only supported on POSIX platforms"
+#endif
+
+#if !TEAVM_CONSERVATIVE_STACK_SCAN
+    #error "Multithreaded runtime requires conservative stack scanning"
+#endif
+
+#include <stdatomic.h>
+
+#define TEAVM_ALLOCATION_BUFFER_SIZE (64 * 1024)
+
+typedef struct TeaVM_Thread {
+    struct TeaVM_Thread* next;
+    void* stackBase;
+    void* stackTop;
+    int32_t safe;
+    char* allocationStart;
+    char* allocationLimit;
+} TeaVM_Thread;
+
+extern _Thread_local TeaVM_Thread* teavm_currentThread;
+extern TeaVM_Thread* teavm_firstThread;
+extern atomic_int teavm_gc_safepointRequested;
+
+extern void teavm_attachThread(void* stackBase);
+extern void teavm_detachThread();
+extern void teavm_enterSafeRegion();
+extern void teavm_leaveSafeRegion();
+
+extern void teavm_gc_park();
+extern void teavm_gc_lockHeap();
+extern void teavm_gc_unlockHeap();
+extern void teavm_gc_stopTheWorld();
+extern void teavm_gc_resumeTheWorld();
+extern void* teavm_gc_refillAllocationBuffer(int32_t size);
+
+#define TEAVM_SAFEPOINT() \
+    do { \
+        if (atomic_load_explicit(&teavm_gc_safepointRequested, memory_order_relaxed)) { \
+            teavm_gc_park(); \
+        } \
+    } while (0)
+
+// Leftover of a buffer is turned into a free chunk before collection, which takes 8 bytes,
+// so only an exact fit is allowed to leave less than that.
+static inline void* teavm_gc_allocLocal(int32_t size) {
+    TeaVM_Thread* thread = teavm_currentThread;
+    char* result = thread->allocationStart;
+    intptr_t remaining = thread->allocationLimit - result;
+    if (remaining == size || remaining >= size + 8) {
+        thread->allocationStart = result + size;
+        return result;
+    }
+    return teavm_gc_refillAllocationBuffer(size);
+}
+
+#else
+
+#define TEAVM_SAFEPOINT() ((void) 0)
+#define teavm_gc_allocLocal(size) ((void*) 0)
+#define teavm_gc_lockHeap() ((void) 0)
+#define teavm_gc_unlockHeap() ((void) 0)
+#define teavm_gc_stopTheWorld() ((void) 0)
+#define teavm_gc_resumeTheWorld() ((void) 0)
+
+#endif
@@ -0,0 +1,122 @@
+/*
+ *  Copyright 2026 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.backend.javascript;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+import org.teavm.backend.javascript.codegen.DefaultAliasProvider;
+import org.teavm.backend.javascript.codegen.DefaultNamingStrategy;
+import org.teavm.backend.javascript.codegen.OutputSourceWriterBuilder;
+import org.teavm.model.MethodReference;
+import org.teavm.model.ValueType;
+
+public class HotPatchSnapshotTest {
+    private static final MethodReference FOO = new MethodReference("Test", "foo", ValueType.INTEGER);
+    private static final MethodReference BAR = new MethodReference("Test", "bar", ValueType.VOID);
+    private static final MethodReference BAZ = new MethodReference("Test", "baz", ValueType.VOID);
+
+    @Test
+    public void patchesChangedMethodsOnly() {
+        var first = render("$rt_classWithoutFields()", "return 1;", "log(2);");
+        var second = render("$rt_classWithoutFields()", "return 23;", "log(2);");
+
+        var patch = second.createPatch(first);
+
+        var fooTarget = second.getMethods().get(FOO).getTarget();
+        assertTrue(patch, patch.startsWith(fooTarget + " = "));
+        assertTrue(patch, patch.contains("return 23;"));
+        assertFalse(patch, patch.contains(second.getMethods().get(BAR).getTarget()));
+    }
+
+    @Test
+    public void patchesFunctionDeclarations() {
+        var first = render("$rt_classWithoutFields()", "return 1;", "log(2);");
+        var second = render("$rt_classWithoutFields()", "return 1;", "log(3);");
+
+        var patch = second.createPatch(first);
+
+        var barTarget = second.getMethods().get(BAR).getTarget();
+        assertTrue(patch, patch.startsWith(barTarget + " = function " + barTarget + "()"));
+        assertTrue(patch, patch.contains("log(3);"));
+    }
+
+    @Test
+    public void emptyPatchForSameCode() {
+        var first = render("$rt_classWithoutFields()", "return 1;", "log(2);");
+        var second = render("$rt_classWithoutFields()", "return 1;", "log(2);");
+
+        assertEquals("", second.createPatch(first));
+    }
+
+    @Test
+    public void noPatchWhenSkeletonChanges() {
+        var first = render("$rt_classWithoutFields()", "return 1;", "log(2);");
+        var second = render("$rt_classWithoutFields(0)", "return 23;", "log(2);");
+
+        assertNull(second.createPatch(first));
+        assertNull(first.createPatch(null));
+    }
+
+    @Test
+    public void noPatchWhenMethodSetChanges() {
+        var first = render("$rt_classWithoutFields()", "return 1;", "log(2);");
+        var second = render("$rt_classWithoutFields()", "return 1;", "log(2);", BAZ);
+
+        assertNull(second.createPatch(first));
+    }
+
+    @Test
+    public void skipsUnpatchableMethods() {
+        var sb = new StringBuilder();
+        var recorder = new HotPatchRecorder(sb, m -> !m.equals(BAR));
+        var first = render(sb, recorder, "$rt_classWithoutFields()", "return 1;", "log(2);");
+        sb = new StringBuilder();
+        recorder = new HotPatchRecorder(sb, m -> !m.equals(BAR));
+        var second = render(sb, recorder, "$rt_classWithoutFields()", "return 1;", "log(3);");
+
+        assertEquals(1, second.getMethods().size());
+        assertNull(second.createPatch(first));
+    }
+
+    private HotPatchSnapshot render(String classDecl, String fooBody, String barBody, MethodReference... extra) {
+        var sb = new StringBuilder();
+        return render(sb, new HotPatchRecorder(sb, m -> true), classDecl, fooBody, barBody, extra);
+    }
+
+    private HotPatchSnapshot render(StringBuilder sb, HotPatchRecorder recorder, String classDecl, String fooBody,
+            String barBody, MethodReference... extra) {
+        var naming = new DefaultNamingStrategy(new DefaultAliasProvider(1000), name -> null);
+        var writer = new OutputSourceWriterBuilder(naming).build(sb);
+        writer.setMethodDeclarationListener(recorder);
+
+        writer.startVariableDeclaration().appendClass("Test").append(classDecl).endDeclaration();
+        writer.startVariableDeclaration().appendMethod(FOO).append("()").ws().append("=>").ws().append("{")
+                .indent().softNewLine().append(fooBody).softNewLine().outdent().append("}").endDeclaration();
+        writer.startFunctionDeclaration().appendMethod(BAR).append("()").ws().append("{")
+                .indent().softNewLine().append(barBody).softNewLine().outdent().append("}").endDeclaration();
+        for (var method : extra) {
+            writer.startVariableDeclaration().appendMethod(method).append("()").ws().append("=>").ws()
+                    .append("{}").endDeclaration();
+        }
+        writer.append("main();").newLine();
+        writer.finish();
+
+        return recorder.finish();
+    }
+}
@@ -0,0 +1,255 @@
+/*
+ *  Copyright 2026 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.backend.wasm.render;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+import org.teavm.backend.wasm.model.WasmModule;
+import org.teavm.backend.wasm.model.instruction.WasmInstruction;
+import org.teavm.backend.wasm.model.instruction.WasmLoadVector;
+import org.teavm.backend.wasm.model.instruction.WasmSignedType;
+import org.teavm.backend.wasm.model.instruction.WasmStoreVector;
+import org.teavm.backend.wasm.model.instruction.WasmVectorBinary;
+import org.teavm.backend.wasm.model.instruction.WasmVectorBinaryOperation;
+import org.teavm.backend.wasm.model.instruction.WasmVectorConstant;
+import org.teavm.backend.wasm.model.instruction.WasmVectorExtractLane;
+import org.teavm.backend.wasm.model.instruction.WasmVectorReplaceLane;
+import org.teavm.backend.wasm.model.instruction.WasmVectorShape;
+import org.teavm.backend.wasm.model.instruction.WasmVectorSplat;
+import org.teavm.backend.wasm.parser.AddressListener;
+import org.teavm.backend.wasm.parser.CodeListener;
+import org.teavm.backend.wasm.parser.CodeParser;
+
+public class WasmVectorInstructionsTest {
+    @Test
+    public void memoryAccessEncoding() {
+        var load = new WasmLoadVector(16);
+        load.setOffset(32);
+        assertArrayEquals(bytes(0xFD, 0x00, 0x04, 0x20), render(load));
+
+        var store = new WasmStoreVector(4);
+        store.setOffset(200);
+        assertArrayEquals(bytes(0xFD, 0x0B, 0x02, 0xC8, 0x01), render(store));
+    }
+
+    @Test
+    public void constantEncoding() {
+        var value = new byte[16];
+        for (var i = 0; i < value.length; ++i) {
+            value[i] = (byte) (i * 17);
+        }
+        var expected = new byte[18];
+        expected[0] = (byte) 0xFD;
+        expected[1] = 0x0C;
+        System.arraycopy(value, 0, expected, 2, value.length);
+        assertArrayEquals(expected, render(new WasmVectorConstant(value)));
+    }
+
+    @Test
+    public void laneEncoding() {
+        assertArrayEquals(bytes(0xFD, 0x11), render(new WasmVectorSplat(WasmVectorShape.I32X4)));
+        assertArrayEquals(bytes(0xFD, 0x14), render(new WasmVectorSplat(WasmVectorShape.F64X2)));
+        assertArrayEquals(bytes(0xFD, 0x15, 0x0F), render(new WasmVectorExtractLane(WasmVectorShape.I8X16, 15,
+                WasmSignedType.SIGNED)));
+        assertArrayEquals(bytes(0xFD, 0x19, 0x07), render(new WasmVectorExtractLane(WasmVectorShape.I16X8, 7,
+                WasmSignedType.UNSIGNED)));
+        assertArrayEquals(bytes(0xFD, 0x1F, 0x02), render(new WasmVectorExtractLane(WasmVectorShape.F32X4, 2,
+                null)));
+        assertArrayEquals(bytes(0xFD, 0x1E, 0x01), render(new WasmVectorReplaceLane(WasmVectorShape.I64X2, 1)));
+    }
+
+    @Test
+    public void binaryEncoding() {
+        assertArrayEquals(bytes(0xFD, 0x4E), render(new WasmVectorBinary(WasmVectorShape.I32X4,
+                WasmVectorBinaryOperation.AND)));
+        assertArrayEquals(bytes(0xFD, 0x51), render(new WasmVectorBinary(WasmVectorShape.F64X2,
+                WasmVectorBinaryOperation.XOR)));
+        assertArrayEquals(bytes(0xFD, 0x6E), render(new WasmVectorBinary(WasmVectorShape.I8X16,
+                WasmVectorBinaryOperation.ADD)));
+        assertArrayEquals(bytes(0xFD, 0x95, 0x01), render(new WasmVectorBinary(WasmVectorShape.I16X8,
+                WasmVectorBinaryOperation.MUL)));
+        assertArrayEquals(bytes(0xFD, 0xB9, 0x01), render(new WasmVectorBinary(WasmVectorShape.I32X4,
+                WasmVectorBinaryOperation.MAX_UNSIGNED)));
+        assertArrayEquals(bytes(0xFD, 0xD1, 0x01), render(new WasmVectorBinary(WasmVectorShape.I64X2,
+                WasmVectorBinaryOperation.SUB)));
+        assertArrayEquals(bytes(0xFD, 0xE7, 0x01), render(new WasmVectorBinary(WasmVectorShape.F32X4,
+                WasmVectorBinaryOperation.DIV)));
+        assertArrayEquals(bytes(0xFD, 0xF5, 0x01), render(new WasmVectorBinary(WasmVectorShape.F64X2,
+                WasmVectorBinaryOperation.MAX)));
+    }
+
+    @Test
+    public void unsupportedBinaryOperationRejected() {
+        expectUnsupported(WasmVectorShape.I8X16, WasmVectorBinaryOperation.MUL);
+        expectUnsupported(WasmVectorShape.I32X4, WasmVectorBinaryOperation.DIV);
+        expectUnsupported(WasmVectorShape.I64X2, WasmVectorBinaryOperation.MIN);
+        expectUnsupported(WasmVectorShape.F32X4, WasmVectorBinaryOperation.MAX_UNSIGNED);
+    }
+
+    @Test
+    public void roundTrip() {
+        var instructions = new ArrayList<WasmInstruction>();
+        var expected = new ArrayList<String>();
+
+        var load = new WasmLoadVector(16);
+        load.setOffset(1024);
+        instructions.add(load);
+        expected.add("load 16 1024");
+
+        var value = new byte[16];
+        Arrays.fill(value, (byte) 0x80);
+        instructions.add(new WasmVectorConstant(value));
+        expected.add("const " + Arrays.toString(value));
+
+        for (var shape : WasmVectorShape.values()) {
+            instructions.add(new WasmVectorSplat(shape));
+            expected.add("splat " + shape);
+
+            var lane = shape.getLaneCount() - 1;
+            if (shape == WasmVectorShape.I8X16 || shape == WasmVectorShape.I16X8) {
+                for (var signedType : WasmSignedType.values()) {
+                    instructions.add(new WasmVectorExtractLane(shape, lane, signedType));
+                    expected.add("extract " + shape + " " + signedType + " " + lane);
+                }
+            } else {
+                instructions.add(new WasmVectorExtractLane(shape, lane, null));
+                expected.add("extract " + shape + " null " + lane);
+            }
+
+            instructions.add(new WasmVectorReplaceLane(shape, lane));
+            expected.add("replace " + shape + " " + lane);
+
+            for (var operation : WasmVectorBinaryOperation.values()) {
+                var instruction = new WasmVectorBinary(shape, operation);
+                if (!isSupported(instruction)) {
+                    continue;
+                }
+                instructions.add(instruction);
+                expected.add("binary " + operation + " " + (isBitwise(operation) ? null : shape));
+            }
+        }
+
+        var store = new WasmStoreVector(8);
+        instructions.add(store);
+        expected.add("store 8 0");
+
+        var data = render(instructions.toArray(new WasmInstruction[0]));
+        var code = Arrays.copyOf(data, data.length + 1);
+        code[data.length] = 0x0B;
+
+        var actual = new ArrayList<String>();
+        var parser = new CodeParser();
+        parser.setCodeListener(new RecordingListener(actual));
+        parser.parse(AddressListener.EMPTY, code);
+
+        assertEquals(expected, actual);
+    }
+
+    private static boolean isBitwise(WasmVectorBinaryOperation operation) {
+        switch (operation) {
+            case AND:
+            case AND_NOT:
+            case OR:
+            case XOR:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private static boolean isSupported(WasmInstruction instruction) {
+        try {
+            render(instruction);
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private static void expectUnsupported(WasmVectorShape shape, WasmVectorBinaryOperation operation) {
+        try {
+            render(new WasmVectorBinary(shape, operation));
+            fail("Operation " + operation + " should not be supported for " + shape);
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    private static byte[] render(WasmInstruction... instructions) {
+        var writer = new WasmBinaryWriter();
+        var visitor = new WasmBinaryRenderingVisitor(writer, new WasmModule(), null, null, 0);
+        for (var instruction : instructions) {
+            instruction.acceptVisitor(visitor);
+        }
+        return writer.getData();
+    }
+
+    private static byte[] bytes(int... values) {
+        var result = new byte[values.length];
+        for (var i = 0; i < values.length; ++i) {
+            result[i] = (byte) values[i];
+        }
+        return result;
+    }
+
+    private static class RecordingListener implements CodeListener {
+        private List<String> log;
+
+        RecordingListener(List<String> log) {
+            this.log = log;
+        }
+
+        @Override
+        public void loadVector(int align, int offset) {
+            log.add("load " + align + " " + offset);
+        }
+
+        @Override
+        public void storeVector(int align, int offset) {
+            log.add("store " + align + " " + offset);
+        }
+
+        @Override
+        public void vectorConstant(byte[] value) {
+            log.add("const " + Arrays.toString(value));
+        }
+
+        @Override
+        public void vectorSplat(WasmVectorShape shape) {
+            log.add("splat " + shape);
+        }
+
+        @Override
+        public void vectorExtractLane(WasmVectorShape shape, WasmSignedType signedType, int lane) {
+            log.add("extract " + shape + " " + signedType + " " + lane);
+        }
+
+        @Override
+        public void vectorReplaceLane(WasmVectorShape shape, int lane) {
+            log.add("replace " + shape + " " + lane);
+        }
+
+        @Override
+        public void vectorBinary(WasmVectorBinaryOperation opcode, WasmVectorShape shape) {
+            log.add("binary " + opcode + " " + shape);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ *  Copyright 2026 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.callgraph;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.teavm.model.FieldReference;
+import org.teavm.model.MethodReference;
+import org.teavm.model.TextLocation;
+
+public class TestCallGraph implements CallGraph {
+    private Map<MethodReference, TestNode> nodes = new HashMap<>();
+
+    public void addCall(MethodReference caller, MethodReference callee) {
+        TestNode callerNode = getTestNode(caller);
+        callerNode.callSites.add(new TestCallSite(callerNode, getTestNode(callee)));
+    }
+
+    @Override
+    public CallGraphNode getNode(MethodReference method) {
+        return getTestNode(method);
+    }
+
+    private TestNode getTestNode(MethodReference method) {
+        return nodes.computeIfAbsent(method, m -> new TestNode(this, m));
+    }
+
+    @Override
+    public Collection<? extends FieldAccessSite> getFieldAccess(FieldReference reference) {
+        return Collections.emptyList();
+    }
+
+    static class TestNode implements CallGraphNode {
+        private TestCallGraph graph;
+        private MethodReference method;
+        List<TestCallSite> callSites = new ArrayList<>();
+
+        TestNode(TestCallGraph graph, MethodReference method) {
+            this.graph = graph;
+            this.method = method;
+        }
+
+        @Override
+        public CallGraph getGraph() {
+            return graph;
+        }
+
+        @Override
+        public MethodReference getMethod() {
+            return method;
+        }
+
+        @Override
+        public Collection<? extends CallSite> getCallSites() {
+            return callSites;
+        }
+
+        @Override
+        public Collection<? extends CallSite> getCallerCallSites() {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public Collection<? extends FieldAccessSite> getFieldAccessSites() {
+            return Collections.emptyList();
+        }
+    }
+
+    static class TestCallSite implements CallSite {
+        private TestNode caller;
+        private TestNode callee;
+
+        TestCallSite(TestNode caller, TestNode callee) {
+            this.caller = caller;
+            this.callee = callee;
+        }
+
+        @Override
+        public Collection<? extends TextLocation> getLocations(CallGraphNode caller) {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public Collection<? extends CallGraphNode> getCalledMethods() {
+            return Collections.singletonList(callee);
+        }
+
+        @Override
+        public Collection<? extends CallGraphNode> getCallers() {
+            return Collections.singletonList(caller);
+        }
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ *  Copyright 2026 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.model.lowlevel.test;
+
+import static org.junit.Assert.assertEquals;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestName;
+import org.teavm.callgraph.TestCallGraph;
+import org.teavm.model.BasicBlock;
+import org.teavm.model.ClassHolder;
+import org.teavm.model.ElementModifier;
+import org.teavm.model.FieldHolder;
+import org.teavm.model.Instruction;
+import org.teavm.model.ListingParseUtils;
+import org.teavm.model.MethodHolder;
+import org.teavm.model.MethodReference;
+import org.teavm.model.MutableClassHolderSource;
+import org.teavm.model.Program;
+import org.teavm.model.ValueType;
+import org.teavm.model.analysis.InterproceduralEscapeAnalysis;
+import org.teavm.model.instructions.ConstructInstruction;
+import org.teavm.model.instructions.InvokeInstruction;
+import org.teavm.model.lowlevel.StackAllocationTransformer;
+
+public class StackAllocationTransformerTest {
+    private static final String PREFIX = "model/lowlevel/stack-allocation/";
+    private static final ValueType POINT = ValueType.object("Point");
+    private static final MethodReference READER_ACCEPT = new MethodReference("Reader", "accept", POINT,
+            ValueType.VOID);
+    private static final MethodReference READER_INSPECT = new MethodReference("Reader", "inspect", POINT,
+            ValueType.VOID);
+    private static final MethodReference SINK_ACCEPT = new MethodReference("Sink", "accept", POINT,
+            ValueType.VOID);
+    private static final MethodReference WRITER_ACCEPT = new MethodReference("Writer", "accept", POINT,
+            ValueType.VOID);
+    private static final MethodReference CALLER = new MethodReference("Caller", "run",
+            ValueType.object("Consumer"), ValueType.VOID);
+
+    @Rule
+    public TestName name = new TestName();
+
+    private MutableClassHolderSource classes = new MutableClassHolderSource();
+    private TestCallGraph callGraph = new TestCallGraph();
+
+    @Test
+    public void nonEscapingVirtualCall() {
+        callGraph.addCall(CALLER, READER_ACCEPT);
+        assertEquals(Allocation.STACK, doTest());
+    }
+
+    @Test
+    public void unrelatedClassWithSameDescriptor() {
+        callGraph.addCall(CALLER, READER_ACCEPT);
+        assertEquals(Allocation.HEAP, doTest());
+    }
+
+    @Test
+    public void escapingImplementation() {
+        callGraph.addCall(CALLER, READER_ACCEPT);
+        assertEquals(Allocation.HEAP, doTest());
+    }
+
+    @Test
+    public void callMissingFromCallGraph() {
+        callGraph.addCall(CALLER, READER_ACCEPT);
+        assertEquals(Allocation.HEAP, doTest());
+    }
+
+    private Allocation doTest() {
+        createClasses();
+        Program program = ListingParseUtils.parseFromResource(PREFIX + name.getMethodName() + ".txt");
+        MethodHolder caller = new MethodHolder(CALLER.getDescriptor());
+        caller.setProgram(program);
+        ClassHolder callerClass = new ClassHolder("Caller");
+        callerClass.addMethod(caller);
+        classes.putClassHolder(callerClass);
+
+        InterproceduralEscapeAnalysis escapeAnalysis = new InterproceduralEscapeAnalysis(callGraph, m -> false);
+        escapeAnalysis.analyze(classes);
+        new StackAllocationTransformer(classes, escapeAnalysis, m -> false).apply(program, CALLER);
+
+        Allocation result = null;
+        for (BasicBlock block : program.getBasicBlocks()) {
+            for (Instruction instruction : block) {
+                if (instruction instanceof ConstructInstruction) {
+                    result = Allocation.HEAP;
+                } else if (instruction instanceof InvokeInstruction && ((InvokeInstruction) instruction)
+                        .getMethod().getName().equals("allocateStack")) {
+                    result = Allocation.STACK;
+                }
+            }
+        }
+        return result;
+    }
+
+    private void createClasses() {
+        ClassHolder objectClass = new ClassHolder("java.lang.Object");
+        objectClass.setParent(null);
+        classes.putClassHolder(objectClass);
+
+        ClassHolder point = new ClassHolder("Point");
+        FieldHolder x = new FieldHolder("x");
+        x.setType(ValueType.INTEGER);
+        point.addField(x);
+        classes.putClassHolder(point);
+
+        ClassHolder consumer = new ClassHolder("Consumer");
+        consumer.getModifiers().add(ElementModifier.INTERFACE);
+        consumer.getModifiers().add(ElementModifier.ABSTRACT);
+        MethodHolder consumerAccept = new MethodHolder(READER_ACCEPT.getDescriptor());
+        consumerAccept.getModifiers().add(ElementModifier.ABSTRACT);
+        consumer.addMethod(consumerAccept);
+        classes.putClassHolder(consumer);
+
+        ClassHolder reader = new ClassHolder("Reader");
+        reader.getInterfaces().add("Consumer");
+        reader.addMethod(createMethod(READER_ACCEPT, "readerAccept"));
+        MethodHolder inspect = createMethod(READER_INSPECT, "readerInspect");
+        inspect.getModifiers().add(ElementModifier.STATIC);
+        reader.addMethod(inspect);
+        classes.putClassHolder(reader);
+
+        ClassHolder writer = new ClassHolder("Writer");
+        writer.getInterfaces().add("Consumer");
+        writer.addMethod(createMethod(WRITER_ACCEPT, "sinkAccept"));
+        classes.putClassHolder(writer);
+
+        ClassHolder sink = new ClassHolder("Sink");
+        FieldHolder last = new FieldHolder("last");
+        last.setType(POINT);
+        last.getModifiers().add(ElementModifier.STATIC);
+        sink.addField(last);
+        sink.addMethod(createMethod(SINK_ACCEPT, "sinkAccept"));
+        classes.putClassHolder(sink);
+    }
+
+    private MethodHolder createMethod(MethodReference reference, String listing) {
+        MethodHolder method = new MethodHolder(reference.getDescriptor());
+        method.setProgram(ListingParseUtils.parseFromResource(PREFIX + listing + ".txt"));
+        return method;
+    }
+
+    enum Allocation {
+        HEAP,
+        STACK
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ *  Copyright 2026 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.model.optimization.test;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestName;
+import org.teavm.dependency.DependencyInfo;
+import org.teavm.model.ClassHierarchy;
+import org.teavm.model.ClassHolder;
+import org.teavm.model.ClassReaderSource;
+import org.teavm.model.ListingParseUtils;
+import org.teavm.model.MethodHolder;
+import org.teavm.model.MethodReader;
+import org.teavm.model.Program;
+import org.teavm.model.ValueType;
+import org.teavm.model.optimization.LoopIdiomRecognition;
+import org.teavm.model.optimization.MethodOptimizationContext;
+import org.teavm.model.text.ListingBuilder;
+
+public class LoopIdiomRecognitionTest {
+    private static final String PREFIX = "model/optimization/loop-idiom-recognition/";
+    @Rule
+    public TestName name = new TestName();
+
+    @Test
+    public void fill() {
+        doTest();
+    }
+
+    @Test
+    public void copy() {
+        doTest();
+    }
+
+    @Test
+    public void exitPhi() {
+        doTest();
+    }
+
+    @Test
+    public void valueDependsOnIndex() {
+        doTest();
+    }
+
+    @Test
+    public void indexUsedAfterLoop() {
+        doTest();
+    }
+
+    @Test
+    public void copyFromFixedIndex() {
+        doTest();
+    }
+
+    private void doTest() {
+        String originalPath = PREFIX + name.getMethodName() + ".original.txt";
+        String expectedPath = PREFIX + name.getMethodName() + ".expected.txt";
+        Program original = ListingParseUtils.parseFromResource(originalPath);
+        Program expected = ListingParseUtils.parseFromResource(expectedPath);
+
+        ClassHolder testClass = new ClassHolder("TestClass");
+        MethodHolder testMethod = new MethodHolder("testMethod", ValueType.arrayOf(ValueType.INTEGER),
+                ValueType.arrayOf(ValueType.INTEGER), ValueType.INTEGER, ValueType.INTEGER, ValueType.VOID);
+        testClass.addMethod(testMethod);
+        MethodOptimizationContext context = new MethodOptimizationContext() {
+            @Override
+            public MethodReader getMethod() {
+                return testMethod;
+            }
+
+            @Override
+            public DependencyInfo getDependencyInfo() {
+                return null;
+            }
+
+            @Override
+            public ClassReaderSource getClassSource() {
+                return null;
+            }
+
+            @Override
+            public ClassHierarchy getHierarchy() {
+                return null;
+            }
+        };
+        new LoopIdiomRecognition().optimize(context, original);
+
+        String originalText = new ListingBuilder().buildListing(original, "");
+        String expectedText = new ListingBuilder().buildListing(expected, "");
+        Assert.assertEquals(expectedText, originalText);
+    }
+}
@@ -19,15 +19,21 @@ import org.junit.Assert;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TestName;
+import org.teavm.callgraph.TestCallGraph;
 import org.teavm.dependency.DependencyInfo;
 import org.teavm.model.ClassHierarchy;
 import org.teavm.model.ClassHolder;
 import org.teavm.model.ClassReaderSource;
+import org.teavm.model.ElementModifier;
+import org.teavm.model.FieldHolder;
 import org.teavm.model.ListingParseUtils;
 import org.teavm.model.MethodHolder;
 import org.teavm.model.MethodReader;
+import org.teavm.model.MethodReference;
+import org.teavm.model.MutableClassHolderSource;
 import org.teavm.model.Program;
 import org.teavm.model.ValueType;
+import org.teavm.model.analysis.InterproceduralEscapeAnalysis;
 import org.teavm.model.optimization.MethodOptimizationContext;
 import org.teavm.model.optimization.ScalarReplacement;
 import org.teavm.model.text.ListingBuilder;
@@ -35,8 +41,17 @@ import org.teavm.model.util.ProgramUtils;
 
 public class ScalarReplacementTest {
     private static final String PREFIX = "model/optimization/scalar-replacement/";
+    private static final ValueType POINT = ValueType.object("Point");
+    private static final MethodReference TEST_METHOD = new MethodReference("TestClass", "testMethod",
+            ValueType.VOID);
+    private static final MethodReference READER_UPDATE = new MethodReference("Reader", "update", POINT,
+            ValueType.VOID);
+    private static final MethodReference SINK_ACCEPT = new MethodReference("Sink", "accept", POINT,
+            ValueType.VOID);
     @Rule
     public TestName name = new TestName();
+    private MutableClassHolderSource classes;
+    private InterproceduralEscapeAnalysis interproceduralAnalysis;
 
     @Test
     public void simple() {
@@ -83,6 +98,24 @@ public class ScalarReplacementTest {
         doTest();
     }
 
+    @Test
+    public void passedToCallee() {
+        analyzeCallees(READER_UPDATE);
+        doTest();
+    }
+
+    @Test
+    public void passedToCalleeInLoop() {
+        analyzeCallees(READER_UPDATE);
+        doTest();
+    }
+
+    @Test
+    public void passedToEscapingCallee() {
+        analyzeCallees(SINK_ACCEPT);
+        doTest();
+    }
+
     private void doTest() {
         String originalPath = PREFIX + name.getMethodName() + ".original.txt";
         String expectedPath = PREFIX + name.getMethodName() + ".expected.txt";
@@ -115,7 +148,7 @@ public class ScalarReplacementTest {
 
             @Override
             public ClassReaderSource getClassSource() {
-                return null;
+                return classes;
             }
 
             @Override
@@ -124,6 +157,48 @@ public class ScalarReplacementTest {
             }
         };
 
-        new ScalarReplacement().optimize(context, program);
+        ScalarReplacement scalarReplacement = interproceduralAnalysis != null
+                ? new ScalarReplacement(interproceduralAnalysis)
+                : new ScalarReplacement();
+        scalarReplacement.optimize(context, program);
+    }
+
+    private void analyzeCallees(MethodReference callee) {
+        classes = new MutableClassHolderSource();
+        ClassHolder objectClass = new ClassHolder("java.lang.Object");
+        objectClass.setParent(null);
+        classes.putClassHolder(objectClass);
+
+        ClassHolder point = new ClassHolder("Point");
+        for (String fieldName : new String[] { "x", "y" }) {
+            FieldHolder field = new FieldHolder(fieldName);
+            field.setType(ValueType.INTEGER);
+            point.addField(field);
+        }
+        classes.putClassHolder(point);
+
+        ClassHolder reader = new ClassHolder("Reader");
+        reader.addMethod(createStaticMethod(READER_UPDATE, "readerUpdate"));
+        classes.putClassHolder(reader);
+
+        ClassHolder sink = new ClassHolder("Sink");
+        FieldHolder last = new FieldHolder("last");
+        last.setType(POINT);
+        last.getModifiers().add(ElementModifier.STATIC);
+        sink.addField(last);
+        sink.addMethod(createStaticMethod(SINK_ACCEPT, "sinkAccept"));
+        classes.putClassHolder(sink);
+
+        TestCallGraph callGraph = new TestCallGraph();
+        callGraph.addCall(TEST_METHOD, callee);
+        interproceduralAnalysis = new InterproceduralEscapeAnalysis(callGraph, m -> false);
+        interproceduralAnalysis.analyze(classes);
+    }
+
+    private MethodHolder createStaticMethod(MethodReference reference, String listing) {
+        MethodHolder method = new MethodHolder(reference.getDescriptor());
+        method.getModifiers().add(ElementModifier.STATIC);
+        method.setProgram(ListingParseUtils.parseFromResource(PREFIX + listing + ".txt"));
+        return method;
     }
 }
@@ -0,0 +1,112 @@
+/*
+ *  Copyright 2026 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.model.transformation.test;
+
+import static org.junit.Assert.assertEquals;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestName;
+import org.teavm.model.Instruction;
+import org.teavm.model.ListingParseUtils;
+import org.teavm.model.MethodReference;
+import org.teavm.model.Program;
+import org.teavm.model.ValueType;
+import org.teavm.model.instructions.BoundCheckInstruction;
+import org.teavm.model.instructions.GetElementInstruction;
+import org.teavm.model.transformation.BoundCheckInsertion;
+
+public class BoundCheckInsertionTest {
+    private static final String PREFIX = "model/transformation/bound-check-insertion/";
+    private static final MethodReference METHOD = new MethodReference("Test", "test",
+            ValueType.arrayOf(ValueType.INTEGER), ValueType.INTEGER, ValueType.VOID);
+    private static final MethodReference OFFSET_METHOD = new MethodReference("Test", "test",
+            ValueType.arrayOf(ValueType.INTEGER), ValueType.INTEGER, ValueType.INTEGER, ValueType.VOID);
+    @Rule
+    public TestName name = new TestName();
+
+    @Test
+    public void forwardLoop() {
+        doTest(0, 0);
+    }
+
+    @Test
+    public void reverseLoop() {
+        doTest(0, 0);
+    }
+
+    @Test
+    public void unknownStart() {
+        doTest(1, 0);
+    }
+
+    @Test
+    public void unguardedIncrement() {
+        doTest(1, 1);
+    }
+
+    @Test
+    public void offsetLoop() {
+        var program = doTest(OFFSET_METHOD, 1, 1);
+        assertEquals("Unchecked reads", 1, countUncheckedReads(program));
+    }
+
+    @Test
+    public void offsetLoopArrayChanged() {
+        var program = doTest(OFFSET_METHOD, 1, 1);
+        assertEquals("Unchecked reads", 0, countUncheckedReads(program));
+    }
+
+    private Program doTest(int expectedLower, int expectedUpper) {
+        return doTest(METHOD, expectedLower, expectedUpper);
+    }
+
+    private Program doTest(MethodReference method, int expectedLower, int expectedUpper) {
+        Program program = ListingParseUtils.parseFromResource(PREFIX + name.getMethodName() + ".txt");
+        new BoundCheckInsertion().transformProgram(program, method);
+
+        int lower = 0;
+        int upper = 0;
+        for (int i = 0; i < program.basicBlockCount(); ++i) {
+            for (Instruction instruction : program.basicBlockAt(i)) {
+                if (instruction instanceof BoundCheckInstruction) {
+                    var boundCheck = (BoundCheckInstruction) instruction;
+                    if (boundCheck.isLower()) {
+                        lower++;
+                    }
+                    if (boundCheck.getArray() != null) {
+                        upper++;
+                    }
+                }
+            }
+        }
+        assertEquals("Lower bound checks", expectedLower, lower);
+        assertEquals("Upper bound checks", expectedUpper, upper);
+        return program;
+    }
+
+    private static int countUncheckedReads(Program program) {
+        int count = 0;
+        for (int i = 0; i < program.basicBlockCount(); ++i) {
+            for (Instruction instruction : program.basicBlockAt(i)) {
+                if (instruction instanceof GetElementInstruction
+                        && !(instruction.getPrevious() instanceof BoundCheckInstruction)) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+}
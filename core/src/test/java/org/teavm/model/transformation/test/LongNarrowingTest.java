@@ -0,0 +1,84 @@
+/*
+ *  Copyright 2026 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.model.transformation.test;
+
+import static org.junit.Assert.assertEquals;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestName;
+import org.teavm.model.Instruction;
+import org.teavm.model.ListingParseUtils;
+import org.teavm.model.Program;
+import org.teavm.model.instructions.BinaryInstruction;
+import org.teavm.model.instructions.CastNumberInstruction;
+import org.teavm.model.instructions.NumericOperandType;
+import org.teavm.model.transformation.LongNarrowing;
+
+public class LongNarrowingTest {
+    private static final String PREFIX = "model/transformation/long-narrowing/";
+    @Rule
+    public TestName name = new TestName();
+
+    @Test
+    public void constantLoop() {
+        doTest(1, 2);
+    }
+
+    @Test
+    public void unknownBound() {
+        doTest(2, 0);
+    }
+
+    @Test
+    public void intBoundDoWhile() {
+        doTest(0, 0);
+    }
+
+    @Test
+    public void intArithmetic() {
+        doTest(1, 2);
+    }
+
+    @Test
+    public void overflowingProduct() {
+        doTest(2, 0);
+    }
+
+    private void doTest(int expectedLongOperations, int expectedConversions) {
+        Program program = ListingParseUtils.parseFromResource(PREFIX + name.getMethodName() + ".txt");
+        new LongNarrowing().transformProgram(program);
+
+        int longOperations = 0;
+        int conversions = 0;
+        for (int i = 0; i < program.basicBlockCount(); ++i) {
+            for (Instruction instruction : program.basicBlockAt(i)) {
+                if (instruction instanceof BinaryInstruction) {
+                    if (((BinaryInstruction) instruction).getOperandType() == NumericOperandType.LONG) {
+                        longOperations++;
+                    }
+                } else if (instruction instanceof CastNumberInstruction) {
+                    var cast = (CastNumberInstruction) instruction;
+                    if (cast.getSourceType() == NumericOperandType.DOUBLE
+                            && cast.getTargetType() == NumericOperandType.LONG) {
+                        conversions++;
+                    }
+                }
+            }
+        }
+        assertEquals("Long operations", expectedLongOperations, longOperations);
+        assertEquals("Conversions to long", expectedConversions, conversions);
+    }
+}
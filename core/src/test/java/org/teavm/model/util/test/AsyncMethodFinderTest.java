@@ -0,0 +1,307 @@
+/*
+ *  Copyright 2026 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.model.util.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestName;
+import org.teavm.callgraph.CallGraph;
+import org.teavm.callgraph.CallGraphNode;
+import org.teavm.callgraph.FieldAccessSite;
+import org.teavm.dependency.ClassDependencyInfo;
+import org.teavm.dependency.DependencyInfo;
+import org.teavm.dependency.FieldDependencyInfo;
+import org.teavm.dependency.MethodDependencyInfo;
+import org.teavm.dependency.ValueDependencyInfo;
+import org.teavm.interop.Async;
+import org.teavm.model.AnnotationHolder;
+import org.teavm.model.ClassHolder;
+import org.teavm.model.ClassReaderSource;
+import org.teavm.model.ElementModifier;
+import org.teavm.model.FieldReference;
+import org.teavm.model.ListingParseUtils;
+import org.teavm.model.MethodHolder;
+import org.teavm.model.MethodReference;
+import org.teavm.model.MutableClassHolderSource;
+import org.teavm.model.Program;
+import org.teavm.model.ValueType;
+import org.teavm.model.util.AsyncMethodFinder;
+import org.teavm.model.util.AsyncProgramSplitter;
+
+public class AsyncMethodFinderTest {
+    private static final String PREFIX = "model/util/async/";
+    private static final MethodReference TASK_RUN = new MethodReference("Task", "run", ValueType.VOID);
+    private static final MethodReference ASYNC_TASK_RUN = new MethodReference("AsyncTask", "run", ValueType.VOID);
+    private static final MethodReference SYNC_TASK_RUN = new MethodReference("SyncTask", "run", ValueType.VOID);
+
+    @Rule
+    public TestName name = new TestName();
+
+    private MutableClassHolderSource classes = new MutableClassHolderSource();
+    private AsyncMethodFinder finder;
+
+    @Before
+    public void setUp() {
+        createClasses();
+        Map<MethodReference, ValueType> receivers = Map.of(ASYNC_TASK_RUN, ValueType.object("AsyncTask"),
+                SYNC_TASK_RUN, ValueType.object("SyncTask"));
+        finder = new AsyncMethodFinder(new EmptyCallGraph(), new TestDependencyInfo(classes, receivers));
+        finder.find(classes);
+    }
+
+    @Test
+    public void callSyncImplementation() {
+        // Whole override family of Task.run is async, but call site can only reach SyncTask.run
+        assertTrue(finder.getAsyncFamilyMethods().contains(SYNC_TASK_RUN));
+        assertFalse(finder.isAsyncVirtualCall(SYNC_TASK_RUN));
+        assertEquals(1, split());
+    }
+
+    @Test
+    public void callInterface() {
+        // Receiver of this call site is not known, so it's assumed it can reach AsyncTask.run
+        assertTrue(finder.isAsyncVirtualCall(TASK_RUN));
+        assertEquals(2, split());
+    }
+
+    @Test
+    public void callAsyncImplementation() {
+        assertTrue(finder.isAsyncVirtualCall(ASYNC_TASK_RUN));
+        assertEquals(2, split());
+    }
+
+    private int split() {
+        Program program = ListingParseUtils.parseFromResource(PREFIX + name.getMethodName() + ".txt");
+        var splitter = new AsyncProgramSplitter(classes, new HashSet<>(finder.getAsyncMethods()),
+                finder::isAsyncVirtualCall);
+        splitter.split(program);
+        return splitter.size();
+    }
+
+    private void createClasses() {
+        var objectClass = new ClassHolder("java.lang.Object");
+        objectClass.setParent(null);
+        classes.putClassHolder(objectClass);
+
+        var task = new ClassHolder("Task");
+        task.getModifiers().add(ElementModifier.INTERFACE);
+        task.getModifiers().add(ElementModifier.ABSTRACT);
+        var taskRun = new MethodHolder(TASK_RUN.getDescriptor());
+        taskRun.getModifiers().add(ElementModifier.ABSTRACT);
+        task.addMethod(taskRun);
+        classes.putClassHolder(task);
+
+        var asyncTask = new ClassHolder("AsyncTask");
+        asyncTask.getInterfaces().add("Task");
+        var asyncTaskRun = new MethodHolder(ASYNC_TASK_RUN.getDescriptor());
+        asyncTaskRun.getModifiers().add(ElementModifier.NATIVE);
+        asyncTaskRun.getAnnotations().add(new AnnotationHolder(Async.class.getName()));
+        asyncTask.addMethod(asyncTaskRun);
+        classes.putClassHolder(asyncTask);
+
+        var syncTask = new ClassHolder("SyncTask");
+        syncTask.getInterfaces().add("Task");
+        var syncTaskRun = new MethodHolder(SYNC_TASK_RUN.getDescriptor());
+        syncTaskRun.getModifiers().add(ElementModifier.NATIVE);
+        syncTask.addMethod(syncTaskRun);
+        classes.putClassHolder(syncTask);
+    }
+
+    static class EmptyCallGraph implements CallGraph {
+        @Override
+        public CallGraphNode getNode(MethodReference method) {
+            return null;
+        }
+
+        @Override
+        public Collection<? extends FieldAccessSite> getFieldAccess(FieldReference reference) {
+            return List.of();
+        }
+    }
+
+    static class TestDependencyInfo implements DependencyInfo {
+        private ClassReaderSource classSource;
+        private Map<MethodReference, ValueType> receivers;
+
+        TestDependencyInfo(ClassReaderSource classSource, Map<MethodReference, ValueType> receivers) {
+            this.classSource = classSource;
+            this.receivers = receivers;
+        }
+
+        @Override
+        public ClassReaderSource getClassSource() {
+            return classSource;
+        }
+
+        @Override
+        public ClassLoader getClassLoader() {
+            return AsyncMethodFinderTest.class.getClassLoader();
+        }
+
+        @Override
+        public Collection<MethodReference> getReachableMethods() {
+            return Set.of(TASK_RUN, ASYNC_TASK_RUN, SYNC_TASK_RUN);
+        }
+
+        @Override
+        public Collection<FieldReference> getReachableFields() {
+            return List.of();
+        }
+
+        @Override
+        public Collection<String> getReachableClasses() {
+            return List.of("Task", "AsyncTask", "SyncTask");
+        }
+
+        @Override
+        public FieldDependencyInfo getField(FieldReference fieldRef) {
+            return null;
+        }
+
+        @Override
+        public MethodDependencyInfo getMethod(MethodReference methodRef) {
+            var receiver = receivers.get(methodRef);
+            return receiver != null ? new TestMethodDependencyInfo(methodRef, receiver) : null;
+        }
+
+        @Override
+        public MethodDependencyInfo getMethodImplementation(MethodReference methodRef) {
+            return getMethod(methodRef);
+        }
+
+        @Override
+        public ClassDependencyInfo getClass(String className) {
+            return null;
+        }
+
+        @Override
+        public CallGraph getCallGraph() {
+            return new EmptyCallGraph();
+        }
+
+        @Override
+        public boolean isPrecise() {
+            return true;
+        }
+    }
+
+    static class TestMethodDependencyInfo implements MethodDependencyInfo {
+        private MethodReference reference;
+        private ValueDependencyInfo receiver;
+
+        TestMethodDependencyInfo(MethodReference reference, ValueType receiverType) {
+            this.reference = reference;
+            receiver = new TestValueDependencyInfo(receiverType);
+        }
+
+        @Override
+        public ValueDependencyInfo[] getVariables() {
+            return new ValueDependencyInfo[] { receiver };
+        }
+
+        @Override
+        public int getVariableCount() {
+            return 1;
+        }
+
+        @Override
+        public ValueDependencyInfo getVariable(int index) {
+            return receiver;
+        }
+
+        @Override
+        public int getParameterCount() {
+            return 1;
+        }
+
+        @Override
+        public ValueDependencyInfo getResult() {
+            return null;
+        }
+
+        @Override
+        public ValueDependencyInfo getThrown() {
+            return null;
+        }
+
+        @Override
+        public MethodReference getReference() {
+            return reference;
+        }
+
+        @Override
+        public boolean isUsed() {
+            return true;
+        }
+
+        @Override
+        public boolean isCalled() {
+            return true;
+        }
+
+        @Override
+        public boolean isMissing() {
+            return false;
+        }
+    }
+
+    static class TestValueDependencyInfo implements ValueDependencyInfo {
+        private ValueType type;
+
+        TestValueDependencyInfo(ValueType type) {
+            this.type = type;
+        }
+
+        @Override
+        public ValueType[] getTypes() {
+            return new ValueType[] { type };
+        }
+
+        @Override
+        public boolean hasType(ValueType type) {
+            return this.type.equals(type);
+        }
+
+        @Override
+        public boolean hasMoreTypesThan(int limit) {
+            return limit < 1;
+        }
+
+        @Override
+        public boolean hasArrayType() {
+            return false;
+        }
+
+        @Override
+        public ValueDependencyInfo getArrayItem() {
+            return null;
+        }
+
+        @Override
+        public ValueDependencyInfo getClassValueNode() {
+            return null;
+        }
+    }
+}
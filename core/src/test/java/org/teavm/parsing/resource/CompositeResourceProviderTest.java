@@ -0,0 +1,125 @@
+/*
+ *  Copyright 2026 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.parsing.resource;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class CompositeResourceProviderTest {
+    private File tempDir;
+    private List<ResourceProvider> providers = new ArrayList<>();
+
+    @Before
+    public void setUp() throws IOException {
+        tempDir = Files.createTempDirectory("teavm-resources").toFile();
+    }
+
+    @After
+    public void tearDown() {
+        for (var provider : providers) {
+            provider.close();
+        }
+        deleteRecursively(tempDir);
+    }
+
+    @Test
+    public void findsResourcesInIndexedProviders() throws IOException {
+        var provider = new CompositeResourceProvider(
+                zip("a.jar", "foo/A.class", "a"),
+                zip("b.jar", "bar/B.class", "b"));
+
+        assertEquals("a", read(provider.getResource("foo/A.class")));
+        assertEquals("b", read(provider.getResource("bar/B.class")));
+        assertNull(provider.getResource("foo/B.class"));
+        assertNull(provider.getResource("baz/C.class"));
+    }
+
+    @Test
+    public void preservesClasspathOrder() throws IOException {
+        var provider = new CompositeResourceProvider(
+                zip("a.jar", "foo/A.class", "first"),
+                directory("dir", "foo/A.class", "second"),
+                zip("b.jar", "foo/A.class", "third"));
+
+        var contents = new ArrayList<String>();
+        var iter = provider.getResources("foo/A.class");
+        while (iter.hasNext()) {
+            contents.add(read(iter.next()));
+        }
+        assertEquals(List.of("first", "second", "third"), contents);
+    }
+
+    @Test
+    public void findsResourcesInRootDirectory() throws IOException {
+        var provider = new CompositeResourceProvider(
+                zip("a.jar", "foo/A.class", "a"),
+                zip("b.jar", "root.txt", "root"));
+
+        assertEquals("root", read(provider.getResource("root.txt")));
+    }
+
+    private ResourceProvider zip(String name, String entryName, String content) throws IOException {
+        var file = new File(tempDir, name);
+        try (var output = new ZipOutputStream(new FileOutputStream(file))) {
+            output.putNextEntry(new ZipEntry(entryName));
+            output.write(content.getBytes(StandardCharsets.UTF_8));
+            output.closeEntry();
+        }
+        var provider = new ZipFileResourceProvider(file);
+        providers.add(provider);
+        return provider;
+    }
+
+    private ResourceProvider directory(String name, String entryName, String content) throws IOException {
+        var dir = new File(tempDir, name);
+        var file = new File(dir, entryName);
+        file.getParentFile().mkdirs();
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        return new DirectoryResourceProvider(dir);
+    }
+
+    private static String read(Resource resource) throws IOException {
+        try (InputStream input = resource.open()) {
+            var output = new ByteArrayOutputStream();
+            input.transferTo(output);
+            return output.toString(StandardCharsets.UTF_8);
+        }
+    }
+
+    private static void deleteRecursively(File file) {
+        var children = file.listFiles();
+        if (children != null) {
+            for (var child : children) {
+                deleteRecursively(child);
+            }
+        }
+        file.delete();
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ *  Copyright 2026 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.parsing.resource;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.junit.Test;
+import org.teavm.model.ClassHolder;
+import org.teavm.model.MethodHolder;
+import org.teavm.model.ReferenceCache;
+import org.teavm.parsing.ClasspathResourceProvider;
+
+public class ResourceBytecodeClassHolderSourceTest {
+    private ResourceProvider resourceProvider = new ClasspathResourceProvider(
+            ResourceBytecodeClassHolderSourceTest.class.getClassLoader());
+
+    @Test
+    public void prefetchesReferencedClasses() {
+        var tasks = new ArrayList<Runnable>();
+        var requestedNames = new HashSet<String>();
+        var source = new ResourceBytecodeClassHolderSource(resourceProvider, new ReferenceCache());
+        source.setPrefetching(tasks::add, name -> {
+            requestedNames.add(name);
+            return name;
+        });
+
+        assertNotNull(source.get(Caller.class.getName()));
+        runAll(tasks);
+        assertTrue(requestedNames.contains(Callee.class.getName()));
+
+        var expected = new ResourceBytecodeClassHolderSource(resourceProvider, new ReferenceCache())
+                .get(Callee.class.getName());
+        var actual = source.get(Callee.class.getName());
+        assertEquals(describe(expected), describe(actual));
+    }
+
+    @Test
+    public void prefetchesMappedName() {
+        var tasks = new ArrayList<Runnable>();
+        var source = new ResourceBytecodeClassHolderSource(resourceProvider, new ReferenceCache());
+        source.setPrefetching(tasks::add, name -> name.equals(Callee.class.getName())
+                ? Substitute.class.getName()
+                : null);
+
+        source.get(Caller.class.getName());
+        runAll(tasks);
+
+        var cls = source.get(Substitute.class.getName());
+        assertEquals(Substitute.class.getName(), cls.getName());
+    }
+
+    @Test
+    public void evictsEarliestPrefetchedClasses() {
+        var tasks = new ArrayList<Runnable>();
+        var source = new ResourceBytecodeClassHolderSource(resourceProvider, new ReferenceCache());
+        source.setMaxPrefetchedClasses(1);
+        source.setPrefetching(tasks::add, name -> name.equals(Callee.class.getName())
+                || name.equals(Substitute.class.getName()) ? name : null);
+
+        source.get(Caller.class.getName());
+        source.get(SubstituteCaller.class.getName());
+        runAll(tasks);
+
+        assertEquals(1, source.getPrefetchedClassCount());
+        assertNotNull(source.get(Callee.class.getName()));
+        assertNotNull(source.get(Substitute.class.getName()));
+        assertEquals(0, source.getPrefetchedClassCount());
+    }
+
+    @Test
+    public void dropsPrefetchedClassesWhenStopped() {
+        var tasks = new ArrayList<Runnable>();
+        var source = new ResourceBytecodeClassHolderSource(resourceProvider, new ReferenceCache());
+        source.setPrefetching(tasks::add, name -> name);
+
+        source.get(Caller.class.getName());
+        runAll(tasks);
+        assertTrue(source.getPrefetchedClassCount() > 0);
+
+        source.stopPrefetching();
+        assertEquals(0, source.getPrefetchedClassCount());
+        source.get(Callee.class.getName());
+        assertTrue(tasks.isEmpty());
+        assertNotNull(source.get(Callee.class.getName()));
+    }
+
+    @Test
+    public void prefetchedClassesShareReferenceCache() {
+        var tasks = new ArrayList<Runnable>();
+        var referenceCache = new ReferenceCache();
+        var source = new ResourceBytecodeClassHolderSource(resourceProvider, referenceCache);
+        source.setPrefetching(tasks::add, name -> name);
+
+        source.get(Caller.class.getName());
+        runAll(tasks);
+
+        var cls = source.get(Callee.class.getName());
+        assertSame(referenceCache.getCached(Callee.class.getName()), cls.getName());
+    }
+
+    private static void runAll(List<Runnable> tasks) {
+        while (!tasks.isEmpty()) {
+            tasks.remove(0).run();
+        }
+    }
+
+    private static Set<String> describe(ClassHolder cls) {
+        return cls.getMethods().stream()
+                .map(MethodHolder::getDescriptor)
+                .map(Object::toString)
+                .collect(Collectors.toSet());
+    }
+
+    static class Caller {
+        int call() {
+            return new Callee().value(2);
+        }
+    }
+
+    static class Callee {
+        int value(int x) {
+            return x * 3;
+        }
+    }
+
+    static class SubstituteCaller {
+        int call() {
+            return new Substitute().value(2);
+        }
+    }
+
+    static class Substitute {
+        int value(int x) {
+            return x * 4;
+        }
+    }
+}
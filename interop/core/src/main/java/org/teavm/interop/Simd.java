@@ -0,0 +1,135 @@
+/*
+ *  Copyright 2026 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.interop;
+
+/**
+ * <p>Explicit 128-bit SIMD operations over memory. Every operand is a 16-byte block starting at the given address,
+ * result may overlap with any of operands. Suffix denotes how block is split into lanes, i.e. {@code Float32x4}
+ * treats block as 4 {@code float} values.</p>
+ *
+ * <p>Currently supported by WebAssembly GC backend only, where each method compiles to a couple of SIMD
+ * instructions.</p>
+ */
+@SupportedOn(Platforms.WEBASSEMBLY_GC)
+@Unmanaged
+public final class Simd {
+    public static final int SIZE = 16;
+
+    private Simd() {
+    }
+
+    @Intrinsified
+    public static native void copy(Address source, Address target);
+
+    @Intrinsified
+    public static native void fillFloat32x4(Address target, float value);
+
+    @Intrinsified
+    public static native void addFloat32x4(Address first, Address second, Address result);
+
+    @Intrinsified
+    public static native void subFloat32x4(Address first, Address second, Address result);
+
+    @Intrinsified
+    public static native void mulFloat32x4(Address first, Address second, Address result);
+
+    @Intrinsified
+    public static native void divFloat32x4(Address first, Address second, Address result);
+
+    @Intrinsified
+    public static native void minFloat32x4(Address first, Address second, Address result);
+
+    @Intrinsified
+    public static native void maxFloat32x4(Address first, Address second, Address result);
+
+    @Intrinsified
+    public static native float sumFloat32x4(Address source);
+
+    @Intrinsified
+    public static native void fillFloat64x2(Address target, double value);
+
+    @Intrinsified
+    public static native void addFloat64x2(Address first, Address second, Address result);
+
+    @Intrinsified
+    public static native void subFloat64x2(Address first, Address second, Address result);
+
+    @Intrinsified
+    public static native void mulFloat64x2(Address first, Address second, Address result);
+
+    @Intrinsified
+    public static native void divFloat64x2(Address first, Address second, Address result);
+
+    @Intrinsified
+    public static native void minFloat64x2(Address first, Address second, Address result);
+
+    @Intrinsified
+    public static native void maxFloat64x2(Address first, Address second, Address result);
+
+    @Intrinsified
+    public static native double sumFloat64x2(Address source);
+
+    @Intrinsified
+    public static native void fillInt32x4(Address target, int value);
+
+    @Intrinsified
+    public static native void addInt32x4(Address first, Address second, Address result);
+
+    @Intrinsified
+    public static native void subInt32x4(Address first, Address second, Address result);
+
+    @Intrinsified
+    public static native void mulInt32x4(Address first, Address second, Address result);
+
+    @Intrinsified
+    public static native void minInt32x4(Address first, Address second, Address result);
+
+    @Intrinsified
+    public static native void maxInt32x4(Address first, Address second, Address result);
+
+    @Intrinsified
+    public static native int sumInt32x4(Address source);
+
+    @Intrinsified
+    public static native void fillInt16x8(Address target, short value);
+
+    @Intrinsified
+    public static native void addInt16x8(Address first, Address second, Address result);
+
+    @Intrinsified
+    public static native void subInt16x8(Address first, Address second, Address result);
+
+    @Intrinsified
+    public static native void mulInt16x8(Address first, Address second, Address result);
+
+    @Intrinsified
+    public static native void fillInt8x16(Address target, byte value);
+
+    @Intrinsified
+    public static native void addInt8x16(Address first, Address second, Address result);
+
+    @Intrinsified
+    public static native void subInt8x16(Address first, Address second, Address result);
+
+    @Intrinsified
+    public static native void and(Address first, Address second, Address result);
+
+    @Intrinsified
+    public static native void or(Address first, Address second, Address result);
+
+    @Intrinsified
+    public static native void xor(Address first, Address second, Address result);
+}
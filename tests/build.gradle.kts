@@ -68,6 +68,10 @@ tasks.test {
     systemProperty("teavm.junit.target", layout.buildDirectory.dir("teavm-tests").get().asFile.absolutePath)
     val browser = providers.gradleProperty("teavm.tests.browser").orElse("browser-chrome").get()
 
+    systemProperty("teavm.junit.threads", providers.gradleProperty("teavm.tests.threads").orElse("1").get())
+    systemProperty("teavm.junit.buildCache", providers.gradleProperty("teavm.tests.buildCache")
+            .orElse("false").get())
+
     systemProperty("teavm.junit.js", providers.gradleProperty("teavm.tests.js").orElse("true").get())
     systemProperty("teavm.junit.js.runner", browser)
     systemProperty("teavm.junit.minified", providers.gradleProperty("teavm.tests.minified").orElse("true").get())
@@ -85,6 +89,10 @@ tasks.test {
             .orElse("compile-c-unix-fast.sh").get())
     systemProperty("teavm.junit.c.runWrapper", providers.gradleProperty("teavm.tests.c.runWrapper")
         .orElse("bash run-process-unix-gdb.sh").get())
+    systemProperty("teavm.junit.c.conservativeStackScanning",
+            providers.gradleProperty("teavm.tests.c.conservativeStackScanning").orElse("false").get())
+    systemProperty("teavm.junit.c.multithreaded",
+            providers.gradleProperty("teavm.tests.c.multithreaded").orElse("false").get())
 
     val dependencies = configurations.testRuntimeClasspath.get()
             .incoming.resolutionResult.allDependencies
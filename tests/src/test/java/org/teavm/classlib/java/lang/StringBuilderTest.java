@@ -287,4 +287,32 @@ public class StringBuilderTest {
                 new char[] { (char) 56972, (char) 56178 }).codePoints().toArray());
         assertArrayEquals(new int[] { 56178 }, new StringBuilder().append((char) 56178).codePoints().toArray());
     }
+
+    @Test
+    public void mixedAppendsAndEdits() {
+        var sb = new StringBuilder("foo");
+        sb.append("bar").append(1).append('x').append("baz");
+        assertEquals("foobar1xbaz", sb.toString());
+        assertEquals(11, sb.length());
+        assertEquals('b', sb.charAt(3));
+        assertEquals('x', sb.charAt(7));
+        assertEquals("r1xb", sb.substring(5, 9));
+
+        sb.insert(2, "-").append("!");
+        assertEquals("fo-obar1xbaz!", sb.toString());
+
+        sb.setCharAt(0, 'F');
+        sb.delete(3, 5);
+        assertEquals("Fo-ar1xbaz!", sb.toString());
+
+        sb.append("qux").setLength(5);
+        assertEquals("Fo-ar", sb.toString());
+        sb.append("12").reverse();
+        assertEquals("21ra-oF", sb.toString());
+        assertEquals(4, sb.indexOf("-"));
+
+        var chars = new char[3];
+        sb.append("end").getChars(6, 9, chars, 0);
+        assertArrayEquals(new char[] { 'F', 'e', 'n' }, chars);
+    }
 }
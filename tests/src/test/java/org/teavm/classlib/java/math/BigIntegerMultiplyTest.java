@@ -422,4 +422,29 @@ public class BigIntegerMultiplyTest {
         }
         assertEquals("incorrect sign", 1, result.signum());
     }
+
+    /**
+     * Arithmetic on operands long enough to take the native path in JavaScript.
+     */
+    @Test
+    public void largeOperands() {
+        BigInteger a = new BigInteger("12345678901234567890123456789012345678901234567890"
+                + "1234567890123456789012345678901234567890");
+        BigInteger b = new BigInteger("-987654321098765432109876543210987654321098765432109876543210987654321");
+        BigInteger product = a.multiply(b);
+        assertEquals("-12193263113702179522618503273386678859451150739156363359236761164455787379972478737997247861606"
+                + "4616736777929561194939744871208653362292333223746380111126352690", product.toString());
+        assertEquals("-7xo8s57ktjm3t1gcmfkup1j3fopr7hqregsacb55et3jxi01qzd1hx3ftydjtt6sb7c7xt0q66dush5ovnhvvlugh726e9"
+                + "pwsh214i", product.toString(36));
+        assertEquals(a, product.divide(b));
+        assertEquals(BigInteger.ZERO, product.remainder(b));
+        assertEquals("-124999998860937500014", a.divide(b).toString());
+        assertEquals("235339506023533950602353395060235339506023533950614699073961469907396",
+                a.remainder(b).toString());
+        assertEquals("-963418328982521107774371943463799368134891173244327742872715387032619385971350073874616423414828"
+                + "744194181480629684198286494643811252048675439362036441546662753790731238330181525326879183201949"
+                + "040439108518161", b.pow(3).toString());
+        assertEquals("18469168405628200787827017572789351063340218474440858982089779419983724126508648888207101",
+                b.modPow(a, a.add(BigInteger.TEN)).toString());
+    }
 }
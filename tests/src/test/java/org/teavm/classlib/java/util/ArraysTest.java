@@ -21,6 +21,7 @@ import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -74,6 +75,121 @@ public class ArraysTest {
                 Arrays.equals(fSpecials2, fSorted));
     }
 
+    @Test
+    public void largePrimitiveArraySorted() {
+        int[] array = new int[10000];
+        int[] counts = new int[100];
+        int seed = 12345;
+        for (int i = 0; i < array.length; ++i) {
+            seed = seed * 1103515245 + 12345;
+            array[i] = (seed >>> 16) % 100;
+            counts[array[i]]++;
+        }
+        Arrays.sort(array);
+        int index = 0;
+        for (int value = 0; value < counts.length; ++value) {
+            for (int i = 0; i < counts[value]; ++i) {
+                assertEquals(value, array[index++]);
+            }
+        }
+
+        long[] longs = new long[5000];
+        for (int i = 0; i < longs.length; ++i) {
+            longs[i] = (i * 7919L) % longs.length - 2500;
+        }
+        Arrays.sort(longs);
+        for (int i = 0; i < longs.length; ++i) {
+            assertEquals(i - 2500, longs[i]);
+        }
+
+        char[] chars = new char[3000];
+        for (int i = 0; i < chars.length; ++i) {
+            chars[i] = (char) (chars.length - i);
+        }
+        Arrays.sort(chars);
+        for (int i = 0; i < chars.length; ++i) {
+            assertEquals(i + 1, chars[i]);
+        }
+
+        byte[] bytes = new byte[512];
+        for (int i = 0; i < bytes.length; ++i) {
+            bytes[i] = (byte) i;
+        }
+        Arrays.sort(bytes);
+        for (int i = 0; i < bytes.length; ++i) {
+            assertEquals((byte) (i / 2 - 128), bytes[i]);
+        }
+    }
+
+    @Test
+    public void largeDoubleArraySortedWithSpecials() {
+        double[] array = new double[1000];
+        for (int i = 0; i < array.length; ++i) {
+            switch (i % 4) {
+                case 0:
+                    array[i] = Double.NaN;
+                    break;
+                case 1:
+                    array[i] = -0.0;
+                    break;
+                case 2:
+                    array[i] = 0.0;
+                    break;
+                default:
+                    array[i] = (i % 3) - 1;
+                    break;
+            }
+        }
+        Arrays.sort(array);
+        for (int i = 1; i < array.length; ++i) {
+            assertTrue("Wrong order at " + i, Double.compare(array[i - 1], array[i]) <= 0);
+        }
+        assertTrue(Double.isNaN(array[array.length - 1]));
+        assertEquals(Double.doubleToRawLongBits(-0.0), Double.doubleToRawLongBits(array[84]));
+        assertEquals(Double.doubleToRawLongBits(-0.0), Double.doubleToRawLongBits(array[333]));
+        assertEquals(Double.doubleToRawLongBits(0.0), Double.doubleToRawLongBits(array[334]));
+    }
+
+    @Test
+    public void rangeSortedInPlace() {
+        int[] array = { 9, 8, 7, 6, 5, 4, 3, 2, 1, 0 };
+        Arrays.sort(array, 2, 7);
+        assertTrue(Arrays.equals(new int[] { 9, 8, 3, 4, 5, 6, 7, 2, 1, 0 }, array));
+
+        float[] floats = { 3, Float.NaN, 2, -0f, 0f, 1, -1 };
+        Arrays.sort(floats, 1, 6);
+        assertTrue(Arrays.equals(new float[] { 3, -0f, 0f, 1, 2, Float.NaN, -1 }, floats));
+    }
+
+    @Test
+    public void objectSortIsStable() {
+        Integer[] keys = new Integer[2000];
+        for (int i = 0; i < keys.length; ++i) {
+            // Ascending and descending runs of different lengths with many equal keys
+            keys[i] = (i / 300) % 2 == 0 ? i / 7 : (2000 - i) / 7;
+        }
+        Integer[] indexes = new Integer[keys.length];
+        for (int i = 0; i < indexes.length; ++i) {
+            indexes[i] = i;
+        }
+        Arrays.sort(indexes, 100, 1900, Comparator.comparing(i -> keys[i]));
+        for (int i = 0; i < 100; ++i) {
+            assertEquals(i, indexes[i].intValue());
+            assertEquals(1900 + i, indexes[1900 + i].intValue());
+        }
+        for (int i = 101; i < 1900; ++i) {
+            int previous = indexes[i - 1];
+            int current = indexes[i];
+            assertTrue("Wrong order at " + i, keys[previous] < keys[current]
+                    || keys[previous].equals(keys[current]) && previous < current);
+        }
+    }
+
+    @Test(expected = ArrayIndexOutOfBoundsException.class)
+    public void rangeSortPastEndFails() {
+        Arrays.sort(new int[3], 1, 4);
+    }
+
     @Test
     public void binarySearchWorks() {
         Integer[] array = { 2, 4, 6, 8, 10, 12, 14, 16 };
@@ -22,6 +22,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedList;
 import java.util.List;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -42,6 +43,13 @@ public class CollectionsTest {
         assertEquals(Integer.valueOf(7), list.get(5));
     }
 
+    @Test
+    public void linkedListSorted() {
+        List<Integer> list = new LinkedList<>(Arrays.asList(2, 5, 7, 3, 5, 6));
+        Collections.sort(list);
+        assertEquals(Arrays.asList(2, 3, 5, 5, 6, 7), list);
+    }
+
     @Test
     public void binarySearchWorks() {
         List<Integer> list = new ArrayList<>(Arrays.asList(2, 4, 6, 8, 10, 12, 14, 16));
@@ -19,6 +19,7 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
+import java.math.BigInteger;
 import java.util.DuplicateFormatFlagsException;
 import java.util.FormatFlagsConversionMismatchException;
 import java.util.Formattable;
@@ -28,6 +29,7 @@ import java.util.IllegalFormatConversionException;
 import java.util.IllegalFormatFlagsException;
 import java.util.IllegalFormatPrecisionException;
 import java.util.Locale;
+import java.util.MissingFormatArgumentException;
 import java.util.MissingFormatWidthException;
 import java.util.UnknownFormatConversionException;
 import org.junit.Test;
@@ -301,4 +303,63 @@ public class FormatterTest {
             assertNotNull(e);
         }
     }
+
+    @Test
+    public void escapedPercentDoesNotConsumeArgument() {
+        assertEquals("%5%", new Formatter().format("%%%d%%", 5).toString());
+    }
+
+    @Test
+    public void formatsWithConstantPattern() {
+        assertEquals("id=23, name=foo; 100% done", String.format("id=%d, name=%s; 100%% done", 23, "foo"));
+        assertEquals("-5:null:-9000000000", String.format("%d:%s:%d", (byte) -5, null, -9000000000L));
+        assertEquals("[q]", "[%s]".formatted("q"));
+        assertEquals("<0:-1:-1>", String.format("<%s>", new A()));
+        try {
+            String.format("%d", "foo");
+            fail("Should have thrown exception");
+        } catch (IllegalFormatConversionException e) {
+            assertEquals('d', e.getConversion());
+            assertEquals(String.class, e.getArgumentClass());
+        }
+    }
+
+    @Test
+    public void formatsNullDecimalWithConstantPattern() {
+        assertEquals("null", String.format("%d", (Object) null));
+        assertEquals("[null]", "[%d]".formatted((Object) null));
+        assertEquals("null", new Formatter().format("%d", (Object) null).toString());
+        assertEquals("null null", String.format("%s %d", (Object[]) null));
+        assertEquals("null null", new Formatter().format("%s %d", (Object[]) null).toString());
+    }
+
+    @Test
+    public void formatsBigIntegerWithConstantPattern() {
+        var value = new BigInteger("-123456789012345678901234567890");
+        assertEquals("x=-123456789012345678901234567890", String.format("x=%d", value));
+        assertEquals("x=-123456789012345678901234567890", new Formatter().format("x=%d", value).toString());
+        assertEquals("(123456789012345678901234567890)", new Formatter().format("%(d", value).toString());
+    }
+
+    @Test
+    public void reportsMissingArgumentWithConstantPattern() {
+        try {
+            String.format("%s and %d", "foo");
+            fail("Should have thrown exception");
+        } catch (MissingFormatArgumentException e) {
+            assertEquals("%d", e.getFormatSpecifier());
+        }
+        try {
+            "%s".formatted();
+            fail("Should have thrown exception");
+        } catch (MissingFormatArgumentException e) {
+            assertEquals("%s", e.getFormatSpecifier());
+        }
+        try {
+            new Formatter().format("%s %2$s", "foo");
+            fail("Should have thrown exception");
+        } catch (MissingFormatArgumentException e) {
+            assertEquals("%2$s", e.getFormatSpecifier());
+        }
+    }
 }
@@ -951,6 +951,74 @@ public class HashMapTest {
         }
     }
 
+    @Test
+    public void collidingComparableKeys() {
+        var map = new HashMap<Object, Integer>();
+        for (int i = 0; i < 1000; i++) {
+            map.put(new CollidingKey(i), i);
+        }
+        assertEquals(1000, map.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(Integer.valueOf(i), map.get(new CollidingKey(i)));
+        }
+        assertNull(map.get(new CollidingKey(1000)));
+
+        for (int i = 0; i < 1000; i += 2) {
+            assertEquals(Integer.valueOf(i), map.remove(new CollidingKey(i)));
+        }
+        for (var iter = map.keySet().iterator(); iter.hasNext();) {
+            if (((CollidingKey) iter.next()).value % 3 == 0) {
+                iter.remove();
+            }
+        }
+        map.put("foo", -1);
+        map.put(null, -2);
+        for (int i = 0; i < 1000; i++) {
+            var expected = i % 2 != 0 && i % 3 != 0 ? Integer.valueOf(i) : null;
+            assertEquals(expected, map.get(new CollidingKey(i)));
+        }
+        assertEquals(Integer.valueOf(-1), map.get("foo"));
+        assertEquals(Integer.valueOf(-2), map.get(null));
+        assertEquals(335, map.size());
+    }
+
+    @Test
+    public void collidingKeysWithoutTree() {
+        var map = new HashMap<Object, Integer>();
+        for (int i = 0; i < 100; i++) {
+            map.put(i % 2 == 0 ? new CollidingKey(i) : new CollidingIncomparableKey(i), i);
+        }
+        for (int i = 0; i < 100; i += 3) {
+            assertEquals(Integer.valueOf(i), map.remove(i % 2 == 0
+                    ? new CollidingKey(i) : new CollidingIncomparableKey(i)));
+        }
+        for (int i = 100; i < 200; i++) {
+            map.put(new CollidingKey(i), i);
+        }
+        assertEquals(166, map.size());
+        for (int i = 0; i < 200; i++) {
+            var expected = i >= 100 || i % 3 != 0 ? Integer.valueOf(i) : null;
+            var key = i >= 100 || i % 2 == 0 ? new CollidingKey(i) : new CollidingIncomparableKey(i);
+            assertEquals(expected, map.get(key));
+        }
+    }
+
+    @Test
+    public void packedLongKeys() {
+        var map = new HashMap<Long, Integer>();
+        for (int x = 0; x < 100; x++) {
+            for (int y = 0; y < 100; y++) {
+                map.put(((long) x << 32) | y, x * 100 + y);
+            }
+        }
+        assertEquals(10000, map.size());
+        for (int x = 0; x < 100; x++) {
+            for (int y = 0; y < 100; y++) {
+                assertEquals(Integer.valueOf(x * 100 + y), map.get(((long) x << 32) | y));
+            }
+        }
+    }
+
     @SuppressWarnings("unchecked")
     protected <K, V> HashMap<K, V> hashMapClone(HashMap<K, V> s) {
         return (HashMap<K, V>) s.clone();
@@ -979,4 +1047,45 @@ public class HashMapTest {
             return key == ((ReusableKey) o).key;
         }
     }
+
+    static class CollidingIncomparableKey {
+        final int value;
+
+        CollidingIncomparableKey(int value) {
+            this.value = value;
+        }
+
+        @Override
+        public int hashCode() {
+            return 0;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof CollidingIncomparableKey && ((CollidingIncomparableKey) o).value == value;
+        }
+    }
+
+    static class CollidingKey implements Comparable<CollidingKey> {
+        final int value;
+
+        CollidingKey(int value) {
+            this.value = value;
+        }
+
+        @Override
+        public int hashCode() {
+            return value & 0x10000;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof CollidingKey && ((CollidingKey) o).value == value;
+        }
+
+        @Override
+        public int compareTo(CollidingKey o) {
+            return Integer.compare(value, o.value);
+        }
+    }
 }
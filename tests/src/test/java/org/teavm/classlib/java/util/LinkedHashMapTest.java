@@ -707,4 +707,25 @@ public class LinkedHashMapTest {
         map.put("a", "6");
         assertArrayEquals(new String[] { "4", "5", "6" }, map.values().toArray(new String[0]));
     }
+
+    @Test
+    public void collidingKeysKeepOrder() {
+        var map = new LinkedHashMap<HashMapTest.CollidingKey, Integer>();
+        for (int i = 0; i < 200; i++) {
+            map.put(new HashMapTest.CollidingKey((i * 37) % 200), i);
+        }
+        for (int i = 0; i < 200; i += 3) {
+            map.remove(new HashMapTest.CollidingKey(i));
+        }
+        var expected = new ArrayList<Integer>();
+        for (int i = 0; i < 200; i++) {
+            if ((i * 37) % 200 % 3 != 0) {
+                expected.add(i);
+            }
+        }
+        assertEquals(expected, new ArrayList<>(map.values()));
+        for (int i = 0; i < 200; i++) {
+            assertEquals(i % 3 != 0, map.containsKey(new HashMapTest.CollidingKey(i)));
+        }
+    }
 }
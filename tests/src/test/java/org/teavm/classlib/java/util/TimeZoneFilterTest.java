@@ -0,0 +1,58 @@
+/*
+ *  Copyright 2026 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.classlib.java.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import java.util.Arrays;
+import java.util.TimeZone;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.teavm.junit.SkipJVM;
+import org.teavm.junit.TeaVMProperties;
+import org.teavm.junit.TeaVMProperty;
+import org.teavm.junit.TeaVMTestRunner;
+
+@RunWith(TeaVMTestRunner.class)
+@TeaVMProperties(@TeaVMProperty(key = "java.util.TimeZone.zones", value = "Pacific/Kiritimati, Etc/GMT+12, Japan"))
+@SkipJVM
+public class TimeZoneFilterTest {
+    @Test
+    public void onlySelectedZonesAvailable() {
+        var ids = Arrays.asList(TimeZone.getAvailableIDs());
+        assertTrue(ids.contains("Pacific/Kiritimati"));
+        assertTrue(ids.contains("Etc/GMT+12"));
+        assertTrue(ids.contains("Japan"));
+        assertTrue(ids.contains("Asia/Tokyo"));
+        assertFalse(ids.contains("Europe/Berlin"));
+        assertFalse(ids.contains("America/New_York"));
+    }
+
+    @Test
+    public void aliasResolved() {
+        assertEquals(9 * 3600_000, TimeZone.getTimeZone("Japan").getRawOffset());
+    }
+
+    @Test
+    public void defaultZoneDetectedOrFallsBack() {
+        var tz = TimeZone.getDefault();
+        assertNotNull(tz);
+        var ids = Arrays.asList(TimeZone.getAvailableIDs());
+        assertTrue(tz.getID(), tz.getID().equals("GMT") || ids.contains(tz.getID()));
+    }
+}
@@ -304,4 +304,42 @@ public class ConcurrentHashMapTest {
             assertEquals((Object) (i + 1), map.get(i));
         }
     }
+
+    @Test
+    public void collidingKeys() {
+        var map = new ConcurrentHashMap<CollidingKey, Integer>();
+        for (var i = 0; i < 1000; ++i) {
+            map.put(new CollidingKey(i), i);
+        }
+        for (var i = 0; i < 1000; i += 2) {
+            assertTrue(map.remove(new CollidingKey(i), i));
+        }
+        assertEquals(500, map.size());
+        for (var i = 0; i < 1000; ++i) {
+            assertEquals(i % 2 != 0 ? (Object) i : null, map.get(new CollidingKey(i)));
+        }
+    }
+
+    static class CollidingKey implements Comparable<CollidingKey> {
+        final int value;
+
+        CollidingKey(int value) {
+            this.value = value;
+        }
+
+        @Override
+        public int hashCode() {
+            return value & 0x10000;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof CollidingKey && ((CollidingKey) o).value == value;
+        }
+
+        @Override
+        public int compareTo(CollidingKey o) {
+            return Integer.compare(value, o.value);
+        }
+    }
 }
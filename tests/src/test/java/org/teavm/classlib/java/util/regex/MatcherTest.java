@@ -737,6 +737,30 @@ public class MatcherTest {
         assertTrue(matcher.lookingAt());
     }
 
+    @Test
+    public void findsAlternationsByFirstChar() {
+        Matcher m = Pattern.compile("(ERROR|WARN): (\\d+)").matcher("INFO: 1 WARN: 42 ERROR: 7");
+        assertTrue(m.find());
+        assertEquals(8, m.start());
+        assertEquals("WARN", m.group(1));
+        assertEquals("42", m.group(2));
+        assertTrue(m.find());
+        assertEquals("ERROR", m.group(1));
+        assertEquals("7", m.group(2));
+        assertFalse(m.find());
+
+        m = Pattern.compile("(?:foo|[0-9]x)bar").matcher("aa 9xbar foobar");
+        assertTrue(m.find());
+        assertEquals("9xbar", m.group());
+        assertTrue(m.find());
+        assertEquals("foobar", m.group());
+        assertFalse(m.find());
+
+        m = Pattern.compile("(ab|cd)").matcher("xxa");
+        assertFalse(m.find());
+        assertTrue(m.hitEnd());
+    }
+
     private void hitEndTest(boolean callFind, String testNo, String regex,
             String input, boolean hit) {
         Pattern pattern = Pattern.compile(regex);
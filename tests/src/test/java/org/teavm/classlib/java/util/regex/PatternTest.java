@@ -36,6 +36,7 @@ package org.teavm.classlib.java.util.regex;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertThrows;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
@@ -1391,4 +1392,15 @@ public class PatternTest {
         assertThrows(IllegalArgumentException.class, () -> matcher.start("qwe"));
         assertThrows(IllegalArgumentException.class, () -> matcher.end("qwe"));
     }
+
+    @Test
+    public void constantPatternKeepsSourceAndIdentity() {
+        var first = Pattern.compile("(\\d+)-(\\w+)", Pattern.CASE_INSENSITIVE);
+        var second = Pattern.compile("(\\d+)-(\\w+)", Pattern.CASE_INSENSITIVE);
+        assertNotSame(first, second);
+        assertEquals("(\\d+)-(\\w+)", first.pattern());
+        assertEquals(Pattern.CASE_INSENSITIVE, first.flags());
+        assertTrue(first.matcher("12-AbC").matches());
+        assertTrue("12-abc".matches("(\\d+)-(\\w+)"));
+    }
 }
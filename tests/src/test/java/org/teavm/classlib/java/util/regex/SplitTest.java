@@ -33,6 +33,7 @@
 
 package org.teavm.classlib.java.util.regex;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import java.util.regex.Pattern;
@@ -146,4 +147,23 @@ public class SplitTest {
         assertTrue(tokens[1].equals(""));
         assertEquals("dle z", tokens[2]);
     }
+
+    @Test
+    public void splitsStringByLiteralChar() {
+        assertArrayEquals(new String[] { "a", "b", "", "c" }, "a,b,,c,,".split(","));
+        assertArrayEquals(new String[] { "a", "b", "", "c", "", "" }, "a,b,,c,,".split(",", -1));
+        assertArrayEquals(new String[] { "a", "b,,c,," }, "a,b,,c,,".split(",", 2));
+        assertArrayEquals(new String[] { "", "a", "b" }, ".a.b".split("\\."));
+        assertArrayEquals(new String[] { "" }, "".split(","));
+        assertArrayEquals(new String[0], ",,,".split(","));
+
+        String separator = ";";
+        assertArrayEquals(new String[] { "x", "y" }, "x;y".split(separator));
+    }
+
+    @Test
+    public void replacesLiteralRegex() {
+        assertEquals("a.b.c", "a::b::c".replaceAll("::", "."));
+        assertEquals("a$b", "a-b".replaceAll("-", "\\$"));
+    }
 }
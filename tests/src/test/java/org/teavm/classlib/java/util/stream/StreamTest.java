@@ -26,6 +26,7 @@ import static org.teavm.classlib.java.util.stream.Helper.testDoubleStream;
 import static org.teavm.classlib.java.util.stream.Helper.testIntStream;
 import static org.teavm.classlib.java.util.stream.Helper.testIntegerStream;
 import static org.teavm.classlib.java.util.stream.Helper.testLongStream;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
@@ -34,6 +35,7 @@ import java.util.List;
 import java.util.Spliterator;
 import java.util.function.Function;
 import java.util.function.Supplier;
+import java.util.stream.Collectors;
 import java.util.stream.DoubleStream;
 import java.util.stream.IntStream;
 import java.util.stream.LongStream;
@@ -520,4 +522,48 @@ public class StreamTest {
         assertEquals(List.of("a", "b", "c"), Stream.generate(supplier).limit(3).toList());
         assertEquals(3, supplier.index);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void linearPipelines() {
+        var list = new ArrayList<>(List.of(1, 2, 3, 4, 5, 6));
+        var mapped = new int[1];
+        assertEquals(List.of("2", "4"), list.stream()
+                .map(n -> {
+                    mapped[0]++;
+                    return n;
+                })
+                .filter(n -> n % 2 == 0)
+                .limit(2)
+                .map(String::valueOf)
+                .collect(Collectors.toList()));
+        assertEquals(4, mapped[0]);
+
+        assertEquals(Integer.valueOf(19), Arrays.stream(new Integer[] { 1, 2, 3, 4 })
+                .filter(n -> n != 2).map(n -> n * 2).reduce(3, Integer::sum));
+        assertEquals(Integer.valueOf(3), Arrays.stream(new Integer[0]).reduce(3, Integer::sum));
+
+        var sb = new StringBuilder();
+        Stream.of("a", "b", "c").limit(0).forEach(sb::append);
+        Stream.of("a", "b", "c").map(String::toUpperCase).forEach(sb::append);
+        assertEquals("ABC", sb.toString());
+
+        var stream = list.stream();
+        list.add(7);
+        assertEquals(7L, (long) stream.collect(Collectors.counting()));
+    }
+
+    @Test
+    public void userCollectionStreamOverride() {
+        List<Integer> list = new ArrayList<>(List.of(1, 2, 3)) {
+            @Override
+            public Stream<Integer> stream() {
+                return Stream.of(10, 20);
+            }
+        };
+        assertEquals(List.of("10", "20"), mapToStrings(list));
+    }
+
+    private static List<String> mapToStrings(List<Integer> list) {
+        return list.stream().map(String::valueOf).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ *  Copyright 2026 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.classlib.java.util.zip;
+
+import static org.junit.Assert.assertEquals;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.Adler32;
+import java.util.zip.CRC32;
+import java.util.zip.Checksum;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.teavm.junit.TeaVMTestRunner;
+
+@RunWith(TeaVMTestRunner.class)
+public class ChecksumTest {
+    private static final byte[] DATA = "The quick brown fox jumps over the lazy dog"
+            .getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    public void crc32() {
+        var crc = new CRC32();
+        crc.update(DATA);
+        assertEquals(0x414FA339L, crc.getValue());
+    }
+
+    @Test
+    public void adler32() {
+        var adler = new Adler32();
+        adler.update(DATA);
+        assertEquals(0x5BDC0FDAL, adler.getValue());
+    }
+
+    @Test
+    public void singleByteUpdatesMatchArrayUpdate() {
+        checkIncremental(new CRC32(), new CRC32());
+        checkIncremental(new Adler32(), new Adler32());
+    }
+
+    @Test
+    public void largeInput() {
+        var data = new byte[100000];
+        for (var i = 0; i < data.length; ++i) {
+            data[i] = (byte) (i * 31 + (i >> 7));
+        }
+        var crc = new CRC32();
+        crc.update(data, 3, data.length - 3);
+        var adler = new Adler32();
+        adler.update(data, 3, data.length - 3);
+
+        var crcBytes = new CRC32();
+        var adlerBytes = new Adler32();
+        for (var i = 3; i < data.length; ++i) {
+            crcBytes.update(data[i]);
+            adlerBytes.update(data[i]);
+        }
+        assertEquals(crcBytes.getValue(), crc.getValue());
+        assertEquals(adlerBytes.getValue(), adler.getValue());
+    }
+
+    private void checkIncremental(Checksum bulk, Checksum incremental) {
+        bulk.update(DATA, 0, DATA.length);
+        for (var b : DATA) {
+            incremental.update(b);
+        }
+        assertEquals(bulk.getValue(), incremental.getValue());
+        bulk.reset();
+        bulk.update(DATA, 5, 10);
+        incremental.reset();
+        for (var i = 5; i < 15; ++i) {
+            incremental.update(DATA[i]);
+        }
+        assertEquals(bulk.getValue(), incremental.getValue());
+    }
+}
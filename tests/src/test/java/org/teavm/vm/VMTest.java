@@ -685,4 +685,76 @@ public class VMTest {
         }
         return "copied " + java.lang.reflect.Array.getLength(copy);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void objectPassedToNonEscapingCallee() {
+        int sum = 0;
+        for (int i = 0; i < 3; ++i) {
+            sum += sumPoint(i, i % 2 == 0);
+        }
+        assertEquals(29, sum);
+    }
+
+    private static int sumPoint(int base, boolean shift) {
+        Point point = new Point(base, base + 1);
+        if (shift) {
+            point.shift(10);
+        }
+        return point.x + point.y;
+    }
+
+    @Test
+    public void objectsReferencedFromLocalsSurviveGC() {
+        Node list = null;
+        int[] data = new int[16];
+        for (int i = 0; i < 100; ++i) {
+            list = new Node(i, list);
+            data[i % data.length] += i;
+            if (i % 10 == 0) {
+                allocateGarbage();
+                System.gc();
+            }
+        }
+        int sum = 0;
+        for (Node node = list; node != null; node = node.next) {
+            sum += node.value;
+        }
+        assertEquals(4950, sum);
+        int dataSum = 0;
+        for (int value : data) {
+            dataSum += value;
+        }
+        assertEquals(4950, dataSum);
+    }
+
+    private static void allocateGarbage() {
+        Object[] garbage = new Object[1000];
+        for (int i = 0; i < garbage.length; ++i) {
+            garbage[i] = new int[i % 32 + 1];
+        }
+    }
+
+    private static class Node {
+        int value;
+        Node next;
+
+        Node(int value, Node next) {
+            this.value = value;
+            this.next = next;
+        }
+    }
+
+    private static class Point {
+        int x;
+        int y;
+
+        Point(int x, int y) {
+            this.x = x;
+            this.y = y;
+        }
+
+        void shift(int dx) {
+            x += dx;
+        }
+    }
+}
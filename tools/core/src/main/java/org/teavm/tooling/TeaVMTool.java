@@ -32,6 +32,8 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import org.teavm.backend.c.CTarget;
 import org.teavm.backend.c.generate.CNameProvider;
 import org.teavm.backend.c.generate.ShorteningFileNameProvider;
@@ -73,6 +75,8 @@ import org.teavm.vm.DirectoryBuildTarget;
 import org.teavm.vm.TeaVM;
 import org.teavm.vm.TeaVMBuilder;
 import org.teavm.vm.TeaVMOptimizationLevel;
+import org.teavm.vm.TeaVMPhase;
+import org.teavm.vm.TeaVMProgressFeedback;
 import org.teavm.vm.TeaVMProgressListener;
 import org.teavm.vm.TeaVMTarget;
 
@@ -91,6 +95,7 @@ public class TeaVMTool {
     private boolean sourceMapsFileGenerated;
     private TeaVMSourceFilePolicy sourceFilePolicy = TeaVMSourceFilePolicy.DO_NOTHING;
     private boolean incremental;
+    private Boolean prefetchEnabled;
     private File cacheDirectory = new File("./teavm-cache");
     private List<String> transformers = new ArrayList<>();
     private List<String> classesToPreserve = new ArrayList<>();
@@ -162,6 +167,20 @@ public class TeaVMTool {
         this.incremental = incremental;
     }
 
+    public boolean isPrefetchEnabled() {
+        return prefetchEnabled != null ? prefetchEnabled : !incremental;
+    }
+
+    /**
+     * Enables parsing of classes on background threads ahead of dependency analysis. By default, prefetching
+     * is enabled for full builds and disabled for incremental ones, since the latter take most classes
+     * from cache and extra threads only compete with the build for CPU. Prefetching calls resource provider
+     * concurrently, see {@link ResourceProvider}.
+     */
+    public void setPrefetchEnabled(boolean prefetchEnabled) {
+        this.prefetchEnabled = prefetchEnabled;
+    }
+
     public String getMainClass() {
         return mainClass;
     }
@@ -410,12 +429,14 @@ public class TeaVMTool {
     }
 
     public void generate() throws TeaVMToolException {
+        var prefetchExecutor = isPrefetchEnabled() ? createPrefetchExecutor() : null;
         try (var resourceProvider = createResourceProvider()) {
             cancelled = false;
             log.info("Running TeaVM");
             referenceCache = new ReferenceCache();
             TeaVMBuilder vmBuilder = new TeaVMBuilder(prepareTarget());
             CacheStatus cacheStatus;
+            ClasspathClassHolderSource prefetchingClassSource;
             vmBuilder.setReferenceCache(referenceCache);
             if (incremental) {
                 cacheDirectory.mkdirs();
@@ -424,6 +445,10 @@ public class TeaVMTool {
                 variableTable = new FileSymbolTable(new File(cacheDirectory, "variables"));
                 ClasspathClassHolderSource innerClassSource = new ClasspathClassHolderSource(resourceProvider,
                         referenceCache, classLoader);
+                if (prefetchExecutor != null) {
+                    innerClassSource.setPrefetchExecutor(prefetchExecutor);
+                }
+                prefetchingClassSource = innerClassSource;
                 ClassHolderSource classSource = new PreOptimizingClassHolderSource(innerClassSource);
                 cachedClassSource = new DiskCachedClassReaderSource(cacheDirectory, referenceCache, symbolTable,
                         fileTable, variableTable, classSource, innerClassSource);
@@ -444,8 +469,12 @@ public class TeaVMTool {
                 vmBuilder.setClassLoader(classLoader).setClassSource(cachedClassSource);
                 cacheStatus = cachedClassSource;
             } else {
-                vmBuilder.setClassLoader(classLoader).setClassSource(new PreOptimizingClassHolderSource(
-                        new ClasspathClassHolderSource(resourceProvider, referenceCache, classLoader)));
+                var classSource = new ClasspathClassHolderSource(resourceProvider, referenceCache, classLoader);
+                if (prefetchExecutor != null) {
+                    classSource.setPrefetchExecutor(prefetchExecutor);
+                }
+                prefetchingClassSource = classSource;
+                vmBuilder.setClassLoader(classLoader).setClassSource(new PreOptimizingClassHolderSource(classSource));
                 cacheStatus = AlwaysStaleCacheStatus.INSTANCE;
             }
 
@@ -457,9 +486,7 @@ public class TeaVMTool {
             vmBuilder.setStrict(strict);
 
             vm = vmBuilder.build();
-            if (progressListener != null) {
-                vm.setProgressListener(progressListener);
-            }
+            vm.setProgressListener(createProgressListener(prefetchingClassSource));
 
             if (assertionsRemoved) {
                 vm.add(new AssertionRemoval());
@@ -537,9 +564,43 @@ public class TeaVMTool {
             printStats();
         } catch (IOException e) {
             throw new TeaVMToolException("IO error occurred", e);
+        } finally {
+            if (prefetchExecutor != null) {
+                prefetchExecutor.shutdownNow();
+            }
         }
     }
 
+    private TeaVMProgressListener createProgressListener(ClasspathClassHolderSource prefetchingClassSource) {
+        return new TeaVMProgressListener() {
+            @Override
+            public TeaVMProgressFeedback phaseStarted(TeaVMPhase phase, int count) {
+                if (phase == TeaVMPhase.COMPILING) {
+                    prefetchingClassSource.stopPrefetching();
+                }
+                return progressListener != null
+                        ? progressListener.phaseStarted(phase, count)
+                        : TeaVMProgressFeedback.CONTINUE;
+            }
+
+            @Override
+            public TeaVMProgressFeedback progressReached(int progress) {
+                return progressListener != null
+                        ? progressListener.progressReached(progress)
+                        : TeaVMProgressFeedback.CONTINUE;
+            }
+        };
+    }
+
+    private ExecutorService createPrefetchExecutor() {
+        var threadCount = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+        return Executors.newFixedThreadPool(threadCount, runnable -> {
+            var thread = new Thread(runnable, "TeaVM class prefetcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
     private ResourceProvider createResourceProvider() {
         return classPath != null
                 ? ResourceProvider.ofClassPath(classPath)
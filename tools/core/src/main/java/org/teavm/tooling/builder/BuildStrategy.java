@@ -59,6 +59,8 @@ public interface BuildStrategy {
 
     void setIncremental(boolean incremental);
 
+    void setPrefetchEnabled(boolean prefetchEnabled);
+
     void setObfuscated(boolean obfuscated);
 
     void setStrict(boolean strict);
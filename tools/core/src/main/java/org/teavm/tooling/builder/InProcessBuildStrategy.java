@@ -51,6 +51,7 @@ public class InProcessBuildStrategy implements BuildStrategy {
     private String targetDirectory;
     private String targetFileName = "";
     private boolean incremental;
+    private Boolean prefetchEnabled;
     private String cacheDirectory;
     private TeaVMOptimizationLevel optimizationLevel = TeaVMOptimizationLevel.ADVANCED;
     private boolean fastDependencyAnalysis;
@@ -154,6 +155,11 @@ public class InProcessBuildStrategy implements BuildStrategy {
         this.incremental = incremental;
     }
 
+    @Override
+    public void setPrefetchEnabled(boolean prefetchEnabled) {
+        this.prefetchEnabled = prefetchEnabled;
+    }
+
     @Override
     public void setProperties(Properties properties) {
         this.properties.clear();
@@ -290,6 +296,9 @@ public class InProcessBuildStrategy implements BuildStrategy {
         tool.setStrict(strict);
         tool.setMaxTopLevelNames(maxTopLevelNames);
         tool.setIncremental(incremental);
+        if (prefetchEnabled != null) {
+            tool.setPrefetchEnabled(prefetchEnabled);
+        }
         tool.getTransformers().addAll(Arrays.asList(transformers));
         tool.getClassesToPreserve().addAll(Arrays.asList(classesToPreserve));
         tool.setCacheDirectory(cacheDirectory != null ? new File(cacheDirectory) : null);
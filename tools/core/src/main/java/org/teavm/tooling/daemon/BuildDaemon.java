@@ -161,6 +161,9 @@ public class BuildDaemon extends UnicastRemoteObject implements RemoteBuildServi
 
         tool.setOptimizationLevel(request.optimizationLevel);
         tool.setFastDependencyAnalysis(request.fastDependencyAnalysis);
+        if (request.prefetchEnabled != null) {
+            tool.setPrefetchEnabled(request.prefetchEnabled);
+        }
         tool.setObfuscated(request.obfuscated);
         tool.setJsModuleType(request.jsModuleType);
         tool.setMaxTopLevelNames(request.maxTopLevelNames);
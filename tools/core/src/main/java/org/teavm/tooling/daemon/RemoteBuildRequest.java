@@ -50,6 +50,7 @@ public class RemoteBuildRequest implements Serializable {
     public Properties properties;
     public TeaVMOptimizationLevel optimizationLevel;
     public boolean fastDependencyAnalysis;
+    public Boolean prefetchEnabled;
     public WasmBinaryVersion wasmVersion;
     public WasmDebugInfoLocation wasmDebugInfoLocation;
     public WasmDebugInfoLevel wasmDebugInfoLevel;
@@ -56,6 +56,7 @@ public class DevServerClient {
     private int port;
     private Set<File> sources = new LinkedHashSet<>();
     private boolean autoReload;
+    private boolean hotPatch;
     private String proxyUrl;
     private String proxyPath;
     private List<String> staticDirs = new ArrayList<>();
@@ -159,6 +160,10 @@ public class DevServerClient {
         this.autoReload = autoReload;
     }
 
+    public void setHotPatch(boolean hotPatch) {
+        this.hotPatch = hotPatch;
+    }
+
     public void setProxyUrl(String proxyUrl) {
         this.proxyUrl = proxyUrl;
     }
@@ -245,6 +250,10 @@ public class DevServerClient {
         return autoReload;
     }
 
+    public boolean isHotPatch() {
+        return hotPatch;
+    }
+
     public String getProxyUrl() {
         return proxyUrl;
     }
@@ -624,6 +633,10 @@ public class DevServerClient {
             command.add("--auto-reload");
         }
 
+        if (hotPatch) {
+            command.add("--hot-patch");
+        }
+
         if (proxyUrl != null && !proxyUrl.isEmpty()) {
             command.add("--proxy-url");
             command.add(proxyUrl);
@@ -35,6 +35,8 @@ dependencies {
     implementation(libs.jakarta.servlet)
     implementation(libs.jackson.databind)
 
+    testImplementation(libs.junit)
+
     "js"(project(":tools:deobfuscator-js", "js"))
 }
 
@@ -22,6 +22,7 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.BufferedReader;
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
@@ -38,8 +39,11 @@ import java.net.URLClassLoader;
 import java.nio.channels.Channels;
 import java.nio.channels.WritableByteChannel;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Base64;
 import java.util.Collection;
 import java.util.Enumeration;
 import java.util.HashMap;
@@ -48,9 +52,12 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 import java.util.zip.ZipInputStream;
@@ -94,6 +101,7 @@ import org.teavm.vm.TeaVMTarget;
 
 public class CodeServlet extends JettyWebSocketServlet {
     private static final Supplier<InputStream> EMPTY_CONTENT = () -> null;
+    private static final int MIN_COMPRESSED_SIZE = 1024;
 
     private String mainClass;
     private String[] classPath;
@@ -106,6 +114,7 @@ public class CodeServlet extends JettyWebSocketServlet {
     private boolean indicator;
     private boolean deobfuscateStack;
     private boolean automaticallyReloaded;
+    private boolean hotPatching;
     private int port;
     private int debugPort;
     private String proxyUrl;
@@ -137,7 +146,12 @@ public class CodeServlet extends JettyWebSocketServlet {
     private boolean firstTime = true;
 
     private final Object contentLock = new Object();
-    private final Map<String, byte[]> content = new HashMap<>();
+    private final Map<String, GeneratedFile> content = new HashMap<>();
+    private final ExecutorService compressionExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        var thread = new Thread(runnable, "TeaVM dev server output compression");
+        thread.setDaemon(true);
+        return thread;
+    });
     private MemoryBuildTarget buildTarget = new MemoryBuildTarget();
 
     private final Set<ProgressHandler> progressHandlers = new LinkedHashSet<>();
@@ -222,6 +236,10 @@ public class CodeServlet extends JettyWebSocketServlet {
         this.automaticallyReloaded = automaticallyReloaded;
     }
 
+    public void setHotPatching(boolean hotPatching) {
+        this.hotPatching = hotPatching;
+    }
+
     public void setProxyUrl(String proxyUrl) {
         this.proxyUrl = proxyUrl;
     }
@@ -409,27 +427,14 @@ public class CodeServlet extends JettyWebSocketServlet {
                     serveDeobfuscator(req, resp, hasBody);
                     return;
                 } else {
-                    byte[] fileContent;
+                    GeneratedFile fileContent;
                     boolean firstTime;
                     synchronized (contentLock) {
                         fileContent = content.get(fileName);
                         firstTime = this.firstTime;
                     }
                     if (fileContent != null) {
-                        resp.setStatus(hasBody ? HttpServletResponse.SC_OK : HttpServletResponse.SC_NO_CONTENT);
-                        if (fileName.endsWith(".js") || fileName.endsWith(".js.map")
-                                || fileName.endsWith(".wasm.map")) {
-                            resp.setCharacterEncoding("UTF-8");
-                        }
-                        allowOrigin(req, resp);
-                        if (!hasBody) {
-                            resp.setHeader("Access-Control-Allow-Methods", "GET");
-                        } else {
-                            resp.setContentType(chooseContentType(fileName));
-                            noCache(resp);
-                            resp.getOutputStream().write(fileContent);
-                        }
-                        resp.getOutputStream().flush();
+                        serveGeneratedFile(req, resp, fileName, fileContent, hasBody);
                         log.debug("File " + path + " served as generated file");
                         return;
                     } else if (fileName.equals(this.fileName) && indicator && firstTime) {
@@ -467,6 +472,95 @@ public class CodeServlet extends JettyWebSocketServlet {
         resp.setStatus(HttpServletResponse.SC_NOT_FOUND);
     }
 
+    private void serveGeneratedFile(HttpServletRequest req, HttpServletResponse resp, String fileName,
+            GeneratedFile file, boolean hasBody) throws IOException {
+        allowOrigin(req, resp);
+        if (!hasBody) {
+            resp.setStatus(HttpServletResponse.SC_NO_CONTENT);
+            resp.setHeader("Access-Control-Allow-Methods", "GET");
+            resp.getOutputStream().flush();
+            return;
+        }
+
+        var compressed = acceptsGzip(req.getHeader("Accept-Encoding")) ? file.compressed : null;
+        var etag = selectEtag(file.etag, compressed != null);
+        resp.setHeader("Cache-Control", "no-cache");
+        resp.setHeader("Vary", resp.containsHeader("Vary") ? "Origin, Accept-Encoding" : "Accept-Encoding");
+        resp.setHeader("ETag", etag);
+        if (matchesEtag(req.getHeader("If-None-Match"), etag)) {
+            resp.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        resp.setStatus(HttpServletResponse.SC_OK);
+        if (fileName.endsWith(".js") || fileName.endsWith(".js.map") || fileName.endsWith(".wasm.map")) {
+            resp.setCharacterEncoding("UTF-8");
+        }
+        resp.setContentType(chooseContentType(fileName));
+        var data = file.data;
+        if (compressed != null) {
+            resp.setHeader("Content-Encoding", "gzip");
+            data = compressed;
+        }
+        resp.setContentLength(data.length);
+        resp.getOutputStream().write(data);
+        resp.getOutputStream().flush();
+    }
+
+    // Explicit gzip entry takes precedence over wildcard, as required by RFC 9110
+    static boolean acceptsGzip(String header) {
+        if (header == null) {
+            return false;
+        }
+        var wildcard = false;
+        for (var part : header.split(",")) {
+            var params = part.split(";");
+            var coding = params[0].trim();
+            if (coding.equalsIgnoreCase("gzip") || coding.equalsIgnoreCase("x-gzip")) {
+                return quality(params) > 0;
+            } else if (coding.equals("*")) {
+                wildcard = quality(params) > 0;
+            }
+        }
+        return wildcard;
+    }
+
+    private static double quality(String[] params) {
+        for (int i = 1; i < params.length; ++i) {
+            var param = params[i].trim().replace(" ", "");
+            if (param.startsWith("q=") || param.startsWith("Q=")) {
+                try {
+                    return Double.parseDouble(param.substring(2));
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    // Compressed representation must have its own tag, otherwise caches may serve gzip to a client that
+    // can't decode it
+    static String selectEtag(String etag, boolean compressed) {
+        return compressed ? etag.substring(0, etag.length() - 1) + "-gzip\"" : etag;
+    }
+
+    static boolean matchesEtag(String header, String etag) {
+        if (header == null) {
+            return false;
+        }
+        for (var part : header.split(",")) {
+            var tag = part.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private String chooseContentType(String name) {
         if (name.endsWith(".js")) {
             return "application/javascript";
@@ -797,6 +891,7 @@ public class CodeServlet extends JettyWebSocketServlet {
             }
         }
         stopped = true;
+        compressionExecutor.shutdownNow();
         synchronized (statusLock) {
             if (buildThread != null && waiting) {
                 buildThread.interrupt();
@@ -1052,6 +1147,11 @@ public class CodeServlet extends JettyWebSocketServlet {
             public String fileName() {
                 return fileName;
             }
+
+            @Override
+            public boolean hotPatching() {
+                return hotPatching;
+            }
         };
         backend.setup(target, astCache, referenceCache, settings);
         vm.setOptimizationLevel(TeaVMOptimizationLevel.SIMPLE);
@@ -1115,6 +1215,8 @@ public class CodeServlet extends JettyWebSocketServlet {
             script = script.replace("WS_PATH", "localhost:" + port + pathToFile + fileName + ".ws");
             script = script.replace("BOOT_FLAG", Boolean.toString(boot));
             script = script.replace("RELOAD_FLAG", Boolean.toString(automaticallyReloaded));
+            script = script.replace("HOT_PATCH_FLAG",
+                    Boolean.toString(hotPatching && backend.isHotPatchingSupported()));
             script = script.replace("INDICATOR_FLAG", Boolean.toString(indicator));
             script = script.replace("DEBUG_PORT", Integer.toString(debugPort));
             script = script.replace("FILE_NAME", "\"" + fileName + "\"");
@@ -1136,10 +1238,10 @@ public class CodeServlet extends JettyWebSocketServlet {
                 classSource.commit();
                 programCache.commit();
                 astCache.commit();
-                reportCompilationComplete(true);
+                reportCompilationComplete(true, backend.commit());
             } else {
                 log.info("Build complete with errors");
-                reportCompilationComplete(false);
+                reportCompilationComplete(false, null);
             }
             printStats(vm, startTime);
             if (logBuildErrors) {
@@ -1174,11 +1276,22 @@ public class CodeServlet extends JettyWebSocketServlet {
     }
 
     private void saveNewResult() {
+        var files = new ArrayList<GeneratedFile>();
         synchronized (contentLock) {
             firstTime = false;
+            for (var file : content.values()) {
+                file.obsolete = true;
+            }
             content.clear();
             for (String name : buildTarget.getNames()) {
-                content.put(name, buildTarget.getContent(name));
+                var file = new GeneratedFile(buildTarget.getContent(name));
+                content.put(name, file);
+                files.add(file);
+            }
+        }
+        for (var file : files) {
+            if (file.data.length >= MIN_COMPRESSED_SIZE) {
+                compressionExecutor.execute(file::compress);
             }
         }
     }
@@ -1244,7 +1357,7 @@ public class CodeServlet extends JettyWebSocketServlet {
         }
     }
 
-    private void reportCompilationComplete(boolean success) {
+    private void reportCompilationComplete(boolean success, String hotPatch) {
         synchronized (statusLock) {
             if (!compiling) {
                 return;
@@ -1258,7 +1371,7 @@ public class CodeServlet extends JettyWebSocketServlet {
         }
 
         for (ProgressHandler handler : handlers) {
-            handler.complete(success);
+            handler.complete(success, hotPatch);
         }
     }
 
@@ -1379,6 +1492,44 @@ public class CodeServlet extends JettyWebSocketServlet {
         ContentProvider provider;
     }
 
+    private static class GeneratedFile {
+        final byte[] data;
+        final String etag;
+        volatile byte[] compressed;
+        volatile boolean obsolete;
+
+        GeneratedFile(byte[] data) {
+            this.data = data;
+            etag = computeEtag(data);
+        }
+
+        void compress() {
+            if (obsolete) {
+                return;
+            }
+            var output = new ByteArrayOutputStream(data.length / 4);
+            try (var gzip = new GZIPOutputStream(output)) {
+                gzip.write(data);
+            } catch (IOException e) {
+                return;
+            }
+            if (output.size() < data.length) {
+                compressed = output.toByteArray();
+            }
+        }
+
+        private static String computeEtag(byte[] data) {
+            MessageDigest digest;
+            try {
+                digest = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new RuntimeException(e);
+            }
+            var hash = digest.digest(data);
+            return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(hash) + "\"";
+        }
+    }
+
     private interface ContentProvider {
         InputStream open() throws IOException;
     }
@@ -31,4 +31,18 @@ public interface CodeServletBackend<T extends TeaVMTarget> {
     default boolean isIndicatorSupported() {
         return false;
     }
+
+    default boolean isHotPatchingSupported() {
+        return false;
+    }
+
+    /**
+     * Called when build completes successfully and its output replaces output of the previous build.
+     *
+     * @return script that applies changes of this build to the page that runs previous build,
+     *     or {@code null} if the page should be reloaded.
+     */
+    default String commit() {
+        return null;
+    }
 }
@@ -19,6 +19,7 @@ import java.io.IOException;
 import java.io.OutputStreamWriter;
 import java.io.Writer;
 import java.nio.charset.StandardCharsets;
+import org.teavm.backend.javascript.HotPatchSnapshot;
 import org.teavm.backend.javascript.JavaScriptTarget;
 import org.teavm.cache.MethodNodeCache;
 import org.teavm.debugging.information.DebugInformation;
@@ -28,6 +29,9 @@ import org.teavm.vm.MemoryBuildTarget;
 
 public class CodeServletJavaScriptBackend implements CodeServletBackend<JavaScriptTarget> {
     private DebugInformationBuilder debugInformationBuilder;
+    private JavaScriptTarget target;
+    private HotPatchSnapshot pendingSnapshot;
+    private HotPatchSnapshot committedSnapshot;
 
     @Override
     public JavaScriptTarget createTarget() {
@@ -46,6 +50,8 @@ public class CodeServletJavaScriptBackend implements CodeServletBackend<JavaScri
             target.setModuleType(settings.jsModuleType());
         }
         target.setStrict(true);
+        target.setHotPatchingSupported(settings.hotPatching());
+        this.target = target;
     }
 
     @Override
@@ -69,10 +75,26 @@ public class CodeServletJavaScriptBackend implements CodeServletBackend<JavaScri
         } finally {
             debugInformationBuilder = null;
         }
+        pendingSnapshot = target.getHotPatchSnapshot();
+        target = null;
+    }
+
+    @Override
+    public String commit() {
+        var snapshot = pendingSnapshot;
+        pendingSnapshot = null;
+        var patch = snapshot != null ? snapshot.createPatch(committedSnapshot) : null;
+        committedSnapshot = snapshot;
+        return patch;
     }
 
     @Override
     public boolean isIndicatorSupported() {
         return true;
     }
+
+    @Override
+    public boolean isHotPatchingSupported() {
+        return true;
+    }
 }
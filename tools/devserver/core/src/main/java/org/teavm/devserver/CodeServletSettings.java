@@ -25,4 +25,6 @@ public interface CodeServletSettings {
     boolean wasmModularRuntime();
 
     String fileName();
+
+    boolean hotPatching();
 }
@@ -15,6 +15,7 @@
  */
 package org.teavm.devserver;
 
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
 import org.eclipse.jetty.websocket.api.Callback;
 import org.eclipse.jetty.websocket.api.Session;
 
@@ -52,7 +53,20 @@ public class CodeWsEndpoint implements Session.Listener.AutoDemanding {
 
         @Override
         public void complete(boolean success) {
-            session.sendText("{ \"command\": \"complete\", \"success\": " + success + " }", Callback.NOOP);
+            complete(success, null);
+        }
+
+        @Override
+        public void complete(boolean success, String hotPatch) {
+            var sb = new StringBuilder();
+            sb.append("{ \"command\": \"complete\", \"success\": ").append(success);
+            if (hotPatch != null) {
+                sb.append(", \"hotPatch\": \"");
+                JsonStringEncoder.getInstance().quoteAsString(hotPatch, sb);
+                sb.append("\"");
+            }
+            sb.append(" }");
+            session.sendText(sb.toString(), Callback.NOOP);
         }
     }
 }
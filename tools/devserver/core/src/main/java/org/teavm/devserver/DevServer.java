@@ -36,6 +36,7 @@ public class DevServer {
     private boolean indicator;
     private boolean deobfuscateStack;
     private boolean reloadedAutomatically;
+    private boolean hotPatching;
     private boolean fileSystemWatched = true;
     private TeaVMToolLog log;
     private CodeServlet servlet;
@@ -105,6 +106,10 @@ public class DevServer {
         this.reloadedAutomatically = reloadedAutomatically;
     }
 
+    public void setHotPatching(boolean hotPatching) {
+        this.hotPatching = hotPatching;
+    }
+
     public void setFileSystemWatched(boolean fileSystemWatched) {
         this.fileSystemWatched = fileSystemWatched;
     }
@@ -203,6 +208,7 @@ public class DevServer {
         servlet.setIndicator(indicator);
         servlet.setDeobfuscateStack(deobfuscateStack);
         servlet.setAutomaticallyReloaded(reloadedAutomatically);
+        servlet.setHotPatching(hotPatching);
         servlet.setPort(port);
         servlet.setDebugPort(debugPort);
         servlet.setProxyUrl(proxyUrl);
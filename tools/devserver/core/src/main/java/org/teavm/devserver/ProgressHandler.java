@@ -18,5 +18,9 @@ package org.teavm.devserver;
 public interface ProgressHandler {
     void complete(boolean success);
 
+    default void complete(boolean success, String hotPatch) {
+        complete(success);
+    }
+
     void progress(double value);
 }
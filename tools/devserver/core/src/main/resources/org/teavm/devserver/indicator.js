@@ -16,6 +16,7 @@
 (function () {
     let boot = BOOT_FLAG;
     let reload = RELOAD_FLAG;
+    let hotPatch = HOT_PATCH_FLAG;
     let indicatorVisible = INDICATOR_FLAG;
     let debugPort = DEBUG_PORT;
     let deobfuscate = DEOBFUSCATE_FLAG;
@@ -165,6 +166,19 @@
         main();
     }
 
+    function applyHotPatch(code) {
+        if (typeof code !== "string" || typeof window.$teavm_hotPatch !== "function") {
+            return false;
+        }
+        try {
+            window.$teavm_hotPatch(code);
+            return true;
+        } catch (e) {
+            console.error("Could not apply hot patch, reloading page", e);
+            return false;
+        }
+    }
+
     let ws = createWebSocket();
     ws.onmessage = function(event) {
         const message = JSON.parse(event.data);
@@ -176,7 +190,9 @@
             case "complete":
                 if (message.success) {
                     indicator.show("Compilation complete", 10);
-                    if (reload) {
+                    if (hotPatch && !boot && applyHotPatch(message.hotPatch)) {
+                        indicator.show("Changes applied", 10);
+                    } else if (reload || (hotPatch && !boot)) {
                         window.location.reload();
                     } else if (boot) {
                         const scriptElem = document.createElement("script");
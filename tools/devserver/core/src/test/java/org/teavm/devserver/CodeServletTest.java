@@ -0,0 +1,81 @@
+/*
+ *  Copyright 2026 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.devserver;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+public class CodeServletTest {
+    private static final String ETAG = "\"abc\"";
+
+    @Test
+    public void acceptsGzip() {
+        assertTrue(CodeServlet.acceptsGzip("gzip"));
+        assertTrue(CodeServlet.acceptsGzip("deflate, GZIP;q=0.5, br"));
+        assertFalse(CodeServlet.acceptsGzip(null));
+        assertFalse(CodeServlet.acceptsGzip("deflate, br"));
+        assertFalse(CodeServlet.acceptsGzip("identity"));
+    }
+
+    @Test
+    public void refusesGzipWithZeroQuality() {
+        assertFalse(CodeServlet.acceptsGzip("gzip;q=0"));
+        assertFalse(CodeServlet.acceptsGzip("br, gzip; q=0.000"));
+        assertFalse(CodeServlet.acceptsGzip("gzip;q=0, *"));
+        assertTrue(CodeServlet.acceptsGzip("gzip;q=0.001"));
+    }
+
+    @Test
+    public void acceptsGzipByWildcard() {
+        assertTrue(CodeServlet.acceptsGzip("*"));
+        assertTrue(CodeServlet.acceptsGzip("br, *;q=0.1"));
+        assertFalse(CodeServlet.acceptsGzip("*;q=0"));
+        assertTrue(CodeServlet.acceptsGzip("*;q=0, gzip"));
+    }
+
+    @Test
+    public void matchesEtag() {
+        assertTrue(CodeServlet.matchesEtag(ETAG, ETAG));
+        assertTrue(CodeServlet.matchesEtag("\"foo\", " + ETAG, ETAG));
+        assertFalse(CodeServlet.matchesEtag("\"foo\"", ETAG));
+        assertFalse(CodeServlet.matchesEtag(null, ETAG));
+    }
+
+    @Test
+    public void matchesWeakEtag() {
+        assertTrue(CodeServlet.matchesEtag("W/" + ETAG, ETAG));
+        assertTrue(CodeServlet.matchesEtag("\"foo\", W/" + ETAG, ETAG));
+        assertFalse(CodeServlet.matchesEtag("W/\"foo\"", ETAG));
+    }
+
+    @Test
+    public void matchesAnyEtag() {
+        assertTrue(CodeServlet.matchesEtag("*", ETAG));
+    }
+
+    @Test
+    public void compressedEtagDiffersFromIdentity() {
+        var compressed = CodeServlet.selectEtag(ETAG, true);
+        assertEquals(ETAG, CodeServlet.selectEtag(ETAG, false));
+        assertNotEquals(ETAG, compressed);
+        assertTrue(compressed.startsWith("\"") && compressed.endsWith("\""));
+        assertFalse(CodeServlet.matchesEtag(ETAG, compressed));
+        assertFalse(CodeServlet.matchesEtag(compressed, ETAG));
+    }
+}
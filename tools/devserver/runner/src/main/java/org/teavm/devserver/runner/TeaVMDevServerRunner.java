@@ -120,6 +120,10 @@ public final class TeaVMDevServerRunner {
                 .desc("automatically reload page when compilation completes")
                 .longOpt("auto-reload")
                 .get());
+        options.addOption(Option.builder()
+                .desc("replace changed methods in running page instead of reloading it, when possible")
+                .longOpt("hot-patch")
+                .get());
         options.addOption(Option.builder("v")
                 .desc("display more messages on server log")
                 .longOpt("verbose")
@@ -216,6 +220,7 @@ public final class TeaVMDevServerRunner {
         devServer.setIndicator(commandLine.hasOption("indicator"));
         devServer.setDeobfuscateStack(commandLine.hasOption("deobfuscate-stack"));
         devServer.setReloadedAutomatically(commandLine.hasOption("auto-reload"));
+        devServer.setHotPatching(commandLine.hasOption("hot-patch"));
         if (commandLine.hasOption("port")) {
             try {
                 devServer.setPort(Integer.parseInt(commandLine.getOptionValue("port")));
@@ -77,6 +77,7 @@ class TeaVMExtensionImpl extends TeaVMBaseExtensionImpl implements TeaVMExtensio
                 .map(Boolean::parseBoolean).orElse(isDebug));
         js.getDevServer().getIndicator().convention(property("js.devServer.indicator").map(Boolean::parseBoolean));
         js.getDevServer().getAutoReload().convention(property("js.devServer.autoReload").map(Boolean::parseBoolean));
+        js.getDevServer().getHotPatch().convention(property("js.devServer.hotPatch").map(Boolean::parseBoolean));
         js.getDevServer().getPort().convention(property("js.devServer.port").map(Integer::parseInt));
         js.getDevServer().getProxyUrl().convention(property("js.devServer.proxy.url"));
         js.getDevServer().getProxyPath().convention(property("js.devServer.proxy.path"));
@@ -154,6 +155,7 @@ class TeaVMExtensionImpl extends TeaVMBaseExtensionImpl implements TeaVMExtensio
                 .orElse(isDebug));
         all.getOptimization().convention(OptimizationLevel.BALANCED);
         all.getFastGlobalAnalysis().convention(property("fastGlobalAnalysis").map(Boolean::parseBoolean).orElse(false));
+        all.getPrefetchClasses().convention(property("prefetchClasses").map(Boolean::parseBoolean).orElse(true));
         all.getOutOfProcess().convention(property("outOfProcess").map(Boolean::parseBoolean).orElse(false));
         all.getProcessMemory().convention(property("processMemory").map(Integer::parseInt).orElse(512));
     }
@@ -223,6 +225,7 @@ class TeaVMExtensionImpl extends TeaVMBaseExtensionImpl implements TeaVMExtensio
         target.getOutputDir().convention(source.getOutputDir());
         target.getDebugInformation().convention(source.getDebugInformation());
         target.getFastGlobalAnalysis().convention(source.getFastGlobalAnalysis());
+        target.getPrefetchClasses().convention(source.getPrefetchClasses());
         target.getProperties().putAll(source.getProperties());
 
         target.getOutOfProcess().convention(source.getOutOfProcess());
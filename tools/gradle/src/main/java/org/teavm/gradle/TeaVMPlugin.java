@@ -168,6 +168,7 @@ public class TeaVMPlugin implements Plugin<Project> {
             task.getServerClasspath().from(configuration);
             task.getStackDeobfuscated().convention(js.getDevServer().getStackDeobfuscated());
             task.getIndicator().convention(js.getDevServer().getIndicator());
+            task.getHotPatch().convention(js.getDevServer().getHotPatch());
 
             var sourceSets = project.getExtensions().findByType(SourceSetContainer.class);
             if (sourceSets != null) {
@@ -403,6 +404,7 @@ public class TeaVMPlugin implements Plugin<Project> {
         task.getPreservedClasses().addAll(configuration.getPreservedClasses());
         task.getDebugInformation().convention(configuration.getDebugInformation());
         task.getFastGlobalAnalysis().convention(configuration.getFastGlobalAnalysis());
+        task.getPrefetchClasses().convention(configuration.getPrefetchClasses());
         task.getOptimization().convention(configuration.getOptimization());
         task.getOutOfProcess().convention(configuration.getOutOfProcess());
         task.getProcessMemory().convention(configuration.getProcessMemory());
@@ -27,6 +27,8 @@ public interface TeaVMCommonConfiguration {
 
     Property<Boolean> getFastGlobalAnalysis();
 
+    Property<Boolean> getPrefetchClasses();
+
     Property<OptimizationLevel> getOptimization();
 
     MapProperty<String, String> getProperties();
@@ -21,4 +21,6 @@ public interface TeaVMJSDevServerConfiguration extends TeaVMDevServerConfigurati
     Property<Boolean> getStackDeobfuscated();
 
     Property<Boolean> getIndicator();
+
+    Property<Boolean> getHotPatch();
 }
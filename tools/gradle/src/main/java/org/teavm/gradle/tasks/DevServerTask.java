@@ -99,6 +99,10 @@ public abstract class DevServerTask extends DefaultTask {
     @Optional
     public abstract Property<Boolean> getAutoReload();
 
+    @Input
+    @Optional
+    public abstract Property<Boolean> getHotPatch();
+
     @Input
     @Optional
     public abstract Property<String> getProxyUrl();
@@ -176,6 +180,7 @@ public abstract class DevServerTask extends DefaultTask {
         pm.setStackDeobfuscated(!getStackDeobfuscated().isPresent() || getStackDeobfuscated().get());
         pm.setIndicator(getIndicator().isPresent() && getIndicator().get());
         pm.setAutoReload(getAutoReload().isPresent() && getAutoReload().get());
+        pm.setHotPatch(getHotPatch().isPresent() && getHotPatch().get());
 
         if (getPort().isPresent()) {
             pm.setPort(getPort().get());
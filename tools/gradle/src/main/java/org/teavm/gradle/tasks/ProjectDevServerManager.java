@@ -51,6 +51,7 @@ public class ProjectDevServerManager {
     private int runningPort;
     private Set<File> runningSources = new HashSet<>();
     private boolean runningAutoReload;
+    private boolean runningHotPatch;
     private String runningProxyUrl;
     private String runningProxyPath;
     private List<String> runningStaticDirs = new ArrayList<>();
@@ -147,6 +148,10 @@ public class ProjectDevServerManager {
         client.setAutoReload(autoReload);
     }
 
+    public void setHotPatch(boolean hotPatch) {
+        client.setHotPatch(hotPatch);
+    }
+
     public void setProxyUrl(String proxyUrl) {
         client.setProxyUrl(proxyUrl);
     }
@@ -239,6 +244,7 @@ public class ProjectDevServerManager {
         runningSources.clear();
         runningSources.addAll(client.getSources());
         runningAutoReload = client.isAutoReload();
+        runningHotPatch = client.isHotPatch();
         runningProxyUrl = client.getProxyUrl();
         runningProxyPath = client.getProxyPath();
         runningStaticDirs.clear();
@@ -268,6 +274,7 @@ public class ProjectDevServerManager {
                 && client.getPort() == runningPort
                 && Objects.equals(client.getSources(), runningSources)
                 && client.isAutoReload() == runningAutoReload
+                && client.isHotPatch() == runningHotPatch
                 && Objects.equals(client.getProxyUrl(), runningProxyUrl)
                 && Objects.equals(client.getProxyPath(), runningProxyPath)
                 && Objects.equals(client.getStaticDirs(), runningStaticDirs)
@@ -32,6 +32,8 @@ dependencies {
     implementation(project(":tools:core"))
     implementation(project(":tools:browser-runner"))
     runtimeOnly(project(":tools:deobfuscator-wasm-gc"))
+
+    testImplementation(libs.junit)
 }
 
 teavmPublish {
@@ -16,8 +16,10 @@
 package org.teavm.junit;
 
 import static org.teavm.junit.PropertyNames.C_COMPILER;
+import static org.teavm.junit.PropertyNames.C_CONSERVATIVE_STACK_SCANNING;
 import static org.teavm.junit.PropertyNames.C_ENABLED;
 import static org.teavm.junit.PropertyNames.C_LINE_NUMBERS;
+import static org.teavm.junit.PropertyNames.C_MULTITHREADED;
 import static org.teavm.junit.PropertyNames.C_RUN_WRAPPER;
 import static org.teavm.junit.PropertyNames.OPTIMIZED;
 import static org.teavm.junit.TestUtil.resourceToFile;
@@ -79,6 +81,12 @@ class CPlatformSupport extends TestPlatformSupport<CTarget> {
         if (Boolean.getBoolean(OPTIMIZED)) {
             configurations.add(TeaVMTestConfiguration.C_OPTIMIZED);
         }
+        if (Boolean.getBoolean(C_CONSERVATIVE_STACK_SCANNING)) {
+            configurations.add(TeaVMTestConfiguration.C_CONSERVATIVE_STACK_SCANNING);
+        }
+        if (Boolean.getBoolean(C_MULTITHREADED)) {
+            configurations.add(TeaVMTestConfiguration.C_MULTITHREADED);
+        }
         return configurations;
     }
 
@@ -35,6 +35,15 @@ class CRunStrategy implements TestRunStrategy {
         this.wrapperCommand = wrapperCommand;
     }
 
+    @Override
+    public void prepare(TestRun run) throws IOException {
+        try {
+            compile(new File(run.getGroup().getBaseDirectory(), run.getGroup().getFileName()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
     @Override
     public void runTest(TestRun run) throws IOException {
         try {
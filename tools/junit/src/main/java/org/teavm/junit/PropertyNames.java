@@ -28,10 +28,14 @@ final class PropertyNames {
     static final String C_COMPILER = "teavm.junit.c.compiler";
     static final String C_RUN_WRAPPER = "teavm.junit.c.runWrapper";
     static final String C_LINE_NUMBERS = "teavm.junit.c.lineNumbers";
+    static final String C_CONSERVATIVE_STACK_SCANNING = "teavm.junit.c.conservativeStackScanning";
+    static final String C_MULTITHREADED = "teavm.junit.c.multithreaded";
     static final String MINIFIED = "teavm.junit.minified";
     static final String OPTIMIZED = "teavm.junit.optimized";
     static final String SOURCE_DIRS = "teavm.junit.sourceDirs";
     static final String C_CLASS_LIST_FILE = "teavm.junit.c.classListFile";
+    static final String THREADS = "teavm.junit.threads";
+    static final String BUILD_CACHE = "teavm.junit.buildCache";
 
     private PropertyNames() {
     }
@@ -143,4 +143,38 @@ interface TeaVMTestConfiguration<T extends TeaVMTarget> {
         public void apply(CTarget target) {
         }
     };
+
+    TeaVMTestConfiguration<CTarget> C_CONSERVATIVE_STACK_SCANNING = new TeaVMTestConfiguration<>() {
+        @Override
+        public String getSuffix() {
+            return "conservative";
+        }
+
+        @Override
+        public void apply(TeaVM vm) {
+            vm.setOptimizationLevel(TeaVMOptimizationLevel.SIMPLE);
+        }
+
+        @Override
+        public void apply(CTarget target) {
+            target.setConservativeStackScanning(true);
+        }
+    };
+
+    TeaVMTestConfiguration<CTarget> C_MULTITHREADED = new TeaVMTestConfiguration<>() {
+        @Override
+        public String getSuffix() {
+            return "multithreaded";
+        }
+
+        @Override
+        public void apply(TeaVM vm) {
+            vm.setOptimizationLevel(TeaVMOptimizationLevel.SIMPLE);
+        }
+
+        @Override
+        public void apply(CTarget target) {
+            target.setMultithreaded(true);
+        }
+    };
 }
@@ -41,6 +41,12 @@ import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -97,20 +103,36 @@ public class TeaVMTestRunner extends Runner implements Filterable {
     private List<TestRun> runsInCurrentClass = new ArrayList<>();
     private static List<TestPlatformSupport<?>> platforms = new ArrayList<>();
     private List<TestPlatformSupport<?>> participatingPlatforms = new ArrayList<>();
+    private static ExecutorService executor;
+    private TestRunPreparation preparation = new TestRunPreparation(executor,
+            run -> runners.get(run.getGroup().getKind()));
+    private static boolean buildCacheEnabled = Boolean.getBoolean(PropertyNames.BUILD_CACHE);
 
     static {
         classLoader = TeaVMTestRunner.class.getClassLoader();
         classSource = getClassSource(classLoader);
 
+        var platformReferenceCache = referenceCache;
+        var threads = Integer.parseInt(System.getProperty(PropertyNames.THREADS, "1"));
+        if (threads > 1) {
+            classSource = new SynchronizedClassHolderSource(classSource);
+            platformReferenceCache = null;
+            executor = Executors.newFixedThreadPool(threads, runnable -> {
+                var thread = new Thread(runnable, "TeaVM test worker");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+
         String outputPath = System.getProperty(PATH_PARAM);
         if (outputPath != null) {
             outputDir = new File(outputPath);
         }
 
-        platforms.add(new JSPlatformSupport(classSource, referenceCache));
-        platforms.add(new WebAssemblyGCPlatformSupport(classSource, referenceCache,
+        platforms.add(new JSPlatformSupport(classSource, platformReferenceCache));
+        platforms.add(new WebAssemblyGCPlatformSupport(classSource, platformReferenceCache,
                 Boolean.parseBoolean(System.getProperty(PropertyNames.WASM_GC_DISASM))));
-        platforms.add(new CPlatformSupport(classSource, referenceCache));
+        platforms.add(new CPlatformSupport(classSource, platformReferenceCache));
 
         for (var platform : platforms) {
             if (platform.isEnabled() && !platform.getConfigurations().isEmpty()) {
@@ -177,6 +199,11 @@ public class TeaVMTestRunner extends Runner implements Filterable {
             return;
         }
 
+        for (var testsForPlatform : tests) {
+            preparation.prepare(testsForPlatform.runs.values().stream().flatMap(List::stream)
+                    .collect(Collectors.toList()));
+        }
+
         var skipJvmForClass = !testClass.isAnnotationPresent(SkipJVM.class);
 
         for (var child : children) {
@@ -212,6 +239,7 @@ public class TeaVMTestRunner extends Runner implements Filterable {
             }
         }
 
+        preparation.awaitRemaining();
         for (var testsForPlatform : tests) {
             var runner = runners.get(testsForPlatform.platform.getPlatform());
             runner.cleanup();
@@ -279,9 +307,15 @@ public class TeaVMTestRunner extends Runner implements Filterable {
     }
 
     private List<PlatformClassTests> compileWholeClass(List<Method> children, RunNotifier notifier) {
-        var result = new ArrayList<PlatformClassTests>();
+        var compilations = new ArrayList<Future<List<ConfigurationCompilation>>>();
         for (var platformSupport : participatingPlatforms) {
-            var item = compileClassForPlatform(platformSupport, children, testClass, getDescription(), notifier);
+            compilations.add(submit(() -> compileClassForPlatform(platformSupport, children)));
+        }
+
+        var result = new ArrayList<PlatformClassTests>();
+        for (var i = 0; i < compilations.size(); ++i) {
+            var item = completeClassForPlatform(participatingPlatforms.get(i), await(compilations.get(i)),
+                    testClass, getDescription(), notifier);
             if (item == null) {
                 return null;
             }
@@ -294,25 +328,63 @@ public class TeaVMTestRunner extends Runner implements Filterable {
     }
 
     @SuppressWarnings("unchecked")
-    private PlatformClassTests compileClassForPlatform(TestPlatformSupport<?> platform, List<Method> children,
-            Class<?> cls, Description description, RunNotifier notifier) {
+    private List<ConfigurationCompilation> compileClassForPlatform(TestPlatformSupport<?> platform,
+            List<Method> children) {
+        if (!platform.isEnabled() || !hasChildrenToRun(children, platform.getPlatform())) {
+            return null;
+        }
+        var result = new ArrayList<ConfigurationCompilation>();
+        var path = getOutputPathForClass(platform);
+        for (var configuration : platform.getConfigurations()) {
+            var castPlatform = (TestPlatformSupport<TeaVMTarget>) platform;
+            var castConfiguration = (TeaVMTestConfiguration<TeaVMTarget>) configuration;
+            var compilation = new ConfigurationCompilation();
+            compilation.configuration = configuration;
+            String cacheKey = null;
+            if (buildCacheEnabled) {
+                cacheKey = TestBuildCache.key(testClass.getName(), platform.getPlatform(), configuration,
+                        methodsToCompile(children, platform.getPlatform()));
+                var outputFile = platform.getOutputFile(path, "classTest", configuration.getSuffix(),
+                        platform.getExtension());
+                if (TestBuildCache.isUpToDate(outputFile, cacheKey)) {
+                    compilation.result = new CompileResult();
+                    compilation.result.file = outputFile;
+                    createWholeClassRuns(children, platform.getPlatform(), configuration, compilation.runs);
+                    result.add(compilation);
+                    continue;
+                }
+                TestBuildCache.invalidate(outputFile);
+            }
+            compilation.result = castPlatform.compile(wholeClass(children, platform.getPlatform(), configuration,
+                    compilation.runs), "classTest", castConfiguration, path, testClass);
+            if (cacheKey != null && compilation.result.success) {
+                TestBuildCache.markUpToDate(compilation.result.file, cacheKey);
+            }
+            result.add(compilation);
+            if (!compilation.result.success) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    private PlatformClassTests completeClassForPlatform(TestPlatformSupport<?> platform,
+            List<ConfigurationCompilation> compilations, Class<?> cls, Description description,
+            RunNotifier notifier) {
         var platformClassTests = new PlatformClassTests();
         var isModule = cls.isAnnotationPresent(JsModuleTest.class);
-        if (platform.isEnabled() && hasChildrenToRun(children, platform.getPlatform())) {
+        if (compilations != null) {
             platformClassTests.platform = platform;
             var path = getOutputPathForClass(platform);
-            for (var configuration : platform.getConfigurations()) {
-                var castPlatform = (TestPlatformSupport<TeaVMTarget>) platform;
-                var castConfiguration = (TeaVMTestConfiguration<TeaVMTarget>) configuration;
-                var runs = new ArrayList<TestRun>();
-                var result = castPlatform.compile(wholeClass(children, platform.getPlatform(), configuration, runs),
-                        "classTest", castConfiguration, path, testClass);
+            for (var compilation : compilations) {
+                var configuration = compilation.configuration;
+                var result = compilation.result;
                 if (!result.success) {
                     notifier.fireTestFailure(createFailure(description, result));
                     return null;
                 }
                 var group = new TestRunGroup(path, result.file.getName(), platform.getPlatform(), isModule);
-                for (var run : runs) {
+                for (var run : compilation.runs) {
                     run.group = group;
                     platformClassTests.runs.computeIfAbsent(run.getMethod(), m -> new ArrayList<>()).add(run);
                     platform.additionalOutput(path, new File(path, run.getMethod().getName()),
@@ -387,6 +459,7 @@ public class TeaVMTestRunner extends Runner implements Filterable {
 
             try {
                 prepareCompiledTest(child, notifier, runs);
+                preparation.prepare(runs);
 
                 for (var run : runs) {
                     try {
@@ -396,6 +469,7 @@ public class TeaVMTestRunner extends Runner implements Filterable {
                         break;
                     }
                 }
+                preparation.awaitRemaining();
 
                 for (var run : runs) {
                     var strategy = runners.get(run.getGroup().getKind());
@@ -417,17 +491,19 @@ public class TeaVMTestRunner extends Runner implements Filterable {
         MethodReference reference = new MethodReference(child.getDeclaringClass().getName(), descriptor);
 
         try {
+            var compilations = new ArrayList<Future<List<ConfigurationCompilation>>>();
             for (var platform : participatingPlatforms) {
-                if (platform.isEnabled() && shouldRunChild(child, platform.getPlatform())) {
+                compilations.add(submit(() -> compileSingleTestForPlatform(platform, child)));
+            }
+            for (var i = 0; i < compilations.size(); ++i) {
+                var platform = participatingPlatforms.get(i);
+                var platformCompilations = await(compilations.get(i));
+                if (platformCompilations != null) {
                     File outputPath = getOutputPath(child, platform);
-                    for (var configuration : platform.getConfigurations()) {
-                        @SuppressWarnings("unchecked")
-                        var castPlatform = (TestPlatformSupport<TeaVMTarget>) platform;
-                        @SuppressWarnings("unchecked")
-                        var castConfig = (TeaVMTestConfiguration<TeaVMTarget>) configuration;
-                        var compileResult = castPlatform.compile(singleTest(child), "test", castConfig, outputPath,
-                                child);
-                        var run = prepareRun(configuration, child, compileResult, notifier, platform.getPlatform());
+                    for (var compilation : platformCompilations) {
+                        var configuration = compilation.configuration;
+                        var run = prepareRun(configuration, child, compilation.result, notifier,
+                                platform.getPlatform());
                         if (run != null) {
                             runs.add(run);
                             platform.additionalSingleTestOutput(outputPath, configuration, reference);
@@ -441,6 +517,55 @@ public class TeaVMTestRunner extends Runner implements Filterable {
         }
     }
 
+    @SuppressWarnings("unchecked")
+    private List<ConfigurationCompilation> compileSingleTestForPlatform(TestPlatformSupport<?> platform,
+            Method child) {
+        if (!platform.isEnabled() || !shouldRunChild(child, platform.getPlatform())) {
+            return null;
+        }
+        var result = new ArrayList<ConfigurationCompilation>();
+        File outputPath = getOutputPath(child, platform);
+        for (var configuration : platform.getConfigurations()) {
+            var castPlatform = (TestPlatformSupport<TeaVMTarget>) platform;
+            var castConfig = (TeaVMTestConfiguration<TeaVMTarget>) configuration;
+            var compilation = new ConfigurationCompilation();
+            compilation.configuration = configuration;
+            compilation.result = castPlatform.compile(singleTest(child), "test", castConfig, outputPath, child);
+            result.add(compilation);
+        }
+        return result;
+    }
+
+    private static <T> Future<T> submit(Callable<T> task) {
+        if (executor != null) {
+            return executor.submit(task);
+        }
+        var result = new CompletableFuture<T>();
+        try {
+            result.complete(task.call());
+        } catch (Throwable e) {
+            result.completeExceptionally(e);
+        }
+        return result;
+    }
+
+    private static <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
     static String[] getExpectedExceptions(MethodReader method) {
         AnnotationReader annot = method.getAnnotations().get(JUNIT4_TEST);
         if (annot != null) {
@@ -805,6 +930,7 @@ public class TeaVMTestRunner extends Runner implements Filterable {
 
     private void submitRun(TestRun run) throws IOException {
         runsInCurrentClass.add(run);
+        preparation.await(run);
         var strategy = runners.get(run.getGroup().getKind());
         if (strategy == null) {
             return;
@@ -846,22 +972,31 @@ public class TeaVMTestRunner extends Runner implements Filterable {
             Properties properties = new Properties();
             applyProperties(testClass, properties);
             vm.setProperties(properties);
-            List<MethodReference> methodReferences = new ArrayList<>();
-            for (Method method : filterChildren(methods, platform)) {
-                if (isIgnored(method)) {
-                    continue;
-                }
-                ClassHolder classHolder = classSource.get(method.getDeclaringClass().getName());
-                MethodHolder methodHolder = classHolder.getMethod(getDescriptor(method));
-                methodReferences.add(methodHolder.getReference());
-                var run = new TestRun(generateName(method.getName(), configuration), method,
-                        methodHolder.getReference().toString());
-                runs.add(run);
-            }
+            var methodReferences = createWholeClassRuns(methods, platform, configuration, runs);
             new TestEntryPointTransformerForWholeClass(methodReferences, testClass.getName()).install(vm);
         };
     }
 
+    private List<MethodReference> createWholeClassRuns(List<Method> methods, TestPlatform platform,
+            TeaVMTestConfiguration<?> configuration, List<TestRun> runs) {
+        List<MethodReference> methodReferences = new ArrayList<>();
+        for (Method method : methodsToCompile(methods, platform)) {
+            ClassHolder classHolder = classSource.get(method.getDeclaringClass().getName());
+            MethodHolder methodHolder = classHolder.getMethod(getDescriptor(method));
+            methodReferences.add(methodHolder.getReference());
+            var run = new TestRun(generateName(method.getName(), configuration), method,
+                    methodHolder.getReference().toString());
+            runs.add(run);
+        }
+        return methodReferences;
+    }
+
+    private List<Method> methodsToCompile(List<Method> methods, TestPlatform platform) {
+        return filterChildren(methods, platform).stream()
+                .filter(method -> !isIgnored(method))
+                .collect(Collectors.toList());
+    }
+
     private boolean isIgnored(Method method) {
         return getAnnotation(method, JUNIT4_IGNORE) != null
                 || getAnnotation(method, TESTNG_IGNORE) != null
@@ -1033,6 +1168,12 @@ public class TeaVMTestRunner extends Runner implements Filterable {
         return (char) (digit < 10 ? '0' + digit : 'A' + digit - 10);
     }
 
+    private static class ConfigurationCompilation {
+        TeaVMTestConfiguration<?> configuration;
+        CompileResult result;
+        List<TestRun> runs = new ArrayList<>();
+    }
+
     private static class PlatformClassTests {
         TestPlatformSupport<?> platform;
         LinkedHashMap<Method, List<TestRun>> runs = new LinkedHashMap<>();
@@ -0,0 +1,166 @@
+/*
+ *  Copyright 2026 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.junit;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Allows to reuse output of a test class compilation when neither the classpath nor the compilation
+ * parameters changed since the previous run. Classpath is fingerprinted once per JVM: directories by contents
+ * of their files, since build tools rewrite them in place, and archives by size and modification time, which is
+ * enough to notice a rebuilt dependency without reading it. Key also includes the set of compiled test methods,
+ * since a filtered run compiles only some of them, and all system properties that affect generated code.
+ */
+final class TestBuildCache {
+    private static final String MARKER_EXTENSION = ".teavmcache";
+    private static final String[] OUTPUT_PROPERTIES = {
+            PropertyNames.JS_DECODE_STACK,
+            PropertyNames.WASM_GC_DISASM,
+            PropertyNames.C_LINE_NUMBERS,
+            PropertyNames.C_CONSERVATIVE_STACK_SCANNING,
+            PropertyNames.C_MULTITHREADED,
+            PropertyNames.MINIFIED,
+            PropertyNames.OPTIMIZED,
+            PropertyNames.SOURCE_DIRS
+    };
+    private static String classpathFingerprint;
+
+    private TestBuildCache() {
+    }
+
+    static String key(String className, TestPlatform platform, TeaVMTestConfiguration<?> configuration,
+            List<Method> methods) {
+        var sb = new StringBuilder();
+        sb.append(getClasspathFingerprint()).append('\n');
+        sb.append(className).append('\n');
+        sb.append(platform.name()).append('\n');
+        sb.append(configuration.getSuffix()).append('\n');
+        methods.stream()
+                .map(method -> method.getDeclaringClass().getName() + "." + method.getName())
+                .sorted()
+                .forEach(method -> sb.append(method).append('\n'));
+        for (var property : OUTPUT_PROPERTIES) {
+            sb.append(property).append('=').append(System.getProperty(property, "")).append('\n');
+        }
+        return toHex(newDigest().digest(sb.toString().getBytes(UTF_8)));
+    }
+
+    static boolean isUpToDate(File outputFile, String key) {
+        var marker = markerFile(outputFile);
+        if (!outputFile.exists() || !marker.isFile()) {
+            return false;
+        }
+        try {
+            return Files.readString(marker.toPath(), UTF_8).equals(key);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    static void markUpToDate(File outputFile, String key) {
+        try {
+            Files.writeString(markerFile(outputFile).toPath(), key, UTF_8);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    static void invalidate(File outputFile) {
+        markerFile(outputFile).delete();
+    }
+
+    private static File markerFile(File outputFile) {
+        return new File(outputFile.getPath() + MARKER_EXTENSION);
+    }
+
+    private static synchronized String getClasspathFingerprint() {
+        if (classpathFingerprint == null) {
+            classpathFingerprint = fingerprint(System.getProperty("java.class.path", ""));
+        }
+        return classpathFingerprint;
+    }
+
+    static String fingerprint(String classpath) {
+        var digest = newDigest();
+        for (var entry : classpath.split(File.pathSeparator)) {
+            if (!entry.isEmpty()) {
+                var file = new File(entry);
+                if (file.isDirectory()) {
+                    fingerprintDirectory(file, file.getName(), digest);
+                } else if (file.isFile()) {
+                    digest.update(file.getPath().getBytes(UTF_8));
+                    digest.update((byte) 0);
+                    digest.update((file.length() + ":" + file.lastModified()).getBytes(UTF_8));
+                    digest.update((byte) 0);
+                }
+            }
+        }
+        return toHex(digest.digest());
+    }
+
+    private static void fingerprintDirectory(File file, String path, MessageDigest digest) {
+        if (file.isDirectory()) {
+            var children = file.listFiles();
+            if (children != null) {
+                Arrays.sort(children, Comparator.comparing(File::getName));
+                for (var child : children) {
+                    fingerprintDirectory(child, path + "/" + child.getName(), digest);
+                }
+            }
+        } else if (file.isFile()) {
+            digest.update(path.getBytes(UTF_8));
+            digest.update((byte) 0);
+            try (var input = new FileInputStream(file)) {
+                var buffer = new byte[8192];
+                while (true) {
+                    int count = input.read(buffer);
+                    if (count < 0) {
+                        break;
+                    }
+                    digest.update(buffer, 0, count);
+                }
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        var sb = new StringBuilder();
+        for (var b : bytes) {
+            sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return sb.toString();
+    }
+}
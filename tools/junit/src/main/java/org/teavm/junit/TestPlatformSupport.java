@@ -85,7 +85,7 @@ abstract class TestPlatformSupport<T extends TeaVMTarget> {
                     .setClassLoader(classLoader)
                     .setClassSource(classSource)
                     .setResourceProvider(new ClasspathResourceProvider(classLoader))
-                    .setReferenceCache(referenceCache)
+                    .setReferenceCache(referenceCache != null ? referenceCache : new ReferenceCache())
                     .setDependencyAnalyzerFactory(dependencyAnalyzerFactory)
                     .setStrict(true)
                     .build();
@@ -0,0 +1,86 @@
+/*
+ *  Copyright 2026 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.junit;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+class TestRunPreparation {
+    private ExecutorService executor;
+    private Function<TestRun, TestRunStrategy> strategies;
+    private Map<TestRun, Future<?>> pendingRuns = new IdentityHashMap<>();
+
+    TestRunPreparation(ExecutorService executor, Function<TestRun, TestRunStrategy> strategies) {
+        this.executor = executor;
+        this.strategies = strategies;
+    }
+
+    void prepare(Iterable<TestRun> runs) {
+        if (executor == null) {
+            return;
+        }
+        for (var run : runs) {
+            var strategy = strategies.apply(run);
+            if (strategy != null) {
+                pendingRuns.put(run, executor.submit(() -> {
+                    strategy.prepare(run);
+                    return null;
+                }));
+            }
+        }
+    }
+
+    void await(TestRun run) throws IOException {
+        var future = pendingRuns.remove(run);
+        if (future == null) {
+            return;
+        }
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            var cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new RuntimeException(cause);
+        }
+    }
+
+    void awaitRemaining() {
+        for (var run : new ArrayList<>(pendingRuns.keySet())) {
+            try {
+                await(run);
+            } catch (IOException | RuntimeException e) {
+                // Run was not executed, so there's no test to report failure to
+            }
+        }
+    }
+}
@@ -24,6 +24,9 @@ interface TestRunStrategy {
     default void afterAll() {
     }
 
+    default void prepare(TestRun run) throws IOException {
+    }
+
     void runTest(TestRun run) throws IOException;
 
     void cleanup();
@@ -0,0 +1,120 @@
+/*
+ *  Copyright 2026 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.junit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import org.junit.After;
+import org.junit.Test;
+
+public class TestBuildCacheTest {
+    private Path directory;
+
+    public TestBuildCacheTest() throws IOException {
+        directory = Files.createTempDirectory("teavm-test-cache");
+    }
+
+    @After
+    public void cleanup() throws IOException {
+        try (var files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    @Test
+    public void hit() throws IOException {
+        var output = createOutput();
+        var key = key(method("first"), method("second"));
+        TestBuildCache.markUpToDate(output, key);
+        assertTrue(TestBuildCache.isUpToDate(output, key));
+        assertEquals(key, key(method("second"), method("first")));
+    }
+
+    @Test
+    public void miss() throws IOException {
+        var output = createOutput();
+        assertFalse(TestBuildCache.isUpToDate(output, key(method("first"))));
+
+        TestBuildCache.markUpToDate(output, key(method("first")));
+        assertFalse(TestBuildCache.isUpToDate(output, key(method("first"), method("second"))));
+        assertFalse(TestBuildCache.isUpToDate(new File(directory.toFile(), "missing.js"), key(method("first"))));
+    }
+
+    @Test
+    public void invalidation() throws IOException {
+        var output = createOutput();
+        var key = key(method("first"));
+        TestBuildCache.markUpToDate(output, key);
+        TestBuildCache.invalidate(output);
+        assertFalse(TestBuildCache.isUpToDate(output, key));
+    }
+
+    @Test
+    public void classpathChange() throws IOException {
+        var classes = Files.createDirectory(directory.resolve("classes"));
+        var classFile = classes.resolve("A.class");
+        Files.writeString(classFile, "first");
+        var jar = directory.resolve("lib.jar");
+        Files.writeString(jar, "library");
+        var classpath = classes + File.pathSeparator + jar;
+
+        var fingerprint = TestBuildCache.fingerprint(classpath);
+        assertEquals(fingerprint, TestBuildCache.fingerprint(classpath));
+
+        Files.writeString(classFile, "second");
+        var changedClass = TestBuildCache.fingerprint(classpath);
+        assertNotEquals(fingerprint, changedClass);
+
+        Files.writeString(jar, "rebuilt library");
+        assertNotEquals(changedClass, TestBuildCache.fingerprint(classpath));
+    }
+
+    private File createOutput() throws IOException {
+        var output = directory.resolve("classTest.js");
+        Files.writeString(output, "");
+        return output.toFile();
+    }
+
+    private static String key(Method... methods) {
+        return TestBuildCache.key(TestBuildCacheTest.class.getName(), TestPlatform.JAVASCRIPT,
+                TeaVMTestConfiguration.JS_DEFAULT, List.of(methods));
+    }
+
+    private static Method method(String name) {
+        try {
+            return Fixture.class.getMethod(name);
+        } catch (NoSuchMethodException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    public static class Fixture {
+        public void first() {
+        }
+
+        public void second() {
+        }
+    }
+}
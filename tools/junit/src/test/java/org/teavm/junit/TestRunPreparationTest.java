@@ -0,0 +1,150 @@
+/*
+ *  Copyright 2026 Alexey Andreev.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.teavm.junit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.After;
+import org.junit.Test;
+
+public class TestRunPreparationTest {
+    private ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    @After
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void preparesRunsConcurrently() throws IOException {
+        var first = new TestRun("first", null, null);
+        var second = new TestRun("second", null, null);
+        var bothStarted = new CountDownLatch(2);
+        var prepared = ConcurrentHashMap.<String>newKeySet();
+        var preparation = new TestRunPreparation(executor, run -> new Strategy() {
+            @Override
+            public void prepare(TestRun run) {
+                bothStarted.countDown();
+                try {
+                    bothStarted.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                prepared.add(run.getName());
+            }
+        });
+
+        preparation.prepare(List.of(first, second));
+        preparation.await(first);
+        preparation.await(second);
+
+        assertEquals(Set.of("first", "second"), prepared);
+    }
+
+    @Test
+    public void reportsOriginalException() {
+        var run = new TestRun("failing", null, null);
+        var error = new IOException("compiler crashed");
+        var preparation = new TestRunPreparation(executor, r -> new Strategy() {
+            @Override
+            public void prepare(TestRun run) throws IOException {
+                throw error;
+            }
+        });
+
+        preparation.prepare(List.of(run));
+        try {
+            preparation.await(run);
+            fail("Exception expected");
+        } catch (IOException e) {
+            assertSame(error, e);
+        }
+    }
+
+    @Test
+    public void reportsOriginalUncheckedException() throws IOException {
+        var run = new TestRun("failing", null, null);
+        var error = new IllegalStateException("bad state");
+        var preparation = new TestRunPreparation(executor, r -> new Strategy() {
+            @Override
+            public void prepare(TestRun run) {
+                throw error;
+            }
+        });
+
+        preparation.prepare(List.of(run));
+        try {
+            preparation.await(run);
+            fail("Exception expected");
+        } catch (IllegalStateException e) {
+            assertSame(error, e);
+        }
+    }
+
+    @Test
+    public void awaitsRemainingRuns() {
+        var prepared = ConcurrentHashMap.<String>newKeySet();
+        var preparation = new TestRunPreparation(executor, r -> new Strategy() {
+            @Override
+            public void prepare(TestRun run) throws IOException {
+                prepared.add(run.getName());
+                throw new IOException("ignored");
+            }
+        });
+
+        preparation.prepare(List.of(new TestRun("a", null, null), new TestRun("b", null, null)));
+        preparation.awaitRemaining();
+
+        assertEquals(Set.of("a", "b"), prepared);
+    }
+
+    @Test
+    public void preparesNothingWithoutExecutor() throws IOException {
+        var run = new TestRun("run", null, null);
+        var prepared = ConcurrentHashMap.<String>newKeySet();
+        var preparation = new TestRunPreparation(null, r -> new Strategy() {
+            @Override
+            public void prepare(TestRun run) {
+                prepared.add(run.getName());
+            }
+        });
+
+        preparation.prepare(List.of(run));
+        preparation.await(run);
+
+        assertTrue(prepared.isEmpty());
+    }
+
+    private abstract static class Strategy implements TestRunStrategy {
+        @Override
+        public void runTest(TestRun run) {
+        }
+
+        @Override
+        public void cleanup() {
+        }
+    }
+}
@@ -159,6 +159,13 @@ public class TeaVMCompileMojo extends AbstractMojo {
     @Parameter(property = "teavm.fastGlobalAnalysis", defaultValue = "false")
     private boolean fastGlobalAnalysis;
 
+    /**
+     * Whether classes are parsed on background threads ahead of time. When not set, prefetching
+     * is enabled for non-incremental builds only.
+     */
+    @Parameter(property = "teavm.prefetchEnabled")
+    private Boolean prefetchEnabled;
+
     @Parameter(property = "teavm.targetType", defaultValue = "JAVASCRIPT")
     private TeaVMTargetType targetType = TeaVMTargetType.JAVASCRIPT;
 
@@ -362,6 +369,9 @@ public class TeaVMCompileMojo extends AbstractMojo {
             }
             builder.setOptimizationLevel(optimizationLevel);
             builder.setFastDependencyAnalysis(fastGlobalAnalysis);
+            if (prefetchEnabled != null) {
+                builder.setPrefetchEnabled(prefetchEnabled);
+            }
             if (classesToPreserve != null) {
                 builder.setClassesToPreserve(classesToPreserve);
             }